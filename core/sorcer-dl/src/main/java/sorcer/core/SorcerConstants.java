@@ -281,6 +281,24 @@ public interface SorcerConstants {
 
 	public static final String LOOKUP_MAX_MATCHES = "lookup.maxMatches";
 
+	public static final String PROXY_CACHE_SIZE = "proxy.cache.size";
+
+	public static final String SCRIPT_CACHE_SIZE = "script.cache.size";
+
+	public static final String SCRIPT_PRECOMPILE = "script.precompile";
+
+	public static final String FILE_CACHE_DIR = "file.cache.dir";
+
+	public static final String FILE_CACHE_SIZE = "file.cache.size";
+
+	public static final String SPACE_HEARTBEAT = "space.heartbeat";
+
+	public static final String SPACE_RETRY_MAX = "space.retry.max";
+
+	public static final String SOS_CACHE_SIZE = "sos.cache.size";
+
+	public static final String SOS_CACHE_TTL = "sos.cache.ttl";
+
 	/**
 	 * SORCER Notifier Message Indexing Constants used by sorcer.notifier.
 	 * NotificationRetrievalListener* and the launcher
@@ -62,6 +62,21 @@ public interface MonitorUIManagement {
 	Map<Uuid, ExertionInfo> getMonitorableExertionInfo(Exec.State aspect, Principal principal)
 		throws RemoteException, MonitorException;
 
+	/**
+	 * Returns a page of the monitorable exertion infos of the principal in
+	 * the given state, newest first.
+	 * 
+	 * @param offset
+	 *            the number of matching exertions to skip
+	 * @param count
+	 *            the maximum number of exertion infos to return
+	 * @throws RemoteException
+	 *             if there is a communication error
+	 */
+	Map<Uuid, ExertionInfo> getMonitorableExertionInfo(Exec.State aspect, Principal principal,
+													   int offset, int count)
+		throws RemoteException, MonitorException;
+
 	/**
 	 * For this reference ID, which references a exertion in a monitor, get the
 	 * exertion if the principal has enough credentials.
@@ -86,6 +86,15 @@ public interface Cataloger extends Service, Remote {
 	 */
 	public Provider lookup(ServiceID sid) throws RemoteException;
 
+	/**
+	 * Returns the cached liveness and latency of the cataloged providers, as
+	 * maintained by the background health prober.
+	 *
+	 * @return the health of each cataloged provider by its service ID
+	 * @throws RemoteException
+	 */
+	public Map<ServiceID, ServiceHealth> getHealthStats() throws RemoteException;
+
 
 	/**
 	 * Returns at most maxMatches items matching the template, plus the total
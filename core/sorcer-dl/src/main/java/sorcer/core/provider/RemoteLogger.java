@@ -20,6 +20,7 @@ package sorcer.core.provider;
 import net.jini.core.event.EventRegistration;
 import net.jini.core.event.RemoteEventListener;
 import net.jini.core.lease.LeaseDeniedException;
+import sorcer.core.provider.logger.LogPage;
 import sorcer.core.provider.logger.LoggingConfig;
 
 import java.io.IOException;
@@ -44,8 +45,33 @@ public interface RemoteLogger extends Remote {
 
     public String[] getLogNames() throws RemoteException;
 
+    /**
+     * Returns all lines of the log file, use the paged methods for large logs.
+     */
     public List<String> getLog(String fileName) throws RemoteException;
 
+    /**
+     * Returns a page of lines of the log file.
+     *
+     * @param offset the first line, a negative offset counts from the end of the log
+     * @param limit the maximum number of lines
+     */
+    public LogPage getLog(String fileName, long offset, int limit) throws RemoteException;
+
+    /**
+     * Returns the lines appended to the log file since the position of a
+     * previous page, a negative position starts at the end of the log.
+     */
+    public LogPage followLog(String fileName, long position, int limit) throws RemoteException;
+
+    /**
+     * Returns a page of lines logged for the given mogram and provider ids,
+     * the values of {@link #KEY_MOGRAM_ID} and {@link #KEY_PROVIDER_ID}. A
+     * null id matches all.
+     */
+    public LogPage getLog(String fileName, String mogramId, String providerId, long offset, int limit)
+            throws RemoteException;
+
     public void deleteLog(String logName) throws RemoteException;
 
 
@@ -0,0 +1,91 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider;
+
+import net.jini.core.lookup.ServiceID;
+
+import java.io.Serializable;
+
+/**
+ * The liveness and latency of a service provider as last probed by the
+ * {@link Cataloger}.
+ */
+public class ServiceHealth implements Serializable {
+	private static final long serialVersionUID = 1L;
+
+	private final ServiceID serviceID;
+
+	private final String name;
+
+	private final boolean alive;
+
+	// duration of the last successful probe in milliseconds
+	private final long latency;
+
+	// time of the last completed probe, 0 if not probed yet
+	private final long lastProbeTime;
+
+	// failed probes in a row
+	private final int failures;
+
+	private final long probeCount;
+
+	public ServiceHealth(ServiceID serviceID, String name, boolean alive, long latency,
+						 long lastProbeTime, int failures, long probeCount) {
+		this.serviceID = serviceID;
+		this.name = name;
+		this.alive = alive;
+		this.latency = latency;
+		this.lastProbeTime = lastProbeTime;
+		this.failures = failures;
+		this.probeCount = probeCount;
+	}
+
+	public ServiceID getServiceID() {
+		return serviceID;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public boolean isAlive() {
+		return alive;
+	}
+
+	public long getLatency() {
+		return latency;
+	}
+
+	public long getLastProbeTime() {
+		return lastProbeTime;
+	}
+
+	public int getFailures() {
+		return failures;
+	}
+
+	public long getProbeCount() {
+		return probeCount;
+	}
+
+	@Override
+	public String toString() {
+		return name + " [" + serviceID + "] alive: " + alive + ", latency: " + latency
+				+ " ms, failures: " + failures + ", probes: " + probeCount;
+	}
+}
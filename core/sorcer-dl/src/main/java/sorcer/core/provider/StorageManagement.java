@@ -38,6 +38,11 @@ public interface StorageManagement {
 	final static String store_type = "store/type";
 	final static String store_size = "store/size";
 	final static String store_content_list = "store/content/list";
+	// versions and bulk retrieval of stored objects
+	final static String object_version = "object/version";
+	final static String object_uuid_list = "object/uuid/list";
+	final static String object_version_list = "object/version/list";
+	final static String object_retrieved_list = "object/retrieved/list";
 
 	public Context contextRetrieve(Context context) throws RemoteException,
 			ContextException;
@@ -0,0 +1,83 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * A page of lines of a remote log file. The offset of a page counts the
+ * matching lines, all lines of the file or the lines of a filtered log, the
+ * position is the byte offset in the file after the last line of the page
+ * and is used to follow the log as it grows.
+ */
+public class LogPage implements Serializable {
+	static final long serialVersionUID = 1L;
+
+	private final long offset;
+
+	private final List<String> lines;
+
+	private final long total;
+
+	private final long position;
+
+	public LogPage(long offset, List<String> lines, long total, long position) {
+		this.offset = offset;
+		this.lines = lines;
+		this.total = total;
+		this.position = position;
+	}
+
+	/**
+	 * Returns the index of the first line of this page among the matching
+	 * lines.
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	public List<String> getLines() {
+		return lines;
+	}
+
+	/**
+	 * Returns the number of matching lines when this page was read.
+	 */
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the offset of the page following this one.
+	 */
+	public long getNextOffset() {
+		return offset + lines.size();
+	}
+
+	/**
+	 * Returns the byte position after the last line of this page.
+	 */
+	public long getPosition() {
+		return position;
+	}
+
+	@Override
+	public String toString() {
+		return "[LogPage offset=" + offset + ", lines=" + lines.size() + ", total=" + total
+				+ ", position=" + position + ']';
+	}
+}
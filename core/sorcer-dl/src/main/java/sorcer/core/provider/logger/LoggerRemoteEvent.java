@@ -4,6 +4,8 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import org.rioproject.event.RemoteServiceEvent;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 
 /**
  * SORCER class
@@ -18,6 +20,9 @@ public class LoggerRemoteEvent extends RemoteServiceEvent implements Serializabl
     //private Vector providersList;
     private ILoggingEvent loggingEvent;
 
+    // a batch of events, the first one is also the loggingEvent
+    private List<ILoggingEvent> loggingEvents;
+
     public LoggerRemoteEvent(Object source) {
         super(source);
     }
@@ -28,7 +33,25 @@ public class LoggerRemoteEvent extends RemoteServiceEvent implements Serializabl
         this.loggingEvent= loggingEvent;
     }
 
+    /** Creates an event delivering a batch of log events */
+    public LoggerRemoteEvent(Object source, List<ILoggingEvent> loggingEvents) {
+        super(source);
+        this.loggingEvents = loggingEvents;
+        if (!loggingEvents.isEmpty())
+            loggingEvent = loggingEvents.get(0);
+    }
+
     public ILoggingEvent getLoggingEvent() {
         return loggingEvent;
     }
+
+    /**
+     * Returns all log events of this remote event in the order they were
+     * published.
+     */
+    public List<ILoggingEvent> getLoggingEvents() {
+        if (loggingEvents != null)
+            return loggingEvents;
+        return loggingEvent == null ? Collections.<ILoggingEvent>emptyList() : Collections.singletonList(loggingEvent);
+    }
 }
@@ -30,9 +30,11 @@ public interface Strategy extends Arg {
 	 * with exertions control context. Flow type specify the flow of control (
 	 * <code>SEQ</code> (sequential), <code>PAR</code> (parallel), and
 	 * <code>STEP</code> (stepwise)) for all component exertions at the same level.
+	 * <code>DAG</code> (dataflow) runs each component exertion as soon as all
+	 * the exertions it depends on by context pipes are done.
 	 */
 	public enum Flow implements Arg {
-		SEQ, PAR, STEP, AUTO, EXPLICIT;
+		SEQ, PAR, STEP, AUTO, EXPLICIT, DAG;
 
 		/* (non-Javadoc)
 		 * @see sorcer.service.Arg#getName()
@@ -8,6 +8,8 @@ import sorcer.service.Context;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
 import static sorcer.co.operator.*;
 import static sorcer.eo.operator.context;
@@ -64,4 +66,58 @@ public class ContextTest {
 //		logger.info("weak x1 = " + cxt.getSoftValue("arg/var/x1"));
 		assertEquals(cxt.getSoftValue("arg/var/x1"), 20.0);
 	}
+
+	@Test
+	public void pathQueries() throws Exception {
+		ServiceContext cxt = new ServiceContext("paths");
+		cxt.putValue("arg/x1", 1.0);
+		cxt.putValue("arg/x2", 2.0);
+		cxt.putValue("arg/x10", 10.0);
+		cxt.putValue("argx", 0.0);
+		cxt.putValue("result/y", 0.0);
+
+		assertEquals(Arrays.asList("arg/x1", "arg/x10", "arg/x2"), cxt.subpaths("arg"));
+		assertEquals(Arrays.asList("arg/x1", "arg/x10", "arg/x2", "argx"), cxt.pathsWithPrefix("arg"));
+		assertEquals(Arrays.asList("arg/x1", "arg/x10"), cxt.paths("arg/x1.*"));
+		assertEquals(Arrays.asList("arg/x1", "arg/x2", "argx"), cxt.paths("a.*x\\d?"));
+
+		cxt.remove("arg/x10");
+		assertEquals(Arrays.asList("arg/x1"), cxt.paths("arg/x1.*"));
+	}
+
+	@Test
+	public void markedPathQueries() throws Exception {
+		ServiceContext cxt = new ServiceContext("marks");
+		cxt.putValue("arg/x1", 1.0, "tag|a");
+		cxt.putValue("arg/x2", 2.0, "tag|a");
+		cxt.putValue("arg/x3", 3.0, "triplet|p|q|r");
+		cxt.putValue("arg/x4", 4.0, "triplet|p|q|s");
+		assertEquals(Arrays.asList("arg/x1", "arg/x2"), cxt.markedPaths("tag|a"));
+		assertEquals(Arrays.asList("arg/x3"), cxt.markedPaths("triplet|p|q|r"));
+
+		cxt.mark("arg/x2", "tag|b");
+		assertEquals(Arrays.asList("arg/x1"), cxt.markedPaths("tag|a"));
+		assertEquals(Arrays.asList("arg/x2"), cxt.markedPaths("tag|b"));
+
+		cxt.removeAttributeValue("arg/x1", "tag");
+		assertEquals(0, cxt.markedPaths("tag|a").size());
+	}
+
+	@Test
+	public void pathQueriesAfterRemoveThenPut() throws Exception {
+		ServiceContext cxt = new ServiceContext("paths");
+		cxt.putValue("arg/x1", 1.0);
+		cxt.putValue("arg/x2", 2.0);
+		assertEquals(Arrays.asList("arg/x1", "arg/x2"), cxt.pathsWithPrefix("arg"));
+
+		// the same number of paths, but a different one
+		remove(cxt, "arg/x1");
+		cxt.getData().put("arg/x3", 3.0);
+		assertEquals(Arrays.asList("arg/x2", "arg/x3"), cxt.pathsWithPrefix("arg"));
+
+		cxt.getData().remove("arg/x2");
+		cxt.getData().put("arg/x4", 4.0);
+		cxt.invalidatePaths();
+		assertEquals(Arrays.asList("arg/x3", "arg/x4"), cxt.paths("arg/x\\d"));
+	}
 }
@@ -1,17 +1,23 @@
 package sorcer.core.provider.exertmonitor;
 
 import com.sleepycat.collections.StoredMap;
+import com.sleepycat.collections.StoredSortedMap;
 import com.sleepycat.je.DatabaseException;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import net.jini.core.event.RemoteEventListener;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sorcer.test.ProjectContext;
 import org.sorcer.test.SorcerTestRunner;
 import sorcer.core.SorcerConstants;
+import sorcer.core.context.ServiceContext;
+import sorcer.core.exertion.NetTask;
 import sorcer.core.provider.MonitorManagementSession;
+import sorcer.core.provider.exertmonitor.db.JournalKey;
+import sorcer.service.Exec;
 import sorcer.util.GenericUtil;
 import sorcer.util.Sorcer;
 import sorcer.util.SorcerUtil;
@@ -22,6 +28,7 @@ import java.io.IOException;
 import java.util.*;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static sorcer.co.operator.list;
 
 /**
@@ -96,4 +103,32 @@ public class SessionDatabaseTest implements SorcerConstants {
 		Collections.sort(names);
 		assertEquals(names, ln);
 	}
+
+	@Test
+	public void sessionJournalTest() throws Exception {
+		MonitorSession session = new MonitorSession(new NetTask("t3"), (RemoteEventListener)null, 10);
+		UuidKey key = new UuidKey(session.getCookie());
+		runner.getViews().getSessionMap().put(key, session);
+
+		// changes appended after the snapshot are replayed in sequence order
+		StoredSortedMap<JournalKey, SessionEvent> journal = runner.getViews().getJournalMap();
+		journal.put(new JournalKey(session.getCookie(), 1), new SessionEvent(session.getCookie(),
+				Exec.DONE, new ServiceContext("done"), null));
+		journal.put(new JournalKey(session.getCookie(), 0), new SessionEvent(session.getCookie(),
+				Exec.RUNNING, new ServiceContext("running"), null));
+
+		try {
+			MonitorSession stored = (MonitorSession) runner.getViews().getSessionMap().get(key);
+			assertEquals(Exec.INITIAL, stored.getState());
+			for (SessionEvent event : journal.subMap(JournalKey.first(session.getCookie()),
+					JournalKey.last(session.getCookie())).values())
+				assertTrue(stored.replay(event));
+			assertEquals(Exec.DONE, stored.getState());
+			assertEquals("done", stored.getRuntimeExertion().getContext().getName());
+		} finally {
+			// the other test expects only its own sessions
+			runner.getViews().getSessionMap().remove(key);
+			journal.subMap(JournalKey.first(session.getCookie()), JournalKey.last(session.getCookie())).clear();
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package sorcer.dispatch;
 
+import net.jini.id.Uuid;
 import org.junit.Assert;
 import org.junit.Test;
 import sorcer.arithmetic.tester.provider.Adder;
@@ -8,13 +9,17 @@ import sorcer.arithmetic.tester.provider.Subtractor;
 import sorcer.arithmetic.tester.provider.impl.AdderImpl;
 import sorcer.arithmetic.tester.provider.impl.MultiplierImpl;
 import sorcer.arithmetic.tester.provider.impl.SubtractorImpl;
+import sorcer.core.dispatch.DataflowGraph;
 import sorcer.core.dispatch.ExertionSorter;
 import sorcer.core.provider.rendezvous.ServiceJobber;
 import sorcer.service.*;
 import sorcer.service.Strategy.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static sorcer.co.operator.*;
 import static sorcer.eo.operator.*;
@@ -164,11 +169,29 @@ public class ExertionSorterTest {
         ExertionSorter es = new ExertionSorter(job);
         System.out.println("After sorting");
         printAllExertions(es.getSortedJob());
-        Assert.assertEquals(Strategy.Flow.SEQ, es.getSortedJob().getFlowType());
+        Assert.assertEquals(Strategy.Flow.DAG, es.getSortedJob().getFlowType());
         Assert.assertEquals(Strategy.Flow.PAR, ((Exertion)es.getSortedJob().getMogram("j2")).getFlowType());
 
     }
 
+    @Test
+    public void testSorterDependencies() throws Exception {
+        Job job = createSrv();
+        ExertionSorter es = new ExertionSorter(job);
+        Mogram j2 = es.getSortedJob().getMogram("j2");
+        Mogram t3 = es.getSortedJob().getMogram("t3");
+        Map<Uuid, Set<Uuid>> deps = es.getDependencies(es.getSortedJob());
+        Assert.assertTrue(deps.get(j2.getId()).isEmpty());
+        Assert.assertEquals(Collections.singleton(j2.getId()), deps.get(t3.getId()));
+
+        DataflowGraph graph = new DataflowGraph(es.getSortedJob().getMograms(), deps);
+        Assert.assertEquals(2, graph.getCriticalPathLength());
+        Assert.assertEquals(Collections.singletonList(j2), graph.getReady());
+        Assert.assertEquals(Collections.singletonList(t3), graph.completed(j2.getId()));
+        Assert.assertTrue(graph.completed(t3.getId()).isEmpty());
+        Assert.assertTrue(graph.isDone());
+    }
+
     @Test
     public void testSorterSimple2() throws Exception {
         System.out.println("Before sorting");
@@ -1080,6 +1080,10 @@ public class operator extends Operator {
         return out;
     }
 
+    public static ColumnTable columnTable(Object... elems)  {
+        return new ColumnTable(dataTable(elems));
+    }
+
 
 	public static OutType out(Type type) {
 		return new OutType(type);
@@ -1495,7 +1499,7 @@ public class operator extends Operator {
 	public static void remove(ServiceContext entModel, String... paths)
 			throws RemoteException, ContextException {
 		for (String path : paths)
-			entModel.getData().remove(path);
+			entModel.remove(path);
 	}
 
     public static Map<String, List<ExecDependency>> disDeps(Domain model) {
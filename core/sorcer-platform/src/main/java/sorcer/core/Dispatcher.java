@@ -20,12 +20,22 @@ package sorcer.core;
 import net.jini.lease.LeaseRenewalManager;
 import sorcer.service.Arg;
 
+import java.util.concurrent.CompletableFuture;
+
  public interface Dispatcher {
 
     void exec(Arg... arg);
 
+    /**
+     * Starts dispatching in a pooled thread and returns the future of its
+     * result, completed as soon as the dispatcher is done or has failed.
+     */
+    CompletableFuture<DispatchResult> execAsync(Arg... arg);
+
     DispatchResult getResult();
 
+    CompletableFuture<DispatchResult> getResultFuture();
+
     LeaseRenewalManager getLrm();
 
     void setLrm(LeaseRenewalManager lrm);
@@ -536,6 +536,7 @@ public class ControlContext extends ServiceContext<Object> implements StrategyCo
 							map.remove(oldPath));
 			}
 		}
+		invalidateMarks();
 	}
 
 	public Context addAttributeValue(String attributeName, String attributeValue)
@@ -605,6 +606,7 @@ public class ControlContext extends ServiceContext<Object> implements StrategyCo
 			if (map != null && map.size() > 0 && map.containsKey(oldPath))
 				map.put(newPath, map.remove(oldPath));
 		}
+		invalidateMarks();
 	}
 
 	public void appendTrace(String info) {
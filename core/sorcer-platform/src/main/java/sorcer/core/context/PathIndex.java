@@ -0,0 +1,255 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.context;
+
+import sorcer.core.SorcerConstants;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * The index of the local paths of a {@link ServiceContext}. Paths are kept
+ * sorted, so all paths with a given prefix, and so a context subtree, are
+ * found in time proportional to the result. The paths of
+ * {@link ContextLink}s are kept apart, and the
+ * singleton attribute values of the metacontext are inverted to their marked
+ * paths.
+ * <p>
+ * The index is a cache, it is rebuilt by the context when the number of
+ * indexed paths differs from the context size, and the context checks the
+ * returned paths against its data.
+ */
+class PathIndex {
+
+	// the last character of any path with a given prefix
+	private static final char MAX_CHAR = Character.MAX_VALUE;
+
+	private static final int PATTERN_CACHE_SIZE = 256;
+
+	private static final Map<String, Pattern> patterns = Collections.synchronizedMap(
+			new LinkedHashMap<String, Pattern>(PATTERN_CACHE_SIZE, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Pattern> eldest) {
+					return size() > PATTERN_CACHE_SIZE;
+				}
+			});
+
+	private final ConcurrentSkipListSet<String> paths = new ConcurrentSkipListSet<String>();
+
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final ConcurrentSkipListSet<String> linkPaths = new ConcurrentSkipListSet<String>();
+
+	// attribute name to the index of its values
+	private final Map<String, AttributeIndex> attributes = new ConcurrentHashMap<String, AttributeIndex>();
+
+	PathIndex(Map<String, ?> data) {
+		for (Map.Entry<String, ?> e : data.entrySet())
+			put(e.getKey(), e.getValue());
+	}
+
+	void put(String path, Object value) {
+		if (paths.add(path))
+			size.incrementAndGet();
+		if (value instanceof ContextLink)
+			linkPaths.add(path);
+		else
+			linkPaths.remove(path);
+	}
+
+	void remove(Object path) {
+		if (paths.remove(path))
+			size.decrementAndGet();
+		linkPaths.remove(path);
+	}
+
+	int size() {
+		return size.get();
+	}
+
+	/**
+	 * Returns the sorted paths starting with the given prefix.
+	 */
+	List<String> pathsWithPrefix(String prefix) {
+		if (prefix.length() == 0)
+			return new ArrayList<String>(paths);
+		return new ArrayList<String>(paths.subSet(prefix, true, prefix + MAX_CHAR, true));
+	}
+
+	/**
+	 * Returns the given path, if indexed, and the sorted paths below it.
+	 */
+	List<String> subtree(String path) {
+		if (path.length() == 0)
+			return new ArrayList<String>(paths);
+		List<String> list = new ArrayList<String>();
+		if (paths.contains(path))
+			list.add(path);
+		String parent = path + SorcerConstants.CPS;
+		list.addAll(paths.subSet(parent, true, parent + MAX_CHAR, true));
+		return list;
+	}
+
+	/**
+	 * Returns the sorted paths matching the given pattern, only paths
+	 * starting with the literal prefix of the pattern are matched.
+	 */
+	List<String> paths(Pattern pattern) {
+		List<String> list = new ArrayList<String>();
+		String prefix = pattern.flags() == 0 ? literalPrefix(pattern.pattern()) : "";
+		for (String path : pathsWithPrefix(prefix)) {
+			if (pattern.matcher(path).matches())
+				list.add(path);
+		}
+		return list;
+	}
+
+	List<String> linkPaths() {
+		return new ArrayList<String>(linkPaths);
+	}
+
+	/**
+	 * Returns the paths marked with the value of the given singleton
+	 * attribute, the index of the attribute is rebuilt if the given map of
+	 * marked paths is not the indexed one or the metacontext has been
+	 * modified since the index was built.
+	 */
+	Set<String> markedPaths(String attribute, Map<String, String> values, String value, int modCount) {
+		AttributeIndex index = attributes.get(attribute);
+		if (index == null || !index.isValid(values, modCount)) {
+			index = new AttributeIndex(values, modCount);
+			attributes.put(attribute, index);
+		}
+		Set<String> marked = index.get(value);
+		return marked == null ? Collections.<String>emptySet() : marked;
+	}
+
+	/**
+	 * Records a new value of the attribute at the given path, the
+	 * modification count is the one of the metacontext after the change.
+	 * Indexes that were current before the change remain valid.
+	 */
+	void mark(String attribute, Map<String, String> values, String path, String oldValue, String value, int modCount) {
+		for (Map.Entry<String, AttributeIndex> e : attributes.entrySet()) {
+			AttributeIndex index = e.getValue();
+			if (!e.getKey().equals(attribute))
+				index.advance(modCount);
+			else if (index.values != values || !index.mark(path, oldValue, value, modCount))
+				attributes.remove(attribute);
+		}
+	}
+
+	/**
+	 * Drops the attribute indexes, they are rebuilt on the next query.
+	 */
+	void clearMarks() {
+		attributes.clear();
+	}
+
+	/**
+	 * Returns a compiled pattern from the pattern cache.
+	 */
+	static Pattern compile(String regex) {
+		Pattern pattern = patterns.get(regex);
+		if (pattern == null) {
+			pattern = Pattern.compile(regex);
+			patterns.put(regex, pattern);
+		}
+		return pattern;
+	}
+
+	/**
+	 * Returns the literal characters every match of the regular expression
+	 * starts with, or an empty string if it cannot be determined.
+	 */
+	static String literalPrefix(String regex) {
+		if (regex.indexOf('|') >= 0)
+			return "";
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if ("\\[](){}.*+?^$".indexOf(c) >= 0) {
+				// a quantifier may repeat or skip the previous character
+				if ((c == '*' || c == '?' || c == '{') && sb.length() > 0)
+					sb.setLength(sb.length() - 1);
+				break;
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * The paths of a singleton attribute by its value.
+	 */
+	private static class AttributeIndex {
+		final Map<String, String> values;
+		final Map<String, Set<String>> paths = new HashMap<String, Set<String>>();
+		int modCount;
+
+		AttributeIndex(Map<String, String> values, int modCount) {
+			this.values = values;
+			this.modCount = modCount;
+			if (values != null) {
+				for (Map.Entry<String, String> e : values.entrySet())
+					add(e.getKey(), e.getValue());
+			}
+		}
+
+		synchronized boolean isValid(Map<String, String> values, int modCount) {
+			return this.values == values && this.modCount == modCount;
+		}
+
+		synchronized void advance(int modCount) {
+			if (this.modCount == modCount - 1)
+				this.modCount = modCount;
+		}
+
+		synchronized Set<String> get(String value) {
+			Set<String> marked = paths.get(value);
+			return marked == null ? null : new LinkedHashSet<String>(marked);
+		}
+
+		synchronized boolean mark(String path, String oldValue, String value, int modCount) {
+			if (this.modCount != modCount - 1)
+				return false;
+			this.modCount = modCount;
+			if (oldValue != null && oldValue.equals(value))
+				return true;
+			if (oldValue != null) {
+				Set<String> marked = paths.get(oldValue);
+				if (marked != null)
+					marked.remove(path);
+			}
+			if (value != null)
+				add(path, value);
+			return true;
+		}
+
+		private void add(String path, String value) {
+			Set<String> marked = paths.get(value);
+			if (marked == null) {
+				marked = new LinkedHashSet<String>();
+				paths.put(value, marked);
+			}
+			marked.add(path);
+		}
+	}
+}
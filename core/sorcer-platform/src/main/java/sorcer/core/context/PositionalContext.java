@@ -80,7 +80,7 @@ public class PositionalContext<T> extends ServiceContext<T> implements
                 }
             }
         }
-		subcntxt.getData().putAll(getInEntContext().getData());
+		subcntxt.putAll(getInEntContext());
         return subcntxt;
     }
 
@@ -69,6 +69,11 @@ public class ServiceContext<T> extends ServiceMogram implements
 	private static final long serialVersionUID = 3311956866023311727L;
 	protected Map<String, T> data = new ConcurrentHashMap<String, T>();
     protected Map<String, Path> paths = new ConcurrentHashMap<String, Path>();
+	// sorted local paths, link paths and marked paths, built on the first path query
+	private transient volatile PathIndex pathIndex;
+	// bumped on every change of the metacontext, an index of marked paths is
+	// valid only for the count it was built with
+	private transient int metacontextModCount;
 	protected String subjectPath = "";
 	protected Object subjectValue = "";
 	// default eval new ReturnPath(Context.RETURN);
@@ -251,6 +256,7 @@ public class ServiceContext<T> extends ServiceMogram implements
     protected void initContext() {
 		super.init();
 		data = new ConcurrentHashMap<String, T>();
+		pathIndex = null;
 		metacontext = new HashMap<String, LinkedHashMap<String, String>>();
 		metacontext.put(SorcerConstants.CONTEXT_ATTRIBUTES, new LinkedHashMap());
 
@@ -734,6 +740,9 @@ public class ServiceContext<T> extends ServiceMogram implements
 
 	@Override
 	public Object remove(Object path) {
+		PathIndex index = pathIndex;
+		if (index != null)
+			index.remove(path);
 		return data.remove(path);
 	}
 
@@ -1061,7 +1070,8 @@ public class ServiceContext<T> extends ServiceMogram implements
 				values = new LinkedHashMap();
 				cntxt.metacontext.put(attribute, values);
 			}
-			values.put(mappedKey, attributeValue);
+			String oldValue = (String) values.put(mappedKey, attributeValue);
+			cntxt.marked(attribute, values, mappedKey, oldValue, attributeValue);
 		} else if (cntxt.isMetaattribute(attribute))
 			cntxt.addCompositeAssociation(mappedKey, attribute, attributeValue);
 		else
@@ -1115,9 +1125,9 @@ public class ServiceContext<T> extends ServiceMogram implements
 			values = getMetacontext().get(attr);
 			if (values != null) { // if there are no attributes set,
 				// values==null;
-				for (Object key : values.keySet()) {
-					if (values.get(key).equals(value))
-						keys.add((String) key);
+				for (String key : getPathIndex().markedPaths(attr, (Map<String, String>) values, value, metacontextModCount)) {
+					if (value.equals(values.get(key)))
+						keys.add(key);
 				}
 			}
 		} else {
@@ -1132,52 +1142,26 @@ public class ServiceContext<T> extends ServiceMogram implements
 							+ association + "\"  metaattribute \"" + attr
 							+ "\" is defined with metapath =\"" + metapath
 							+ "\"");
-				Object[][] paths = new Object[attrs.length][];
-				List<String> mps;
-				int ii = -1;
+				// the common paths of all attributes in the metapath
+				// are the matches, the smallest set is checked against
+				// the other ones
+				List<Set<String>> paths = new ArrayList<Set<String>>(attrs.length);
+				Set<String> smallest = null;
 				for (int i = 0; i < attrs.length; i++) {
-					paths[i] = markedPaths(attrs[i] + SorcerConstants.APS + vals[i]).toArray();;
-					if (paths[i] == null) {
-						ii = -1;
-						break; // i.e. no possible match
-					}
-					if (paths[i] != null && (ii < 0 || paths[i].length > paths[ii].length)) {
-						ii = i;
-					}
+					Set<String> marked = new LinkedHashSet<String>(
+							markedPaths(attrs[i] + SorcerConstants.APS + vals[i]));
+					paths.add(marked);
+					if (smallest == null || marked.size() < smallest.size())
+						smallest = marked;
 				}
-				if (ii >= 0) {
-					// The common paths across the paths[][] array are
-					// matches. Said another way, the paths[][] array
-					// contains all the paths that match attributes in the
-					// metapath. paths[0][] are the matches for the first
-					// element of the metapath, paths[1][] for the next,
-					// etc. Therefore, the matches that are common for
-					// each element of the metapath are the ones in which
-					// we have interest.
-					String candidate;
-					int match, thisMatch;
-					// go through each element of one with most matches
-					for (int i = 0; i < paths[ii].length; i++) {
-						candidate = (String) paths[ii][i];
-						// now look for paths.length-1 matches...
-						match = 0;
-						for (int j = 0; j < paths.length; j++) {
-							if (j == ii)
-								continue;
-							thisMatch = 0;
-							for (int k = 0; k < paths[j].length; k++)
-								if (candidate.equals(paths[j][k])) {
-									match++;
-									thisMatch++;
-									break;
-								}
-							if (thisMatch == 0)
-								break; // no possible match for this candidate
+				if (smallest != null) {
+					CANDIDATES:
+					for (String candidate : smallest) {
+						for (Set<String> marked : paths) {
+							if (marked != smallest && !marked.contains(candidate))
+								continue CANDIDATES;
 						}
-						// System.out.println("candidate="+candidate+"
-						// match="+match+" required maches="+(paths.length-1));
-						if (match == paths.length - 1)
-							keys.add(candidate);
+						keys.add(candidate);
 					}
 				}
 			}
@@ -1218,14 +1202,15 @@ public class ServiceContext<T> extends ServiceMogram implements
 		String mappedKey = (String) map[1];
 
 		if (cntxt.isSingletonAttribute(attr)) {
-			Hashtable metavalues = (Hashtable) cntxt.getMetacontext().get(attr);
+			Map metavalues = (Map) cntxt.getMetacontext().get(attr);
 
 			if (metavalues == null)
 				return;
-			metavalues.remove(mappedKey);
-			// remove Hashtable if it is now empty
+			String oldValue = (String) metavalues.remove(mappedKey);
+			cntxt.marked(attr, metavalues, mappedKey, oldValue, null);
+			// remove the attribute map if it is now empty
 			if (metavalues.size() == 0)
-				metacontext.remove(attr);
+				cntxt.metacontext.remove(attr);
 		} else if (cntxt.isMetaattribute(attr)) {
 			String[] attrs = SorcerUtil.tokenize(cntxt.getLocalMetapath(attr),
 					APS);
@@ -1262,18 +1247,128 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	public List<String> paths(String regex) throws ContextException {
-		Iterator e = getPaths().iterator();
+		return paths(PathIndex.compile(regex));
+	}
+
+	/**
+	 * Returns the sorted context paths matching the given pattern. Only the
+	 * paths starting with the literal prefix of the pattern are matched.
+	 *
+	 * @param pattern
+	 *            the pattern to which paths of this context are to be matched
+	 * @return a List of matches for the given pattern
+	 * @throws ContextException
+	 */
+	public List<String> paths(Pattern pattern) throws ContextException {
 		List<String> list = new ArrayList<String>();
-		Pattern p = Pattern.compile(regex);
-		String path;
-		while (e.hasNext()) {
-			path = (String) e.next();
-			if (p.matcher(path).matches())
-				list.add(path);
+		PathIndex index = getPathIndex();
+		if (index.linkPaths().isEmpty()) {
+			for (String path : index.paths(pattern)) {
+				if (data.containsKey(path))
+					list.add(path);
+			}
+		} else {
+			for (String path : getPaths()) {
+				if (pattern.matcher(path).matches())
+					list.add(path);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the sorted context paths starting with the given prefix.
+	 *
+	 * @param prefix
+	 *            the beginning of the returned paths
+	 * @return a List of paths with the given prefix
+	 * @throws ContextException
+	 */
+	public List<String> pathsWithPrefix(String prefix) throws ContextException {
+		List<String> list = new ArrayList<String>();
+		PathIndex index = getPathIndex();
+		if (index.linkPaths().isEmpty()) {
+			for (String path : index.pathsWithPrefix(prefix)) {
+				if (data.containsKey(path))
+					list.add(path);
+			}
+		} else {
+			for (String path : getPaths()) {
+				if (path.startsWith(prefix))
+					list.add(path);
+			}
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the given path and the sorted context paths below it, for
+	 * example for "a/b" the paths "a/b" and "a/b/c" but not "a/bc".
+	 *
+	 * @param path
+	 *            the root of the subtree
+	 * @return a List of paths of the subtree
+	 * @throws ContextException
+	 */
+	public List<String> subpaths(String path) throws ContextException {
+		List<String> list = new ArrayList<String>();
+		PathIndex index = getPathIndex();
+		if (index.linkPaths().isEmpty()) {
+			for (String p : index.subtree(path)) {
+				if (data.containsKey(p))
+					list.add(p);
+			}
+		} else {
+			int len = path.length();
+			for (String p : getPaths()) {
+				if (len == 0 || (p.startsWith(path) && (p.length() == len || p.indexOf(CPS, len) == len)))
+					list.add(p);
+			}
 		}
 		return list;
 	}
 
+	/**
+	 * Returns the index of local paths. Paths have to be added and removed
+	 * with {@link #put}, {@link #remove} and {@link #putAll}, the index is
+	 * rebuilt if the number of paths shows it has been bypassed, or after
+	 * {@link #invalidatePaths}.
+	 */
+	private PathIndex getPathIndex() {
+		PathIndex index = pathIndex;
+		if (index == null || index.size() != data.size()) {
+			index = new PathIndex(data);
+			pathIndex = index;
+		}
+		return index;
+	}
+
+	/**
+	 * Drops the index of local paths after the data of this context has been
+	 * changed directly with {@link #getData}.
+	 */
+	public void invalidatePaths() {
+		pathIndex = null;
+	}
+
+	private void marked(String attribute, Map values, String path, String oldValue, String value) {
+		int modCount = ++metacontextModCount;
+		PathIndex index = pathIndex;
+		if (index != null)
+			index.mark(attribute, values, path, oldValue, value, modCount);
+	}
+
+	/**
+	 * Drops the index of marked paths after the metacontext has been changed
+	 * directly.
+	 */
+	void invalidateMarks() {
+		metacontextModCount++;
+		PathIndex index = pathIndex;
+		if (index != null)
+			index.clearMarks();
+	}
+
     public Map<String, Path> getMetapaths() throws ContextException {
 	    return paths;
     }
@@ -1326,15 +1421,11 @@ public class ServiceContext<T> extends ServiceMogram implements
 
 	public List<String> localLinkPaths() throws ContextException {
 		List<String> keys = new ArrayList<String>();
-		Iterator i = keyIterator();
-		String key;
-
-		while (i.hasNext()) {
-			key = (String) i.next();
+		// sorted by the path index
+		for (String key : getPathIndex().linkPaths()) {
 			if (get(key) instanceof ContextLink)
 				keys.add(key);
 		}
-		SorcerUtil.bubbleSort(keys);
 		return keys;
 	}
 
@@ -1894,7 +1985,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 
 		int len = mappedKey.length();
 		String prefix;
-		Iterator<String> e = mappedCntxt.keyIterator();
+		Iterator<String> e = mappedCntxt.getPathIndex().subtree(mappedKey).iterator();
 		while (e.hasNext()) {
 			cntxtKey = e.next();
 			if (cntxtKey.startsWith(mappedKey)) {
@@ -2027,6 +2118,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 			if (attributes.containsKey(mappedKey))
 				attributes.remove(mappedKey);
 		}
+		cxt.invalidateMarks();
 	}
 
 	public String toString(String cr, StringBuilder sb, boolean withMetacontext) throws ContextException {
@@ -2849,6 +2941,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 	@Override
 	public void setMetacontext(Map<String, LinkedHashMap<String, String>> metacontext) {
 		this.metacontext = metacontext;
+		invalidateMarks();
 	}
 
 	public int hashCode() {
@@ -3213,6 +3306,10 @@ public class ServiceContext<T> extends ServiceMogram implements
 		this.currentPrefix = currentPrefix;
 	}
 
+	/**
+	 * Returns the data of this context. Direct changes of the returned map
+	 * bypass the path index, call {@link #invalidatePaths} after them.
+	 */
 	public Map<String, T> getData() {
 		// to reimplemented in subclasses
 		return data;
@@ -3556,6 +3653,9 @@ public class ServiceContext<T> extends ServiceMogram implements
 	}
 
 	public T put(String key, T value) {
+		PathIndex index = pathIndex;
+		if (index != null)
+			index.put(key, value);
 		if (value == null)
 			return data.put(key, (T)none);
 		else
@@ -3584,6 +3684,7 @@ public class ServiceContext<T> extends ServiceMogram implements
 
 	public void putAll(Context<T> context) {
 		data.putAll((Map<? extends String, ? extends T>) ((ServiceContext) context).data);
+		pathIndex = null;
 	}
 
 	public ModelStrategy getMogramStrategy() {
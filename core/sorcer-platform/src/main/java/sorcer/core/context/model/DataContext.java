@@ -119,11 +119,7 @@ public class DataContext<T> extends PositionalContext<T> {
     @Override
     public T putValue(final String path, Object value) throws ContextException {
         if (this.containsPath(path)) {
-            if (value == null) {
-                return data.put(path, (T)none);
-            } else {
-                return data.put(path, (T) value);
-            }
+            return put(path, (T) value);
         }
         else {
             int index = tally++;
@@ -134,6 +130,6 @@ public class DataContext<T> extends PositionalContext<T> {
 
     @Override
     public void removePath(String path) {
-        data.remove(path);
+        remove(path);
     }
 }
@@ -16,6 +16,8 @@
  */
 package sorcer.core.context.model;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import sorcer.core.context.Contexts;
 import sorcer.core.context.PositionalContext;
 import sorcer.core.context.ServiceContext;
@@ -69,6 +71,8 @@ public class EntModel extends PositionalContext<Object> implements Model, Invoca
 
     private static final long serialVersionUID = -6932730998474298653L;
 
+	private static final Logger logger = LoggerFactory.getLogger(EntModel.class);
+
 	public static EntModel instance(Signature builder) throws SignatureException {
 		EntModel model = (EntModel) sorcer.co.operator.instance(builder);
 		model.setBuilder(builder);
@@ -370,6 +374,7 @@ public class EntModel extends PositionalContext<Object> implements Model, Invoca
 					if (rp.outPaths.size() == 1)
 						val = getValue(rp.outPaths.get(0).path);
 					else {
+						prefetchStored(rp.outPaths);
 						List vals = new ArrayList(rp.outPaths.size());
 						for (int j = 0; j < rp.outPaths.size(); j++)   {
 							vals.add(getValue(rp.outPaths.get(j).path));
@@ -420,6 +425,7 @@ public class EntModel extends PositionalContext<Object> implements Model, Invoca
 			if (rp.outPaths.size() == 1)
 				val = getValue(rp.outPaths.get(0).path);
 			else {
+				prefetchStored(rp.outPaths);
 				List vals = new ArrayList(rp.outPaths.size());
 				for (int j = 0; j < rp.outPaths.size(); j++) {
 					vals.add(getValue(rp.outPaths.get(j).path));
@@ -432,6 +438,29 @@ public class EntModel extends PositionalContext<Object> implements Model, Invoca
 		return val;
 	}
 
+	/*
+	 * Retrieves the objects of the sos:// URLs at the given paths with one
+	 * call per storage provider, the evaluations of the paths use the cached
+	 * objects. A failed prefetch is left to the evaluations to report.
+	 */
+	private void prefetchStored(List<Path> paths) {
+		List<URL> urls = new ArrayList<URL>();
+		for (Path path : paths) {
+			Object val = data.get(path.path);
+			if (val instanceof Entry)
+				val = ((Entry) val).asis();
+			if (SdbUtil.isSosIdURL(val))
+				urls.add((URL) val);
+		}
+		if (urls.size() > 1) {
+			try {
+				SdbUtil.retrieve(urls);
+			} catch (ServiceException e) {
+				logger.debug("Prefetching stored objects failed", e);
+			}
+		}
+	}
+
 	public void setContextChanged(boolean contextChanged) {
 		this.isChanged = contextChanged;
 	}
@@ -130,11 +130,11 @@ public class SrvModel extends EntModel implements Invocation<Object> {
         try {
             putValue(path, srv);
         } catch (ContextException e) {
-            data.remove(path);
+            remove(path);
             throw e;
         }
         Object out = getSrvValue(path, args);
-        data.remove(path);
+        remove(path);
         return out;
     }
 
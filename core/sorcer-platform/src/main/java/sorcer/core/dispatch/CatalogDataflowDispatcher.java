@@ -0,0 +1,164 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.provider.Provider;
+import sorcer.service.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import static sorcer.service.Exec.*;
+
+/**
+ * A dispatcher for jobs with the {@link Strategy.Flow#DAG} flow in the PUSH
+ * mode. Each component exertion is submitted to the dispatch executor as soon
+ * as all exertions it depends on by context pipes are done, so independent
+ * branches of the job run in parallel.
+ */
+public class CatalogDataflowDispatcher extends CatalogParallelDispatcher {
+    private final Logger logger = LoggerFactory.getLogger(CatalogDataflowDispatcher.class);
+
+    private final Map<Uuid, Set<Uuid>> dependencies;
+
+    private DataflowGraph graph;
+
+    public CatalogDataflowDispatcher(Job job,
+                                     Set<Context> sharedContexts,
+                                     boolean isSpawned,
+                                     Provider provider,
+                                     ProvisionManager provisionManager,
+                                     Map<Uuid, Set<Uuid>> dependencies) {
+        super(job, sharedContexts, isSpawned, provider, provisionManager);
+        this.dependencies = dependencies;
+    }
+
+    @Override
+    public void doExec(Arg... args) throws ExertionException, SignatureException {
+        graph = new DataflowGraph(inputXrts, dependencies);
+        logger.debug("Dataflow for {}: {} exertions, critical path length: {}",
+                xrt.getName(), graph.size(), graph.getCriticalPathLength());
+        BlockingQueue<Completion> completions = new LinkedBlockingQueue<Completion>();
+        boolean isFailed = false;
+        boolean isSuspended = false;
+        int running = submit(graph.getReady(), completions);
+        while (running > 0) {
+            Completion completion;
+            try {
+                completion = take(completions);
+            } catch (Exception e) {
+                logger.warn("Interrupted while waiting for {}", xrt.getName(), e);
+                isFailed = true;
+                break;
+            }
+            running--;
+            ServiceExertion se = (ServiceExertion) completion.result;
+            if (se == null) {
+                logger.warn("Error while executing {}", completion.input.getName(), completion.error);
+                isFailed = true;
+            } else {
+                se.stopExecTime();
+                if (se.getStatus() == FAILED)
+                    isFailed = true;
+                else if (se.getStatus() == SUSPENDED)
+                    isSuspended = true;
+            }
+            // stop releasing downstream exertions once the job cannot complete
+            if (!isFailed && !isSuspended)
+                running += submit(graph.completed(completion.input.getId()), completions);
+        }
+        if (!isFailed && !isSuspended && !graph.isDone()) {
+            logger.warn("Dataflow of {} completed {} of {} exertions",
+                    xrt.getName(), graph.getCompletedCount(), graph.size());
+            isFailed = true;
+        }
+        xrt.getControlContext().appendTrace("dataflow critical path: " + graph.getCriticalPathLength()
+                + " exertions, " + graph.getCriticalPathTime() + " ms");
+        completeJob(isFailed, isSuspended);
+    }
+
+    public DataflowGraph getGraph() {
+        return graph;
+    }
+
+    private int submit(List<Mogram> ready, BlockingQueue<Completion> completions) {
+        int submitted = 0;
+        for (Mogram mogram : ready) {
+            if (mogram instanceof Exertion) {
+                executor.submit(xrt.getId(), new DataflowExertion((Exertion) mogram, completions));
+                submitted++;
+            } else {
+                // nothing to execute, release its consumers
+                submitted += submit(graph.completed(mogram.getId()), completions);
+            }
+        }
+        return submitted;
+    }
+
+    private Completion take(final BlockingQueue<Completion> completions) throws Exception {
+        return DispatchExecutor.block(new Callable<Completion>() {
+            @Override
+            public Completion call() throws InterruptedException {
+                return completions.take();
+            }
+        });
+    }
+
+    private static class Completion {
+        final Exertion input;
+        final Exertion result;
+        final Throwable error;
+
+        Completion(Exertion input, Exertion result, Throwable error) {
+            this.input = input;
+            this.result = result;
+            this.error = error;
+        }
+    }
+
+    private class DataflowExertion implements Callable<Exertion> {
+        private final Exertion exertion;
+        private final BlockingQueue<Completion> completions;
+
+        DataflowExertion(Exertion exertion, BlockingQueue<Completion> completions) {
+            this.exertion = exertion;
+            this.completions = completions;
+        }
+
+        @Override
+        public Exertion call() throws Exception {
+            Exertion result = null;
+            Throwable error = null;
+            try {
+                result = new ExecExertion(exertion).call();
+                return result;
+            } catch (Exception | Error e) {
+                error = e;
+                throw e;
+            } finally {
+                completions.add(new Completion(exertion, result, error));
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ package sorcer.core.dispatch;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import sorcer.core.DispatchResult;
 import sorcer.core.exertion.Mograms;
 import sorcer.core.provider.Provider;
 import sorcer.service.*;
@@ -34,7 +35,7 @@ import static sorcer.service.Exec.*;
 
 public class CatalogParallelDispatcher extends CatalogExertDispatcher {
     private final Logger logger = LoggerFactory.getLogger(CatalogParallelDispatcher.class);
-    protected ExecutorService executor = Executors.newCachedThreadPool();
+    protected DispatchExecutor executor;
 
     public CatalogParallelDispatcher(Job job,
             Set<Context> sharedContexts,
@@ -42,24 +43,39 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
             Provider provider,
             ProvisionManager provisionManager) {
 		super(job, sharedContexts, isSpawned, provider, provisionManager);
+        executor = DispatchExecutor.getExecutor(provider);
 	}
 
     @Override
-    public void exec(Arg... args) {
-        executor.submit(new Runnable() {
+    public void exec(final Arg... args) {
+        // a nested job dispatched from a pool thread runs in place and helps
+        // to execute its own component exertions while joining them
+        if (executor.inPool()) {
+            super.exec(args);
+            return;
+        }
+        executor.submit(xrt.getId(), new Callable<Void>() {
             @Override
-            public void run() {
+            public Void call() {
                 CatalogParallelDispatcher.super.exec(args);
+                return null;
             }
         });
     }
 
+    @Override
+    public CompletableFuture<DispatchResult> execAsync(Arg... args) {
+        // exec is already asynchronous for parallel jobs
+        exec(args);
+        return resultFuture;
+    }
+
     public void doExec(Arg... args) throws ExertionException,
 			SignatureException {
         List<Future<Exertion>> results = new ArrayList<Future<Exertion>>(inputXrts.size());
         for (Mogram mogram : inputXrts) {
             if (mogram instanceof Exertion)
-                results.add(executor.submit(new ExecExertion((Exertion)mogram)));
+                results.add(executor.submit(xrt.getId(), new ExecExertion((Exertion)mogram)));
 		}
 
         boolean isFailed = false;
@@ -80,6 +96,15 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
                 isFailed = true;
             }
         }
+        completeJob(isFailed, isSuspended);
+    }
+
+    /**
+     * Sets the final status of the job once all its component exertions
+     * have been executed and runs the master exertion if any.
+     */
+    protected void completeJob(boolean isFailed, boolean isSuspended) throws ExertionException,
+            SignatureException {
 		if (isFailed) {
 			xrt.setStatus(FAILED);
 			state = FAILED;
@@ -133,7 +158,15 @@ public class CatalogParallelDispatcher extends CatalogExertDispatcher {
 
         @Override
         public Exertion call() throws Exception {
-            return execExertion(exertion);
+            if (exertion.isJob())
+                return execExertion(exertion);
+            // tasks may block on remote calls, let the pool compensate
+            return DispatchExecutor.block(new Callable<Exertion>() {
+                @Override
+                public Exertion call() throws Exception {
+                    return execExertion(exertion);
+                }
+            });
         }
 	}
 }
@@ -0,0 +1,155 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import net.jini.id.Uuid;
+import sorcer.service.Mogram;
+
+import java.util.*;
+
+/**
+ * Tracks the readiness of the component mograms of a job executed with the
+ * {@link sorcer.service.Strategy.Flow#DAG} flow. A mogram becomes ready when
+ * all its upstream producers (as found by {@link ExertionSorter#getDependencies})
+ * have completed. Dependencies on mograms that are not dispatched (e.g. the
+ * master or skipped exertions) are ignored.
+ */
+public class DataflowGraph {
+
+    private final Map<Uuid, Node> nodes = new LinkedHashMap<Uuid, Node>();
+
+    private int completedCount = 0;
+
+    private long criticalPathTime = 0;
+
+    public DataflowGraph(List<Mogram> mograms, Map<Uuid, Set<Uuid>> dependencies) {
+        for (Mogram mogram : mograms)
+            nodes.put(mogram.getId(), new Node(mogram));
+        for (Node node : nodes.values()) {
+            Set<Uuid> upstream = dependencies.get(node.mogram.getId());
+            if (upstream == null)
+                continue;
+            for (Uuid id : upstream) {
+                Node producer = nodes.get(id);
+                if (producer != null && producer != node) {
+                    node.upstream.add(producer);
+                    producer.downstream.add(node);
+                }
+            }
+            node.pending = node.upstream.size();
+        }
+    }
+
+    /**
+     * Returns the mograms without upstream dependencies.
+     */
+    public synchronized List<Mogram> getReady() {
+        List<Mogram> ready = new ArrayList<Mogram>();
+        for (Node node : nodes.values()) {
+            if (node.pending == 0 && !node.started)
+                ready.add(start(node));
+        }
+        return ready;
+    }
+
+    /**
+     * Marks the mogram with the given id as completed and returns the mograms
+     * that have become ready to run as a result.
+     */
+    public synchronized List<Mogram> completed(Uuid id) {
+        Node node = nodes.get(id);
+        if (node == null || node.completed)
+            return Collections.emptyList();
+        node.completed = true;
+        completedCount++;
+        long upstreamTime = 0;
+        for (Node producer : node.upstream)
+            upstreamTime = Math.max(upstreamTime, producer.pathTime);
+        node.pathTime = upstreamTime + (System.currentTimeMillis() - node.startTime);
+        criticalPathTime = Math.max(criticalPathTime, node.pathTime);
+
+        List<Mogram> ready = new ArrayList<Mogram>();
+        for (Node consumer : node.downstream) {
+            if (--consumer.pending == 0 && !consumer.started)
+                ready.add(start(consumer));
+        }
+        return ready;
+    }
+
+    public synchronized boolean isDone() {
+        return completedCount == nodes.size();
+    }
+
+    public synchronized int getCompletedCount() {
+        return completedCount;
+    }
+
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * Returns the number of mograms on the longest dependency chain.
+     */
+    public int getCriticalPathLength() {
+        Map<Node, Integer> depths = new HashMap<Node, Integer>();
+        int length = 0;
+        for (Node node : nodes.values())
+            length = Math.max(length, depth(node, depths));
+        return length;
+    }
+
+    /**
+     * Returns the measured duration in milliseconds of the longest
+     * dependency chain among the completed mograms.
+     */
+    public synchronized long getCriticalPathTime() {
+        return criticalPathTime;
+    }
+
+    private int depth(Node node, Map<Node, Integer> depths) {
+        Integer depth = depths.get(node);
+        if (depth != null)
+            return depth;
+        int max = 0;
+        for (Node producer : node.upstream)
+            max = Math.max(max, depth(producer, depths));
+        depths.put(node, max + 1);
+        return max + 1;
+    }
+
+    private Mogram start(Node node) {
+        node.started = true;
+        node.startTime = System.currentTimeMillis();
+        return node.mogram;
+    }
+
+    private static class Node {
+        final Mogram mogram;
+        final List<Node> upstream = new ArrayList<Node>();
+        final List<Node> downstream = new ArrayList<Node>();
+        int pending;
+        boolean started;
+        boolean completed;
+        long startTime;
+        long pathTime;
+
+        Node(Mogram mogram) {
+            this.mogram = mogram;
+        }
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.provider.Provider;
+
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded, work-stealing executor shared by all catalog dispatchers of a
+ * provider. Mograms are run as {@link ForkJoinTask}s so a dispatcher that is
+ * already running on a pool thread (a nested job) helps to execute its
+ * component exertions while joining them instead of parking the thread.
+ * <p>
+ * The number of tasks queued or running is limited by {@code queueSize}; when
+ * the limit is reached a submitted task runs in the caller's thread, which
+ * slows down the submitting dispatcher rather than growing the queue.
+ *
+ * @see sorcer.core.provider.ProviderDelegate#DISPATCH_PARALLELISM
+ * @see sorcer.core.provider.ProviderDelegate#DISPATCH_QUEUE_SIZE
+ */
+public class DispatchExecutor {
+    private final static Logger logger = LoggerFactory.getLogger(DispatchExecutor.class);
+
+    public static final int DEFAULT_PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+
+    public static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    // executors configured by providers, keyed by the provider instance
+    private static final Map<Provider, DispatchExecutor> executors = new ConcurrentHashMap<Provider, DispatchExecutor>();
+
+    private static volatile DispatchExecutor defaultExecutor;
+
+    private final ForkJoinPool pool;
+
+    private final Semaphore permits;
+
+    private final int queueSize;
+
+    // number of tasks currently running per job
+    private final ConcurrentMap<Uuid, AtomicInteger> activeByJob = new ConcurrentHashMap<Uuid, AtomicInteger>();
+
+    private final AtomicLong submittedCount = new AtomicLong();
+
+    private final AtomicLong callerRunsCount = new AtomicLong();
+
+    public DispatchExecutor(final String name, int parallelism, int queueSize) {
+        this.queueSize = queueSize > 0 ? queueSize : DEFAULT_QUEUE_SIZE;
+        this.permits = new Semaphore(this.queueSize);
+        // pool threads load classes the same way the configuring provider does
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : DEFAULT_PARALLELISM,
+                new ForkJoinPool.ForkJoinWorkerThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                    @Override
+                    public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+                        ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+                        thread.setName("Dispatch-" + name + "-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        thread.setContextClassLoader(classLoader);
+                        return thread;
+                    }
+                }, null, false);
+    }
+
+    /**
+     * Creates (or replaces) the dispatch executor used by the given provider.
+     */
+    public static DispatchExecutor configure(Provider provider, String name, int parallelism, int queueSize) {
+        DispatchExecutor executor = new DispatchExecutor(name, parallelism, queueSize);
+        DispatchExecutor previous = executors.put(provider, executor);
+        if (previous != null)
+            previous.shutdown();
+        logger.info("Dispatch executor for {} parallelism: {}, queue size: {}",
+                name, executor.getParallelism(), executor.getQueueSize());
+        return executor;
+    }
+
+    /**
+     * Returns the executor configured for the given provider or a JVM-wide
+     * default one when the provider has not configured its own.
+     */
+    public static DispatchExecutor getExecutor(Provider provider) {
+        DispatchExecutor executor = provider != null ? executors.get(provider) : null;
+        return executor != null ? executor : getDefault();
+    }
+
+    public static DispatchExecutor getDefault() {
+        if (defaultExecutor == null) {
+            synchronized (DispatchExecutor.class) {
+                if (defaultExecutor == null)
+                    defaultExecutor = new DispatchExecutor("default", DEFAULT_PARALLELISM, DEFAULT_QUEUE_SIZE);
+            }
+        }
+        return defaultExecutor;
+    }
+
+    public static void shutdown(Provider provider) {
+        DispatchExecutor executor = executors.remove(provider);
+        if (executor != null)
+            executor.shutdown();
+    }
+
+    /**
+     * Submits the callable on behalf of the job with the given id. When the
+     * calling thread belongs to this pool the task is forked onto the local
+     * work queue so a subsequent join can execute it in place.
+     */
+    public <T> ForkJoinTask<T> submit(Uuid jobId, Callable<T> callable) {
+        submittedCount.incrementAndGet();
+        if (!permits.tryAcquire()) {
+            callerRunsCount.incrementAndGet();
+            logger.debug("Dispatch queue full ({}), running in caller thread", queueSize);
+            ForkJoinTask<T> task = ForkJoinTask.adapt(new AccountedCall<T>(jobId, callable, false));
+            task.quietlyInvoke();
+            return task;
+        }
+        ForkJoinTask<T> task = ForkJoinTask.adapt(new AccountedCall<T>(jobId, callable, true));
+        try {
+            if (inPool())
+                task.fork();
+            else
+                pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw e;
+        }
+        return task;
+    }
+
+    /**
+     * Runs a blocking call, e.g. a remote exert, so that the pool may
+     * activate a spare thread while the calling worker is blocked.
+     */
+    public static <T> T block(final Callable<T> callable) throws Exception {
+        if (!(Thread.currentThread() instanceof ForkJoinWorkerThread))
+            return callable.call();
+        BlockingCall<T> blocker = new BlockingCall<T>(callable);
+        ForkJoinPool.managedBlock(blocker);
+        if (blocker.exception != null)
+            throw blocker.exception;
+        return blocker.result;
+    }
+
+    /**
+     * Returns true if the current thread is a worker of this executor.
+     */
+    public boolean inPool() {
+        Thread thread = Thread.currentThread();
+        return thread instanceof ForkJoinWorkerThread
+                && ((ForkJoinWorkerThread) thread).getPool() == pool;
+    }
+
+    public int getActiveCount(Uuid jobId) {
+        AtomicInteger count = activeByJob.get(jobId);
+        return count != null ? count.get() : 0;
+    }
+
+    public int getPendingCount() {
+        return queueSize - permits.availablePermits();
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getPoolSize() {
+        return pool.getPoolSize();
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public long getSubmittedCount() {
+        return submittedCount.get();
+    }
+
+    public long getCallerRunsCount() {
+        return callerRunsCount.get();
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(5, TimeUnit.SECONDS))
+                pool.shutdownNow();
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "DispatchExecutor{parallelism=" + getParallelism()
+                + ", poolSize=" + getPoolSize()
+                + ", pending=" + getPendingCount()
+                + ", submitted=" + getSubmittedCount()
+                + ", callerRuns=" + getCallerRunsCount() + "}";
+    }
+
+    private class AccountedCall<T> implements Callable<T> {
+        private final Uuid jobId;
+        private final Callable<T> callable;
+        private final boolean permitted;
+
+        AccountedCall(Uuid jobId, Callable<T> callable, boolean permitted) {
+            this.jobId = jobId;
+            this.callable = callable;
+            this.permitted = permitted;
+        }
+
+        @Override
+        public T call() throws Exception {
+            AtomicInteger count = null;
+            if (jobId != null) {
+                count = activeByJob.get(jobId);
+                if (count == null) {
+                    AtomicInteger created = new AtomicInteger();
+                    count = activeByJob.putIfAbsent(jobId, created);
+                    if (count == null)
+                        count = created;
+                }
+                count.incrementAndGet();
+            }
+            try {
+                return callable.call();
+            } finally {
+                if (count != null && count.decrementAndGet() == 0)
+                    activeByJob.remove(jobId, count);
+                if (permitted)
+                    permits.release();
+            }
+        }
+    }
+
+    private static class BlockingCall<T> implements ForkJoinPool.ManagedBlocker {
+        private final Callable<T> callable;
+        private T result;
+        private Exception exception;
+        private boolean done;
+
+        BlockingCall(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                result = callable.call();
+            } catch (Exception e) {
+                exception = e;
+            }
+            done = true;
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+}
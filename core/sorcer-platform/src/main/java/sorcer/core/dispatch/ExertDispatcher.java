@@ -38,6 +38,10 @@ import javax.security.auth.Subject;
 import java.lang.reflect.Array;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import static sorcer.service.Exec.*;
 
 @SuppressWarnings("rawtypes")
@@ -52,6 +56,11 @@ abstract public class ExertDispatcher implements Dispatcher {
 
 	protected volatile int state = Exec.INITIAL;
 
+    // completed once the dispatcher has finished and reached DONE or FAILED
+    protected final CompletableFuture<DispatchResult> resultFuture = new CompletableFuture<DispatchResult>();
+
+    private volatile boolean execDone = false;
+
     protected boolean isMonitored;
 
     protected Set<Context> sharedContexts;
@@ -125,9 +134,23 @@ abstract public class ExertDispatcher implements Dispatcher {
                 logger.warn("Problem removing lease for : " + xrt.getName() + " " + Exec.State.name(xrt.getStatus()) , ce);
             }
             dispatchers.remove(xrt.getId());
+            execDone = true;
+            completeResult();
         }
     }
 
+    @Override
+    public CompletableFuture<DispatchResult> execAsync(final Arg... args) {
+        DispatchExecutor.getExecutor(provider).submit(xrt.getId(), new Callable<Void>() {
+            @Override
+            public Void call() {
+                exec(args);
+                return null;
+            }
+        });
+        return resultFuture;
+    }
+
     abstract protected void doExec(Arg... args) throws SignatureException, ExertionException, RemoteException, MogramException;
     abstract protected List<Mogram> getInputExertions() throws ContextException;
 
@@ -171,19 +194,31 @@ abstract public class ExertDispatcher implements Dispatcher {
 
     @Override
     public DispatchResult getResult() {
-        /**
-         * The default implementation - wait for status to be changed by another thread
-         */
-
         try {
-            while (!finished())
-                Thread.sleep(50);
+            return resultFuture.get();
         } catch (InterruptedException e) {
             logger.warn("Interrupted!", e);
+        } catch (ExecutionException e) {
+            logger.warn("Dispatch failed", e.getCause());
         }
         return new DispatchResult(State.values()[state], xrt);
     }
 
+    @Override
+    public CompletableFuture<DispatchResult> getResultFuture() {
+        return resultFuture;
+    }
+
+    /**
+     * Completes the result future if the dispatcher has returned from
+     * {@link #exec(Arg...)} and its state is final. Dispatchers collecting
+     * results in another thread call it again when collecting is over.
+     */
+    protected void completeResult() {
+        if (execDone && finished())
+            resultFuture.complete(new DispatchResult(State.values()[state], xrt));
+    }
+
     private boolean finished(){
         return state == State.DONE.ordinal() || state == State.FAILED.ordinal();
     }
@@ -230,6 +265,7 @@ abstract public class ExertDispatcher implements Dispatcher {
             if (xrt.isExecTimeRequested())
                 xrt.stopExecTime();
             dispatchers.remove(xrt.getId());
+            completeResult();
         }
     }
 
@@ -1,5 +1,6 @@
 package sorcer.core.dispatch;
 
+import net.jini.id.Uuid;
 import org.codehaus.plexus.util.dag.CycleDetectedException;
 import org.codehaus.plexus.util.dag.DAG;
 import org.codehaus.plexus.util.dag.TopologicalSorter;
@@ -70,6 +71,39 @@ public class ExertionSorter {
     }
 
 
+    /**
+     * Returns the direct dependencies between the component mograms of the
+     * given job: each component is mapped to the sibling components that
+     * produce (by context pipes) inputs for it or for any of its inner
+     * exertions. Used by the dataflow dispatchers.
+     *
+     * @param job a job sorted by this sorter
+     * @return dependencies keyed by component mogram ids
+     */
+    public Map<Uuid, Set<Uuid>> getDependencies(Exertion job) {
+        // map all inner exertion ids to the component of the job holding them
+        Map<String, Mogram> owners = new HashMap<String, Mogram>();
+        for (Mogram component : job.getMograms()) {
+            List<Mogram> single = new ArrayList<Mogram>();
+            single.add(component);
+            for (String id : addSubExertions(single))
+                owners.put(id, component);
+        }
+        Map<Uuid, Set<Uuid>> dependencies = new LinkedHashMap<Uuid, Set<Uuid>>();
+        for (Mogram component : job.getMograms())
+            dependencies.put(component.getId(), new LinkedHashSet<Uuid>());
+
+        for (Map.Entry<String, Mogram> e : owners.entrySet()) {
+            Mogram consumer = e.getValue();
+            for (String producerId : dag.getChildLabels(e.getKey())) {
+                Mogram producer = owners.get(producerId);
+                if (producer != null && producer != consumer)
+                    dependencies.get(consumer.getId()).add(producer.getId());
+            }
+        }
+        return dependencies;
+    }
+
     /**
      * Helper method to build a tree of all exertion IDs in a tree - required by setFlow
      * @param sortedSubXrt
@@ -87,7 +121,7 @@ public class ExertionSorter {
 
 
     /**
-     * Determine the Flow (PAR or SEQ) for mograms that have the Flow setValue to AUTO
+     * Determine the Flow (PAR, DAG or SEQ) for mograms that have the Flow setValue to AUTO
      *
      * @param topXrt
      * @param sortedSubXrt
@@ -114,7 +148,22 @@ public class ExertionSorter {
         if (topXrt.getMograms().size() > 0)
             logger.debug("XRT " + topXrt.getName() + " has edges: " + edges);
         if (edges == 0) return Strategy.Flow.PAR;
-        else return Strategy.Flow.SEQ;
+        else if (isSequentialOnly(topXrt)) return Strategy.Flow.SEQ;
+        else return Strategy.Flow.DAG;
+    }
+
+    /**
+     * Continuous tasks take the context of the preceding task, so a job
+     * containing them keeps the sequential flow.
+     */
+    private boolean isSequentialOnly(Exertion topXrt) {
+        if (topXrt.isBlock())
+            return true;
+        for (Mogram xrt : topXrt.getMograms()) {
+            if (xrt instanceof Task && ((Task) xrt).isContinous())
+                return true;
+        }
+        return false;
     }
 
     /**
@@ -80,8 +80,11 @@ public class MogramDispatcherFactory implements DispatcherFactory {
         }
 
         try {
-            if(mogram instanceof Job)
-                mogram = new ExertionSorter((Job)mogram).getSortedJob();
+            ExertionSorter sorter = null;
+            if(mogram instanceof Job) {
+                sorter = new ExertionSorter((Job)mogram);
+                mogram = sorter.getSortedJob();
+            }
 
             if ( mogram instanceof Block && Mograms.isCatalogBlock((Exertion)mogram)) {
                 logger.info("Running Catalog Block Dispatcher...");
@@ -101,7 +104,24 @@ public class MogramDispatcherFactory implements DispatcherFactory {
             }
             if (dispatcher==null && mogram instanceof Job) {
                 Job job = (Job) mogram;
-                if (Mograms.isSpaceParallel(job)) {
+                if (Mograms.isSpaceDataflow(job)) {
+                    logger.info("Running Space Dataflow Dispatcher...");
+                    dispatcher = new SpaceDataflowDispatcher(job,
+                                                             sharedContexts,
+                                                             isSpawned,
+                                                             loki,
+                                                             provider,
+                                                             provisionManager,
+                                                             sorter.getDependencies(job));
+                } else if (Mograms.isCatalogDataflow(job)) {
+                    logger.info("Running Catalog Dataflow Dispatcher...");
+                    dispatcher = new CatalogDataflowDispatcher(job,
+                                                               sharedContexts,
+                                                               isSpawned,
+                                                               provider,
+                                                               provisionManager,
+                                                               sorter.getDependencies(job));
+                } else if (Mograms.isSpaceParallel(job)) {
                     logger.info("Running Space Parallel Dispatcher...");
                     dispatcher = new SpaceParallelDispatcher(job,
                                                              sharedContexts,
@@ -0,0 +1,105 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.exertion.ExertionEnvelop;
+import sorcer.core.loki.member.LokiMemberUtil;
+import sorcer.core.provider.Provider;
+import sorcer.service.*;
+
+import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static sorcer.service.Exec.*;
+import static sorcer.util.StringUtils.tName;
+
+/**
+ * A dispatcher for jobs with the {@link Strategy.Flow#DAG} flow in the PULL
+ * mode. Exertions are written into the exertion space as soon as all the
+ * exertions they depend on by context pipes have been collected.
+ */
+public class SpaceDataflowDispatcher extends SpaceParallelDispatcher {
+    private final Logger logger = LoggerFactory.getLogger(SpaceDataflowDispatcher.class);
+
+    private final Map<Uuid, Set<Uuid>> dependencies;
+
+    private DataflowGraph graph;
+
+    public SpaceDataflowDispatcher(Job job,
+                                   Set<Context> sharedContexts,
+                                   boolean isSpawned,
+                                   LokiMemberUtil loki,
+                                   Provider provider,
+                                   ProvisionManager provisionManager,
+                                   Map<Uuid, Set<Uuid>> dependencies) throws ExertionException, ContextException {
+        super(job, sharedContexts, isSpawned, loki, provider, provisionManager);
+        this.dependencies = dependencies;
+    }
+
+    @Override
+    public void doExec(Arg... args) throws SignatureException, ExertionException {
+        graph = new DataflowGraph(inputXrts, dependencies);
+        logger.debug("Dataflow for {}: {} exertions, critical path length: {}",
+                xrt.getName(), graph.size(), graph.getCriticalPathLength());
+        new Thread(disatchGroup, new CollectResultThread(), tName("collect-" + xrt.getName())).start();
+        dispatchReady(graph.getReady());
+    }
+
+    @Override
+    public void collectResults() throws ExertionException, SignatureException, RemoteException {
+        super.collectResults();
+        xrt.getControlContext().appendTrace("dataflow critical path: " + graph.getCriticalPathLength()
+                + " exertions, " + graph.getCriticalPathTime() + " ms");
+    }
+
+    @Override
+    protected void handleResult(Collection<ExertionEnvelop> results) throws ExertionException, SignatureException, RemoteException {
+        super.handleResult(results);
+        for (ExertionEnvelop resultEnvelop : results) {
+            if (resultEnvelop.exertion.getStatus() == FAILED) {
+                // downstream exertions will never be released
+                xrt.setStatus(FAILED);
+                state = FAILED;
+                throw new ExertionException("Dataflow exertion failed: " + resultEnvelop.exertion.getName(), xrt);
+            }
+        }
+        for (ExertionEnvelop resultEnvelop : results)
+            dispatchReady(graph.completed(resultEnvelop.exertion.getId()));
+    }
+
+    public DataflowGraph getGraph() {
+        return graph;
+    }
+
+    private void dispatchReady(List<Mogram> ready) throws ExertionException, SignatureException {
+        List<Mogram> exertions = new ArrayList<Mogram>(ready.size());
+        for (Mogram mogram : ready) {
+            if (mogram instanceof Exertion)
+                exertions.add(mogram);
+            else
+                dispatchReady(graph.completed(mogram.getId()));
+        }
+        dispatch(exertions);
+    }
+}
@@ -38,10 +38,7 @@ import sorcer.service.*;
 import sorcer.service.space.SpaceAccessor;
 
 import java.rmi.RemoteException;
-import java.util.Arrays;
-import java.util.Collection;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 import static sorcer.service.Exec.*;
 import static sorcer.util.StringUtils.tName;
@@ -90,37 +87,63 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
     public void doExec(Arg... args) throws SignatureException, ExertionException {
         new Thread(disatchGroup, new CollectResultThread(), tName("collect-" + xrt.getName())).start();
 
-        for (Mogram mogram : inputXrts) {
-            logger.info("Calling monSession.init from SpaceParallelDispatcher for: {}", mogram.getName());
-            MonitoringSession monSession = MonitorUtil.getMonitoringSession((Exertion)mogram);
-            if (xrt.isMonitorable() && monSession!=null) {
-                try {
-                    if (monSession.getState()==State.INITIAL.ordinal()) {
-                        logger.info("initializing monitoring from SpaceParallelDispatcher for{}", mogram.getName());
-                        monSession.init(Lease.FOREVER, MogramDispatcherFactory.DEFAULT_TIMEOUT_PERIOD);
-                    }
-                } catch (MonitorException | RemoteException e) {
-                    logger.error("Problem starting monitoring for {}", xrt.getName(), e);
-                }
-            }
-            dispatchExertion((Exertion)mogram);
+        dispatch(inputXrts);
+	}
+
+    protected void dispatch(Mogram mogram) throws ExertionException, SignatureException {
+        dispatch(Collections.singletonList(mogram));
+    }
+
+    /**
+     * Writes the given mograms into the exertion space with a single bulk
+     * write.
+     */
+    protected void dispatch(List<? extends Mogram> mograms) throws ExertionException, SignatureException {
+        if (mograms.isEmpty())
+            return;
+        List<Exertion> exertions = new ArrayList<Exertion>(mograms.size());
+        for (Mogram mogram : mograms) {
+            initMonitoring((Exertion) mogram);
+            exertions.add((Exertion) mogram);
+        }
+        dispatchExertions(exertions);
+        for (Exertion exertion : exertions) {
             try {
-                afterExec((Exertion)mogram);
+                afterExec(exertion);
             } catch (ContextException ce) {
                 logger.warn("Problem sending state to monitor");
             }
         }
-	}
+    }
+
+    private void initMonitoring(Exertion exertion) {
+        logger.info("Calling monSession.init from SpaceParallelDispatcher for: {}", exertion.getName());
+        MonitoringSession monSession = MonitorUtil.getMonitoringSession(exertion);
+        if (xrt.isMonitorable() && monSession!=null) {
+            try {
+                if (monSession.getState()==State.INITIAL.ordinal()) {
+                    logger.info("initializing monitoring from SpaceParallelDispatcher for{}", exertion.getName());
+                    monSession.init(Lease.FOREVER, MogramDispatcherFactory.DEFAULT_TIMEOUT_PERIOD);
+                }
+            } catch (MonitorException | RemoteException e) {
+                logger.error("Problem starting monitoring for {}", xrt.getName(), e);
+            }
+        }
+    }
 
     protected void dispatchExertion(Exertion exertion) throws ExertionException, SignatureException {
-        logger.debug("exertion #{}: exertion: {}", exertion.getIndex(), exertion);
+        dispatchExertions(Collections.singletonList(exertion));
+    }
+
+    protected void dispatchExertions(List<Exertion> exertions) throws ExertionException, SignatureException {
+        logger.debug("dispatching {} exertions: {}", exertions.size(), exertions);
         try {
-            writeEnvelop(exertion);
-            logger.debug("generateTasks ==> SPACE EXECUTE EXERTION: "
-                    + exertion.getName());
+            writeEnvelops(exertions);
+            logger.debug("generateTasks ==> SPACE EXECUTE EXERTIONS: {}", exertions.size());
             xrt.setStatus(INSPACE);
         } catch (RemoteException re) {
 			logger.warn("Space not reachable....resetting space", re);
+			SpaceAccessor.invalidate(space);
 			space = SpaceAccessor.getSpace();
 			if (space == null) {
 				xrt.setStatus(FAILED);
@@ -242,6 +265,8 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
             logger.debug("written poisoned envelop for: "
                     + ee.describe() + "\n to: " + space);
         } catch (Exception e) {
+            if (e instanceof RemoteException)
+                SpaceAccessor.invalidate(space);
             logger.warn("writting poisoned ExertionEnvelop", e);
         }
     }
@@ -276,6 +301,11 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
 
     protected void writeEnvelop(Exertion exertion) throws
             ExertionException, SignatureException, RemoteException {
+        writeEnvelops(Collections.singletonList(exertion));
+    }
+
+    protected void writeEnvelops(List<Exertion> exertions) throws
+            ExertionException, SignatureException, RemoteException {
         // setSubject before exertion is dropped
         space = SpaceAccessor.getSpace();
         if (space == null) {
@@ -285,15 +315,25 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
         /*if (exertion.isProvisionable())
             provisionProviderForExertion(exertion);*/
 
-        ((ServiceExertion) exertion).setSubject(subject);
-        preExecExertion(exertion);
-        ExertionEnvelop ee = ExertionEnvelop.getTemplate(exertion);
-        ee.state = INITIAL;
+        List<Entry> envelops = new ArrayList<Entry>(exertions.size());
+        List<Long> leases = new ArrayList<Long>(exertions.size());
+        for (Exertion exertion : exertions) {
+            ((ServiceExertion) exertion).setSubject(subject);
+            preExecExertion(exertion);
+            ExertionEnvelop ee = ExertionEnvelop.getTemplate(exertion);
+            ee.state = INITIAL;
+            envelops.add(ee);
+            leases.add(Lease.FOREVER);
+        }
         try {
-            space.write(ee, null, Lease.FOREVER);
-            logger.debug("written envelop: "
-                    + ee.describe() + "\n to: " + space);
+            if (envelops.size() == 1)
+                space.write(envelops.get(0), null, Lease.FOREVER);
+            else
+                space.write(envelops, null, leases);
+            logger.debug("written {} envelops to: {}", envelops.size(), space);
         } catch (Exception e) {
+            if (e instanceof RemoteException)
+                SpaceAccessor.invalidate(space);
             logger.warn("writeEnvelop", e);
             state = Exec.FAILED;
         }
@@ -318,6 +358,8 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
             logger.warn("UnusableEntryException! unusable fields = " + e.partialEntry, e);
             throw new ExertionException("Taking exertion envelop failed", e);
         } catch (Throwable e) {
+            if (e instanceof RemoteException)
+                SpaceAccessor.invalidate(space);
             throw new ExertionException("Taking exertion envelop failed", e);
         }
     }
@@ -384,6 +426,7 @@ public class SpaceParallelDispatcher extends ExertDispatcher {
         } catch (RemoteException re) {
             re.printStackTrace();
             logger.warn("Space died....resetting space");
+            SpaceAccessor.invalidate(space);
             space = SpaceAccessor.getSpace();
             if (space == null) {
                 throw new ExertionException("NO exertion space available!");
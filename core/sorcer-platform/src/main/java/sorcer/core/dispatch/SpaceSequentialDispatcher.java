@@ -24,6 +24,8 @@ import sorcer.core.loki.member.LokiMemberUtil;
 import sorcer.core.provider.Provider;
 import sorcer.service.*;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
 
 public class SpaceSequentialDispatcher extends SpaceParallelDispatcher {
@@ -38,9 +40,19 @@ public class SpaceSequentialDispatcher extends SpaceParallelDispatcher {
 		super(job, sharedContexts, isSpawned, myMemberUtil, provider, provisionManager);
 	}
 
-    protected void dispatchExertion(Exertion exertion) throws ExertionException, SignatureException {
-        super.dispatchExertion(exertion);
-		waitForExertion(exertion);
+    @Override
+    protected void dispatch(List<? extends Mogram> mograms) throws ExertionException, SignatureException {
+        // one at a time, each exertion waits for its predecessor
+        for (Mogram mogram : mograms)
+            super.dispatch(Collections.singletonList(mogram));
+    }
+
+    @Override
+    protected void dispatchExertions(List<Exertion> exertions) throws ExertionException, SignatureException {
+        for (Exertion exertion : exertions) {
+            super.dispatchExertions(Collections.singletonList(exertion));
+            waitForExertion(exertion);
+        }
 	}
 
     protected synchronized void waitForExertion(Exertion exertion) {
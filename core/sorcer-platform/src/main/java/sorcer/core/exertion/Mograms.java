@@ -53,6 +53,12 @@ public class Mograms implements SorcerConstants {
 				&& Access.PUSH.equals(cc.get(cc.EXERTION_ACCESS));
 	}
 
+	public static boolean isCatalogDataflow(Job job) {
+		ControlContext cc = job.getControlContext();
+		return Flow.DAG.equals(cc.get(cc.EXERTION_FLOW))
+				&& Access.PUSH.equals(cc.get(cc.EXERTION_ACCESS));
+	}
+
 	public static boolean isCatalogBlock(Exertion exertion) {
 		ControlContext cc = (ControlContext)exertion.getControlContext();
 		return exertion instanceof Block
@@ -83,6 +89,12 @@ public class Mograms implements SorcerConstants {
 				&& Access.PULL.equals(cc.get(cc.EXERTION_ACCESS));
 	}
 	
+	public static boolean isSpaceDataflow(Job job) {
+		ControlContext cc = job.getControlContext();
+		return Flow.DAG.equals(cc.get(cc.EXERTION_FLOW))
+				&& Access.PULL.equals(cc.get(cc.EXERTION_ACCESS));
+	}
+
 	public static boolean isSpaceSingleton(Job job) {
 		ControlContext cc = job.getControlContext();
 		return job.size() == 1
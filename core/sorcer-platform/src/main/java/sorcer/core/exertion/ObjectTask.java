@@ -126,11 +126,8 @@ public class ObjectTask extends Task {
 				// create a provider of this object signature
 				Object prv = null;
 				if (os.getInitSelector() == null) {
-					if (os.getTargetSignature() != null) {
-						prv = ((ObjectSignature)os.getTargetSignature()).getProviderType().newInstance();
-					} else {
-						prv = os.getProviderType().newInstance();
-					}
+					if (os.getTarget() == null)
+						prv = os.getProviderInstance();
 				} else {
 					prv = provider(os);
 				}
@@ -142,10 +139,12 @@ public class ObjectTask extends Task {
 						result = ((Provider) target).exert(this, null).getDataContext();
 					} else {
 						evaluator = new MethodInvoker(target, os.getSelector());
+						evaluator.setResolution(os.getResolution());
 					}
 				}
 				else {
 					evaluator = new MethodInvoker(prv, os.getSelector());
+					evaluator.setResolution(os.getResolution());
 				}
 			}
 			if (evaluator != null) {
@@ -17,10 +17,14 @@
 
 package sorcer.core.invoker;
 
-import groovy.lang.GroovyShell;
+import groovy.lang.Binding;
+import groovy.lang.Script;
+import org.apache.commons.io.FileUtils;
+import org.codehaus.groovy.control.CompilerConfiguration;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.context.model.ent.Pro;
 import sorcer.service.*;
+import sorcer.util.Sorcer;
 
 import java.io.*;
 import java.rmi.RemoteException;
@@ -49,9 +53,9 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	protected String expression;
 
 	/**
-	 * The evaluator
+	 * The compiled script
 	 */
-	transient private GroovyShell shell;
+	transient private volatile CompiledScript compiled;
 
 	private File scriptFile = null;
 
@@ -65,6 +69,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	public GroovyInvoker(String expression) {
 		this();
 		this.expression = expression;
+		precompile();
 	}
 
 	public GroovyInvoker(String expression, ArgSet parameters) {
@@ -77,6 +82,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 			this.name = name;
 		this.expression = expression;
 		this.args = parameters;
+		precompile();
 	}
 
 	public GroovyInvoker(String expression, Arg... parameters) {
@@ -98,7 +104,6 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	public T evaluate(Arg... args) throws InvocationException,
 			RemoteException {
 		Object result = null;
-		shell = new GroovyShell(Thread.currentThread().getContextClassLoader());
 		try {
 			if (args != null) {
 				Domain inCxt = Arg.selectDomain(args);
@@ -110,28 +115,83 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 					setValid(false);
 				}
 			}
-			initBindings();
-			synchronized (shell) {
-				if (scriptFile != null) {
-					try {
-						result = shell.evaluate(scriptFile);
-					} catch (IOException e) {
-						throw new InvocationException(e);
-					}
-				} else {
-					StringBuilder sb = new StringBuilder(staticImports.toString());
-					sb.append(expression);
-					logger.debug(sb.toString());
-					result = shell.evaluate(sb.toString());
-				}
+			Binding binding = initBindings();
+			Class<? extends Script> type;
+			try {
+				type = compile(Thread.currentThread().getContextClassLoader());
+			} catch (IOException e) {
+				throw new InvocationException(e);
 			}
+			result = ScriptCache.createScript(type, binding).run();
 		} catch (ContextException e) {
 			logger.error("Error Occurred in Groovy Shell: " + e.getMessage());
 		}
 		return (T) result;
 	}
 
-	private void initBindings() throws RemoteException, ContextException {
+	/**
+	 * Compiles the expression with the context class loader, so evaluations
+	 * do not wait for the compiler.
+	 *
+	 * @return this invoker
+	 */
+	public GroovyInvoker<T> compile() throws InvocationException {
+		try {
+			compile(Thread.currentThread().getContextClassLoader());
+		} catch (IOException e) {
+			throw new InvocationException(e);
+		}
+		return this;
+	}
+
+	private void precompile() {
+		if (expression != null && Sorcer.isScriptPrecompiled()) {
+			try {
+				compile(Thread.currentThread().getContextClassLoader());
+			} catch (Exception e) {
+				// reported when evaluated
+				logger.debug("Not precompiled: {}", expression, e);
+			}
+		}
+	}
+
+	/*
+	 * Returns the script class compiled with the given loader, the last one
+	 * is kept unless the script file is modified.
+	 */
+	private Class<? extends Script> compile(ClassLoader loader) throws IOException {
+		CompiledScript last = compiled;
+		long modified = scriptFile != null ? scriptFile.lastModified() : 0;
+		if (last != null && last.loader == loader && last.modified == modified)
+			return last.type;
+		String source;
+		if (scriptFile != null) {
+			source = FileUtils.readFileToString(scriptFile);
+		} else {
+			StringBuilder sb = new StringBuilder(staticImports.toString());
+			sb.append(expression);
+			source = sb.toString();
+			logger.debug(source);
+		}
+		Class<? extends Script> type = ScriptCache.getInstance().getScriptClass(getClass().getName(), source,
+				loader, CompilerConfiguration.DEFAULT);
+		compiled = new CompiledScript(type, loader, modified);
+		return type;
+	}
+
+	private static class CompiledScript {
+		final Class<? extends Script> type;
+		final ClassLoader loader;
+		final long modified;
+
+		CompiledScript(Class<? extends Script> type, ClassLoader loader, long modified) {
+			this.type = type;
+			this.loader = loader;
+			this.modified = modified;
+		}
+	}
+
+	private Binding initBindings() throws RemoteException, ContextException {
 		if (invokeContext != null) {
 			if (args != null && args.size() > 0) {
 				for (Arg p : args) {
@@ -148,6 +208,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 				}
 			}
 		}
+		Binding binding = new Binding();
 		Iterator<Arg> i = args.iterator();
 		Object val = null;
 		String key = null;
@@ -158,8 +219,9 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 			if (val instanceof Evaluation) {
 				val = ((Evaluation) val).evaluate();
 			}
-			shell.setVariable(key, val);
+			binding.setVariable(key, val);
 		}
+		return binding;
 	}
 
 	private StringBuilder readStaticImports() {
@@ -191,7 +253,7 @@ public class GroovyInvoker<T> extends ServiceInvoker<T> {
 	}
 
 	public void clean() {
-		shell = null;
+		compiled = null;
 	}
 
 	@Override
@@ -21,17 +21,18 @@ import net.jini.core.transaction.Transaction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.context.ServiceContext;
+import sorcer.core.provider.DispatchTable;
 import sorcer.service.*;
 import sorcer.util.SorcerUtil;
 import sorcer.eo.operator.Args;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.rmi.RemoteException;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
+import java.util.Arrays;
 
 /**
  * @author Mike Sobolewski
@@ -57,7 +58,13 @@ public class MethodInvoker<T> extends ServiceInvoker<T> implements MethodInvokin
 
 	private Domain context;
 
-	transient private Method m;
+	transient private DispatchTable.Operation m;
+
+	// the class of className resolved by the first evaluation
+	transient private Class<?> evalType;
+
+	// the operation resolved by the last evaluation, may be shared
+	transient private Resolution resolution;
 
 	transient private URLClassLoader miLoader;
 
@@ -200,14 +207,14 @@ public class MethodInvoker<T> extends ServiceInvoker<T> implements MethodInvokin
 				if (exportURL != null) {
 					target = getInstance();
 				} else if (className != null) {
-					evalClass = Class.forName(className);
-
-					Constructor<?> constructor;
-					if (initObject != null) {
-						constructor = evalClass.getConstructor(new Class[]{Object.class});
-						target = constructor.newInstance(new Object[]{initObject});
-					} else
-						target = evalClass.newInstance();
+					if (evalType == null)
+						evalType = Class.forName(className);
+					evalClass = evalType;
+
+					if (initObject != null)
+						target = DispatchTable.getShared().getConstructor(evalClass, Object.class).invoke(null, initObject);
+					else
+						target = DispatchTable.getShared().getConstructor(evalClass).invokeWith(null, null);
 				}
 			} else {
 				if (target instanceof Class)
@@ -218,18 +225,12 @@ public class MethodInvoker<T> extends ServiceInvoker<T> implements MethodInvokin
 			// if no paramTypes defined assume that the method key 'selector'
 			// is unique
 			if (paramTypes == null) {
-				Method[] mts = evalClass.getDeclaredMethods();
-				for (Method mt : mts) {
-					if (mt.getName().equals(selector)) {
-						m = mt;
-						break;
-					}
-				}
+				m = resolve(evalClass, null);
 			} else {
 				if (selector == null) {
 					Method[] mts = evalClass.getDeclaredMethods();
 					if (mts.length == 1)
-						m = mts[0];
+						m = DispatchTable.getShared().findDeclared(evalClass, mts[0].getName());
 				} else {
 					// exception when Arg... is not specified for the invoke
 					if (target instanceof Invocation && paramTypes.length == 1
@@ -266,23 +267,12 @@ public class MethodInvoker<T> extends ServiceInvoker<T> implements MethodInvokin
 						paramTypes = null;
 						parameters = null;
 					}
-					m = evalClass.getMethod(selector, paramTypes);
-					if (m == null) {
-						Method[] mts = evalClass.getMethods();
-						if (Context.class.isAssignableFrom(paramTypes[0])) {
-							for (Method mt : mts) {
-								if (mt.getName()!=null && mt.getName().equals(selector)) {
-									m = mt;
-									break;
-								}
-							}
-						}
-					}
+					m = resolve(evalClass, paramTypes);
 				}
 			}
 			if (context != null)
 				((ServiceContext)context).getMogramStrategy().setCurrentSelector(selector);
-			val = m.invoke(target, parameters);
+			val = m.invokeWith(target, parameters);
 		} catch (Exception e) {
 			StringBuilder message = new StringBuilder();
 			message.append("** Error in object invoker").append("\n");
@@ -304,6 +294,31 @@ public class MethodInvoker<T> extends ServiceInvoker<T> implements MethodInvokin
 		return paramTypes;
 	}
 
+	/**
+	 * Shares the operations resolved by this invoker with other invokers,
+	 * e.g., the invokers created for the tasks of one signature.
+	 */
+	public void setResolution(Resolution resolution) {
+		this.resolution = resolution;
+	}
+
+	/*
+	 * Returns the operation of the selector, without parameter types the
+	 * selector is unique in the declared methods of the class.
+	 */
+	private DispatchTable.Operation resolve(Class<?> type, Class<?>[] types) throws NoSuchMethodException {
+		if (resolution == null)
+			resolution = new Resolution();
+		Resolution.Entry last = resolution.last;
+		if (last != null && last.matches(type, selector, types))
+			return last.operation;
+		DispatchTable.Operation operation = types == null
+				? DispatchTable.getShared().findDeclared(type, selector)
+				: DispatchTable.getShared().get(type, selector, types);
+		resolution.last = new Resolution.Entry(type, selector, types, operation);
+		return operation;
+	}
+
 	private Object getInstance() {
 		Object instanceObj = null;
 		ClassLoader cl = this.getClass().getClassLoader();
@@ -426,4 +441,32 @@ public class MethodInvoker<T> extends ServiceInvoker<T> implements MethodInvokin
 		this.context = context;
 	}
 
+
+	/**
+	 * The last operation resolved by the invokers sharing this resolution
+	 * with its class, selector and parameter types.
+	 */
+	public static class Resolution {
+		private volatile Entry last;
+
+		private static class Entry {
+			final Class<?> type;
+			final String selector;
+			final Class<?>[] paramTypes;
+			final DispatchTable.Operation operation;
+
+			Entry(Class<?> type, String selector, Class<?>[] paramTypes, DispatchTable.Operation operation) {
+				this.type = type;
+				this.selector = selector;
+				this.paramTypes = paramTypes == null ? null : paramTypes.clone();
+				this.operation = operation;
+			}
+
+			boolean matches(Class<?> type, String selector, Class<?>[] paramTypes) {
+				return this.type == type
+						&& (this.selector == null ? selector == null : this.selector.equals(selector))
+						&& Arrays.equals(this.paramTypes, paramTypes);
+			}
+		}
+	}
 }
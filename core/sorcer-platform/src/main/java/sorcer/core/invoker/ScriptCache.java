@@ -0,0 +1,150 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.invoker;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import groovy.lang.Binding;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilationFailedException;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import sorcer.util.Sorcer;
+
+import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The shared cache of compiled Groovy script classes keyed by the hash of
+ * the script source and the class loader it is compiled with. A script is
+ * compiled once and every evaluation creates a new instance of its class
+ * bound to the evaluation's {@link Binding}. The cache size is set by the
+ * <code>script.cache.size</code> property.
+ */
+public class ScriptCache {
+
+	private static ScriptCache instance;
+
+	private final Cache<Key, Class<? extends Script>> scripts;
+
+	public ScriptCache(int size) {
+		scripts = CacheBuilder.newBuilder()
+				.maximumSize(size)
+				// releases the class loaders of finished netlets
+				.expireAfterAccess(30, TimeUnit.MINUTES)
+				.recordStats()
+				.build();
+	}
+
+	public static synchronized ScriptCache getInstance() {
+		if (instance == null)
+			instance = new ScriptCache(Sorcer.getScriptCacheSize());
+		return instance;
+	}
+
+	/**
+	 * Returns the compiled class of the script.
+	 *
+	 * @param kind
+	 *            the kind of scripts compiled with the same configuration
+	 * @param source
+	 *            the script source
+	 * @param loader
+	 *            the parent class loader of the script class
+	 * @param config
+	 *            the compiler configuration used if the script is not cached
+	 * @throws CompilationFailedException
+	 *             if the script does not compile
+	 */
+	public Class<? extends Script> getScriptClass(String kind, final String source,
+			final ClassLoader loader, final CompilerConfiguration config) throws CompilationFailedException {
+		try {
+			return scripts.get(new Key(kind, digest(source), loader), new Callable<Class<? extends Script>>() {
+				@Override
+				public Class<? extends Script> call() {
+					return new GroovyShell(loader, new Binding(), config).parse(source).getClass();
+				}
+			});
+		} catch (UncheckedExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw e;
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Returns a new instance of the script class bound to the binding.
+	 */
+	public static Script createScript(Class<? extends Script> scriptClass, Binding binding) {
+		return InvokerHelper.createScript(scriptClass, binding);
+	}
+
+	public CacheStats getStats() {
+		return scripts.stats();
+	}
+
+	public void clear() {
+		scripts.invalidateAll();
+	}
+
+	private static String digest(String source) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-1").digest(source.getBytes("UTF-8"));
+			StringBuilder sb = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				sb.append(Character.forDigit((b >> 4) & 0xf, 16));
+				sb.append(Character.forDigit(b & 0xf, 16));
+			}
+			return sb.toString();
+		} catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static class Key {
+		private final String kind;
+		private final String digest;
+		private final ClassLoader loader;
+
+		Key(String kind, String digest, ClassLoader loader) {
+			this.kind = kind;
+			this.digest = digest;
+			this.loader = loader;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return loader == other.loader && kind.equals(other.kind) && digest.equals(other.digest);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * (31 * kind.hashCode() + digest.hashCode()) + System.identityHashCode(loader);
+		}
+	}
+}
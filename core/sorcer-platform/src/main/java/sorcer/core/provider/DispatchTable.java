@@ -0,0 +1,340 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The operations of service beans by bean class, selector and parameter
+ * types. An operation is resolved once, when its bean is registered or on
+ * its first call, and is invoked through a method handle of a fixed call
+ * shape instead of a reflective lookup and <code>Method.invoke</code> per
+ * task. Operations are kept with their classes, a table does not keep class
+ * loaders of its beans from being collected.
+ * <p>
+ * The {@link #getShared() shared} table resolves the members used by local
+ * method invokers and object signatures.
+ */
+public class DispatchTable {
+
+	private static final Class<?>[] NO_TYPES = new Class<?>[0];
+
+	private static final Object[] NO_ARGS = new Object[0];
+
+	// the selector of constructors
+	private static final String NEW = "<init>";
+
+	// the lookups resolving operations
+	private static final int PUBLIC = 0, ASSIGNABLE = 1, DECLARED = 2, NAMED = 3;
+
+	private static final DispatchTable shared = new DispatchTable();
+
+	private final ClassValue<ConcurrentMap<Key, Operation>> operations = new ClassValue<ConcurrentMap<Key, Operation>>() {
+		@Override
+		protected ConcurrentMap<Key, Operation> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<Key, Operation>();
+		}
+	};
+
+	public static DispatchTable getShared() {
+		return shared;
+	}
+
+	/**
+	 * Returns the public operation of the type with the selector and
+	 * parameter types.
+	 *
+	 * @throws NoSuchMethodException
+	 *             if the type has no such operation
+	 */
+	public Operation get(Class<?> type, String selector, Class<?>... parameterTypes) throws NoSuchMethodException {
+		Key key = new Key(selector, PUBLIC, parameterTypes);
+		Operation operation = operations.get(type).get(key);
+		if (operation == null)
+			operation = add(type, key, type.getMethod(selector, key.parameterTypes));
+		return operation;
+	}
+
+	/**
+	 * Returns the public operation of the type with the selector and a
+	 * single parameter assignable from the argument type, or with the
+	 * parameter types if there is no such operation.
+	 *
+	 * @throws NoSuchMethodException
+	 *             if the type has no such operation
+	 */
+	public Operation find(Class<?> type, String selector, Class<?>... parameterTypes) throws NoSuchMethodException {
+		Key key = new Key(selector, ASSIGNABLE, parameterTypes);
+		Operation operation = operations.get(type).get(key);
+		if (operation != null)
+			return operation;
+		if (key.parameterTypes.length == 1) {
+			for (Method m : type.getMethods()) {
+				if (m.getName().equals(selector) && m.getParameterCount() == 1
+						&& m.getParameterTypes()[0].isAssignableFrom(key.parameterTypes[0]))
+					return add(type, key, m);
+			}
+		}
+		return add(type, key, type.getMethod(selector, key.parameterTypes));
+	}
+
+	/**
+	 * Returns the method declared by the type with the selector and
+	 * parameter types.
+	 *
+	 * @throws NoSuchMethodException
+	 *             if the type declares no such method
+	 */
+	public Operation getDeclared(Class<?> type, String selector, Class<?>... parameterTypes)
+			throws NoSuchMethodException {
+		Key key = new Key(selector, DECLARED, parameterTypes);
+		Operation operation = operations.get(type).get(key);
+		if (operation == null)
+			operation = add(type, key, type.getDeclaredMethod(selector, key.parameterTypes));
+		return operation;
+	}
+
+	/**
+	 * Returns the first method declared by the type with the selector, its
+	 * parameter types are not known.
+	 *
+	 * @throws NoSuchMethodException
+	 *             if the type declares no such method
+	 */
+	public Operation findDeclared(Class<?> type, String selector) throws NoSuchMethodException {
+		Key key = new Key(selector, NAMED, null);
+		Operation operation = operations.get(type).get(key);
+		if (operation != null)
+			return operation;
+		for (Method m : type.getDeclaredMethods()) {
+			if (m.getName().equals(selector))
+				return add(type, key, m);
+		}
+		throw new NoSuchMethodException(type.getName() + "." + selector);
+	}
+
+	/**
+	 * Returns the public constructor of the type with the parameter types,
+	 * invoked with a <code>null</code> bean.
+	 *
+	 * @throws NoSuchMethodException
+	 *             if the type has no such constructor
+	 */
+	public Operation getConstructor(Class<?> type, Class<?>... parameterTypes) throws NoSuchMethodException {
+		Key key = new Key(NEW, PUBLIC, parameterTypes);
+		Operation operation = operations.get(type).get(key);
+		if (operation == null)
+			operation = add(type, key, type.getConstructor(key.parameterTypes));
+		return operation;
+	}
+
+	/**
+	 * Resolves the operations of the service types implemented by the bean,
+	 * a method inherited by several of the types is resolved once.
+	 */
+	public void register(Object bean, Collection<Class<?>> serviceTypes) {
+		Set<Method> registered = new HashSet<Method>();
+		for (Class<?> serviceType : serviceTypes) {
+			for (Method m : serviceType.getMethods()) {
+				if (!registered.add(m))
+					continue;
+				try {
+					get(bean.getClass(), m.getName(), m.getParameterTypes());
+				} catch (NoSuchMethodException | RuntimeException e) {
+					// resolved on its first call if ever
+				}
+			}
+		}
+	}
+
+	public void clear(Class<?> type) {
+		operations.remove(type);
+	}
+
+	private Operation add(Class<?> type, Key key, Executable member) {
+		Operation operation = new Operation(member);
+		Operation existing = operations.get(type).putIfAbsent(key.copy(), operation);
+		return existing != null ? existing : operation;
+	}
+
+	/**
+	 * A bean method or constructor adapted to call shapes of one, two or
+	 * three arguments, or an argument array. As by <code>Method.invoke</code>,
+	 * exceptions of the member are wrapped in an
+	 * <code>InvocationTargetException</code> and a bean or arguments the
+	 * member does not accept raise an <code>IllegalArgumentException</code>.
+	 */
+	public static final class Operation {
+		private final Executable member;
+
+		// (Object bean, Object... args)Object of the member's arity
+		private final MethodHandle handle;
+
+		// (Object bean, Object[] args)Object
+		private final MethodHandle spreader;
+
+		Operation(Executable member) {
+			this.member = member;
+			MethodHandle mh;
+			try {
+				mh = unreflect(MethodHandles.publicLookup(), member);
+			} catch (IllegalAccessException e) {
+				// a member of a class that is not public
+				member.setAccessible(true);
+				try {
+					mh = unreflect(MethodHandles.lookup(), member);
+				} catch (IllegalAccessException e1) {
+					throw new IllegalStateException(e1);
+				}
+			}
+			// static methods and constructors ignore the bean
+			if (member instanceof Constructor || Modifier.isStatic(member.getModifiers()))
+				mh = MethodHandles.dropArguments(mh, 0, Object.class);
+			int arity = member.getParameterCount();
+			handle = mh.asFixedArity().asType(MethodType.genericMethodType(arity + 1));
+			spreader = handle.asSpreader(Object[].class, arity);
+		}
+
+		private static MethodHandle unreflect(MethodHandles.Lookup lookup, Executable member)
+				throws IllegalAccessException {
+			if (member instanceof Constructor)
+				return lookup.unreflectConstructor((Constructor<?>) member);
+			return lookup.unreflect((Method) member);
+		}
+
+		public Executable getMember() {
+			return member;
+		}
+
+		public Object invoke(Object bean, Object arg) throws InvocationTargetException {
+			try {
+				return (Object) handle.invokeExact(bean, arg);
+			} catch (Throwable t) {
+				throw failure(t, bean, arg);
+			}
+		}
+
+		public Object invoke(Object bean, Object arg1, Object arg2) throws InvocationTargetException {
+			try {
+				return (Object) handle.invokeExact(bean, arg1, arg2);
+			} catch (Throwable t) {
+				throw failure(t, bean, arg1, arg2);
+			}
+		}
+
+		public Object invoke(Object bean, Object arg1, Object arg2, Object arg3) throws InvocationTargetException {
+			try {
+				return (Object) handle.invokeExact(bean, arg1, arg2, arg3);
+			} catch (Throwable t) {
+				throw failure(t, bean, arg1, arg2, arg3);
+			}
+		}
+
+		/**
+		 * Invokes the member with the arguments, <code>null</code> for no
+		 * arguments.
+		 */
+		public Object invokeWith(Object bean, Object[] args) throws InvocationTargetException {
+			Object[] spread = args == null ? NO_ARGS : args;
+			try {
+				return (Object) spreader.invokeExact(bean, spread);
+			} catch (Throwable t) {
+				throw failure(t, bean, spread);
+			}
+		}
+
+		/*
+		 * Wraps an exception of the member, a failure of the call itself is
+		 * thrown as an IllegalArgumentException.
+		 */
+		private InvocationTargetException failure(Throwable t, Object bean, Object... args) {
+			if (t instanceof WrongMethodTypeException || args.length != member.getParameterCount())
+				throw new IllegalArgumentException("wrong number of arguments for " + member, t);
+			if ((t instanceof ClassCastException || t instanceof NullPointerException
+					|| t instanceof IllegalArgumentException) && !accepts(bean, args))
+				throw new IllegalArgumentException("argument type mismatch for " + member, t);
+			return new InvocationTargetException(t);
+		}
+
+		private boolean accepts(Object bean, Object[] args) {
+			if (member instanceof Method && !Modifier.isStatic(member.getModifiers()) && bean != null
+					&& !member.getDeclaringClass().isInstance(bean))
+				return false;
+			Class<?>[] types = member.getParameterTypes();
+			for (int i = 0; i < types.length; i++) {
+				if (types[i].isPrimitive()) {
+					if (args[i] == null || (types[i] == boolean.class) != (args[i] instanceof Boolean))
+						return false;
+				} else if (args[i] != null && !types[i].isInstance(args[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public String toString() {
+			return member.toString();
+		}
+	}
+
+	private static final class Key {
+		private final String selector;
+		private final int lookup;
+		private final Class<?>[] parameterTypes;
+		private final int hash;
+
+		Key(String selector, int lookup, Class<?>[] parameterTypes) {
+			this.selector = selector;
+			this.lookup = lookup;
+			this.parameterTypes = parameterTypes == null ? NO_TYPES : parameterTypes;
+			hash = 31 * (31 * selector.hashCode() + lookup) + Arrays.hashCode(this.parameterTypes);
+		}
+
+		// a key that does not share the caller's parameter types
+		Key copy() {
+			return new Key(selector, lookup, parameterTypes.clone());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return lookup == other.lookup && selector.equals(other.selector)
+					&& Arrays.equals(parameterTypes, other.parameterTypes);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
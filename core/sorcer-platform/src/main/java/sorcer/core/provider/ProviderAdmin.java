@@ -96,6 +96,10 @@ public class ProviderAdmin implements ProviderAdminMBean {
         return provider.getProviderName();
     }
 
+    @Override public int getAvailableWorkerPermits() {
+        return provider.getDelegate().getAvailableWorkerPermits();
+    }
+
     @Override public void destroy() {
         logger.warn("Destroying {}", provider.getProviderName());
         provider.destroy();
@@ -28,6 +28,13 @@ public interface ProviderAdminMBean {
      */
     String getProviderName();
 
+    /**
+     * Get the number of space workers free to take exertions
+     *
+     * @return The number of available worker permits of all space takers
+     */
+    int getAvailableWorkerPermits();
+
     /**
      * Destroy the Provider
      */
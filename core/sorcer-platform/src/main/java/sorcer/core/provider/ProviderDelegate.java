@@ -48,6 +48,7 @@ import sorcer.core.SorcerNotifierProtocol;
 import sorcer.core.analytics.AnalyticsRecorder;
 import sorcer.core.context.Contexts;
 import sorcer.core.context.ServiceContext;
+import sorcer.core.dispatch.DispatchExecutor;
 import sorcer.core.exertion.ExertionEnvelop;
 import sorcer.core.exertion.NetTask;
 import sorcer.core.loki.member.LokiMemberUtil;
@@ -96,6 +97,7 @@ import java.security.Principal;
 import java.security.PrivilegedExceptionAction;
 import java.util.*;
 import java.util.Collections;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadPoolExecutor;
@@ -163,7 +165,7 @@ public class ProviderDelegate {
 
 	protected String spaceName;
 
-	private List<SpaceTaker> spaceTakers = new ArrayList<SpaceTaker>();
+	private List<SpaceTaker> spaceTakers = new CopyOnWriteArrayList<SpaceTaker>();
 
 	protected Class[] publishedServiceTypes;
 
@@ -296,6 +298,11 @@ public class ProviderDelegate {
 	 */
 	private Map<Class<?>, Object> serviceComponents;
 
+	/**
+	 * Resolved operations of service beans and of the provider itself.
+	 */
+	private final DispatchTable dispatchTable = new DispatchTable();
+
 	/**
 	 * Indicates a single threaded execution for service beans or providers
 	 * implementing the SingleThreadModel interface.
@@ -549,6 +556,18 @@ public class ProviderDelegate {
 			logger.warn("Problem getting {}.{}", ServiceProvider.COMPONENT, MAX_WORKER_POOL_SIZE, e);
 		}
 
+		try {
+			int dispatchParallelism = (Integer) jconfig.getEntry(ServiceProvider.COMPONENT, DISPATCH_PARALLELISM,
+				int.class, 0);
+			int dispatchQueueSize = (Integer) jconfig.getEntry(ServiceProvider.COMPONENT, DISPATCH_QUEUE_SIZE,
+				int.class, 0);
+			// providers without their own settings share the default dispatch executor
+			if (dispatchParallelism > 0 || dispatchQueueSize > 0)
+				DispatchExecutor.configure(provider, getProviderName(), dispatchParallelism, dispatchQueueSize);
+		} catch (Exception e) {
+			logger.warn("Problem getting {}.{}", ServiceProvider.COMPONENT, DISPATCH_PARALLELISM, e);
+		}
+
 		try {
 			spaceReadiness = (Boolean) jconfig.getEntry(ServiceProvider.COMPONENT, SPACE_READINESS, boolean.class,
 				false);
@@ -704,6 +723,17 @@ public class ProviderDelegate {
 	public int getWorkerCount() {
 		return workerCount;
 	}
+
+	/**
+	 * Returns the number of space workers free to take exertions, summed
+	 * over all space takers of this provider.
+	 */
+	public int getAvailableWorkerPermits() {
+		int permits = 0;
+		for (SpaceTaker taker : spaceTakers)
+			permits += taker.getAvailablePermits();
+		return permits;
+	}
 	private void initThreadGroups() {
 		namedGroup = new ThreadGroup("Provider Group: " + getProviderName());
 		namedGroup.setDaemon(true);
@@ -1134,30 +1164,30 @@ public class ProviderDelegate {
 				argTypes = cxt.getParameterTypes();
 				isContextual = false;
 			}
-			Method m = null;
+			DispatchTable.Operation m = null;
 			try {
 				// select the proper method for the bean type
 				if (selector.equals("exert") && (bean instanceof Domain
 					||  bean instanceof Exertion)) {
-					m = bean.getClass().getMethod(selector, Mogram.class, Transaction.class, Arg[].class);
+					m = dispatchTable.get(bean.getClass(), selector, Mogram.class, Transaction.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("evaluate") && bean instanceof Domain) {
-					m = bean.getClass().getMethod(selector, Context.class, Arg[].class);
+					m = dispatchTable.get(bean.getClass(), selector, Context.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("invoke") && (bean instanceof Exertion || bean instanceof Context)) {
-					m = bean.getClass().getMethod(selector, Context.class, Arg[].class);
+					m = dispatchTable.get(bean.getClass(), selector, Context.class, Arg[].class);
 					isContextual = true;
 				} else if (selector.equals("exert") && bean instanceof ServiceShell) {
-					m = bean.getClass().getMethod(selector, Mogram.class, Arg[].class);
+					m = dispatchTable.get(bean.getClass(), selector, Mogram.class, Arg[].class);
 					isContextual = false;
 				} else if (selector.equals("execute") && bean instanceof Service) {
-					m = bean.getClass().getMethod(selector, Arg[].class);
+					m = dispatchTable.get(bean.getClass(), selector, Arg[].class);
 					isContextual = false;
 				} else if (selector.equals("explore") && bean instanceof Exploration) {
-					m = bean.getClass().getMethod(selector, Context.class, Arg[].class);
+					m = dispatchTable.get(bean.getClass(), selector, Context.class, Arg[].class);
 					isContextual = true;
 				} else {
-					m = bean.getClass().getMethod(selector, argTypes);
+					m = dispatchTable.get(bean.getClass(), selector, argTypes);
 				}
 				if(logger.isTraceEnabled())
 					logger.trace("Executing service bean method: {} by: {} isContextual: {}",
@@ -1192,15 +1222,14 @@ public class ProviderDelegate {
 		return task;
 	}
 
-	private Context execContextualBean(Method m, Task task, Object impl, Arg... args)
-		throws ContextException, IllegalArgumentException,
-		IllegalAccessException, InvocationTargetException, RemoteException {
+	private Context execContextualBean(DispatchTable.Operation m, Task task, Object impl, Arg... args)
+		throws ContextException, InvocationTargetException, RemoteException {
 		Context result = task.getContext();
 		String selector = task.getProcessSignature().getSelector();
 		Object[] pars = new Object[] { task.getContext() };
 		if (selector.equals("invoke")
 			&& (impl instanceof Exertion || impl instanceof Context)) {
-			Object obj = m.invoke(impl, new Object[] { pars[0], args });
+			Object obj = m.invoke(impl, pars[0], args);
 
 			if (obj instanceof Job)
 				result = ((Job) obj).getJobContext();
@@ -1216,23 +1245,23 @@ public class ProviderDelegate {
 				task.getTrace().addAll(((Exertion) obj).getTrace());
 			}
 		} else if (impl instanceof Mogram && selector.equals("exert")) {
-			result = ((Mogram)m.invoke(impl, new Object[] { pars[0], null, args })).getContext();
+			result = ((Mogram)m.invoke(impl, pars[0], null, args)).getContext();
 		} else if (impl instanceof Domain && selector.equals("evaluate")) {
-			result = ((Domain)m.invoke(impl, new Object[] { pars[0], args })).getContext();
+			result = ((Domain)m.invoke(impl, pars[0], args)).getContext();
 		} else if (impl instanceof Exploration && selector.equals("explore")) {
-			result = (Context) m.invoke(impl, new Object[] { pars[0], args });
+			result = (Context) m.invoke(impl, pars[0], args);
 		} else {
 			logger.debug("getProviderName: {} invoking: {}" + getProviderName(), m);
 			logger.debug("imp: {} args: {}" + impl, Arrays.toString(pars));
-			result = (Context) m.invoke(impl, pars);
+			result = (Context) m.invoke(impl, pars[0]);
 			logger.debug("result: {}", result);
 		}
 		return result;
 	}
 
-	private Context execParametricBean(Method m, Task task,
-									   Object impl, Arg... args) throws IllegalArgumentException,
-		IllegalAccessException, InvocationTargetException, ContextException, RemoteException {
+	private Context execParametricBean(DispatchTable.Operation m, Task task,
+									   Object impl, Arg... args) throws InvocationTargetException,
+		ContextException, RemoteException {
 		Context result = task.getContext();
 		String selector = task.getProcessSignature().getSelector();
 		Class[] argTypes = ((ServiceContext)result).getParameterTypes();
@@ -1241,9 +1270,9 @@ public class ProviderDelegate {
 		if (selector.equals("exert") && impl instanceof ServiceShell) {
 			Exertion xrt = null;
 			if (pars.length == 1) {
-				xrt = (Exertion) m.invoke(impl, new Object[] { pars[0], args });
+				xrt = (Exertion) m.invoke(impl, pars[0], args);
 			} else {
-				xrt = (Exertion) m.invoke(impl, pars);
+				xrt = (Exertion) m.invokeWith(impl, pars);
 			}
 			if (xrt.isJob())
 				result = ((Job) xrt).getJobContext();
@@ -1255,16 +1284,16 @@ public class ProviderDelegate {
 			//((ServiceContext) result).setReturnValue(result);
 		} else if (selector.equals("evaluate") && impl instanceof Evaluation) {
 			if (argTypes == null) {
-				obj = m.invoke(impl, new Object[] { args });
+				obj = m.invoke(impl, (Object) args);
 			} else {
-				obj = m.invoke(impl, pars);
+				obj = m.invokeWith(impl, pars);
 			}
 			result.setReturnValue(obj);
 		} else if (selector.equals("explore") && impl instanceof Exploration) {
-			obj = m.invoke(impl, new Object[] { pars[0], args });
+			obj = m.invoke(impl, pars[0], args);
 			result.setReturnValue(obj);
 		} else {
-			result.setReturnValue(m.invoke(impl, pars));
+			result.setReturnValue(m.invokeWith(impl, pars));
 		}
 		return result;
 	}
@@ -1427,11 +1456,11 @@ public class ProviderDelegate {
 		throws ExertionException {
 		Class[] argTypes = new Class[] { Mogram.class };
 		try {
-			Method m = provider.getClass().getMethod(selector, argTypes);
+			DispatchTable.Operation m = dispatchTable.get(provider.getClass(), selector, argTypes);
 			logger.info("Executing method: " + m + " by: "
 				+ config.getProviderName());
 
-			Exertion result = (Exertion) m.invoke(provider, new Object[]{ex});
+			Exertion result = (Exertion) m.invoke(provider, ex);
 			return result;
 		} catch (Exception e) {
 			ex.getControlContext().addException(e);
@@ -1450,17 +1479,7 @@ public class ProviderDelegate {
 				args = cxt.getArgs();
 				isContextual = false;
 			}
-			Method execMethod = null;
-			for(Method m : provider.getClass().getMethods()) {
-				if(m.getName().equals(selector) && m.getParameterCount()==1) {
-					if(m.getParameterTypes()[0].isAssignableFrom(argTypes[0])) {
-						execMethod = m;
-						break;
-					}
-				}
-			}
-			if(execMethod==null)
-				execMethod = provider.getClass().getMethod(selector, argTypes);
+			DispatchTable.Operation execMethod = dispatchTable.find(provider.getClass(), selector, argTypes);
 			Context result;
             /*boolean monitored = MonitorCheck.monitor(execMethod);
 			int id = 0;
@@ -1468,14 +1487,14 @@ public class ProviderDelegate {
 			int id = analyticsRecorder.inprocess(selector);
 			try {
 				if (isContextual) {
-					result = (ServiceContext) execMethod.invoke(provider, args);
+					result = (ServiceContext) execMethod.invokeWith(provider, args);
 					// Setting Return Values
 					if (result.getReturnPath() != null) {
 						Object resultValue = result.getValue(((ServiceContext) result).getReturnPath().path);
 						result.setReturnValue(resultValue);
 					}
 				} else {
-					sc.setReturnValue(execMethod.invoke(provider, args));
+					sc.setReturnValue(execMethod.invokeWith(provider, args));
 					result = sc;
 				}
 				if(result.getExceptions().size()>0)
@@ -1834,6 +1853,7 @@ public class ProviderDelegate {
 
 	public void destroy() {
 		shuttingDown = true;
+		DispatchExecutor.shutdown(provider);
 		if (remoteLoggerInstaller!=null) {
 			remoteLoggerInstaller.destroy();
 		}
@@ -3015,6 +3035,18 @@ public class ProviderDelegate {
 				}
 			}
 		}
+		// a bean exposed by several types is registered once
+		Map<Object, List<Class<?>>> beanTypes = new IdentityHashMap<>();
+		for (Map.Entry<Class<?>, Object> component : serviceComponents.entrySet()) {
+			List<Class<?>> types = beanTypes.get(component.getValue());
+			if (types == null) {
+				types = new ArrayList<>();
+				beanTypes.put(component.getValue(), types);
+			}
+			types.add(component.getKey());
+		}
+		for (Map.Entry<Object, List<Class<?>>> bean : beanTypes.entrySet())
+			dispatchTable.register(bean.getKey(), bean.getValue());
 		logger.info("service components: {}", serviceComponents);
 	}
 
@@ -3197,12 +3229,13 @@ public class ProviderDelegate {
 	}
 
 	public void addBean(Object bean) {
-		Class[] interfazes = bean.getClass().getInterfaces();
+		Class<?>[] interfazes = bean.getClass().getInterfaces();
 		for (int j = 0; j < interfazes.length; j++) {
 			// if (interfaze[j].getDeclaredMethods().length != 0)
 			// allow marker interfaces to be added
 			serviceComponents.put(interfazes[j], bean);
 		}
+		dispatchTable.register(bean, Arrays.asList(interfazes));
 	}
 
 	public Object getBean(Class<?> serviceType) {
@@ -3383,10 +3416,18 @@ public class ProviderDelegate {
 
 	public static final String MAX_WORKER_POOL_SIZE = "maxWorkerPoolSize";
 
+	public static final String DISPATCH_PARALLELISM = "dispatchParallelism";
+
+	public static final String DISPATCH_QUEUE_SIZE = "dispatchQueueSize";
+
 	public static final String WORKER_TRANSACTION_LEASE_TIME = "workerTransactionLeaseTime";
 
 	public static final String SPACE_TIMEOUT = "workerTimeout";
 
+	public static final String WORKER_BATCH_SIZE = "workerBatchSize";
+
+	public static final String WORKER_LINGER_TIME = "workerLingerTime";
+
 	public static final String INTERFACE_ONLY = "matchInterfaceOnly";
 
 }
@@ -29,7 +29,6 @@ import sorcer.co.operator.Tokens;
 import java.rmi.RemoteException;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
 
 import static sorcer.co.operator.list;
 
@@ -45,9 +44,8 @@ public class SelectableTaker extends SpaceTaker {
 	}
 
 	public SelectableTaker(SpaceTakerData data, ExecutorService pool) {
-		this();
+		super(pool);
 		this.data = data;
-		this.pool = pool;
 		this.transactionLeaseTimeout = getTransactionLeaseTime();
 		this.spaceTimeout = getTimeOut();
 	}
@@ -74,24 +72,29 @@ public class SelectableTaker extends SpaceTaker {
 				}
 
 				if (data.noQueue) {
-					if (((ThreadPoolExecutor) pool).getActiveCount() != ((ThreadPoolExecutor) pool).getCorePoolSize()) {
-						Transaction tx = null;
-						if (isTransactional) {
-							txnCreated = TX.createTransaction(transactionLeaseTimeout);
-							if (txnCreated == null) {
-								logger.warn("SpaceTaker did not get TRANSACTION thread: {}", threadId);
-								Thread.sleep(spaceTimeout / 6);
-								continue;
-							}
-							tx = txnCreated.transaction;
+					// wait for a free worker, a finishing worker releases its permit
+					if (!acquirePermits(1))
+						continue;
+					Transaction tx = null;
+					if (isTransactional) {
+						txnCreated = TX.createTransaction(transactionLeaseTimeout);
+						if (txnCreated == null) {
+							releasePermits(1);
+							logger.warn("SpaceTaker did not get TRANSACTION thread: {}", threadId);
+							Thread.sleep(spaceTimeout / 6);
+							continue;
 						}
+						tx = txnCreated.transaction;
+					}
+					try {
 						envelopNoCast = space.take(data.entry, tx, spaceTimeout);
-						ee = (ExertionEnvelop) envelopNoCast;
-					} else {
-                        /* Sleep for whats basically a clock tick to avoid thrashing */
-						Thread.sleep(50);
-						continue;
+					} catch (Exception e) {
+						releasePermits(1);
+						throw e;
 					}
+					ee = (ExertionEnvelop) envelopNoCast;
+					if (ee == null)
+						releasePermits(1);
 				} else {
 					if (isTransactional) {
 						txnCreated = TX.createTransaction(transactionLeaseTimeout);
@@ -125,7 +128,7 @@ public class SelectableTaker extends SpaceTaker {
 					txnCreated = null;
 					continue;
 				}
-				pool.execute(new SpaceWorker(ee, txnCreated, data.provider, remoteLogging));
+				execute(new SpaceWorker(ee, txnCreated, data.provider, remoteLogging));
 			} catch (Exception ex) {
 				logger.warn("Problem with SelectableTaker", ex);
 			}
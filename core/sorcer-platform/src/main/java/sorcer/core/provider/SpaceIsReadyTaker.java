@@ -29,9 +29,8 @@ public class SpaceIsReadyTaker extends SpaceTaker {
 	}
 
 	public SpaceIsReadyTaker(SpaceTakerData data, ExecutorService pool) {
-		this();
+		super(pool);
 		this.data = data;
-		this.pool = pool;
 		this.transactionLeaseTimeout = getTransactionLeaseTime();
 		this.spaceTimeout = getTimeOut();
 	}
@@ -21,6 +21,7 @@ import net.jini.core.entry.Entry;
 import net.jini.core.lease.Lease;
 import net.jini.core.lease.UnknownLeaseException;
 import net.jini.core.transaction.Transaction;
+import net.jini.core.transaction.TransactionException;
 import net.jini.lease.LeaseListener;
 import net.jini.lease.LeaseRenewalManager;
 import net.jini.space.JavaSpace;
@@ -37,13 +38,16 @@ import sorcer.core.monitor.MonitoringSession;
 import sorcer.river.TX;
 import sorcer.service.*;
 import sorcer.service.space.SpaceAccessor;
+import sorcer.util.Sorcer;
 
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.*;
+
+import static sorcer.util.StringUtils.tName;
 
 /**
  * This is a class creates a JavaSpace taker that extends the {@link Thread}
@@ -69,6 +73,17 @@ public class SpaceTaker implements Runnable {
 
 	protected JavaSpace05 space;
 
+	// max number of envelops taken (and results written) with one space call
+	protected int batchSize = 1;
+
+	// how long a result may wait to be written together with other results
+	protected long lingerTime = 0;
+
+	protected ResultWriter resultWriter;
+
+	// free worker threads in the noQueue mode, released by finishing workers
+	protected final Semaphore workerPermits;
+
 	protected SpaceTakerData data;
 
 	protected ExecutorService pool;
@@ -138,6 +153,20 @@ public class SpaceTaker implements Runnable {
 	 */
 	public SpaceTaker() {
         lrm = new LeaseRenewalManager();
+		workerPermits = new Semaphore(1);
+	}
+
+	/**
+	 * Constructor for subclasses that set their own taker data. The worker
+	 * permits are sized from the given executor service pool.
+	 *
+	 * @param pool
+	 *            Executor service running the taken exertions
+	 */
+	protected SpaceTaker(ExecutorService pool) {
+		lrm = new LeaseRenewalManager();
+		this.pool = pool;
+		workerPermits = new Semaphore(permitsFor(pool));
 	}
 
 	/**
@@ -153,13 +182,21 @@ public class SpaceTaker implements Runnable {
      *              Enable logging to a RemoteLoggerManager
 	 */
 	public SpaceTaker(SpaceTakerData data, ExecutorService pool, boolean remoteLogging) {
-		this();
+		lrm = new LeaseRenewalManager();
 		this.data = data;
 		this.pool = pool;
+		workerPermits = new Semaphore(permitsFor(pool));
         this.remoteLogging = remoteLogging;
 		this.transactionLeaseTimeout = getTransactionLeaseTime();
 		this.spaceTimeout = getTimeOut();
 		this.isTransactional = data.workerTransactional;
+		this.batchSize = getBatchSize();
+		this.lingerTime = getLingerTime();
+	}
+
+	private static int permitsFor(ExecutorService pool) {
+		return pool instanceof ThreadPoolExecutor
+				? Math.max(1, ((ThreadPoolExecutor) pool).getCorePoolSize()) : 1;
 	}
 
 	protected long getTransactionLeaseTime() {
@@ -188,7 +225,115 @@ public class SpaceTaker implements Runnable {
 		return st;
 	}
 
-	
+	protected int getBatchSize() {
+		int bs = 1;
+		try {
+			Configuration config = ((ServiceProvider)data.provider).getProviderConfiguration();
+			bs = (Integer) config.getEntry(ServiceProvider.COMPONENT,
+					ProviderDelegate.WORKER_BATCH_SIZE, int.class, 1);
+		} catch (Exception e) {
+			bs = 1;
+		}
+		return Math.max(1, bs);
+	}
+
+	protected long getLingerTime() {
+		long lt = 0;
+		try {
+			Configuration config = ((ServiceProvider)data.provider).getProviderConfiguration();
+			lt = (Long) config.getEntry(ServiceProvider.COMPONENT,
+					ProviderDelegate.WORKER_LINGER_TIME, long.class, 0L);
+		} catch (Exception e) {
+			lt = 0;
+		}
+		return lt;
+	}
+
+	/**
+	 * Batching is used for non transactional takers only, each transaction
+	 * covers a single envelop and its result.
+	 */
+	protected boolean isBatching() {
+		return batchSize > 1 && !isTransactional;
+	}
+
+	/**
+	 * Returns the number of envelops the worker pool can accept without
+	 * rejecting or queuing them beyond its capacity.
+	 */
+	protected int getFreeCapacity() {
+		if (!(pool instanceof ThreadPoolExecutor))
+			return 1;
+		ThreadPoolExecutor tpe = (ThreadPoolExecutor) pool;
+		int free = tpe.getMaximumPoolSize() - tpe.getActiveCount();
+		if (!data.noQueue)
+			free += tpe.getQueue().remainingCapacity();
+		return free;
+	}
+
+	/**
+	 * Blocks until the given number of workers is free in the noQueue mode
+	 * or the space timeout elapses.
+	 *
+	 * @return true if the permits were acquired
+	 */
+	protected boolean acquirePermits(int permits) throws InterruptedException {
+		return workerPermits.tryAcquire(permits, spaceTimeout, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Acquires up to the given number of permits without waiting.
+	 *
+	 * @return the number of acquired permits
+	 */
+	protected int tryAcquirePermits(int permits) {
+		int acquired = 0;
+		while (acquired < permits && workerPermits.tryAcquire())
+			acquired++;
+		return acquired;
+	}
+
+	protected void releasePermits(int permits) {
+		if (permits > 0)
+			workerPermits.release(permits);
+	}
+
+	/**
+	 * Returns the number of workers available to take envelops: free permits
+	 * in the noQueue mode, otherwise the free capacity of the worker pool.
+	 */
+	public int getAvailablePermits() {
+		if (data.noQueue)
+			return workerPermits.availablePermits();
+		return getFreeCapacity();
+	}
+
+	/**
+	 * Executes the worker in the pool; in the noQueue mode the worker releases
+	 * its permit when done so the taker can take the next envelop at once.
+	 */
+	protected void execute(final SpaceWorker worker) {
+		if (!data.noQueue) {
+			pool.execute(worker);
+			return;
+		}
+		Runnable task = new Runnable() {
+			public void run() {
+				try {
+					worker.run();
+				} finally {
+					releasePermits(1);
+				}
+			}
+		};
+		try {
+			pool.execute(task);
+		} catch (RejectedExecutionException e) {
+			releasePermits(1);
+			throw e;
+		}
+	}
+
 	// fields for taker thread metrics
 	//
 	private int numThreadsTaker = 0;
@@ -249,6 +394,10 @@ public class SpaceTaker implements Runnable {
 	}
 	
 	public void run() {
+		if (isBatching()) {
+			runBatching();
+			return;
+		}
 		String threadId = doThreadMonitorTaker(null);
 
 		Transaction.Created txnCreated = null;
@@ -264,24 +413,29 @@ public class SpaceTaker implements Runnable {
 				}
 
 				if (data.noQueue) {
-					if (((ThreadPoolExecutor) pool).getActiveCount() != ((ThreadPoolExecutor) pool).getCorePoolSize()) {
-                        Transaction tx = null;
-						if (isTransactional) {
-							txnCreated = TX.createTransaction(transactionLeaseTimeout);
-							if (txnCreated == null) {
-                                logger.warn("SpaceTaker did not get TRANSACTION thread: {}", threadId);
-								Thread.sleep(spaceTimeout / 6);
-								continue;
-							}
-                            tx = txnCreated.transaction;
-						}
-                        envelopNoCast = space.take(data.entry, tx, spaceTimeout);
-                        ee = (ExertionEnvelop) envelopNoCast;
-					} else {
-                        /* Sleep for whats basically a clock tick to avoid thrashing */
-                        Thread.sleep(50);
+					// wait for a free worker, a finishing worker releases its permit
+					if (!acquirePermits(1))
 						continue;
+					Transaction tx = null;
+					if (isTransactional) {
+						txnCreated = TX.createTransaction(transactionLeaseTimeout);
+						if (txnCreated == null) {
+							releasePermits(1);
+							logger.warn("SpaceTaker did not get TRANSACTION thread: {}", threadId);
+							Thread.sleep(spaceTimeout / 6);
+							continue;
+						}
+						tx = txnCreated.transaction;
 					}
+					try {
+						envelopNoCast = space.take(data.entry, tx, spaceTimeout);
+					} catch (Exception e) {
+						releasePermits(1);
+						throw e;
+					}
+					ee = (ExertionEnvelop) envelopNoCast;
+					if (ee == null)
+						releasePermits(1);
 				} else {
 					if (isTransactional) {
 						txnCreated = TX.createTransaction(transactionLeaseTimeout);
@@ -315,8 +469,12 @@ public class SpaceTaker implements Runnable {
 					txnCreated = null;
 					continue;
 				}
-                pool.execute(new SpaceWorker(ee, txnCreated, data.provider, remoteLogging));
+                execute(new SpaceWorker(ee, txnCreated, data.provider, remoteLogging));
+			} catch (InterruptedException ie) {
+				keepGoing = false;
 			} catch (Exception ex) {
+				if (ex instanceof RemoteException)
+					SpaceAccessor.invalidate(space);
                 logger.warn("Problem with SpaceTaker", ex);
 			}
 		}
@@ -325,6 +483,71 @@ public class SpaceTaker implements Runnable {
 		doThreadMonitorTaker(threadId);
 	}
 
+	/**
+	 * Takes as many envelops as the worker pool can accept with one
+	 * {@link JavaSpace05#take(Collection, Transaction, long, long)} call; the
+	 * results are written back by the {@link ResultWriter} in bulk.
+	 */
+	protected void runBatching() {
+		String threadId = doThreadMonitorTaker(null);
+		resultWriter = new ResultWriter();
+		Thread writerThread = new Thread(resultWriter, tName("SpcWrt-" + Thread.currentThread().getName()));
+		writerThread.setDaemon(true);
+		writerThread.start();
+		List<ExertionEnvelop> templates = Collections.singletonList(data.entry);
+		while (keepGoing) {
+			try {
+				space = SpaceAccessor.getSpace(data.spaceName);
+				if (space == null) {
+					Thread.sleep(spaceTimeout / 6);
+					continue;
+				}
+				int max;
+				if (data.noQueue) {
+					if (!acquirePermits(1))
+						continue;
+					max = 1 + tryAcquirePermits(batchSize - 1);
+				} else {
+					max = Math.min(batchSize, getFreeCapacity());
+					if (max <= 0) {
+						/* Sleep for whats basically a clock tick to avoid thrashing */
+						Thread.sleep(50);
+						continue;
+					}
+				}
+				Collection<ExertionEnvelop> envelops;
+				try {
+					envelops = space.take(templates, null, spaceTimeout, max);
+				} catch (Exception e) {
+					if (data.noQueue)
+						releasePermits(max);
+					throw e;
+				}
+				if (data.noQueue)
+					releasePermits(max - envelops.size());
+				if (envelops.size() > 1)
+					logger.debug("Took {} envelops, max: {}", envelops.size(), max);
+				for (ExertionEnvelop ee : envelops) {
+					SpaceWorker worker = new SpaceWorker(ee, null, data.provider, remoteLogging);
+					try {
+						execute(worker);
+					} catch (RejectedExecutionException e) {
+						// the envelop is already taken, do not lose it
+						worker.run();
+					}
+				}
+			} catch (InterruptedException ie) {
+				keepGoing = false;
+			} catch (Exception ex) {
+				if (ex instanceof RemoteException)
+					SpaceAccessor.invalidate(space);
+				logger.warn("Problem with SpaceTaker", ex);
+			}
+		}
+		resultWriter.stop();
+		doThreadMonitorTaker(threadId);
+	}
+
 	synchronized public Transaction.Created createTransaction() {
 		return TX.createTransaction(transactionLeaseTimeout);
 	}
@@ -402,7 +625,9 @@ public class SpaceTaker implements Runnable {
 			Entry result = doEnvelope(ee,
                                       (txnCreated == null) ? null : txnCreated.transaction, threadId, txnCreated);
 
-			if (result != null) {
+			if (result != null && txnCreated == null && resultWriter != null) {
+				resultWriter.write(result);
+			} else if (result != null) {
 				try {
 					space.write(result, null, Lease.FOREVER);
 				} catch (Exception e) {
@@ -507,4 +732,114 @@ public class SpaceTaker implements Runnable {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Coalesces the results of space workers into bulk
+	 * {@link JavaSpace05#write(List, Transaction, List)} calls. A batch is
+	 * written when it is full or when its first result has waited for the
+	 * linger time. A failed write is retried with a new space proxy, results
+	 * that still cannot be written are returned as failed exertions.
+	 */
+	protected class ResultWriter implements Runnable {
+		private static final int WRITE_ATTEMPTS = 3;
+
+		private final BlockingQueue<Entry> results = new LinkedBlockingQueue<Entry>();
+		private volatile boolean running = true;
+
+		public void write(Entry result) {
+			results.add(result);
+		}
+
+		public void stop() {
+			running = false;
+		}
+
+		public void run() {
+			List<Entry> batch = new ArrayList<Entry>(batchSize);
+			while (running || !results.isEmpty()) {
+				try {
+					Entry first = results.poll(spaceTimeout, TimeUnit.MILLISECONDS);
+					if (first == null)
+						continue;
+					batch.add(first);
+					long deadline = System.currentTimeMillis() + lingerTime;
+					while (batch.size() < batchSize) {
+						long wait = deadline - System.currentTimeMillis();
+						Entry next = wait > 0 ? results.poll(wait, TimeUnit.MILLISECONDS) : results.poll();
+						if (next == null)
+							break;
+						batch.add(next);
+					}
+					flush(batch);
+				} catch (InterruptedException e) {
+					running = false;
+				} finally {
+					batch.clear();
+				}
+			}
+		}
+
+		private void flush(List<Entry> batch) {
+			long delay = 100;
+			for (int attempt = 1; attempt <= WRITE_ATTEMPTS; attempt++) {
+				try {
+					if (batch.size() == 1)
+						space.write(batch.get(0), null, Lease.FOREVER);
+					else
+						space.write(batch, null, Collections.nCopies(batch.size(), Lease.FOREVER));
+					logger.debug("Written {} results", batch.size());
+					return;
+				} catch (RemoteException | TransactionException e) {
+					logger.warn("Error while writing {} results, attempt {}", batch.size(), attempt, e);
+					SpaceAccessor.invalidate(space);
+					if (attempt == WRITE_ATTEMPTS)
+						break;
+					try {
+						Thread.sleep(delay);
+					} catch (InterruptedException ie) {
+						running = false;
+						break;
+					}
+					delay = Math.min(delay * 2, Sorcer.getSpaceRetryMax());
+					JavaSpace05 found = SpaceAccessor.getSpace(data.spaceName);
+					if (found != null)
+						space = found;
+				} catch (RuntimeException e) {
+					// a result that cannot be marshalled, the others are written alone
+					logger.warn("Error while writing {} results", batch.size(), e);
+					break;
+				}
+			}
+			for (Entry result : batch)
+				writeOrFail(result);
+		}
+
+		/*
+		 * Writes the result alone, if it cannot be written its exertion is
+		 * failed with the cause so the requester does not wait for it.
+		 */
+		private void writeOrFail(Entry result) {
+			Exception cause;
+			try {
+				space.write(result, null, Lease.FOREVER);
+				return;
+			} catch (Exception e) {
+				cause = e;
+			}
+			if (result instanceof ExertionEnvelop && ((ExertionEnvelop) result).exertion != null) {
+				ExertionEnvelop ee = (ExertionEnvelop) result;
+				ee.state = Exec.FAILED;
+				ee.exertion.setStatus(Exec.FAILED);
+				ee.exertion.reportException(cause);
+				try {
+					space.write(ee, null, Lease.FOREVER);
+					logger.warn("Failed exertion {}, its result could not be written", ee.exertionID, cause);
+					return;
+				} catch (Exception e) {
+					logger.debug("Error while writing the failed exertion {}", ee.exertionID, e);
+				}
+			}
+			logger.error("Result {} could not be written to the space", result, cause);
+		}
+	}
+
+}
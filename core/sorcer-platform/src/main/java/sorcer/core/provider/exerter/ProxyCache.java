@@ -0,0 +1,225 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exerter;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import net.jini.core.lookup.ServiceItem;
+import net.jini.core.lookup.ServiceTemplate;
+import net.jini.lookup.ServiceDiscoveryEvent;
+import net.jini.lookup.ServiceDiscoveryListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.provider.ServiceName;
+import sorcer.core.signature.NetSignature;
+import sorcer.service.Accessor;
+import sorcer.service.Signature;
+import sorcer.service.SignatureException;
+import sorcer.util.ProviderLocator;
+import sorcer.util.ServiceAccessor;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cache of provider proxies by service type, match types, provider name
+ * with its locators and groups, and version of their signatures. Cached proxies are not pinged before use, a proxy is
+ * evicted when its provider is discarded by the lookup services or when a
+ * call on it fails with a <code>RemoteException</code>.
+ */
+class ProxyCache {
+	private final static Logger logger = LoggerFactory.getLogger(ProxyCache.class);
+
+	private final Cache<Key, Object> proxies;
+
+	// service types with a lookup cache for their discarded providers
+	private final Set<String> listened = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+	ProxyCache(int size) {
+		proxies = CacheBuilder.newBuilder()
+				.maximumSize(size)
+				.expireAfterWrite(30, TimeUnit.MINUTES)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Returns the cached proxy for the signature or looks it up.
+	 *
+	 * @return the proxy or null if no provider is available
+	 */
+	Object get(final Signature signature) {
+		return get(signature, new Callable<Object>() {
+			@Override
+			public Object call() throws SignatureException {
+				Object proxy;
+				if (signature.getProviderName() instanceof ServiceName)
+					proxy = ProviderLocator.getProvider(signature);
+				else
+					proxy = Accessor.get().getService(signature);
+				// misses are not cached
+				if (proxy == null)
+					throw new SignatureException("No available proxy for: " + signature);
+				return proxy;
+			}
+		});
+	}
+
+	Object get(Signature signature, Callable<Object> lookup) {
+		Key key = new Key(signature);
+		listen(key.type);
+		try {
+			return proxies.get(key, lookup);
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			logger.warn("No available proxy for {}", signature, e.getCause());
+			return null;
+		}
+	}
+
+	/**
+	 * Evicts the proxy of the signature after a failed call.
+	 */
+	void evict(Signature signature) {
+		proxies.invalidate(new Key(signature));
+	}
+
+	CacheStats getStats() {
+		return proxies.stats();
+	}
+
+	/**
+	 * Evicts the cached proxies of a discarded provider.
+	 */
+	void discard(Object service) {
+		Iterator<Map.Entry<Key, Object>> entries = proxies.asMap().entrySet().iterator();
+		while (entries.hasNext()) {
+			Map.Entry<Key, Object> entry = entries.next();
+			if (service.equals(entry.getValue())) {
+				logger.debug("Evicting discarded proxy for {}", entry.getKey());
+				entries.remove();
+			}
+		}
+	}
+
+	/*
+	 * Registers for the discarded providers of the service type with the
+	 * lookup services of the service accessor, once per type.
+	 */
+	private void listen(String type) {
+		if (type == null || !listened.add(type))
+			return;
+		try {
+			if (!(Accessor.get() instanceof ServiceAccessor))
+				return;
+			Class<?> serviceType = Class.forName(type, false, Thread.currentThread().getContextClassLoader());
+			((ServiceAccessor) Accessor.get()).getServiceDiscoveryManager()
+					.createLookupCache(new ServiceTemplate(null, new Class[] { serviceType }, null),
+							null, new DiscardListener());
+		} catch (Exception e) {
+			logger.warn("Cached proxies of {} are evicted on failures only", type, e);
+		}
+	}
+
+	private class DiscardListener implements ServiceDiscoveryListener {
+		@Override
+		public void serviceAdded(ServiceDiscoveryEvent event) {
+		}
+
+		@Override
+		public void serviceRemoved(ServiceDiscoveryEvent event) {
+			ServiceItem item = event.getPreEventServiceItem();
+			if (item == null || item.service == null)
+				return;
+			discard(item.service);
+		}
+
+		@Override
+		public void serviceChanged(ServiceDiscoveryEvent event) {
+		}
+	}
+
+	/**
+	 * The proxy key of a signature, its selector does not select the provider.
+	 */
+	static class Key {
+		private final String type;
+		private final List<String> matchTypes;
+		private final String name;
+		private final List<String> locators;
+		private final List<String> groups;
+		private final String version;
+
+		Key(Signature signature) {
+			Class serviceType;
+			try {
+				serviceType = signature.getServiceType();
+			} catch (SignatureException e) {
+				serviceType = null;
+			}
+			type = serviceType == null ? null : serviceType.getName();
+			matchTypes = new ArrayList<String>();
+			if (signature.getMatchTypes() != null)
+				for (Class matchType : signature.getMatchTypes())
+					matchTypes.add(matchType == null ? null : matchType.getName());
+			name = "" + signature.getProviderName();
+			if (signature.getProviderName() instanceof ServiceName) {
+				ServiceName serviceName = (ServiceName) signature.getProviderName();
+				locators = asList(serviceName.getLocators());
+				groups = asList(serviceName.getGroups());
+			} else {
+				locators = Collections.emptyList();
+				groups = Collections.emptyList();
+			}
+			version = signature instanceof NetSignature ? ((NetSignature) signature).getVersion() : null;
+		}
+
+		private static List<String> asList(String[] values) {
+			return values == null ? Collections.<String>emptyList() : Arrays.asList(values.clone());
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return name.equals(other.name)
+					&& (type == null ? other.type == null : type.equals(other.type))
+					&& matchTypes.equals(other.matchTypes)
+					&& locators.equals(other.locators)
+					&& groups.equals(other.groups)
+					&& (version == null ? other.version == null : version.equals(other.version));
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 31 * name.hashCode() + (type == null ? 0 : type.hashCode());
+			hash = 31 * hash + matchTypes.hashCode();
+			hash = 31 * hash + locators.hashCode();
+			hash = 31 * hash + groups.hashCode();
+			return 31 * hash + (version == null ? 0 : version.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return type + matchTypes + ":" + name + ":" + locators + groups + ":" + version;
+		}
+	}
+}
@@ -17,9 +17,7 @@
 
 package sorcer.core.provider.exerter;
 
-import com.google.common.cache.CacheBuilder;
-import com.google.common.cache.CacheLoader;
-import com.google.common.cache.LoadingCache;
+import com.google.common.cache.CacheStats;
 import net.jini.core.lookup.ServiceID;
 import net.jini.core.transaction.Transaction;
 import net.jini.core.transaction.TransactionException;
@@ -56,7 +54,6 @@ import sorcer.service.Strategy.Access;
 import sorcer.service.modeling.Data;
 import sorcer.service.modeling.Model;
 import sorcer.service.txmgr.TransactionManagerAccessor;
-import sorcer.util.ProviderLocator;
 import sorcer.util.Sorcer;
 
 import java.io.File;
@@ -66,7 +63,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 
 import static sorcer.eo.operator.*;
 import static sorcer.so.operator.eval;
@@ -83,7 +79,7 @@ public class ServiceShell implements Service, Activity, Exerter, Client, Callabl
 	private static MutualExclusion locker;
 	// a reference to a provider running this mogram
 	private Exerter provider;
-	private static LoadingCache<Signature, Object> proxies;
+	private static ProxyCache proxies;
 
 	public ServiceShell() {
 		setupProxyCache();
@@ -104,28 +100,20 @@ public class ServiceShell implements Service, Activity, Exerter, Client, Callabl
 		this.provider = provider;
 	}
 
-	private static void setupProxyCache() {
+	private static synchronized void setupProxyCache() {
 		if (proxies == null) {
-			proxies = CacheBuilder.newBuilder()
-					.maximumSize(20)
-					.expireAfterWrite(30, TimeUnit.MINUTES)
-					.build(new CacheLoader<Signature, Object>() {
-						public Object load(Signature signature) throws SignatureException {
-							if (signature.getProviderName() instanceof ServiceName) {
-								try {
-									return ProviderLocator.getProvider(signature);
-								} catch (SignatureException e) {
-									e.printStackTrace();
-								}
-								logger.warn("No available proxy for {}", signature);
-								return Context.none;
-							} else
-								return Accessor.get().getService(signature);
-						}
-					});
+			proxies = new ProxyCache(Sorcer.getProxyCacheSize());
 		}
 	}
 
+	/**
+	 * Returns the hit, miss and eviction counts of the provider proxy cache.
+	 */
+	public static CacheStats getProxyCacheStats() {
+		setupProxyCache();
+		return proxies.getStats();
+	}
+
 	public Mogram exert(Mogram xrt, Arg... entries)
 			throws TransactionException, MogramException, RemoteException {
 		try {
@@ -423,15 +411,8 @@ public class ServiceShell implements Service, Activity, Exerter, Client, Callabl
 			}
 			provider = ((NetSignature) signature).getProvider();
 			if (provider == null) {
-                // check proxy cache and ping with a provider key
-				try {
-					provider = proxies.get(signature);
-					// check if cached proxy is still alive
-					((Provider)provider).getProviderName();
-				} catch(Exception e) {
-					proxies.refresh(signature);
-					provider = proxies.get(signature);
-				}
+				// cached proxies are evicted when discarded or failed
+				provider = proxies.get(signature);
 				if (provider == null) {
 					String message =
 							String.format("Provider key: [%s], fiType: %s not found, make sure it is running and there is " +
@@ -508,7 +489,13 @@ public class ServiceShell implements Service, Activity, Exerter, Client, Callabl
 //				e.printStackTrace();
 //			}
 
-			Exertion result = provider.exert(exertion, transaction, entries);
+			Exertion result;
+			try {
+				result = provider.exert(exertion, transaction, entries);
+			} catch (RemoteException e) {
+				proxies.evict(signature);
+				throw e;
+			}
 			if (result != null && result.getExceptions().size() > 0) {
 				for (ThrowableTrace et : result.getExceptions()) {
 					Throwable t = et.getThrowable();
@@ -23,6 +23,7 @@ import net.jini.id.UuidFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.context.ControlContext;
+import sorcer.core.context.ServiceContext;
 import sorcer.core.context.StrategyContext;
 import sorcer.core.exertion.AltTask;
 import sorcer.core.monitor.MonitorEvent;
@@ -35,6 +36,7 @@ import sorcer.core.provider.exertmonitor.lease.MonitorLeasedResource;
 import sorcer.service.*;
 import sorcer.util.ObjectCloner;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
@@ -62,6 +64,8 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 
 	public transient static MonitorLandlord mLandlord;
 	public transient static MonitoringManagement sessionManager;
+	// the local store of session changes, if not set the root session is persisted
+	public transient static SessionJournal journal;
 	public transient static ExecutorService eventPool;
 	static transient final Logger logger = LoggerFactory.getLogger(MonitorSession.class);
 	static transient final int EVENT_TASK_POOL_MIN = 1;
@@ -175,12 +179,22 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 		MonitorSession resource;
 		for (int i = 0; i < size(); i++) {
 			resource = get(i);
-			map.put(cookie, resource);
-			collectSessions(map);
+			map.put(resource.cookie, resource);
+			resource.collectSessions(map);
 		}
 		return map;
 	}
 
+	/**
+	 * Returns the number of sessions in the tree of this session.
+	 */
+	public int getSessionCount() {
+		int count = 1;
+		for (int i = 0; i < size(); i++)
+			count += get(i).getSessionCount();
+		return count;
+	}
+
 	public Lease init(Monitorable executor, long duration, long timeout) throws MonitorException {
         logger.info("Initializing session for: {}", runtimeExertion.getName());
 
@@ -323,16 +337,23 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 		}
 	}
 
-	// Persist only the root session
+	// Journal the change of this session or persist the root session
 	private void persist() {
 	    MonitorSession tempSession = this;
         do {
             if (tempSession.parentResource!=null)
                 tempSession = tempSession.parentResource;
         } while (tempSession.parentResource!=null);
-        logger.info("Persisting resource for exertion: " + tempSession.runtimeExertion.getName());
 		try {
-            sessionManager.persist(tempSession);
+			if (journal != null) {
+				logger.debug("Journaling {} for exertion: {}", Exec.State.name(getState()), runtimeExertion.getName());
+				journal.append(tempSession, new SessionEvent(cookie, getState(),
+						size() == 0 ? runtimeExertion.getDataContext() : null,
+						runtimeExertion.getControlContext()));
+			} else {
+				logger.info("Persisting resource for exertion: " + tempSession.runtimeExertion.getName());
+				sessionManager.persist(tempSession);
+			}
 		} catch (Exception e) {
 			logger.error("Problem persisting monitorSession: " + e.getMessage());
 			try {
@@ -344,6 +365,32 @@ public class MonitorSession extends ArrayList<MonitorSession> implements Monitor
 		}
 	}
 
+	/**
+	 * Applies a journaled change to the session of the event in the tree of
+	 * this session.
+	 *
+	 * @return false if the session of the event is not in this tree
+	 */
+	public boolean replay(SessionEvent event) throws IOException, ClassNotFoundException {
+		MonitorSession session = getSessionResource(event.getCookie());
+		if (session == null)
+			return false;
+		ServiceExertion xrt = session.runtimeExertion;
+		xrt.setStatus(event.getStatus());
+		Context context = event.getContext();
+		if (context != null) {
+			xrt.setContext(context);
+			if (context instanceof ServiceContext)
+				((ServiceContext) context).setExertion(xrt);
+		}
+		ControlContext controlContext = event.getControlContext();
+		if (controlContext != null) {
+			xrt.setControlContext(controlContext);
+			controlContext.setExertion(xrt);
+		}
+		return true;
+	}
+
 	/**
 	 * Here's the algorithm to manage the states based on states of children
 	 * Rule 1: If any one of the child state is FAILED and all others are DONE,
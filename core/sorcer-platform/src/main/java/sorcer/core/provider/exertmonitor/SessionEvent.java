@@ -0,0 +1,95 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exertmonitor;
+
+import net.jini.id.Uuid;
+import sorcer.core.context.ControlContext;
+import sorcer.core.context.ServiceContext;
+import sorcer.service.Context;
+import sorcer.service.Exertion;
+import sorcer.util.bdb.objects.MarshalledData;
+
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * A state transition of a single {@link MonitorSession}: the new exertion
+ * status with the data context of a task and the control context. The
+ * contexts are marshalled without the back reference to their exertion, so
+ * an event does not carry the exertion tree of the session.
+ */
+public class SessionEvent implements Serializable {
+	static final long serialVersionUID = 1L;
+
+	private final Uuid cookie;
+
+	private final int status;
+
+	// null for composite exertions, their data context is not updated by providers
+	private final MarshalledData context;
+
+	private final MarshalledData controlContext;
+
+	private final long time;
+
+	public SessionEvent(Uuid cookie, int status, Context context, ControlContext controlContext) throws IOException {
+		this.cookie = cookie;
+		this.status = status;
+		this.context = marshal(context);
+		this.controlContext = marshal(controlContext);
+		time = System.currentTimeMillis();
+	}
+
+	public Uuid getCookie() {
+		return cookie;
+	}
+
+	public int getStatus() {
+		return status;
+	}
+
+	public Context getContext() throws IOException, ClassNotFoundException {
+		return context == null ? null : (Context) context.get();
+	}
+
+	public ControlContext getControlContext() throws IOException, ClassNotFoundException {
+		return controlContext == null ? null : (ControlContext) controlContext.get();
+	}
+
+	public long getTime() {
+		return time;
+	}
+
+	private static MarshalledData marshal(Context context) throws IOException {
+		if (context == null)
+			return null;
+		if (!(context instanceof ServiceContext))
+			return new MarshalledData(context);
+		ServiceContext cxt = (ServiceContext) context;
+		Exertion exertion = cxt.getMogram();
+		cxt.setExertion(null);
+		try {
+			return new MarshalledData(cxt);
+		} finally {
+			cxt.setExertion(exertion);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "cookie:" + cookie + " status:" + status + " time:" + time;
+	}
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exertmonitor;
+
+import java.io.IOException;
+
+/**
+ * The local store of monitor session changes. A change of a session in the
+ * tree of a root {@link MonitorSession} is appended as a {@link SessionEvent},
+ * the journal decides when the changes are compacted into a snapshot of the
+ * root session.
+ */
+public interface SessionJournal {
+
+	/**
+	 * Appends the change of a session to the journal of its root session.
+	 *
+	 * @param root the root session
+	 * @param event the change of the root session or one of its descendants
+	 * @throws IOException if the change cannot be persisted
+	 */
+	void append(MonitorSession root, SessionEvent event) throws IOException;
+}
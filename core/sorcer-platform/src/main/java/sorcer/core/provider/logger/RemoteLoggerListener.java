@@ -127,20 +127,21 @@ public class RemoteLoggerListener implements RemoteEventListener {
     @Override
     public void notify(RemoteEvent remoteEvent) throws UnknownEventException, RemoteException {
         LoggerRemoteEvent logEvent = (LoggerRemoteEvent)remoteEvent;
-        ILoggingEvent le = logEvent.getLoggingEvent();
-        // Print everything to the out stream as if it was a local log
-        String mogId = le.getMDCPropertyMap().get(RemoteLogger.KEY_MOGRAM_ID);
-        String prvId = le.getMDCPropertyMap().get(RemoteLogger.KEY_PROVIDER_ID);
         SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
-
-        out.print(le.getLevel() + "  " + sdf.format(le.getTimeStamp()) +
-                " [" + (mogId != null ? mogId.substring(0, 8) : "NO MOGRAM ID") + "@" + (prvId != null ? prvId.substring(0, 8) : "NO PRV ID") + "] ");
-        out.print(" " + le.getLoggerName() + " -");
-        out.println(" " + le.getFormattedMessage());
-        if (le.getCallerData() != null)
-            for (StackTraceElement ste : le.getCallerData()) {
-                out.println(ste.toString());
-            }
+        for (ILoggingEvent le : logEvent.getLoggingEvents()) {
+            // Print everything to the out stream as if it was a local log
+            String mogId = le.getMDCPropertyMap().get(RemoteLogger.KEY_MOGRAM_ID);
+            String prvId = le.getMDCPropertyMap().get(RemoteLogger.KEY_PROVIDER_ID);
+
+            out.print(le.getLevel() + "  " + sdf.format(le.getTimeStamp()) +
+                    " [" + (mogId != null ? mogId.substring(0, 8) : "NO MOGRAM ID") + "@" + (prvId != null ? prvId.substring(0, 8) : "NO PRV ID") + "] ");
+            out.print(" " + le.getLoggerName() + " -");
+            out.println(" " + le.getFormattedMessage());
+            if (le.getCallerData() != null)
+                for (StackTraceElement ste : le.getCallerData()) {
+                    out.println(ste.toString());
+                }
+        }
 //        logger.info(mogId);
 //        ((ch.qos.logback.classic.Logger)logger).callAppenders(logEvent.getLoggingEvent());
     }
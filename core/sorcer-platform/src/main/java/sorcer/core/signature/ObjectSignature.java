@@ -23,12 +23,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.exertion.ObjectTask;
 import sorcer.core.invoker.MethodInvoker;
+import sorcer.core.provider.DispatchTable;
 import sorcer.core.provider.exerter.ServiceShell;
 import sorcer.service.*;
 import sorcer.service.modeling.Modeling;
 import sorcer.service.modeling.sig;
 
-import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.rmi.RemoteException;
@@ -53,6 +53,14 @@ public class ObjectSignature extends ServiceSignature implements sig {
 
 	private Class<?>[] argTypes;
 
+	// reuse a single provider instance for all tasks of this signature
+	private boolean singleton;
+
+	transient private Object instance;
+
+	// the operations resolved by the evaluators of this signature's tasks
+	transient private MethodInvoker.Resolution resolution;
+
 	private static Logger logger = LoggerFactory.getLogger(ObjectSignature.class);
 
 	public ObjectSignature() {
@@ -202,6 +210,59 @@ public class ObjectSignature extends ServiceSignature implements sig {
 		argTypes = types;
 	}
 
+	public boolean isSingleton() {
+		return singleton;
+	}
+
+	/**
+	 * Sets whether the provider instance of this signature is created once
+	 * and reused by all its tasks, the provider type has to be safe for
+	 * concurrent use.
+	 */
+	public void setSingleton(boolean singleton) {
+		this.singleton = singleton;
+		instance = null;
+	}
+
+	/**
+	 * Returns an instance of the provider type of this signature, or of its
+	 * target signature if any, created by the default constructor. A
+	 * singleton signature returns the same instance for its lifetime in this
+	 * JVM.
+	 *
+	 * @return the provider instance
+	 * @throws SignatureException
+	 */
+	public Object getProviderInstance() throws SignatureException {
+		if (!singleton)
+			return createProviderInstance();
+		synchronized (this) {
+			if (instance == null)
+				instance = createProviderInstance();
+			return instance;
+		}
+	}
+
+	/**
+	 * Returns the operations resolved by the evaluators created for the
+	 * tasks of this signature, shared so the provider method is resolved
+	 * once per signature.
+	 */
+	public synchronized MethodInvoker.Resolution getResolution() {
+		if (resolution == null)
+			resolution = new MethodInvoker.Resolution();
+		return resolution;
+	}
+
+	private Object createProviderInstance() throws SignatureException {
+		Class<?> type = targetSignature != null ? targetSignature.getProviderType() : multitype.providerType;
+		try {
+			return DispatchTable.getShared().getConstructor(type).invokeWith(null, null);
+		} catch (Exception e) {
+			throw new SignatureException(e);
+		}
+	}
+
 	/**
 	 * Returns a new instance using a constructor as specified by this
 	 * signature.
@@ -210,21 +271,18 @@ public class ObjectSignature extends ServiceSignature implements sig {
 	 * @throws SignatureException
 	 */
 	public Object newInstance() throws SignatureException {
-		Constructor<?> constructor = null;
+		DispatchTable members = DispatchTable.getShared();
 		Object obj = null;
 		try {
 			if (args == null) {
 				if (Modifier.isAbstract(multitype.providerType.getModifiers()) ||
 						multitype.providerType.getConstructors().length == 0) {
-					Method sm = multitype.providerType.getMethod(initSelector, (Class[])null);
-					obj = sm.invoke(multitype, (Object[])null);
+					obj = members.get(multitype.providerType, initSelector).invokeWith(multitype, null);
 				} else {
-					constructor = multitype.providerType.getConstructor();
-					obj = constructor.newInstance();
+					obj = members.getConstructor(multitype.providerType).invokeWith(null, null);
 				}
 			} else {
-				constructor = multitype.providerType.getConstructor(argTypes);
-				obj = constructor.newInstance(args);
+				obj = members.getConstructor(multitype.providerType, argTypes).invokeWith(null, args);
 			}
 		} catch (Exception e) {
 			logger.error("newInstance failed", e);
@@ -263,49 +321,50 @@ public class ObjectSignature extends ServiceSignature implements sig {
 	 * @throws SignatureException
 	 */
 	public Object initInstance() throws SignatureException {
+		DispatchTable members = DispatchTable.getShared();
 		Object obj = null;
-		Method m = null;
+		DispatchTable.Operation m = null;
 
 		try {
 			if(operation.selector!=null) {
 				try {
-					Method selectorMethod = multitype.providerType.getDeclaredMethod(operation.selector, argTypes);
-					if(Modifier.isStatic(selectorMethod.getModifiers())) {
-						return  selectorMethod.invoke(null, args);
+					DispatchTable.Operation selectorMethod = members.getDeclared(multitype.providerType, operation.selector, argTypes);
+					if(Modifier.isStatic(selectorMethod.getMember().getModifiers())) {
+						return  selectorMethod.invokeWith(null, args);
 					}
 				} catch (NoSuchMethodException e) {
 					//skip;
 				}
 			}
 			if ((initSelector == null || initSelector.equals("new")) && args == null) {
-				obj = multitype.providerType.newInstance();
+				obj = members.getConstructor(multitype.providerType).invokeWith(null, null);
 				return obj;
 			}
 
 			if (argTypes != null) {
 				if (initSelector != null)
-					m = multitype.providerType.getMethod(initSelector, argTypes);
+					m = members.get(multitype.providerType, initSelector, argTypes);
 				else if (operation.selector != null)
-					m = multitype.providerType.getMethod(operation.selector, argTypes);
+					m = members.get(multitype.providerType, operation.selector, argTypes);
 			} else  {
 				if (initSelector != null)
-					m = multitype.providerType.getMethod(initSelector);
+					m = members.get(multitype.providerType, initSelector);
 				else
-					m = multitype.providerType.getMethod(operation.selector);
+					m = members.get(multitype.providerType, operation.selector);
 			}
 			if (args != null) {
-				obj = m.invoke(obj, args);
+				obj = m.invokeWith(obj, args);
 			} else if (argTypes != null && argTypes.length == 1) {
-				obj = m.invoke(obj, new Object[] { null });
+				obj = m.invoke(obj, null);
 			} else {
-				obj = m.invoke(obj);
+				obj = m.invokeWith(obj, null);
 			}
 		} catch (Exception e) {
 			logger.error("initInstance failed", e);
 			try {
 				// check if that is SORCER service bean signature
-				m = multitype.providerType.getMethod(operation.selector, Context.class);
-				if (m.getReturnType() == Context.class)
+				m = members.get(multitype.providerType, operation.selector, Context.class);
+				if (((Method) m.getMember()).getReturnType() == Context.class)
 					return obj;
 				else
 					throw new SignatureException(e);
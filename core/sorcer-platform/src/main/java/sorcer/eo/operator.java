@@ -756,7 +756,7 @@ public class operator extends Operator {
 
     public Context remove(Model model, String path) {
         ServiceContext context = (ServiceContext) model;
-        context.getData().remove(path);
+        context.remove(path);
         return context;
     }
 
@@ -18,8 +18,6 @@ package sorcer.file.remote;
 
 
 import com.google.common.hash.HashFunction;
-import com.google.common.hash.Hashing;
-import com.google.common.io.Files;
 import sorcer.service.EvaluationException;
 
 import java.io.File;
@@ -30,7 +28,7 @@ import java.io.IOException;
  */
 abstract public class AbstractRemoteFile implements RemoteFile {
     protected final String checksum;
-    protected final static HashFunction hf = Hashing.sha1();
+    protected final static HashFunction hf = Checksums.hf;
 
     protected AbstractRemoteFile(File localFile) throws IOException {
         this.checksum = checksum(localFile);
@@ -41,15 +39,21 @@ abstract public class AbstractRemoteFile implements RemoteFile {
     abstract protected File getLocalPath() throws IOException;
 
     protected static String checksum(File localFile) throws IOException {
-        return Files.hash(localFile, hf).toString();
+        return Checksums.of(localFile);
+    }
+
+    /**
+     * Returns true if the file has the checksum of this remote file.
+     */
+    protected boolean isValid(File file) throws IOException {
+        return checksum.equals(checksum(file));
     }
 
     @Override
     public File getValue() throws EvaluationException {
         try {
             File result = doGetFile();
-            String myChecksum = checksum(result);
-            if (!checksum.equals(myChecksum))
+            if (!isValid(result))
                 throw new IllegalStateException("File exists but has invalid checksum");
             return result;
         } catch (IOException e) {
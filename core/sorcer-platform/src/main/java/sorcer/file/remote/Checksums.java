@@ -0,0 +1,68 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.file.remote;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * SHA-1 checksums of local files remembered by path, size and modification
+ * time, so an unchanged file is hashed once.
+ */
+class Checksums {
+    final static HashFunction hf = Hashing.sha1();
+
+    private final static Cache<String, Entry> checksums = CacheBuilder.newBuilder()
+            .maximumSize(4096)
+            .build();
+
+    static String of(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        Entry entry = checksums.getIfPresent(path);
+        long length = file.length(), modified = file.lastModified();
+        if (entry != null && entry.length == length && entry.modified == modified)
+            return entry.checksum;
+        String checksum = Files.hash(file, hf).toString();
+        checksums.put(path, new Entry(checksum, length, modified));
+        return checksum;
+    }
+
+    /**
+     * Remembers the checksum of a file verified while it was written.
+     */
+    static void put(File file, String checksum) {
+        checksums.put(file.getAbsolutePath(), new Entry(checksum, file.length(), file.lastModified()));
+    }
+
+    private static class Entry {
+        final String checksum;
+        final long length;
+        final long modified;
+
+        Entry(String checksum, long length, long modified) {
+            this.checksum = checksum;
+            this.length = length;
+            this.modified = modified;
+        }
+    }
+}
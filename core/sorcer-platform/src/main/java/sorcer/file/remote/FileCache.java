@@ -0,0 +1,372 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.file.remote;
+
+import com.google.common.hash.HashingInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.util.Sorcer;
+
+import java.io.*;
+import java.net.URL;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * A node-local cache of files addressed by their SHA-1 checksum. Remote
+ * files are downloaded once per node, concurrent requests for the same
+ * checksum share a single download, and a downloaded file is verified while
+ * it is written. Local files are copied into the cache when they are
+ * published, so later changes of the original do not alter the cached file.
+ * Cached files are read-only and are handed out as hard links, a cached file
+ * found changed is removed and downloaded again.
+ * <p>
+ * The least recently used files are removed when the cache grows over its
+ * size limit, files published by this node are kept as long as it runs and
+ * files are not removed while they are being linked. The cache directory and size are set by the
+ * <code>file.cache.dir</code> and <code>file.cache.size</code> (MB)
+ * properties, by default the cache is in the data directory served by
+ * Webster.
+ *
+ * @see RemoteFileFactory
+ */
+public class FileCache {
+    final private static Logger log = LoggerFactory.getLogger(FileCache.class);
+
+    private static final String PART = ".part";
+
+    private static FileCache instance;
+
+    private final Path root;
+
+    private final long maxSize;
+
+    // the cached files known in this process, by checksum
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    // the files being linked, not removed by trim, guarded by this
+    private final Map<String, Integer> pinned = new HashMap<String, Integer>();
+
+    private final ConcurrentMap<String, FutureTask<File>> downloads = new ConcurrentHashMap<String, FutureTask<File>>();
+
+    // checksums of files published by this node, served to other nodes
+    private final Set<String> published = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    public FileCache(Path root, long maxSize) throws IOException {
+        this.root = root;
+        this.maxSize = maxSize;
+        Files.createDirectories(root);
+    }
+
+    public static synchronized FileCache getInstance() throws IOException {
+        if (instance == null)
+            instance = new FileCache(Sorcer.getFileCacheDir().toPath(), Sorcer.getFileCacheSize() * 1024 * 1024);
+        return instance;
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the cached file with the given checksum or null.
+     */
+    public File get(String checksum) {
+        File file = path(checksum).toFile();
+        if (!file.exists())
+            return null;
+        Entry entry = entries.get(checksum);
+        if (entry == null) {
+            // stored by an earlier process, its name is its verified checksum
+            try {
+                entry = new Entry(file);
+            } catch (IOException e) {
+                return null;
+            }
+            Entry known = entries.putIfAbsent(checksum, entry);
+            if (known != null)
+                entry = known;
+        } else if (!entry.matches(file)) {
+            log.warn("Cached file {} has been changed, removing it", file);
+            remove(checksum, file.toPath());
+            return null;
+        }
+        entry.accessed = System.currentTimeMillis();
+        return file;
+    }
+
+    /**
+     * Returns true if the file is the cached file with the given checksum or
+     * a link to it and it has not been changed since it was cached.
+     */
+    public boolean isCached(String checksum, File file) {
+        Entry entry = entries.get(checksum);
+        return entry != null && entry.matches(file) && path(checksum).toFile().exists();
+    }
+
+    /**
+     * Hard links the cached file with the given checksum to the target,
+     * downloading it from the URL if it is not cached. The file is copied if
+     * it cannot be linked. The cached file is not removed while it is being
+     * linked.
+     *
+     * @return the target file, read-only if it is a link
+     * @throws IOException if the file cannot be downloaded or linked
+     */
+    public File link(String checksum, URL url, Path target) throws IOException {
+        pin(checksum);
+        try {
+            Path cached = fetch(checksum, url).toPath();
+            try {
+                Files.createLink(target, cached);
+            } catch (UnsupportedOperationException | IOException e) {
+                log.debug("Could not link {}, copying it", cached, e);
+                Files.deleteIfExists(target);
+                Files.copy(cached, target);
+            }
+            return target.toFile();
+        } finally {
+            unpin(checksum);
+        }
+    }
+
+    /**
+     * Returns the cached file with the given checksum, downloading it from
+     * the URL if it is not cached.
+     *
+     * @throws IOException if the file cannot be downloaded or has a different checksum
+     */
+    public File fetch(final String checksum, final URL url) throws IOException {
+        File cached = get(checksum);
+        if (cached != null)
+            return cached;
+        FutureTask<File> download = new FutureTask<File>(new Callable<File>() {
+            @Override
+            public File call() throws IOException {
+                return download(checksum, url);
+            }
+        });
+        FutureTask<File> running = downloads.putIfAbsent(checksum, download);
+        if (running == null) {
+            running = download;
+            try {
+                download.run();
+            } finally {
+                downloads.remove(checksum, download);
+            }
+        }
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while downloading " + url);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException)
+                throw (IOException) e.getCause();
+            throw new IOException("Error downloading " + url, e.getCause());
+        }
+    }
+
+    /**
+     * Copies the local file to the cache and keeps it there while this
+     * process runs, the file is published for other nodes.
+     *
+     * @return the cached file
+     * @throws IOException if the file cannot be copied or has been changed
+     */
+    public File put(String checksum, File file) throws IOException {
+        published.add(checksum);
+        File cached = get(checksum);
+        if (cached != null)
+            return cached;
+        Path target = path(checksum);
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(UUID.randomUUID().toString() + PART);
+        log.debug("Copying {} to the file cache", file);
+        try {
+            HashingInputStream in = new HashingInputStream(Checksums.hf, new FileInputStream(file));
+            try {
+                Files.copy(in, tmp);
+            } finally {
+                in.close();
+            }
+            String copied = in.hash().toString();
+            if (!checksum.equals(copied))
+                throw new IOException("File " + file + " has been changed, checksum " + copied + ", expected " + checksum);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return store(checksum, tmp);
+    }
+
+    private File download(String checksum, URL url) throws IOException {
+        Path target = path(checksum);
+        Files.createDirectories(target.getParent());
+        Path tmp = target.resolveSibling(UUID.randomUUID().toString() + PART);
+        log.debug("Downloading {} to the file cache", url);
+        try {
+            HashingInputStream in = new HashingInputStream(Checksums.hf, url.openStream());
+            try {
+                Files.copy(in, tmp);
+            } finally {
+                in.close();
+            }
+            String downloaded = in.hash().toString();
+            if (!checksum.equals(downloaded))
+                throw new IOException("File at " + url + " has invalid checksum " + downloaded + ", expected " + checksum);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        return store(checksum, tmp);
+    }
+
+    private File store(String checksum, Path tmp) throws IOException {
+        Path target = path(checksum);
+        try {
+            // links share the cached file, they must not change it
+            tmp.toFile().setReadOnly();
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        File file = target.toFile();
+        entries.put(checksum, new Entry(file));
+        Checksums.put(file, checksum);
+        trim(checksum);
+        return file;
+    }
+
+    private synchronized void pin(String checksum) {
+        Integer count = pinned.get(checksum);
+        pinned.put(checksum, count == null ? 1 : count + 1);
+    }
+
+    private synchronized void unpin(String checksum) {
+        Integer count = pinned.get(checksum);
+        if (count == null || count <= 1)
+            pinned.remove(checksum);
+        else
+            pinned.put(checksum, count - 1);
+    }
+
+    private synchronized void remove(String checksum, Path file) {
+        if (pinned.containsKey(checksum))
+            return;
+        try {
+            file.toFile().setWritable(true);
+            Files.deleteIfExists(file);
+            entries.remove(checksum);
+        } catch (IOException e) {
+            log.warn("Could not remove {} from the file cache", file, e);
+        }
+    }
+
+    Path path(String checksum) {
+        if (checksum.length() < 3 || checksum.indexOf('/') >= 0 || checksum.indexOf('\\') >= 0 || checksum.indexOf('.') >= 0)
+            throw new IllegalArgumentException("Invalid checksum " + checksum);
+        return root.resolve(checksum.substring(0, 2)).resolve(checksum);
+    }
+
+    /*
+     * Removes the least recently used files until the cache fits its size,
+     * the file just stored, the published and the pinned files are kept.
+     */
+    private synchronized void trim(String kept) {
+        final Map<Path, Long> lastAccess = new HashMap<Path, Long>();
+        final Map<Path, Long> sizes = new HashMap<Path, Long>();
+        long total = 0;
+        try (DirectoryStream<Path> dirs = Files.newDirectoryStream(root)) {
+            for (Path dir : dirs) {
+                if (!Files.isDirectory(dir, LinkOption.NOFOLLOW_LINKS))
+                    continue;
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                    for (Path file : files) {
+                        String checksum = file.getFileName().toString();
+                        if (checksum.endsWith(PART))
+                            continue;
+                        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+                        total += attrs.size();
+                        if (checksum.equals(kept) || published.contains(checksum) || pinned.containsKey(checksum))
+                            continue;
+                        Entry entry = entries.get(checksum);
+                        lastAccess.put(file, entry != null ? entry.accessed : attrs.lastModifiedTime().toMillis());
+                        sizes.put(file, attrs.size());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read the file cache {}", root, e);
+            return;
+        }
+        if (total <= maxSize)
+            return;
+        List<Path> files = new ArrayList<Path>(lastAccess.keySet());
+        Collections.sort(files, new Comparator<Path>() {
+            @Override
+            public int compare(Path p1, Path p2) {
+                return Long.compare(lastAccess.get(p1), lastAccess.get(p2));
+            }
+        });
+        for (Path file : files) {
+            if (total <= maxSize)
+                break;
+            try {
+                file.toFile().setWritable(true);
+                Files.deleteIfExists(file);
+                entries.remove(file.getFileName().toString());
+                total -= sizes.get(file);
+                log.debug("Removed {} from the file cache", file);
+            } catch (IOException e) {
+                log.warn("Could not remove {} from the file cache", file, e);
+            }
+        }
+    }
+
+    /*
+     * The file key, size and modification time of a cached file when it was
+     * stored, its links share them.
+     */
+    private static class Entry {
+        final Object key;
+        final long length;
+        final FileTime modified;
+        volatile long accessed = System.currentTimeMillis();
+
+        Entry(File file) throws IOException {
+            BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            key = attrs.fileKey();
+            length = attrs.size();
+            modified = attrs.lastModifiedTime();
+        }
+
+        boolean matches(File file) {
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+                return (key == null || key.equals(attrs.fileKey()))
+                        && attrs.size() == length && attrs.lastModifiedTime().equals(modified);
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
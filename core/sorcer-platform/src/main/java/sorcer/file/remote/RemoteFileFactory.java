@@ -28,7 +28,8 @@ import java.io.IOException;
  * A factory that creates RemoteFile instances based on whether source file is placed in a directory marked as shared.
  *
  * File placed in shared directories cause the factory to return {@link SharedFile}.
- * Files placed in other directories are copied to data directory, and upon request copied over HTTP.
+ * Files placed in other directories are copied into the {@link FileCache} served from the data directory,
+ * and upon request copied over HTTP.
  *
  * @author Rafał Krupiński
  */
@@ -68,9 +69,14 @@ public class RemoteFileFactory {
     private WebFile createWebFile(File file) throws IOException {
         File published = file;
         if (!IOUtils.isChild(dataDir, file)) {
-            // TODO instead of copying a potentially large file, just register it with Webster instance
-            published = dataDir.toPath().resolve(file.toPath().getFileName()).toFile();
-            Files.copy(file, published);
+            FileCache cache = FileCache.getInstance();
+            if (IOUtils.isChild(dataDir, cache.getRoot().toFile())) {
+                // copied into the node's file cache, local consumers do not download it
+                published = cache.put(Checksums.of(file), file);
+            } else {
+                published = dataDir.toPath().resolve(file.toPath().getFileName()).toFile();
+                Files.copy(file, published);
+            }
         }
 
         return new WebFile(published, Sorcer.getDataURL(published));
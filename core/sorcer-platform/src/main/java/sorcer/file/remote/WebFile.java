@@ -16,17 +16,18 @@
 
 package sorcer.file.remote;
 
-import com.google.common.io.Resources;
 import sorcer.file.ScratchDirManager;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.Serializable;
 import java.net.URL;
 
 /**
- * Remote file that is copied over web using webster data appliance.
+ * Remote file that is copied over web using webster data appliance. The
+ * file is downloaded once per node into the {@link FileCache} and callers
+ * get a read-only hard link to the cached file, a new link is made only if
+ * the last one has been changed.
  *
  * @author Rafał Krupiński
  */
@@ -34,23 +35,32 @@ public class WebFile extends AbstractRemoteFile implements Serializable {
     private static final long serialVersionUID = -3333474650265576280L;
     private URL remoteUrl;
 
+    // the last link to the cached file handed out on this node
+    private transient File localFile;
+
     public WebFile(File localFile, URL remoteUrl) throws IOException {
         super(localFile);
         this.remoteUrl = remoteUrl;
     }
 
     @Override
-    protected File doGetFile() throws IOException {
-        File localFile = getLocalPath();
-        try (FileOutputStream local = new FileOutputStream(localFile)) {
-            Resources.copy(remoteUrl, local);
-        }
+    protected synchronized File doGetFile() throws IOException {
+        FileCache cache = FileCache.getInstance();
+        if (localFile != null && cache.isCached(checksum, localFile))
+            return localFile;
+        File parent = new ScratchDirManager().getNewScratchDir("remote-file");
+        localFile = cache.link(checksum, remoteUrl, new File(parent, checksum).toPath());
         return localFile;
     }
 
+    @Override
+    protected boolean isValid(File file) throws IOException {
+        // a link unchanged since the file was verified in the cache
+        return FileCache.getInstance().isCached(checksum, file) || super.isValid(file);
+    }
+
     @Override
     protected File getLocalPath() throws IOException {
-        File parent = new ScratchDirManager().getNewScratchDir("remote-file");
-        return new File(parent, checksum);
+        return FileCache.getInstance().path(checksum).toFile();
     }
 }
@@ -18,7 +18,7 @@
 package sorcer.netlet.util;
 
 import groovy.lang.Binding;
-import groovy.lang.GroovyShell;
+import groovy.lang.Script;
 import net.jini.core.transaction.TransactionException;
 import org.codehaus.groovy.control.CompilationFailedException;
 import org.codehaus.groovy.control.CompilerConfiguration;
@@ -29,6 +29,7 @@ import org.slf4j.LoggerFactory;
 import sorcer.core.context.ServiceContext;
 import sorcer.core.context.model.ent.Entry;
 import sorcer.core.context.model.ent.Subroutine;
+import sorcer.core.invoker.ScriptCache;
 import sorcer.core.provider.exerter.ServiceShell;
 import sorcer.service.*;
 
@@ -43,7 +44,8 @@ public class ScripterThread extends Thread {
     private Object result;
     private Object target = null;
     private boolean isExerted = true;
-    final private GroovyShell gShell;
+    final private CompilerConfiguration compilerConfig;
+    final private Binding binding = new Binding();
     private NetletClassLoader classLoader;
     private ServiceShell serviceShell;
 
@@ -59,12 +61,11 @@ public class ScripterThread extends Thread {
         this.classLoader = classLoader;
         this.isExerted = isExerted;
 
-        CompilerConfiguration compilerConfig = new CompilerConfiguration();
+        compilerConfig = new CompilerConfiguration();
         compilerConfig.setPluginFactory(new ShebangPreprocessorFactory());
         compilerConfig.addCompilationCustomizers(getImports());
         compilerConfig.addCompilationCustomizers(new ASTTransformationCustomizer(new GroovyCodebaseSupport(classLoader)));
 
-        gShell = new GroovyShell(classLoader, new Binding(), compilerConfig);
         this.script = script;
     }
 
@@ -72,8 +73,11 @@ public class ScripterThread extends Thread {
         ClassLoader currentCL = Thread.currentThread().getContextClassLoader();
         try {
             Thread.currentThread().setContextClassLoader(classLoader);
-            synchronized (gShell) {
-                target = gShell.evaluate(script);
+            // compiled once per netlet class loader, the codebase is resolved when compiled
+            Class<? extends Script> scriptClass = ScriptCache.getInstance()
+                    .getScriptClass(getClass().getName(), script, classLoader, compilerConfig);
+            synchronized (binding) {
+                target = ScriptCache.createScript(scriptClass, binding).run();
             }
         } finally {
             Thread.currentThread().setContextClassLoader(currentCL);
@@ -24,17 +24,37 @@ import net.jini.space.JavaSpace05;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.service.Accessor;
+import sorcer.util.ConfigurableThreadFactory;
 import sorcer.util.ProviderNameUtil;
+import sorcer.util.Sorcer;
 import sorcer.util.SorcerProviderNameUtil;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
 
 /**
+ * Caches JavaSpace proxies by space name. A cached proxy is returned
+ * without a remote call, it is validated by a background heartbeat every
+ * <code>space.heartbeat</code> milliseconds and dropped when the heartbeat
+ * or a caller finds the space unreachable, see {@link #invalidate(JavaSpace)}.
+ * Lookups of an unreachable space are retried with a backoff doubling up to
+ * <code>space.retry.max</code> milliseconds, until then the space is
+ * <code>null</code>.
+ *
  * @author Rafał Krupiński
  */
 public class SpaceAccessor {
     private static final Logger log = LoggerFactory.getLogger(SpaceAccessor.class);
     private static SpaceAccessor instance = new SpaceAccessor();
-    private static JavaSpace05 cache;
+    // the key of spaces looked up by type only
+    private static final String ANY = "";
+    private static final long RETRY_MIN = 500;
+    private static final ConcurrentMap<String, CachedSpace> cache = new ConcurrentHashMap<String, CachedSpace>();
+    private static ScheduledExecutorService heartbeat;
     private ProviderNameUtil providerNameUtil = new SorcerProviderNameUtil();
 
     /**
@@ -47,30 +67,29 @@ public class SpaceAccessor {
     }
 
     public static JavaSpace05 doGetSpace(String spaceName) {
-        // first test if our cached JavaSpace is alive
-        // and if it's the case then return it,
-        // otherwise get a new JavSpace proxy
-        JavaSpace05 javaSpace = cache;
-        if (javaSpace != null) {
-            try {
-                javaSpace.readIfExists(new Name("_SORCER_"), null, JavaSpace.NO_WAIT);
-                return javaSpace;
-            } catch (Exception e) {
-                //log.error("error", e.getMessage());
-                cache = null;
-            }
+        String key = spaceName != null ? spaceName : ANY;
+        CachedSpace cached = cache.get(key);
+        if (cached == null) {
+            CachedSpace created = new CachedSpace(spaceName);
+            cached = cache.putIfAbsent(key, created);
+            if (cached == null)
+                cached = created;
         }
-        javaSpace = Accessor.get().getService(spaceName, JavaSpace05.class);
-        try {
-            javaSpace.readIfExists(new Name("_SORCER_"), null, JavaSpace.NO_WAIT);
-            cache = javaSpace;
-            log.info("JavaSpace is back!");
+        JavaSpace05 javaSpace = cached.space;
+        if (javaSpace != null)
             return javaSpace;
-        } catch (Exception e) {
-            log.error("Problem connecting to JavaSpace");
-            cache = null;
-            return null;
-        }
+        return cached.connect();
+    }
+
+    /**
+     * Drops the cached proxy, callers invalidate a space that failed with a
+     * <code>RemoteException</code> so the next request looks it up again.
+     */
+    public static void invalidate(JavaSpace space) {
+        if (space == null)
+            return;
+        for (CachedSpace cached : cache.values())
+            cached.invalidate(space);
     }
 
     /**
@@ -85,4 +104,79 @@ public class SpaceAccessor {
     public JavaSpace05 doGetSpace() {
         return doGetSpace(providerNameUtil.getName(JavaSpace05.class));
     }
+
+    private static void ping(JavaSpace05 javaSpace) throws Exception {
+        javaSpace.readIfExists(new Name("_SORCER_"), null, JavaSpace.NO_WAIT);
+    }
+
+    private static synchronized void startHeartbeat() {
+        if (heartbeat != null)
+            return;
+        ConfigurableThreadFactory tf = new ConfigurableThreadFactory();
+        tf.setDaemon(true);
+        tf.setNameFormat("SpaceHeartbeat");
+        heartbeat = Executors.newSingleThreadScheduledExecutor(tf);
+        long interval = Sorcer.getSpaceHeartbeat();
+        heartbeat.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                for (CachedSpace cached : cache.values())
+                    cached.validate();
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    private static class CachedSpace {
+        final String name;
+        volatile JavaSpace05 space;
+        // guarded by this
+        long retryDelay;
+        long nextRetry;
+
+        CachedSpace(String name) {
+            this.name = name;
+        }
+
+        synchronized JavaSpace05 connect() {
+            if (space != null)
+                return space;
+            long now = System.currentTimeMillis();
+            if (now < nextRetry)
+                return null;
+            JavaSpace05 javaSpace = Accessor.get().getService(name, JavaSpace05.class);
+            try {
+                if (javaSpace == null)
+                    throw new IllegalStateException("No JavaSpace found");
+                ping(javaSpace);
+            } catch (Exception e) {
+                retryDelay = Math.min(retryDelay == 0 ? RETRY_MIN : retryDelay * 2, Sorcer.getSpaceRetryMax());
+                nextRetry = now + retryDelay;
+                log.error("Problem connecting to JavaSpace {}, retrying in {} ms", name, retryDelay);
+                return null;
+            }
+            retryDelay = 0;
+            nextRetry = 0;
+            space = javaSpace;
+            log.info("JavaSpace {} is back!", name);
+            startHeartbeat();
+            return javaSpace;
+        }
+
+        void validate() {
+            JavaSpace05 javaSpace = space;
+            if (javaSpace == null)
+                return;
+            try {
+                ping(javaSpace);
+            } catch (Exception e) {
+                log.warn("JavaSpace {} is not reachable", name);
+                invalidate(javaSpace);
+            }
+        }
+
+        synchronized void invalidate(JavaSpace javaSpace) {
+            if (space == javaSpace)
+                space = null;
+        }
+    }
 }
@@ -0,0 +1,538 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * The cells of a {@link ColumnTable} stored by columns. A column holding
+ * only <code>Double</code> or only <code>Long</code> values keeps them in
+ * chunks of primitive <code>double</code> or <code>long</code> values, any
+ * other value turns the column into a column of objects. The store is the
+ * <code>List</code> of rows of its table, the rows are views of the columns
+ * so the row based methods of {@link DataTable} keep working.
+ * <p>
+ * Like the rows of a {@link DataTable} the store is not synchronized.
+ */
+class ColumnStore extends AbstractList<List<?>> implements RandomAccess, Serializable {
+	static final long serialVersionUID = 4210817530932742611L;
+
+	private static final int CHUNK_BITS = 12;
+
+	private static final int CHUNK = 1 << CHUNK_BITS;
+
+	private static final int MASK = CHUNK - 1;
+
+	private transient int rows;
+
+	private transient ArrayList<Column> columns;
+
+	ColumnStore(int width) {
+		columns = new ArrayList<Column>(width);
+		for (int i = 0; i < width; i++)
+			columns.add(new Column());
+	}
+
+	int width() {
+		return columns.size();
+	}
+
+	@Override
+	public int size() {
+		return rows;
+	}
+
+	/**
+	 * Returns a view of the row, the view follows the index not the row when
+	 * rows are inserted or removed.
+	 */
+	@Override
+	public List<?> get(int row) {
+		checkRow(row);
+		return new RowView(row);
+	}
+
+	@Override
+	public List<?> set(int row, List<?> rowData) {
+		checkRow(row);
+		List<?> old = copyRow(row);
+		fill(row, rowData);
+		return old;
+	}
+
+	@Override
+	public void add(int row, List<?> rowData) {
+		if (row < 0 || row > rows)
+			throw new IndexOutOfBoundsException("Row: " + row + ", rows: " + rows);
+		for (Column column : columns)
+			column.insert(row, rows);
+		rows++;
+		modCount++;
+		if (rowData != null)
+			fill(row, rowData);
+	}
+
+	@Override
+	public List<?> remove(int row) {
+		checkRow(row);
+		List<?> old = copyRow(row);
+		for (Column column : columns)
+			column.remove(row, rows);
+		rows--;
+		modCount++;
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		int width = columns.size();
+		columns.clear();
+		for (int i = 0; i < width; i++)
+			columns.add(new Column());
+		rows = 0;
+		modCount++;
+	}
+
+	Object get(int row, int column) {
+		checkRow(row);
+		return column < columns.size() ? columns.get(column).get(row) : null;
+	}
+
+	void set(int row, int column, Object value) {
+		checkRow(row);
+		widen(column + 1);
+		columns.get(column).set(row, value, rows);
+	}
+
+	/**
+	 * Returns the cell as a double, <code>NaN</code> if the cell is empty.
+	 *
+	 * @throws ClassCastException
+	 *             if the cell is not a number
+	 */
+	double getDouble(int row, int column) {
+		checkRow(row);
+		return column < columns.size() ? columns.get(column).getDouble(row) : Double.NaN;
+	}
+
+	void addRow(double[] rowData) {
+		widen(rowData.length);
+		add(rows, null);
+		for (int i = 0; i < rowData.length; i++)
+			columns.get(i).setDouble(rows - 1, rowData[i], rows);
+	}
+
+	void addRow(long[] rowData) {
+		widen(rowData.length);
+		add(rows, null);
+		for (int i = 0; i < rowData.length; i++)
+			columns.get(i).setLong(rows - 1, rowData[i], rows);
+	}
+
+	void addColumn(int index, List<?> columnData) {
+		widen(index);
+		Column column = new Column();
+		columns.add(index, column);
+		if (columnData == null)
+			return;
+		while (rows < columnData.size())
+			add(rows, null);
+		for (int i = 0; i < columnData.size(); i++)
+			column.set(i, columnData.get(i), rows);
+	}
+
+	void removeColumn(int index) {
+		if (index < columns.size())
+			columns.remove(index);
+	}
+
+	/**
+	 * Returns the values of the column as doubles, empty cells are
+	 * <code>NaN</code>.
+	 */
+	double[] getDoubleColumn(int column) {
+		double[] values = new double[rows];
+		if (column < columns.size())
+			columns.get(column).copyTo(values, rows);
+		else
+			Arrays.fill(values, Double.NaN);
+		return values;
+	}
+
+	/**
+	 * Returns the values of the column as longs.
+	 *
+	 * @throws NullPointerException
+	 *             if the column has empty cells
+	 */
+	long[] getLongColumn(int column) {
+		long[] values = new long[rows];
+		if (rows > 0 && column >= columns.size())
+			throw new NullPointerException("Empty column: " + column);
+		if (rows > 0)
+			columns.get(column).copyTo(values, rows);
+		return values;
+	}
+
+	/**
+	 * Returns the minimum and the maximum of the column, or null if some
+	 * cells of the column are not stored as numbers.
+	 */
+	double[] getMinMax(int column) {
+		if (column >= columns.size() || rows == 0)
+			return null;
+		return columns.get(column).getMinMax(rows);
+	}
+
+	private void widen(int width) {
+		while (columns.size() < width)
+			columns.add(new Column());
+	}
+
+	private void fill(int row, List<?> rowData) {
+		int size = rowData == null ? 0 : rowData.size();
+		widen(size);
+		// copies the values first in case rowData is a view of this store
+		Object[] values = rowData == null ? new Object[0] : rowData.toArray();
+		for (int i = 0; i < columns.size(); i++)
+			columns.get(i).set(row, i < size ? values[i] : null, rows);
+	}
+
+	private List<?> copyRow(int row) {
+		List<Object> copy = new ArrayList<Object>(columns.size());
+		for (Column column : columns)
+			copy.add(column.get(row));
+		return copy;
+	}
+
+	private void checkRow(int row) {
+		if (row < 0 || row >= rows)
+			throw new IndexOutOfBoundsException("Row: " + row + ", rows: " + rows);
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		out.writeInt(rows);
+		out.writeInt(columns.size());
+		for (Column column : columns)
+			column.write(out, rows);
+	}
+
+	private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		rows = in.readInt();
+		int width = in.readInt();
+		columns = new ArrayList<Column>(width);
+		for (int i = 0; i < width; i++) {
+			Column column = new Column();
+			column.read(in, rows);
+			columns.add(column);
+		}
+	}
+
+	private class RowView extends AbstractList<Object> implements RandomAccess {
+		private final int row;
+
+		RowView(int row) {
+			this.row = row;
+		}
+
+		@Override
+		public Object get(int column) {
+			if (column < 0 || column >= columns.size())
+				throw new IndexOutOfBoundsException("Column: " + column + ", columns: " + columns.size());
+			return columns.get(column).get(row);
+		}
+
+		@Override
+		public Object set(int column, Object value) {
+			Object old = get(column);
+			columns.get(column).set(row, value, rows);
+			return old;
+		}
+
+		@Override
+		public int size() {
+			return columns.size();
+		}
+	}
+
+	/*
+	 * A column of cells in chunks, the kind of a column changes from EMPTY to
+	 * DOUBLE or LONG with its first value and to OBJECT with a value of
+	 * another type. Cells of primitive columns are empty if their bit in
+	 * present is not set.
+	 */
+	private static final class Column {
+		static final byte EMPTY = 0, DOUBLE = 1, LONG = 2, OBJECT = 3;
+
+		byte kind = EMPTY;
+
+		double[][] doubles;
+
+		long[][] longs;
+
+		Object[][] objects;
+
+		BitSet present;
+
+		Object get(int row) {
+			switch (kind) {
+				case DOUBLE:
+					return present.get(row) ? doubles[row >>> CHUNK_BITS][row & MASK] : null;
+				case LONG:
+					return present.get(row) ? longs[row >>> CHUNK_BITS][row & MASK] : null;
+				case OBJECT:
+					return objects[row >>> CHUNK_BITS][row & MASK];
+				default:
+					return null;
+			}
+		}
+
+		double getDouble(int row) {
+			switch (kind) {
+				case DOUBLE:
+					return present.get(row) ? doubles[row >>> CHUNK_BITS][row & MASK] : Double.NaN;
+				case LONG:
+					return present.get(row) ? longs[row >>> CHUNK_BITS][row & MASK] : Double.NaN;
+				case OBJECT:
+					Object value = objects[row >>> CHUNK_BITS][row & MASK];
+					return value == null ? Double.NaN : ((Number) value).doubleValue();
+				default:
+					return Double.NaN;
+			}
+		}
+
+		void set(int row, Object value, int rows) {
+			if (value == null) {
+				if (kind == OBJECT)
+					objects[row >>> CHUNK_BITS][row & MASK] = null;
+				else if (kind != EMPTY)
+					present.clear(row);
+			} else if (value instanceof Double && (kind == EMPTY || kind == DOUBLE)) {
+				setDouble(row, (Double) value, rows);
+			} else if (value instanceof Long && (kind == EMPTY || kind == LONG)) {
+				setLong(row, (Long) value, rows);
+			} else {
+				if (kind != OBJECT)
+					toObjects(rows);
+				objects[row >>> CHUNK_BITS][row & MASK] = value;
+			}
+		}
+
+		void setDouble(int row, double value, int rows) {
+			if (kind == EMPTY) {
+				kind = DOUBLE;
+				present = new BitSet();
+				ensure(rows);
+			} else if (kind != DOUBLE) {
+				set(row, value, rows);
+				return;
+			}
+			doubles[row >>> CHUNK_BITS][row & MASK] = value;
+			present.set(row);
+		}
+
+		void setLong(int row, long value, int rows) {
+			if (kind == EMPTY) {
+				kind = LONG;
+				present = new BitSet();
+				ensure(rows);
+			} else if (kind != LONG) {
+				set(row, value, rows);
+				return;
+			}
+			longs[row >>> CHUNK_BITS][row & MASK] = value;
+			present.set(row);
+		}
+
+		/*
+		 * Makes an empty cell at the row, rows is the row count before the
+		 * insert.
+		 */
+		void insert(int row, int rows) {
+			if (kind == EMPTY)
+				return;
+			ensure(rows + 1);
+			for (int i = rows; i > row; i--)
+				move(i - 1, i);
+			clear(row);
+		}
+
+		/*
+		 * Removes the cell at the row, rows is the row count before the
+		 * removal.
+		 */
+		void remove(int row, int rows) {
+			if (kind == EMPTY)
+				return;
+			for (int i = row + 1; i < rows; i++)
+				move(i, i - 1);
+			clear(rows - 1);
+		}
+
+		void copyTo(double[] values, int rows) {
+			if (kind == DOUBLE && present.nextClearBit(0) >= rows) {
+				for (int c = 0, start = 0; start < rows; c++, start += CHUNK)
+					System.arraycopy(doubles[c], 0, values, start, Math.min(CHUNK, rows - start));
+			} else {
+				for (int i = 0; i < rows; i++)
+					values[i] = getDouble(i);
+			}
+		}
+
+		void copyTo(long[] values, int rows) {
+			if (kind == LONG && present.nextClearBit(0) >= rows) {
+				for (int c = 0, start = 0; start < rows; c++, start += CHUNK)
+					System.arraycopy(longs[c], 0, values, start, Math.min(CHUNK, rows - start));
+			} else {
+				for (int i = 0; i < rows; i++) {
+					Object value = get(i);
+					if (value == null)
+						throw new NullPointerException("Empty cell at row: " + i);
+					values[i] = ((Number) value).longValue();
+				}
+			}
+		}
+
+		double[] getMinMax(int rows) {
+			if ((kind != DOUBLE && kind != LONG) || present.nextClearBit(0) < rows)
+				return null;
+			double min = getDouble(0), max = min;
+			for (int i = 1; i < rows; i++) {
+				double value = kind == DOUBLE ? doubles[i >>> CHUNK_BITS][i & MASK] : longs[i >>> CHUNK_BITS][i & MASK];
+				if (value > max) max = value;
+				if (value < min) min = value;
+			}
+			return new double[] { min, max };
+		}
+
+		private void toObjects(int rows) {
+			Object[][] values = new Object[chunks(rows)][];
+			for (int c = 0; c < values.length; c++)
+				values[c] = new Object[CHUNK];
+			for (int i = 0; i < rows; i++)
+				values[i >>> CHUNK_BITS][i & MASK] = get(i);
+			objects = values;
+			doubles = null;
+			longs = null;
+			present = null;
+			kind = OBJECT;
+		}
+
+		private void ensure(int rows) {
+			int count = chunks(rows);
+			switch (kind) {
+				case DOUBLE:
+					int old = doubles == null ? 0 : doubles.length;
+					if (old < count) {
+						doubles = doubles == null ? new double[count][] : Arrays.copyOf(doubles, Math.max(count, old * 2));
+						for (int c = old; c < doubles.length; c++)
+							doubles[c] = new double[CHUNK];
+					}
+					break;
+				case LONG:
+					old = longs == null ? 0 : longs.length;
+					if (old < count) {
+						longs = longs == null ? new long[count][] : Arrays.copyOf(longs, Math.max(count, old * 2));
+						for (int c = old; c < longs.length; c++)
+							longs[c] = new long[CHUNK];
+					}
+					break;
+				case OBJECT:
+					old = objects.length;
+					if (old < count) {
+						objects = Arrays.copyOf(objects, Math.max(count, old * 2));
+						for (int c = old; c < objects.length; c++)
+							objects[c] = new Object[CHUNK];
+					}
+					break;
+			}
+		}
+
+		private void move(int from, int to) {
+			switch (kind) {
+				case DOUBLE:
+					doubles[to >>> CHUNK_BITS][to & MASK] = doubles[from >>> CHUNK_BITS][from & MASK];
+					present.set(to, present.get(from));
+					break;
+				case LONG:
+					longs[to >>> CHUNK_BITS][to & MASK] = longs[from >>> CHUNK_BITS][from & MASK];
+					present.set(to, present.get(from));
+					break;
+				case OBJECT:
+					objects[to >>> CHUNK_BITS][to & MASK] = objects[from >>> CHUNK_BITS][from & MASK];
+					break;
+			}
+		}
+
+		private void clear(int row) {
+			if (kind == OBJECT)
+				objects[row >>> CHUNK_BITS][row & MASK] = null;
+			else
+				present.clear(row);
+		}
+
+		private static int chunks(int rows) {
+			return Math.max(1, (rows + MASK) >>> CHUNK_BITS);
+		}
+
+		void write(ObjectOutputStream out, int rows) throws IOException {
+			out.writeByte(kind);
+			if (kind == EMPTY)
+				return;
+			if (kind == OBJECT) {
+				for (int i = 0; i < rows; i++)
+					out.writeObject(objects[i >>> CHUNK_BITS][i & MASK]);
+				return;
+			}
+			out.writeObject(present.get(0, rows).toLongArray());
+			for (int i = 0; i < rows; i++) {
+				if (kind == DOUBLE)
+					out.writeDouble(doubles[i >>> CHUNK_BITS][i & MASK]);
+				else
+					out.writeLong(longs[i >>> CHUNK_BITS][i & MASK]);
+			}
+		}
+
+		void read(ObjectInputStream in, int rows) throws IOException, ClassNotFoundException {
+			kind = in.readByte();
+			if (kind == EMPTY)
+				return;
+			if (kind == OBJECT) {
+				objects = new Object[chunks(rows)][];
+				for (int c = 0; c < objects.length; c++)
+					objects[c] = new Object[CHUNK];
+				for (int i = 0; i < rows; i++)
+					objects[i >>> CHUNK_BITS][i & MASK] = in.readObject();
+				return;
+			}
+			present = BitSet.valueOf((long[]) in.readObject());
+			ensure(rows);
+			for (int i = 0; i < rows; i++) {
+				if (kind == DOUBLE)
+					doubles[i >>> CHUNK_BITS][i & MASK] = in.readDouble();
+				else
+					longs[i >>> CHUNK_BITS][i & MASK] = in.readLong();
+			}
+		}
+	}
+}
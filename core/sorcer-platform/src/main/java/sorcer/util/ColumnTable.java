@@ -0,0 +1,221 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link DataTable} that stores its cells by columns. Columns of
+ * <code>Double</code> or <code>Long</code> values are kept as primitive
+ * <code>double</code> and <code>long</code> values in growable chunks, and
+ * are serialized without boxing. Rows of primitive values are added with
+ * {@link #addRow(double[])} and {@link #addRow(long[])}, and columns are
+ * read with {@link #getDoubleColumn(int)} and {@link #getLongColumn(int)}
+ * without creating an object per cell.
+ * <p>
+ * The rows returned by {@link #getRow(int)} and {@link #getDataList()} are
+ * views of the columns.
+ *
+ * @see ColumnStore
+ */
+@SuppressWarnings({ "unchecked", "rawtypes" })
+public class ColumnTable extends DataTable {
+	static final long serialVersionUID = -2739204687541325032L;
+
+	/**
+	 * Constructs a <code>ColumnTable</code> of zero columns and zero rows.
+	 */
+	public ColumnTable() {
+		super();
+	}
+
+	/**
+	 * Constructs an empty <code>ColumnTable</code> with the columns named by
+	 * <code>columnNames</code>.
+	 */
+	public ColumnTable(List<?> columnNames) {
+		super(columnNames, 0);
+	}
+
+	public ColumnTable(Object[] columnNames) {
+		super(columnNames, 0);
+	}
+
+	/**
+	 * Constructs a <code>ColumnTable</code> with the rows of
+	 * <code>data</code>.
+	 */
+	public ColumnTable(List<List<?>> data, List<?> columnNames) {
+		super(data, columnNames);
+	}
+
+	/**
+	 * Constructs a <code>ColumnTable</code> with a copy of the cells,
+	 * column and row identifiers of the <code>table</code>.
+	 */
+	public ColumnTable(DataTable table) {
+		super(new ArrayList(table.getColumnIdentifiers()), 0);
+		name = table.getName();
+		setDataList(table.getDataList());
+		if (table.getRowIdentifiers() != null)
+			setRowIdentifiers(new ArrayList<Object>(table.getRowIdentifiers()));
+	}
+
+	private ColumnStore store() {
+		return (ColumnStore) dataList;
+	}
+
+	private ColumnStore toStore(List rows) {
+		if (rows instanceof ColumnStore)
+			return (ColumnStore) rows;
+		ColumnStore store = new ColumnStore(columnIdentifiers == null ? 0 : columnIdentifiers.size());
+		if (rows != null) {
+			for (Object row : rows)
+				store.add(store.size(), (List<?>) row);
+		}
+		return store;
+	}
+
+	@Override
+	public void setDataList(List dataList) {
+		this.dataList = toStore(dataList);
+	}
+
+	@Override
+	public void setDataList(List dataList, List columnIdentifiers) {
+		this.columnIdentifiers = nonNullList(columnIdentifiers);
+		this.dataList = toStore(dataList);
+	}
+
+	@Override
+	public void addRow(double[] rowData) {
+		store().addRow(rowData);
+	}
+
+	/**
+	 * Adds a listing of longs to the end of the list of rows.
+	 *
+	 * @param rowData
+	 *            data of the listing being added
+	 */
+	public void addRow(long[] rowData) {
+		store().addRow(rowData);
+	}
+
+	@Override
+	public void moveRow(int start, int end, int to) {
+		List<List<?>> moved = new ArrayList<List<?>>(end - start + 1);
+		for (int i = end; i >= start; i--)
+			moved.add(0, dataList.remove(i));
+		for (int i = 0; i < moved.size(); i++)
+			dataList.add(to + i, moved.get(i));
+	}
+
+	@Override
+	public void addColumn(String columnName, List columnData, int colID) {
+		columnIdentifiers.add(colID, columnName);
+		store().addColumn(colID, columnData);
+	}
+
+	@Override
+	public void addColumn(String columnName, List columnData) {
+		columnIdentifiers.add(columnName);
+		store().addColumn(getColumnCount() - 1, columnData);
+	}
+
+	@Override
+	public void removeColumn(int colID) {
+		store().removeColumn(colID);
+		columnIdentifiers.remove(colID);
+	}
+
+	@Override
+	public List getColumn(int colIndex) {
+		if (colIndex < 0)
+			return null;
+		ColumnStore store = store();
+		int rowCount = store.size();
+		List colList = new ArrayList(rowCount);
+		for (int i = 0; i < rowCount; i++)
+			colList.add(store.get(i, colIndex));
+		return colList;
+	}
+
+	/**
+	 * Returns the values of the column as doubles, empty cells are
+	 * <code>NaN</code>.
+	 *
+	 * @throws ClassCastException
+	 *             if the column has values that are not numbers
+	 */
+	public double[] getDoubleColumn(int colIndex) {
+		return store().getDoubleColumn(colIndex);
+	}
+
+	public double[] getDoubleColumn(String columnName) {
+		return getDoubleColumn(columnIndexOf(columnName));
+	}
+
+	/**
+	 * Returns the values of the column as longs.
+	 *
+	 * @throws NullPointerException
+	 *             if the column has empty cells
+	 */
+	public long[] getLongColumn(int colIndex) {
+		return store().getLongColumn(colIndex);
+	}
+
+	public long[] getLongColumn(String columnName) {
+		return getLongColumn(columnIndexOf(columnName));
+	}
+
+	@Override
+	public Object getValueAt(int row, int column) {
+		return store().get(row, column);
+	}
+
+	@Override
+	public Object getValueAt(int row, String colName) {
+		return store().get(row, columnIndexOf(colName));
+	}
+
+	/**
+	 * Returns the cell as a double, <code>NaN</code> if the cell is empty.
+	 */
+	public double getDouble(int row, int column) {
+		return store().getDouble(row, column);
+	}
+
+	public double getDouble(int row, String columnName) {
+		return getDouble(row, columnIndexOf(columnName));
+	}
+
+	@Override
+	public void setValueAt(Object aValue, int row, int column) {
+		store().set(row, column, aValue);
+	}
+
+	@Override
+	public Double[] getMinMaxValuesAsDouble(int colIndex) {
+		double[] minmax = store().getMinMax(colIndex);
+		if (minmax == null)
+			return super.getMinMaxValuesAsDouble(colIndex);
+		return new Double[] { minmax[0], minmax[1] };
+	}
+}
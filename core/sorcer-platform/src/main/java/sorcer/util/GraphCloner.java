@@ -0,0 +1,355 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Externalizable;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectStreamClass;
+import java.io.Serializable;
+import java.lang.reflect.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.rmi.MarshalledObject;
+import java.rmi.Remote;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+/**
+ * Deep copy of serializable object graphs without a serialization round
+ * trip. The copy follows Java serialization semantics: fields of
+ * serializable classes are copied (transient fields are left with their
+ * default values), shared references and cycles are preserved, immutable
+ * values are shared, and the common collections are rebuilt through their
+ * API. Copied objects are allocated as by deserialization: only the no-arg
+ * constructor of the first non-serializable superclass runs, so the
+ * constructors of serializable classes and their side effects do not. A
+ * graph with an object that cannot be allocated this way, whose class
+ * defines its own serialization (readObject, writeReplace, Externalizable,
+ * ...) or is an unknown JDK class is copied as a whole by
+ * {@link MarshalledObject} as before, so its shared references are kept.
+ *
+ * @see ObjectCloner
+ */
+public class GraphCloner {
+    private final static Logger logger = LoggerFactory.getLogger(GraphCloner.class);
+
+    private enum Kind { IMMUTABLE, DATE, ARRAY, LIST, SET, MAP, FIELDS, SERIAL }
+
+    private static final Set<Class<?>> immutables = new HashSet<Class<?>>(Arrays.<Class<?>>asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class,
+            Long.class, Float.class, Double.class, BigInteger.class, BigDecimal.class,
+            Class.class, URL.class, URI.class, File.class, Pattern.class, Locale.class));
+
+    private static final Map<Class<?>, Kind> kinds = new ConcurrentHashMap<Class<?>, Kind>();
+
+    private static final Map<Class<?>, Field[]> fieldsCache = new ConcurrentHashMap<Class<?>, Field[]>();
+
+    private static final Map<Class<?>, ObjectStreamClass> streamClasses = new ConcurrentHashMap<Class<?>, ObjectStreamClass>();
+
+    // allocates an instance of a serializable class as deserialization does
+    private static final Method allocator = allocator();
+
+    // original to copy, preserves shared references and cycles
+    private final Map<Object, Object> copies = new IdentityHashMap<Object, Object>();
+
+    private GraphCloner() {
+    }
+
+    /**
+     * Returns a deep copy of the given object graph.
+     *
+     * @throws IOException if a part of the graph is not serializable
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T copy(T object) throws IOException, ClassNotFoundException {
+        try {
+            return (T) new GraphCloner().copyObject(object);
+        } catch (Serialized e) {
+            logger.debug("Serializing the graph of {} because of {}", object.getClass().getName(), e.getMessage());
+            return (T) new MarshalledObject<Object>(object).get();
+        }
+    }
+
+    private Object copyObject(Object original) throws IOException, ClassNotFoundException {
+        if (original == null)
+            return null;
+        Object copy = copies.get(original);
+        if (copy != null)
+            return copy;
+
+        Class<?> type = original.getClass();
+        switch (kindOf(type)) {
+            case IMMUTABLE:
+                return original;
+            case DATE:
+                copy = new Date(((Date) original).getTime());
+                copies.put(original, copy);
+                return copy;
+            case ARRAY:
+                return copyArray(original, type);
+            case LIST:
+                return copyCollection((Collection<?>) original, (Collection<Object>) newCollection(type));
+            case SET:
+                return copyCollection((Collection<?>) original, (Collection<Object>) newCollection(type));
+            case MAP:
+                return copyMap((Map<?, ?>) original, type);
+            case FIELDS:
+                return copyFields(original, type);
+            default:
+                // a copy of this object alone would not share the rest of the graph
+                throw new Serialized(type.getName());
+        }
+    }
+
+    private Object copyArray(Object original, Class<?> type) throws IOException, ClassNotFoundException {
+        Class<?> component = type.getComponentType();
+        int length = Array.getLength(original);
+        if (component.isPrimitive()) {
+            Object copy = Array.newInstance(component, length);
+            System.arraycopy(original, 0, copy, 0, length);
+            copies.put(original, copy);
+            return copy;
+        }
+        Object[] from = (Object[]) original;
+        Object[] copy = (Object[]) Array.newInstance(component, length);
+        copies.put(original, copy);
+        for (int i = 0; i < length; i++)
+            copy[i] = copyObject(from[i]);
+        return copy;
+    }
+
+    private Object copyCollection(Collection<?> original, Collection<Object> copy)
+            throws IOException, ClassNotFoundException {
+        copies.put(original, copy);
+        for (Object element : original)
+            copy.add(copyObject(element));
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object copyMap(Map<?, ?> original, Class<?> type) throws IOException, ClassNotFoundException {
+        Map<Object, Object> copy;
+        if (type == TreeMap.class)
+            copy = new TreeMap<Object, Object>(((TreeMap<Object, ?>) original).comparator());
+        else if (type == LinkedHashMap.class)
+            copy = new LinkedHashMap<Object, Object>(Math.max(16, original.size() * 4 / 3 + 1));
+        else if (type == ConcurrentHashMap.class)
+            copy = new ConcurrentHashMap<Object, Object>(Math.max(16, original.size() * 4 / 3 + 1));
+        else if (type == Hashtable.class)
+            copy = new Hashtable<Object, Object>(Math.max(11, original.size() * 4 / 3 + 1));
+        else
+            copy = new HashMap<Object, Object>(Math.max(16, original.size() * 4 / 3 + 1));
+        copies.put(original, copy);
+        for (Map.Entry<?, ?> e : original.entrySet())
+            copy.put(copyObject(e.getKey()), copyObject(e.getValue()));
+        return copy;
+    }
+
+    private Object copyFields(Object original, Class<?> type) throws IOException, ClassNotFoundException {
+        Object copy;
+        try {
+            copy = allocator.invoke(streamClasses.get(type));
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new Serialized(type.getName());
+        }
+        copies.put(original, copy);
+        try {
+            // transient fields keep the default values of the allocation
+            for (Field field : fieldsCache.get(type)) {
+                Class<?> fieldType = field.getType();
+                if (fieldType.isPrimitive())
+                    copyPrimitive(field, original, copy);
+                else
+                    field.set(copy, copyObject(field.get(original)));
+            }
+        } catch (IllegalAccessException e) {
+            throw new Serialized(type.getName());
+        }
+        return copy;
+    }
+
+    private static void copyPrimitive(Field field, Object from, Object to) throws IllegalAccessException {
+        Class<?> type = field.getType();
+        if (type == int.class)
+            field.setInt(to, field.getInt(from));
+        else if (type == long.class)
+            field.setLong(to, field.getLong(from));
+        else if (type == double.class)
+            field.setDouble(to, field.getDouble(from));
+        else if (type == boolean.class)
+            field.setBoolean(to, field.getBoolean(from));
+        else if (type == float.class)
+            field.setFloat(to, field.getFloat(from));
+        else if (type == short.class)
+            field.setShort(to, field.getShort(from));
+        else if (type == byte.class)
+            field.setByte(to, field.getByte(from));
+        else
+            field.setChar(to, field.getChar(from));
+    }
+
+    private static Collection<?> newCollection(Class<?> type) {
+        if (type == ArrayList.class)
+            return new ArrayList<Object>();
+        else if (type == LinkedList.class)
+            return new LinkedList<Object>();
+        else if (type == Vector.class)
+            return new Vector<Object>();
+        else if (type == CopyOnWriteArrayList.class)
+            return new CopyOnWriteArrayList<Object>();
+        else if (type == LinkedHashSet.class)
+            return new LinkedHashSet<Object>();
+        else
+            return new HashSet<Object>();
+    }
+
+    private static Kind kindOf(Class<?> type) {
+        Kind kind = kinds.get(type);
+        if (kind == null) {
+            kind = resolveKind(type);
+            kinds.put(type, kind);
+        }
+        return kind;
+    }
+
+    private static Kind resolveKind(Class<?> type) {
+        if (immutables.contains(type) || type.isEnum() || Uuid.class.isAssignableFrom(type)
+                || (type.getSuperclass() != null && type.getSuperclass().isEnum()))
+            return Kind.IMMUTABLE;
+        if (type == Date.class)
+            return Kind.DATE;
+        if (type.isArray())
+            return Kind.ARRAY;
+        if (type == ArrayList.class || type == LinkedList.class || type == Vector.class
+                || type == CopyOnWriteArrayList.class)
+            return Kind.LIST;
+        if (type == HashSet.class || type == LinkedHashSet.class)
+            return Kind.SET;
+        if (type == HashMap.class || type == LinkedHashMap.class || type == ConcurrentHashMap.class
+                || type == Hashtable.class
+                || (type == TreeMap.class))
+            return Kind.MAP;
+        if (isPlainSerializable(type) && prepare(type))
+            return Kind.FIELDS;
+        return Kind.SERIAL;
+    }
+
+    /**
+     * A class can be copied field by field if it is serializable, not a
+     * proxy, not a JDK class and none of its serializable classes customizes
+     * serialization.
+     */
+    private static boolean isPlainSerializable(Class<?> type) {
+        if (!Serializable.class.isAssignableFrom(type) || Externalizable.class.isAssignableFrom(type)
+                || Proxy.isProxyClass(type) || Remote.class.isAssignableFrom(type))
+            return false;
+        for (Class<?> c = type; c != null && Serializable.class.isAssignableFrom(c); c = c.getSuperclass()) {
+            String name = c.getName();
+            if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("sun.")
+                    || name.startsWith("com.sun.") || name.startsWith("groovy.")
+                    || name.startsWith("org.codehaus.groovy."))
+                return false;
+            if (hasMethod(c, "writeObject") || hasMethod(c, "readObject")
+                    || hasMethod(c, "readObjectNoData") || hasMethod(c, "writeReplace")
+                    || hasMethod(c, "readResolve"))
+                return false;
+            try {
+                if (c.getDeclaredField("serialPersistentFields") != null)
+                    return false;
+            } catch (NoSuchFieldException e) {
+                // the default serial form
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasMethod(Class<?> c, String name) {
+        for (Method m : c.getDeclaredMethods()) {
+            if (m.getName().equals(name) && !Modifier.isStatic(m.getModifiers()))
+                return true;
+        }
+        return false;
+    }
+
+    /*
+     * The instantiation used by deserialization, null if it is not
+     * accessible in this JVM.
+     */
+    private static Method allocator() {
+        try {
+            Method m = ObjectStreamClass.class.getDeclaredMethod("newInstance");
+            m.setAccessible(true);
+            return m;
+        } catch (Exception | LinkageError e) {
+            logger.debug("Cloning by serialization only", e);
+            return null;
+        }
+    }
+
+    /**
+     * Caches the stream class and the serializable fields of the given
+     * class.
+     */
+    private static boolean prepare(Class<?> type) {
+        if (allocator == null)
+            return false;
+        try {
+            Class<?> base = type;
+            while (base != null && Serializable.class.isAssignableFrom(base))
+                base = base.getSuperclass();
+            ObjectStreamClass streamClass = ObjectStreamClass.lookup(type);
+            if (streamClass == null)
+                return false;
+
+            List<Field> fields = new ArrayList<Field>();
+            for (Class<?> c = type; c != base; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers))
+                        continue;
+                    field.setAccessible(true);
+                    fields.add(field);
+                }
+            }
+            fieldsCache.put(type, fields.toArray(new Field[fields.size()]));
+            streamClasses.put(type, streamClass);
+            return true;
+        } catch (Exception | LinkageError e) {
+            logger.debug("Falling back to serialization for {}", type.getName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Thrown when a part of the graph has to be serialized, the graph is
+     * then serialized as a whole.
+     */
+    private static class Serialized extends RuntimeException {
+        Serialized(String className) {
+            super(className, null, false, false);
+        }
+    }
+}
@@ -23,31 +23,50 @@ import java.rmi.MarshalledObject;
 import net.jini.id.Uuid;
 import net.jini.id.UuidFactory;
 import net.jini.io.MarshalledInstance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import sorcer.service.*;
 
+/**
+ * Deep copies of objects. {@link #clone(Object)} and
+ * {@link #cloneWithNewIDs(Object)} use the {@link GraphCloner}, which falls
+ * back to a {@link MarshalledObject} round trip if the graph cannot be
+ * copied directly; setting the system property
+ * {@code sorcer.cloner.serialized} to {@code true} always uses
+ * serialization.
+ */
 public class ObjectCloner {
+	private static final Logger logger = LoggerFactory.getLogger(ObjectCloner.class);
+
+	public static final String SERIALIZED_CLONING = "sorcer.cloner.serialized";
+
+	private static final boolean serializedCloning = Boolean.getBoolean(SERIALIZED_CLONING);
 
 	public static Object clone(Object o) {
+		if (serializedCloning)
+			return cloneSerialized(o);
 		try {
-			return new MarshalledObject<Object>(o).get();
-		} catch (IOException e) {
-			e.printStackTrace();
-		} catch (ClassNotFoundException e) {
-			e.printStackTrace();
+			return GraphCloner.copy(o);
+		} catch (IOException | ClassNotFoundException e) {
+			// the graph has already been serialized by the GraphCloner
+			logger.warn("Cannot clone {}", o.getClass().getName(), e);
 		}
 		return null;
 	}
 
-	public static Object cloneWithNewIDs(Object o) {
-		Object obj = null;
+	public static Object cloneSerialized(Object o) {
 		try {
-			obj = new MarshalledObject<Object>(o).get();
+			return new MarshalledObject<Object>(o).get();
 		} catch (IOException e) {
 			e.printStackTrace();
 		} catch (ClassNotFoundException e) {
 			e.printStackTrace();
 		}
-		return renewIDs(obj);
+		return null;
+	}
+
+	public static Object cloneWithNewIDs(Object o) {
+		return renewIDs(clone(o));
 	}
 
 	public static Object cloneAnnotated(Object o) {
@@ -663,6 +663,55 @@ public class SorcerEnv extends SOS {
 		return Integer.parseInt(getProperty(LOOKUP_MAX_MATCHES, "99"));
 	}
 
+	/**
+	 * Returns the maximum number of provider proxies cached by exerting
+	 * service shells.
+	 * 
+	 * @return proxy cache size
+	 */
+	public static int getProxyCacheSize() {
+		return Integer.parseInt(getProperty(PROXY_CACHE_SIZE, "256"));
+	}
+
+	/**
+	 * Returns the maximum number of compiled Groovy scripts cached by
+	 * invokers and netlets.
+	 * 
+	 * @return script cache size
+	 */
+	public static int getScriptCacheSize() {
+		return Integer.parseInt(getProperty(SCRIPT_CACHE_SIZE, "1024"));
+	}
+
+	/**
+	 * Checks if Groovy invokers compile their expressions when created.
+	 * 
+	 * @return true if expressions are compiled when created
+	 */
+	public static boolean isScriptPrecompiled() {
+		return getProperty(SCRIPT_PRECOMPILE, "false").equals("true");
+	}
+
+	/**
+	 * Returns the directory of the node-local file cache, by default in the
+	 * data directory served by the data service.
+	 * 
+	 * @return file cache directory
+	 */
+	public static File getFileCacheDir() {
+		String dir = getProperty(FILE_CACHE_DIR);
+		return dir != null ? new File(dir) : new File(getDataDir(), "file-cache");
+	}
+
+	/**
+	 * Returns the size limit of the node-local file cache in MB.
+	 * 
+	 * @return file cache size
+	 */
+	public static long getFileCacheSize() {
+		return Long.parseLong(getProperty(FILE_CACHE_SIZE, "10240"));
+	}
+
 	/**
 	 * Returns the properties. Implementers can use this method instead of the
 	 * access methods to cache the environment and optimize performance. Tag of
@@ -876,6 +925,46 @@ public class SorcerEnv extends SOS {
 		return getActualName(getSpaceName());
 	}
 
+	/**
+	 * Returns the interval in milliseconds of validating cached JavaSpace
+	 * proxies.
+	 *
+	 * @return space heartbeat interval
+	 */
+	public static long getSpaceHeartbeat() {
+		return Long.parseLong(getProperty(SPACE_HEARTBEAT, "10000"));
+	}
+
+	/**
+	 * Returns the longest delay in milliseconds between lookups of an
+	 * unreachable JavaSpace.
+	 *
+	 * @return maximum space retry delay
+	 */
+	public static long getSpaceRetryMax() {
+		return Long.parseLong(getProperty(SPACE_RETRY_MAX, "30000"));
+	}
+
+	/**
+	 * Returns the max number of stored objects cached by clients of
+	 * <code>sos://</code> URLs.
+	 *
+	 * @return stored object cache size
+	 */
+	public static int getSosCacheSize() {
+		return Integer.parseInt(getProperty(SOS_CACHE_SIZE, "1024"));
+	}
+
+	/**
+	 * Returns the time in milliseconds a cached stored object is used before
+	 * its version is checked with the storage provider.
+	 *
+	 * @return stored object cache time to live
+	 */
+	public static long getSosCacheTtl() {
+		return Long.parseLong(getProperty(SOS_CACHE_TTL, "1000"));
+	}
+
 	/**
 	 * Returns whether this cache store should be in a database or local file.
 	 * 
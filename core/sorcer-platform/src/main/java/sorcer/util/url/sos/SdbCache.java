@@ -0,0 +1,242 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util.url.sos;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.context.ServiceContext;
+import sorcer.core.provider.DatabaseStorer.Store;
+import sorcer.core.provider.StorageManagement;
+import sorcer.service.Accessor;
+import sorcer.service.Context;
+import sorcer.service.ContextException;
+import sorcer.util.Sorcer;
+import sorcer.util.bdb.objects.UuidObject;
+
+import java.io.IOException;
+import java.net.URL;
+import java.rmi.MarshalledObject;
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A client-side cache of objects referenced by <code>sos://</code> URLs,
+ * keyed by their Uuid and versioned by the storage provider. A cached
+ * object is returned without a remote call for <code>sos.cache.ttl</code>
+ * milliseconds, then its version is checked with the provider and the
+ * object is fetched again only if it was updated. Objects updated or
+ * deleted through {@link SdbUtil} or by a provider in this JVM are dropped
+ * at once.
+ * <p>
+ * {@link #getAll(List)} resolves many URLs with one retrieve per provider.
+ * Storage provider proxies are looked up once per provider name. Objects
+ * are cached in their serialized form, so each caller gets its own copy.
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class SdbCache {
+	private static final Logger logger = LoggerFactory.getLogger(SdbCache.class);
+
+	private static final Cache<String, Stored> objects = CacheBuilder.newBuilder()
+			.maximumSize(Sorcer.getSosCacheSize())
+			.build();
+
+	private static final ConcurrentMap<String, StorageManagement> stores = new ConcurrentHashMap<String, StorageManagement>();
+
+	// the time in milliseconds a cached object is used before its version is checked
+	static long ttl = Sorcer.getSosCacheTtl();
+
+	/**
+	 * Returns the object of the URL.
+	 *
+	 * @throws IOException
+	 *             if the storage provider is not available or fails
+	 */
+	public static Object get(URL url) throws IOException {
+		return getAll(Collections.singletonList(url)).get(0);
+	}
+
+	/**
+	 * Returns the objects of the URLs in the same order, the cached objects
+	 * are checked and the missing ones fetched with one call per provider.
+	 *
+	 * @throws IOException
+	 *             if a storage provider is not available or fails
+	 */
+	public static List<Object> getAll(List<URL> urls) throws IOException {
+		Object[] values = new Object[urls.size()];
+		Map<String, List<Integer>> fetched = new LinkedHashMap<String, List<Integer>>();
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < values.length; i++) {
+			URL url = urls.get(i);
+			Stored stored = objects.getIfPresent(uuid(url));
+			if (stored != null && now < stored.expires) {
+				values[i] = stored.copy();
+			} else {
+				String key = storeKey(url);
+				List<Integer> indexes = fetched.get(key);
+				if (indexes == null) {
+					indexes = new ArrayList<Integer>();
+					fetched.put(key, indexes);
+				}
+				indexes.add(i);
+			}
+		}
+		for (List<Integer> indexes : fetched.values())
+			fetch(urls, indexes, values);
+		return Arrays.asList(values);
+	}
+
+	/**
+	 * Drops the cached object with the Uuid.
+	 */
+	public static void invalidate(Uuid uuid) {
+		objects.invalidate(uuid.toString());
+	}
+
+	/**
+	 * Returns the storage provider of the type and name, the proxy is looked
+	 * up once and kept until a call to it fails.
+	 */
+	public static StorageManagement getStore(String serviceType, String providerName) throws IOException {
+		String key = serviceType + "/" + providerName;
+		StorageManagement store = stores.get(key);
+		if (store != null)
+			return store;
+		try {
+			store = (StorageManagement) Accessor.get().getService(providerName, Class.forName(serviceType));
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Could not access StorageManagement implementation " + serviceType, e);
+		}
+		if (store == null)
+			throw new IOException("Could not access StorageManagement implementation " + serviceType);
+		stores.put(key, store);
+		return store;
+	}
+
+	/**
+	 * Sets the storage provider of the type and name, used instead of a
+	 * looked up one.
+	 */
+	static void putStore(String serviceType, String providerName, StorageManagement store) {
+		stores.put(serviceType + "/" + providerName, store);
+	}
+
+	private static void fetch(List<URL> urls, List<Integer> indexes, Object[] values) throws IOException {
+		URL first = urls.get(indexes.get(0));
+		String serviceType = SdbUtil.getServiceType(first);
+		String providerName = SdbUtil.getProviderName(first);
+		List<String> uuids = new ArrayList<String>(indexes.size());
+		List<Long> known = new ArrayList<Long>(indexes.size());
+		List<Stored> cached = new ArrayList<Stored>(indexes.size());
+		for (int i : indexes) {
+			String uuid = uuid(urls.get(i));
+			Stored stored = objects.getIfPresent(uuid);
+			uuids.add(uuid);
+			known.add(stored != null ? stored.version : null);
+			cached.add(stored);
+		}
+		StorageManagement store = getStore(serviceType, providerName);
+		Context out;
+		try {
+			Context cxt = new ServiceContext("retrieve context");
+			cxt.putInValue(StorageManagement.object_type, Store.object);
+			cxt.putInValue(StorageManagement.object_uuid_list, uuids);
+			cxt.putInValue(StorageManagement.object_version_list, known);
+			out = store.contextRetrieve(cxt);
+		} catch (RemoteException e) {
+			stores.remove(serviceType + "/" + providerName, store);
+			throw new IOException(e);
+		} catch (ContextException e) {
+			throw new IOException(e);
+		}
+		List<Object> retrieved;
+		List<Long> versions;
+		try {
+			retrieved = (List<Object>) out.getValue(StorageManagement.object_retrieved_list);
+			versions = (List<Long>) out.getValue(StorageManagement.object_version_list);
+		} catch (ContextException e) {
+			throw new IOException(e);
+		}
+		if (retrieved == null || versions == null)
+			throw new IOException("No objects retrieved from " + serviceType + "/" + providerName);
+		long expires = System.currentTimeMillis() + ttl;
+		for (int j = 0; j < indexes.size(); j++) {
+			Long version = versions.get(j);
+			Stored stored = cached.get(j);
+			Object obj;
+			if (stored != null && version != null && version.equals(stored.version)) {
+				// not changed since cached
+				objects.put(uuids.get(j), new Stored(stored.object, version, expires));
+				obj = stored.copy();
+			} else {
+				obj = retrieved.get(j);
+				if (obj instanceof UuidObject)
+					obj = ((UuidObject) obj).getObject();
+				cache(uuids.get(j), obj, version, expires);
+			}
+			values[indexes.get(j)] = obj;
+		}
+		logger.debug("Retrieved {} objects from {}/{}", indexes.size(), serviceType, providerName);
+	}
+
+	private static void cache(String uuid, Object obj, Long version, long expires) {
+		if (obj == null || version == null) {
+			objects.invalidate(uuid);
+			return;
+		}
+		try {
+			objects.put(uuid, new Stored(new MarshalledObject<Object>(obj), version, expires));
+		} catch (IOException e) {
+			logger.debug("Not caching {}, it is not serializable", uuid, e);
+			objects.invalidate(uuid);
+		}
+	}
+
+	private static String uuid(URL url) {
+		String reference = url.getRef();
+		return reference.substring(reference.indexOf('=') + 1);
+	}
+
+	private static String storeKey(URL url) {
+		return SdbUtil.getServiceType(url) + "/" + SdbUtil.getProviderName(url);
+	}
+
+	private static class Stored {
+		final MarshalledObject<Object> object;
+		final long version;
+		final long expires;
+
+		Stored(MarshalledObject<Object> object, long version, long expires) {
+			this.object = object;
+			this.version = version;
+			this.expires = expires;
+		}
+
+		Object copy() throws IOException {
+			try {
+				return object.get();
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e);
+			}
+		}
+	}
+}
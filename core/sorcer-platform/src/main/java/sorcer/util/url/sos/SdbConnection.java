@@ -16,14 +16,9 @@
  */
 package sorcer.util.url.sos;
 
-import sorcer.core.context.ServiceContext;
 import sorcer.core.provider.DatabaseStorer.Store;
-import sorcer.core.provider.Provider;
 import sorcer.core.provider.StorageManagement;
-import sorcer.service.Accessor;
-import sorcer.service.Context;
 import sorcer.util.bdb.objects.SorcerDatabaseViews;
-import sorcer.util.bdb.objects.UuidObject;
 
 import java.io.IOException;
 import java.net.URL;
@@ -64,41 +59,17 @@ public class SdbConnection extends URLConnection {
 	 */
 	@Override
 	public void connect() throws IOException {
-		//Provider provider = (Provider)ProviderLookup.getGovernance(providerName, serviceInfo);
-        try {
-            Provider provider = (Provider) Accessor.get().getService(providerName, Class.forName(serviceType));
-            store = (StorageManagement)provider;
-            connected = true;
-        } catch (ClassNotFoundException e) {
-            throw new IOException("Could not access StorageManagement implementation " + serviceType, e);
-        }
+		store = SdbCache.getStore(serviceType, providerName);
+		connected = true;
 	}
 
+	/**
+	 * Returns the stored object cached by {@link SdbCache}, the storage
+	 * provider is looked up only if the object is not cached.
+	 */
 	@Override
 	public Object getContent() throws IOException {
-		Context outContext;
-		if (!connected)
-			connect();
-		if (store == null)
-			throw new IOException("Could not access StorageManagement implementation " + serviceType);
-		try {
-			outContext = null;
-			if (store != null) {
-				Context cxt = new ServiceContext();
-//				TODO
-				cxt.putInValue(StorageManagement.object_type, Store.object);
-//				cxt.putInValue(StorageManagement.object_type, storeType);
-				cxt.putInValue(StorageManagement.object_uuid, uuid);
-				outContext = store.contextRetrieve(cxt);
-			}
-			Object obj =  outContext.getValue(StorageManagement.object_retrieved);
-			if (obj instanceof UuidObject)
-				return ((UuidObject)obj).getObject();
-			else
-				return obj;
-		} catch (Exception e) {
-			throw new IOException(e);
-		}
+		return SdbCache.get(getURL());
 	}
 
 }
@@ -30,6 +30,7 @@ import sorcer.service.*;
 import sorcer.util.Sorcer;
 import sorcer.util.bdb.objects.SorcerDatabaseViews;
 
+import java.io.IOException;
 import java.net.URL;
 import java.rmi.RemoteException;
 import java.util.List;
@@ -180,6 +181,7 @@ public class SdbUtil {
 				SdbUtil.getUpdateContext(value, storeUuid));
 
 		objectUpdateTask = exert(objectUpdateTask);
+		SdbCache.invalidate(storeUuid);
 		return (URL) get(context(objectUpdateTask),
 				StorageManagement.object_url);
 	}
@@ -241,7 +243,9 @@ public class SdbUtil {
 			throw new MogramException("No such service fiType: "
 					+ serviceTypeName, e);
 		}
-		return (URL) exec(objectStoreTask);
+		URL deleted = (URL) exec(objectStoreTask);
+		SdbCache.invalidate(getUuid(url));
+		return deleted;
 	}
 
 	public static URL store(Object object) throws MogramException, SignatureException {
@@ -290,6 +294,20 @@ public class SdbUtil {
 		}
 	}
 
+	/**
+	 * Returns the objects of the <code>sos://</code> URLs, retrieved with
+	 * one call per storage provider.
+	 *
+	 * @see SdbCache#getAll(List)
+	 */
+	static public List<Object> retrieve(List<URL> urls) throws ServiceException {
+		try {
+			return SdbCache.getAll(urls);
+		} catch (IOException e) {
+			throw new ExertionException(e);
+		}
+	}
+
 	static public List<String> list(URL url) throws ServiceException, SignatureException {
 		return list(url, null);
 
@@ -0,0 +1,114 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.dispatch;
+
+import org.junit.Test;
+import sorcer.core.DispatchResult;
+import sorcer.core.exertion.ObjectTask;
+import sorcer.service.*;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class ExertDispatcherTest {
+
+    /*
+     * Runs no exertions, ends in the given state or leaves the state to be
+     * set by a collecting thread.
+     */
+    static class TestDispatcher extends ExertDispatcher {
+        final Integer endState;
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        TestDispatcher(Integer endState) {
+            super(new ObjectTask("dispatched"), new HashSet<Context>(), false, null, null);
+            this.endState = endState;
+        }
+
+        @Override
+        protected void beforeParent(Exertion exertion) {
+            inputXrts = Collections.emptyList();
+        }
+
+        @Override
+        protected void doExec(Arg... args) throws ExertionException {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new ExertionException(e);
+            }
+            if (endState == null)
+                return;
+            if (endState == Exec.FAILED)
+                throw new ExertionException("failed on purpose");
+            state = endState;
+        }
+
+        @Override
+        protected List<Mogram> getInputExertions() {
+            return Collections.emptyList();
+        }
+
+        void collected(int state) {
+            this.state = state;
+            completeResult();
+        }
+    }
+
+    @Test
+    public void completesWhenDone() throws Exception {
+        TestDispatcher dispatcher = new TestDispatcher(Exec.DONE);
+        CompletableFuture<DispatchResult> future = dispatcher.execAsync();
+        assertTrue(dispatcher.started.await(5, TimeUnit.SECONDS));
+        assertFalse(future.isDone());
+
+        dispatcher.release.countDown();
+        DispatchResult result = future.get(5, TimeUnit.SECONDS);
+        assertEquals(Exec.State.DONE, result.state);
+        assertSame(future, dispatcher.getResultFuture());
+        assertEquals(Exec.State.DONE, dispatcher.getResult().state);
+    }
+
+    @Test
+    public void completesWhenFailed() throws Exception {
+        TestDispatcher dispatcher = new TestDispatcher(Exec.FAILED);
+        dispatcher.release.countDown();
+        DispatchResult result = dispatcher.execAsync().get(5, TimeUnit.SECONDS);
+        assertEquals(Exec.State.FAILED, result.state);
+        assertEquals(Exec.FAILED, result.exertion.getStatus());
+    }
+
+    @Test
+    public void waitsForCollectedResults() throws Exception {
+        TestDispatcher dispatcher = new TestDispatcher(null);
+        dispatcher.release.countDown();
+        dispatcher.exec();
+        CompletableFuture<DispatchResult> future = dispatcher.getResultFuture();
+        assertFalse(future.isDone());
+
+        dispatcher.collected(Exec.DONE);
+        assertEquals(Exec.State.DONE, future.get(5, TimeUnit.SECONDS).state);
+    }
+}
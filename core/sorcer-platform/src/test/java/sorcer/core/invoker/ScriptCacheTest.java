@@ -0,0 +1,60 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.invoker;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+import org.codehaus.groovy.control.CompilerConfiguration;
+import org.junit.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import static org.junit.Assert.*;
+
+public class ScriptCacheTest {
+
+    @Test
+    public void compilesOncePerSourceAndLoader() throws Exception {
+        ScriptCache cache = new ScriptCache(16);
+        ClassLoader loader = getClass().getClassLoader();
+        Class<? extends Script> first = cache.getScriptClass("test", "x + y", loader, CompilerConfiguration.DEFAULT);
+        Class<? extends Script> second = cache.getScriptClass("test", "x + y", loader, CompilerConfiguration.DEFAULT);
+        assertSame(first, second);
+        assertEquals(1, cache.getStats().hitCount());
+        assertEquals(1, cache.getStats().missCount());
+
+        ClassLoader other = new URLClassLoader(new URL[0], loader);
+        assertNotSame(first, cache.getScriptClass("test", "x + y", other, CompilerConfiguration.DEFAULT));
+        assertNotSame(first, cache.getScriptClass("other", "x + y", loader, CompilerConfiguration.DEFAULT));
+    }
+
+    @Test
+    public void bindsEachEvaluation() throws Exception {
+        ScriptCache cache = new ScriptCache(16);
+        Class<? extends Script> type = cache.getScriptClass("test", "x * y",
+                getClass().getClassLoader(), CompilerConfiguration.DEFAULT);
+        Binding binding = new Binding();
+        binding.setVariable("x", 2);
+        binding.setVariable("y", 3);
+        assertEquals(6, ScriptCache.createScript(type, binding).run());
+        binding = new Binding();
+        binding.setVariable("x", 4);
+        binding.setVariable("y", 5);
+        assertEquals(20, ScriptCache.createScript(type, binding).run());
+    }
+}
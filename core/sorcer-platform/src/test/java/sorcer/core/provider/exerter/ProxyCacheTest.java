@@ -0,0 +1,145 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exerter;
+
+import org.junit.Test;
+import sorcer.core.provider.Provider;
+import sorcer.core.provider.ServiceName;
+import sorcer.core.signature.NetSignature;
+import sorcer.service.Service;
+import sorcer.service.SignatureException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ProxyCacheTest {
+
+    @Test
+    public void keyIgnoresSelector() {
+        NetSignature a = signature("a", new ServiceName("provider", "g1"));
+        NetSignature b = signature("b", new ServiceName("provider", "g1"));
+        assertEquals(new ProxyCache.Key(a), new ProxyCache.Key(b));
+        assertEquals(new ProxyCache.Key(a).hashCode(), new ProxyCache.Key(b).hashCode());
+    }
+
+    @Test
+    public void keyDistinguishesMatchTypes() {
+        NetSignature a = signature("a", new ServiceName("provider", "g1"));
+        NetSignature b = signature("a", new ServiceName("provider", "g1"));
+        b.setMatchTypes(new Class[] { Service.class, Provider.class });
+        assertFalse(new ProxyCache.Key(a).equals(new ProxyCache.Key(b)));
+
+        NetSignature c = signature("a", new ServiceName("provider", "g1"));
+        c.setMatchTypes(new Class[] { Service.class, Provider.class });
+        assertEquals(new ProxyCache.Key(b), new ProxyCache.Key(c));
+    }
+
+    @Test
+    public void keyDistinguishesGroupsAndLocators() {
+        ProxyCache.Key g1 = new ProxyCache.Key(signature("a", new ServiceName("provider", "g1")));
+        ProxyCache.Key g2 = new ProxyCache.Key(signature("a", new ServiceName("provider", "g2")));
+        ProxyCache.Key l1 = new ProxyCache.Key(signature("a",
+                new ServiceName("provider", new String[] { "jini://host1" }, "g1")));
+        ProxyCache.Key l2 = new ProxyCache.Key(signature("a",
+                new ServiceName("provider", new String[] { "jini://host2" }, "g1")));
+        assertFalse(g1.equals(g2));
+        assertFalse(g1.equals(l1));
+        assertFalse(l1.equals(l2));
+        assertEquals(l1, new ProxyCache.Key(signature("b",
+                new ServiceName("provider", new String[] { "jini://host1" }, "g1"))));
+    }
+
+    @Test
+    public void keyDistinguishesVersions() {
+        NetSignature a = signature("a", new ServiceName("provider", "g1"));
+        NetSignature b = signature("a", new ServiceName("provider", "g1"));
+        a.setVersion("1.0");
+        b.setVersion("2.0");
+        assertFalse(new ProxyCache.Key(a).equals(new ProxyCache.Key(b)));
+    }
+
+    @Test
+    public void cachesHitsAndNotMisses() {
+        ProxyCache cache = new ProxyCache(10);
+        NetSignature signature = signature("a", new ServiceName("provider", "g1"));
+        Lookup lookup = new Lookup(null);
+        assertNull(cache.get(signature, lookup));
+        assertNull(cache.get(signature, lookup));
+        assertEquals(2, lookup.calls.get());
+
+        Object proxy = new Object();
+        lookup = new Lookup(proxy);
+        assertSame(proxy, cache.get(signature, lookup));
+        assertSame(proxy, cache.get(signature("b", new ServiceName("provider", "g1")), lookup));
+        assertEquals(1, lookup.calls.get());
+    }
+
+    @Test
+    public void evictsFailedProxy() {
+        ProxyCache cache = new ProxyCache(10);
+        NetSignature signature = signature("a", new ServiceName("provider", "g1"));
+        Object first = new Object();
+        Object second = new Object();
+        assertSame(first, cache.get(signature, new Lookup(first)));
+        cache.evict(signature);
+        assertSame(second, cache.get(signature, new Lookup(second)));
+    }
+
+    @Test
+    public void evictsAllProxiesOfDiscardedProvider() {
+        ProxyCache cache = new ProxyCache(10);
+        NetSignature g1 = signature("a", new ServiceName("provider", "g1"));
+        NetSignature g2 = signature("a", new ServiceName("provider", "g2"));
+        NetSignature other = signature("a", new ServiceName("other", "g1"));
+        Object discarded = new Object();
+        Object kept = new Object();
+        cache.get(g1, new Lookup(discarded));
+        cache.get(g2, new Lookup(discarded));
+        cache.get(other, new Lookup(kept));
+
+        cache.discard(discarded);
+        Object replacement = new Object();
+        assertSame(replacement, cache.get(g1, new Lookup(replacement)));
+        assertSame(replacement, cache.get(g2, new Lookup(replacement)));
+        assertSame(kept, cache.get(other, new Lookup(new Object())));
+    }
+
+    private static NetSignature signature(String selector, ServiceName providerName) {
+        NetSignature signature = new NetSignature(selector, Service.class, "1.0", (String) null);
+        signature.setProviderName(providerName);
+        return signature;
+    }
+
+    private static class Lookup implements Callable<Object> {
+        final AtomicInteger calls = new AtomicInteger();
+        final Object proxy;
+
+        Lookup(Object proxy) {
+            this.proxy = proxy;
+        }
+
+        @Override
+        public Object call() throws SignatureException {
+            calls.incrementAndGet();
+            if (proxy == null)
+                throw new SignatureException("No available proxy");
+            return proxy;
+        }
+    }
+}
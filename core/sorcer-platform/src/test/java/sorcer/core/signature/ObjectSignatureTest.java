@@ -0,0 +1,76 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.signature;
+
+import org.junit.Test;
+import sorcer.core.invoker.MethodInvoker;
+
+import static org.junit.Assert.*;
+
+public class ObjectSignatureTest {
+
+    public static class Adder {
+        public int add(int a, int b) {
+            return a + b;
+        }
+    }
+
+    public static class Multiplier {
+        public int add(int a, int b) {
+            return a * b;
+        }
+    }
+
+    @Test
+    public void createsProviderInstancePerCall() throws Exception {
+        ObjectSignature signature = new ObjectSignature("add", Adder.class);
+        assertFalse(signature.isSingleton());
+        assertNotSame(signature.getProviderInstance(), signature.getProviderInstance());
+    }
+
+    @Test
+    public void singletonReusesProviderInstance() throws Exception {
+        ObjectSignature signature = new ObjectSignature("add", Adder.class);
+        signature.setSingleton(true);
+        Object provider = signature.getProviderInstance();
+        assertTrue(provider instanceof Adder);
+        assertSame(provider, signature.getProviderInstance());
+
+        // setting the mode again drops the reused instance
+        signature.setSingleton(true);
+        assertNotSame(provider, signature.getProviderInstance());
+    }
+
+    @Test
+    public void evaluatorsShareResolvedOperation() throws Exception {
+        ObjectSignature signature = new ObjectSignature("add", Adder.class);
+        assertSame(signature.getResolution(), signature.getResolution());
+        assertEquals(3, evaluate(signature, new Adder(), 1, 2));
+        assertEquals(5, evaluate(signature, new Adder(), 2, 3));
+        // another provider class is resolved again
+        assertEquals(6, evaluate(signature, new Multiplier(), 2, 3));
+        assertEquals(5, evaluate(signature, new Adder(), 2, 3));
+    }
+
+    private static Object evaluate(ObjectSignature signature, Object provider, int a, int b) throws Exception {
+        MethodInvoker<?> evaluator = new MethodInvoker<Object>(provider, "add");
+        evaluator.setResolution(signature.getResolution());
+        evaluator.setParameterTypes(new Class[] { int.class, int.class });
+        evaluator.setParameters(a, b);
+        return evaluator.evaluate();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.file.remote;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFilePermission;
+
+import static org.junit.Assert.*;
+
+public class FileCacheTest {
+
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
+    @Test
+    public void fetchesOnce() throws Exception {
+        File source = file("a", 100);
+        String checksum = Checksums.of(source);
+        FileCache cache = new FileCache(tmp.newFolder("cache").toPath(), 1024);
+        assertNull(cache.get(checksum));
+
+        File cached = cache.fetch(checksum, source.toURI().toURL());
+        assertEquals(checksum, Checksums.of(cached));
+        assertTrue(source.delete());
+        assertEquals(cached, cache.fetch(checksum, source.toURI().toURL()));
+    }
+
+    @Test(expected = IOException.class)
+    public void rejectsInvalidChecksum() throws Exception {
+        File source = file("a", 100);
+        FileCache cache = new FileCache(tmp.newFolder("cache").toPath(), 1024);
+        cache.fetch(Checksums.of(file("b", 100)), source.toURI().toURL());
+    }
+
+    @Test
+    public void removesLeastRecentlyUsed() throws Exception {
+        FileCache cache = new FileCache(tmp.newFolder("cache").toPath(), 250);
+        File a = file("a", 100), b = file("b", 100), c = file("c", 100);
+        cache.fetch(Checksums.of(a), a.toURI().toURL());
+        cache.fetch(Checksums.of(b), b.toURI().toURL());
+        Thread.sleep(5);
+        assertNotNull(cache.get(Checksums.of(a)));
+        cache.fetch(Checksums.of(c), c.toURI().toURL());
+
+        assertNotNull(cache.get(Checksums.of(a)));
+        assertNull(cache.get(Checksums.of(b)));
+        assertNotNull(cache.get(Checksums.of(c)));
+    }
+
+    @Test
+    public void keepsPublished() throws Exception {
+        FileCache cache = new FileCache(tmp.newFolder("cache").toPath(), 250);
+        File a = file("a", 100), b = file("b", 100), c = file("c", 100);
+        cache.put(Checksums.of(a), a);
+        cache.fetch(Checksums.of(b), b.toURI().toURL());
+        Thread.sleep(5);
+        cache.fetch(Checksums.of(c), c.toURI().toURL());
+
+        assertNotNull(cache.get(Checksums.of(a)));
+        assertNull(cache.get(Checksums.of(b)));
+        assertNotNull(cache.get(Checksums.of(c)));
+    }
+
+    @Test
+    public void copiesPublished() throws Exception {
+        FileCache cache = new FileCache(tmp.newFolder("cache").toPath(), 1024);
+        File a = file("a", 100);
+        String checksum = Checksums.of(a);
+        File cached = cache.put(checksum, a);
+        Files.write(a.toPath(), new byte[100]);
+
+        assertEquals(checksum, Checksums.of(cached));
+        assertEquals(cache.path(checksum).toFile(), cached);
+    }
+
+    @Test
+    public void linksReadOnlyCachedFile() throws Exception {
+        FileCache cache = new FileCache(tmp.newFolder("cache").toPath(), 1024);
+        File a = file("a", 100);
+        String checksum = Checksums.of(a);
+        File link = cache.link(checksum, a.toURI().toURL(), new File(tmp.newFolder("scratch"), checksum).toPath());
+
+        File cached = cache.get(checksum);
+        assertTrue(Files.isSameFile(cached.toPath(), link.toPath()));
+        assertFalse(Files.getPosixFilePermissions(link.toPath()).contains(PosixFilePermission.OWNER_WRITE));
+        assertTrue(cache.isCached(checksum, link));
+        assertFalse(cache.isCached(checksum, a));
+    }
+
+    @Test
+    public void downloadsChangedFileAgain() throws Exception {
+        FileCache cache = new FileCache(tmp.newFolder("cache").toPath(), 1024);
+        File a = file("a", 100);
+        String checksum = Checksums.of(a);
+        File link = cache.link(checksum, a.toURI().toURL(), new File(tmp.newFolder("scratch"), checksum).toPath());
+        assertTrue(link.setWritable(true));
+        Files.write(link.toPath(), new byte[50]);
+
+        assertFalse(cache.isCached(checksum, link));
+        assertNull(cache.get(checksum));
+        File relinked = cache.link(checksum, a.toURI().toURL(), new File(tmp.newFolder("scratch2"), checksum).toPath());
+        assertEquals(checksum, Checksums.of(relinked));
+        assertTrue(cache.isCached(checksum, relinked));
+    }
+
+    @Test
+    public void keepsLinksOfRemovedFiles() throws Exception {
+        FileCache cache = new FileCache(tmp.newFolder("cache").toPath(), 150);
+        File a = file("a", 100), b = file("b", 100);
+        String checksum = Checksums.of(a);
+        File link = cache.link(checksum, a.toURI().toURL(), new File(tmp.newFolder("scratch"), checksum).toPath());
+        Thread.sleep(5);
+        cache.fetch(Checksums.of(b), b.toURI().toURL());
+
+        assertNull(cache.get(checksum));
+        assertEquals(checksum, Checksums.of(link));
+    }
+
+    private File file(String name, int size) throws IOException {
+        byte[] data = new byte[size];
+        data[0] = (byte) name.charAt(0);
+        File file = tmp.newFile(name);
+        Files.write(file.toPath(), data);
+        return file;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ColumnTableTest {
+
+    @Test
+    public void storesPrimitiveColumns() throws Exception {
+        ColumnTable table = new ColumnTable(Arrays.asList("x", "y"));
+        for (int i = 0; i < 10000; i++)
+            table.addRow(new double[] { i, 2 * i });
+
+        assertEquals(10000, table.getRowCount());
+        assertEquals(Arrays.asList(5.0, 10.0), table.getRow(5));
+        assertEquals(19998.0, table.getDoubleColumn("y")[9999], 0.0);
+        assertArrayEquals(new Double[] { 0.0, 9999.0 }, table.getMinMaxValuesAsDouble("x"));
+        assertEquals(table, new DataTable(table.getDataList(), table.getColumnIdentifiers()));
+    }
+
+    @Test
+    public void keepsOtherValues() throws Exception {
+        ColumnTable table = new ColumnTable(Arrays.asList("x", "y"));
+        table.addRow(new double[] { 1, 2 });
+        table.addRow(Arrays.asList("a", null));
+        table.insertRow(0, Arrays.asList(3L, 4.0));
+        table.addColumn("z", Arrays.asList(1L, 2L, 3L));
+
+        assertEquals(Arrays.asList(3L, 4.0, 1L), table.getRow(0));
+        assertEquals(Arrays.asList(1.0, 2.0, 2L), table.getRow(1));
+        assertEquals(Arrays.asList("a", null, 3L), table.getRow(2));
+        assertEquals(Arrays.asList(4.0, 2.0, null), table.getColumn("y"));
+        assertArrayEquals(new long[] { 1, 2, 3 }, table.getLongColumn("z"));
+
+        table.moveRow(0, 0, 2);
+        assertEquals(Arrays.asList(3L, 4.0, 1L), table.getRow(2));
+        table.removeColumn(0);
+        assertEquals(Arrays.asList(2.0, 2L), table.getRow(0));
+    }
+
+    @Test
+    public void serializesColumns() throws Exception {
+        ColumnTable table = new ColumnTable(Arrays.asList("x", "s"));
+        for (int i = 0; i < 5000; i++)
+            table.addRow(Arrays.asList((double) i, "r" + i));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(table);
+        }
+        ColumnTable copy = (ColumnTable) new ObjectInputStream(
+                new ByteArrayInputStream(bytes.toByteArray())).readObject();
+        assertEquals(table, copy);
+        assertEquals(table.getColumnIdentifiers(), copy.getColumnIdentifiers());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util;
+
+import org.junit.Test;
+import sorcer.core.context.ServiceContext;
+
+import java.io.Serializable;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class GraphClonerTest {
+
+    static class Item implements Serializable {
+        String name;
+        Item next;
+        double[] values = { 1.0, 2.0 };
+        transient Object cache = new Object();
+        final List<Object> items = new ArrayList<Object>();
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+    }
+
+    static class Counted implements Serializable {
+        static int constructed;
+        String name;
+
+        Counted() {
+            constructed++;
+        }
+    }
+
+    static class Custom implements Serializable {
+        int value;
+        Item owner;
+
+        private Object readResolve() {
+            return this;
+        }
+    }
+
+    @Test
+    public void preservesSharedReferencesAndCycles() throws Exception {
+        Item a = new Item();
+        a.name = "a";
+        Item b = new Item();
+        b.name = "b";
+        a.next = b;
+        b.next = a;
+        a.items.add(b);
+        a.map.put("b", b);
+
+        Item copy = GraphCloner.copy(a);
+        assertNotSame(a, copy);
+        assertEquals("a", copy.name);
+        assertNotSame(b, copy.next);
+        assertSame(copy, copy.next.next);
+        assertSame(copy.next, copy.items.get(0));
+        assertSame(copy.next, copy.map.get("b"));
+        // immutable values are shared
+        assertSame(a.name, copy.name);
+    }
+
+    @Test
+    public void copiesLikeSerialization() throws Exception {
+        Item a = new Item();
+        a.items.add(new int[] { 1, 2, 3 });
+        Custom custom = new Custom();
+        custom.value = 7;
+        a.items.add(custom);
+
+        Item copy = GraphCloner.copy(a);
+        assertNull(copy.cache);
+        assertNotSame(a.values, copy.values);
+        assertArrayEquals(a.values, copy.values, 0.0);
+        assertNotSame(a.items.get(0), copy.items.get(0));
+        assertArrayEquals((int[]) a.items.get(0), (int[]) copy.items.get(0));
+        // classes with their own serialization are serialized
+        assertNotSame(custom, copy.items.get(1));
+        assertEquals(7, ((Custom) copy.items.get(1)).value);
+    }
+
+    @Test
+    public void keepsReferencesFromSerializedObjects() throws Exception {
+        Item a = new Item();
+        Custom custom = new Custom();
+        custom.owner = a;
+        a.items.add(custom);
+
+        Item copy = GraphCloner.copy(a);
+        assertNotSame(a, copy);
+        assertSame(copy, ((Custom) copy.items.get(0)).owner);
+    }
+
+    @Test
+    public void doesNotRunConstructors() throws Exception {
+        Counted counted = new Counted();
+        counted.name = "counted";
+        int constructed = Counted.constructed;
+
+        Counted copy = GraphCloner.copy(counted);
+        assertEquals("counted", copy.name);
+        assertEquals(constructed, Counted.constructed);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void copiesServiceContextLikeSerialization() throws Exception {
+        ServiceContext<Object> cxt = new ServiceContext<Object>("arithmetic");
+        cxt.putInValue("arg/x1", 20.0);
+        cxt.putInValue("arg/x2", 80.0);
+        cxt.putOutValue("result/y", new ArrayList<Object>(Arrays.asList(1, 2)));
+
+        ServiceContext<Object> copy = GraphCloner.copy(cxt);
+        ServiceContext<Object> serialized = (ServiceContext<Object>) ObjectCloner.cloneSerialized(cxt);
+        assertNotSame(cxt, copy);
+        assertEquals(serialized.getName(), copy.getName());
+        assertEquals(serialized.getId(), copy.getId());
+        assertEquals(serialized.getData(), copy.getData());
+        assertNotSame(cxt.getValue("result/y"), copy.getValue("result/y"));
+        assertEquals(serialized.getMetacontext(), copy.getMetacontext());
+    }
+}
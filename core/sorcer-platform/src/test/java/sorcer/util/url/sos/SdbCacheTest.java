@@ -0,0 +1,162 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.util.url.sos;
+
+import net.jini.id.UuidFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import sorcer.core.provider.StorageManagement;
+import sorcer.service.Context;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("unchecked")
+public class SdbCacheTest {
+
+    private static final String TYPE = StorageManagement.class.getName();
+
+    private FakeStore store;
+
+    private String provider;
+
+    private long ttl;
+
+    @Before
+    public void setUp() {
+        ttl = SdbCache.ttl;
+        store = new FakeStore();
+        provider = "Store-" + UUID.randomUUID();
+        SdbCache.putStore(TYPE, provider, (StorageManagement) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[] { StorageManagement.class }, store));
+    }
+
+    @After
+    public void tearDown() {
+        SdbCache.ttl = ttl;
+    }
+
+    @Test
+    public void returnsCopies() throws Exception {
+        SdbCache.ttl = 60000;
+        URL url = store.add(new ArrayList<String>(Arrays.asList("a")));
+
+        List<String> first = (List<String>) SdbCache.get(url);
+        first.add("b");
+        List<String> second = (List<String>) SdbCache.get(url);
+
+        assertEquals(Arrays.asList("a"), second);
+        assertNotSame(first, second);
+        assertEquals(1, store.calls);
+    }
+
+    @Test
+    public void fetchesUpdatedAfterTtl() throws Exception {
+        SdbCache.ttl = 0;
+        URL url = store.add("a");
+
+        assertEquals("a", SdbCache.get(url));
+        // same version, the cached object is used
+        assertEquals("a", SdbCache.get(url));
+        assertEquals(2, store.calls);
+        assertEquals(1, store.retrieved);
+
+        store.update(url, "b");
+        assertEquals("b", SdbCache.get(url));
+        assertEquals(3, store.calls);
+        assertEquals(2, store.retrieved);
+    }
+
+    @Test
+    public void dropsInvalidated() throws Exception {
+        SdbCache.ttl = 60000;
+        URL url = store.add("a");
+
+        assertEquals("a", SdbCache.get(url));
+        store.update(url, "b");
+        assertEquals("a", SdbCache.get(url));
+        SdbCache.invalidate(SdbUtil.getUuid(url));
+        assertEquals("b", SdbCache.get(url));
+    }
+
+    @Test
+    public void retrievesAllInOneCall() throws Exception {
+        SdbCache.ttl = 60000;
+        URL a = store.add("a"), b = store.add("b"), c = store.add("c");
+
+        assertEquals("b", SdbCache.get(b));
+        assertEquals(Arrays.asList("a", "b", "c"), SdbCache.getAll(Arrays.asList(a, b, c)));
+        assertEquals(2, store.calls);
+        assertEquals(3, store.retrieved);
+    }
+
+    /*
+     * Keeps objects by Uuid with versions, as DatabaseProvider.contextRetrieve
+     * does for a list of Uuids.
+     */
+    private class FakeStore implements InvocationHandler {
+        final Map<String, Object> objects = new HashMap<String, Object>();
+        final Map<String, Long> versions = new HashMap<String, Long>();
+        int calls, retrieved;
+
+        URL add(Object object) throws Exception {
+            String uuid = UuidFactory.generate().toString();
+            objects.put(uuid, object);
+            versions.put(uuid, 1L);
+            return new URL(null, "sos://" + TYPE + "/" + provider + "#object=" + uuid, new Handler());
+        }
+
+        void update(URL url, Object object) {
+            String uuid = SdbUtil.getUuid(url).toString();
+            objects.put(uuid, object);
+            versions.put(uuid, versions.get(uuid) + 1);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class)
+                return method.invoke(this, args);
+            if (!method.getName().equals("contextRetrieve"))
+                throw new UnsupportedOperationException(method.getName());
+            calls++;
+            Context context = (Context) args[0];
+            List<String> uuids = (List<String>) context.getValue(StorageManagement.object_uuid_list);
+            List<Long> known = (List<Long>) context.getValue(StorageManagement.object_version_list);
+            List<Object> found = new ArrayList<Object>();
+            List<Long> current = new ArrayList<Long>();
+            for (int i = 0; i < uuids.size(); i++) {
+                Long version = versions.get(uuids.get(i));
+                if (version.equals(known.get(i))) {
+                    found.add(null);
+                } else {
+                    found.add(objects.get(uuids.get(i)));
+                    retrieved++;
+                }
+                current.add(version);
+            }
+            context.putOutValue(StorageManagement.object_retrieved_list, found);
+            context.putOutValue(StorageManagement.object_version_list, current);
+            return context;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.cataloger;
+
+import net.jini.core.entry.Entry;
+import net.jini.core.lookup.ServiceID;
+import net.jini.core.lookup.ServiceItem;
+import net.jini.lookup.entry.Name;
+import org.rioproject.admin.ServiceActivityProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.core.provider.Provider;
+import sorcer.core.provider.ServiceHealth;
+import sorcer.util.ConfigurableThreadFactory;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Probes the cataloged providers in the background and keeps their liveness
+ * and latency by {@link ServiceID}, so lookups do not make remote calls. A
+ * probe that does not complete within the probe timeout after it started
+ * running marks its provider as not alive, providers failing the given
+ * number of probes in a row are removed from the cataloger. Probes waiting
+ * for a prober thread are not timed.
+ */
+class HealthProber {
+    private static final Logger logger = LoggerFactory.getLogger(HealthProber.class);
+
+    private final ServiceCataloger.CatalogerInfo cinfo;
+
+    private final long interval;
+
+    private final long timeout;
+
+    private final int maxFailures;
+
+    private final ConcurrentMap<ServiceID, Health> healths = new ConcurrentHashMap<ServiceID, Health>();
+
+    private final ScheduledExecutorService scheduler;
+
+    private final ThreadPoolExecutor probers;
+
+    HealthProber(ServiceCataloger.CatalogerInfo cinfo, long interval, long timeout, int maxFailures, int threads) {
+        this.cinfo = cinfo;
+        this.interval = interval;
+        this.timeout = timeout;
+        this.maxFailures = maxFailures > 0 ? maxFailures : 1;
+
+        ConfigurableThreadFactory tf = new ConfigurableThreadFactory();
+        tf.setDaemon(true);
+        tf.setNameFormat("Cataloger-health");
+        scheduler = Executors.newSingleThreadScheduledExecutor(tf);
+
+        ConfigurableThreadFactory ptf = new ConfigurableThreadFactory();
+        ptf.setDaemon(true);
+        ptf.setNameFormat("Cataloger-probe-%2$s");
+        int n = threads > 0 ? threads : 1;
+        probers = new ThreadPoolExecutor(n, n, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), ptf);
+        probers.allowCoreThreadTimeOut(true);
+    }
+
+    void start() {
+        scheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    probeAll();
+                } catch (Exception e) {
+                    logger.warn("Problem probing cataloged providers", e);
+                }
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+        logger.info("Probing cataloged providers every {} ms, timeout: {} ms, max failures: {}",
+                    interval, timeout, maxFailures);
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+        probers.shutdownNow();
+    }
+
+    /**
+     * Returns the cached liveness, providers not probed yet are alive.
+     */
+    boolean isAlive(ServiceItem sItem) {
+        if (sItem == null)
+            return false;
+        Health health = healths.get(sItem.serviceID);
+        return health == null || health.alive;
+    }
+
+    /**
+     * Probes the given provider in the background, for example when it is
+     * added to the cataloger.
+     */
+    void probe(ServiceItem sItem) {
+        if (!scheduler.isShutdown())
+            probe(sItem, getHealth(sItem));
+    }
+
+    Map<ServiceID, ServiceHealth> getHealthStats() {
+        Map<ServiceID, ServiceHealth> stats = new HashMap<ServiceID, ServiceHealth>();
+        for (Health health : healths.values())
+            stats.put(health.serviceID, health.snapshot());
+        return stats;
+    }
+
+    void probeAll() {
+        List<ServiceItem> sItems = cinfo.getAllServiceItems();
+        Set<ServiceID> ids = new HashSet<ServiceID>();
+        long now = System.currentTimeMillis();
+        for (ServiceItem sItem : sItems) {
+            ids.add(sItem.serviceID);
+            Health health = getHealth(sItem);
+            if (health.probing.get()) {
+                // a hung provider must not be selected while its probe is blocked
+                long start = health.probeStart;
+                if (start > 0 && now - start > timeout && health.alive)
+                    failed(sItem, health, "probe timed out after " + (now - start) + " ms");
+            } else {
+                probe(sItem, health);
+            }
+        }
+        healths.keySet().retainAll(ids);
+    }
+
+    private void probe(final ServiceItem sItem, final Health health) {
+        if (!health.probing.compareAndSet(false, true))
+            return;
+        // queued, the timeout starts when a prober thread runs the probe
+        health.probeStart = 0;
+        try {
+            probers.execute(new Runnable() {
+                @Override
+                public void run() {
+                    long start = System.currentTimeMillis();
+                    health.probeStart = start;
+                    try {
+                        ping(sItem);
+                        health.succeeded(System.currentTimeMillis() - start);
+                    } catch (Exception e) {
+                        failed(sItem, health, e.toString());
+                    } finally {
+                        health.probing.set(false);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            health.probing.set(false);
+        }
+    }
+
+    private void failed(ServiceItem sItem, Health health, String reason) {
+        int failures = health.failed();
+        logger.warn("Service ID: {} is not alive ({} failures): {}", sItem.serviceID, failures, reason);
+        if (failures >= maxFailures) {
+            // not alive anymore removing from cataloger
+            healths.remove(sItem.serviceID, health);
+            cinfo.removeServiceItem(sItem);
+        }
+    }
+
+    private Health getHealth(ServiceItem sItem) {
+        Health health = healths.get(sItem.serviceID);
+        if (health == null) {
+            health = new Health(sItem.serviceID, getName(sItem.attributeSets));
+            Health existing = healths.putIfAbsent(sItem.serviceID, health);
+            if (existing != null)
+                health = existing;
+        }
+        return health;
+    }
+
+    /**
+     * Makes a remote call to the given provider.
+     *
+     * @throws Exception if the provider is not reachable
+     */
+    static void ping(ServiceItem si) throws Exception {
+        if (si.service instanceof ServiceActivityProvider)
+            ((ServiceActivityProvider) si.service).isActive();
+        else if (si.service instanceof Provider)
+            ((Provider) si.service).getProviderName();
+    }
+
+    private static String getName(Entry[] entries) {
+        if (entries != null) {
+            for (Entry e : entries) {
+                if (e instanceof Name)
+                    return ((Name) e).name;
+            }
+        }
+        return null;
+    }
+
+    private static class Health {
+        final ServiceID serviceID;
+        final String name;
+        final AtomicBoolean probing = new AtomicBoolean();
+        final AtomicLong probeCount = new AtomicLong();
+        volatile long probeStart;
+        volatile boolean alive = true;
+        volatile long latency;
+        volatile long lastProbeTime;
+        volatile int failures;
+
+        Health(ServiceID serviceID, String name) {
+            this.serviceID = serviceID;
+            this.name = name;
+        }
+
+        void succeeded(long latency) {
+            this.latency = latency;
+            lastProbeTime = System.currentTimeMillis();
+            failures = 0;
+            alive = true;
+            probeCount.incrementAndGet();
+        }
+
+        synchronized int failed() {
+            lastProbeTime = System.currentTimeMillis();
+            alive = false;
+            probeCount.incrementAndGet();
+            return ++failures;
+        }
+
+        ServiceHealth snapshot() {
+            return new ServiceHealth(serviceID, name, alive, latency, lastProbeTime, failures, probeCount.get());
+        }
+    }
+}
@@ -18,6 +18,8 @@
 package sorcer.core.provider.cataloger;
 
 import com.sun.jini.start.LifeCycle;
+import net.jini.config.Configuration;
+import net.jini.config.ConfigurationException;
 import net.jini.core.discovery.LookupLocator;
 import net.jini.core.entry.Entry;
 import net.jini.core.lookup.ServiceID;
@@ -40,6 +42,7 @@ import org.slf4j.MDC;
 import sorcer.core.exertion.NetTask;
 import sorcer.core.provider.Cataloger;
 import sorcer.core.provider.Provider;
+import sorcer.core.provider.ServiceHealth;
 import sorcer.core.provider.ServiceProvider;
 import sorcer.core.provider.cataloger.ServiceCataloger.CatalogerInfo.InterfaceList;
 import sorcer.core.provider.cataloger.ui.CatalogerUI;
@@ -66,6 +69,9 @@ import java.rmi.server.RMIClassLoader;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * The facility for maintaining a cache of all SORCER providers {@link Service}s
@@ -125,6 +131,20 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 
 	protected final CatalogerInfo cinfo = new CatalogerInfo();
 
+	/** interval of the background provider health probes in ms, 0 pings providers on lookups */
+	public static final String HEALTH_PROBE_INTERVAL = "healthProbeInterval";
+
+	/** time in ms after which a pending probe marks its provider as not alive */
+	public static final String HEALTH_PROBE_TIMEOUT = "healthProbeTimeout";
+
+	/** failed probes in a row after which a provider is removed */
+	public static final String HEALTH_MAX_FAILURES = "healthMaxFailures";
+
+	/** number of threads probing providers */
+	public static final String HEALTH_PROBE_THREADS = "healthProbeThreads";
+
+	private HealthProber prober;
+
 	private String[] locators = null;
 
 	public LookupLocator[] getLL() throws RemoteException {
@@ -223,6 +243,8 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 			cache = lookupMgr.createLookupCache(template, null,
 					new CatalogerEventListener(cinfo));
 
+			startHealthProber();
+
 			logger.info("-----------------------------");
 			logger.info("Matching services that are: " + templateMatch);
 			logger.info(P_GROUPS + ": " + Arrays.toString(groups));
@@ -235,6 +257,39 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 		}
 	}
 
+	private void startHealthProber() {
+		Configuration config = getProviderConfiguration();
+		long interval = 5000;
+		long timeout = 3000;
+		int maxFailures = 2;
+		int threads = 4;
+		try {
+			interval = (Long) config.getEntry(ServiceProvider.COMPONENT, HEALTH_PROBE_INTERVAL, long.class, interval);
+			timeout = (Long) config.getEntry(ServiceProvider.COMPONENT, HEALTH_PROBE_TIMEOUT, long.class, timeout);
+			maxFailures = (Integer) config.getEntry(ServiceProvider.COMPONENT, HEALTH_MAX_FAILURES, int.class, maxFailures);
+			threads = (Integer) config.getEntry(ServiceProvider.COMPONENT, HEALTH_PROBE_THREADS, int.class, threads);
+		} catch (ConfigurationException e) {
+			logger.warn("Problem getting health probe configuration", e);
+		}
+		cinfo.setMaxFailures(maxFailures);
+		if (interval <= 0) {
+			logger.info("Health probing disabled, providers are pinged on lookups");
+			return;
+		}
+		prober = new HealthProber(cinfo, interval, timeout, maxFailures, threads);
+		cinfo.setHealthProber(prober);
+		prober.start();
+	}
+
+	@Override
+	public void destroy() {
+		if (prober != null) {
+			cinfo.setHealthProber(null);
+			prober.stop();
+		}
+		super.destroy();
+	}
+
 //	public void setLogger(Logger logger) {
 //		ServiceCataloger.logger = logger;
 //	}
@@ -322,6 +377,11 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 				: null;
 	}
 
+	@Override
+	public Map<ServiceID, ServiceHealth> getHealthStats() throws RemoteException {
+		return cinfo.getHealthStats();
+	}
+
 	@Override
 	public Map<String, String> getProviderMethods() throws RemoteException {
 		if (cinfo == null)
@@ -424,6 +484,71 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 		Cataloger cataloger = null;
 		final ConcurrentMap<InterfaceList, List<ServiceItem>> interfaceListMap = new ConcurrentHashMap<CatalogerInfo.InterfaceList, List<ServiceItem>>();
 
+		// indexes of the service items in interfaceListMap, updated under the
+		// lock of this cataloger info and read without locking
+		final ConcurrentMap<ServiceID, ServiceItem> itemsById = new ConcurrentHashMap<ServiceID, ServiceItem>();
+
+		// interface name (as in InterfaceList#containsAllInterfaces) to service IDs
+		final ConcurrentMap<String, Set<ServiceID>> idsByInterface = new ConcurrentHashMap<String, Set<ServiceID>>();
+
+		// provider name to service IDs
+		final ConcurrentMap<String, Set<ServiceID>> idsByName = new ConcurrentHashMap<String, Set<ServiceID>>();
+
+		// times each service item was selected, the least selected one is selected next
+		final ConcurrentMap<ServiceID, AtomicLong> selections = new ConcurrentHashMap<ServiceID, AtomicLong>();
+
+		private final AtomicInteger rotation = new AtomicInteger();
+
+		// cached liveness of the service items, if null providers are pinged on lookups
+		private volatile HealthProber prober;
+
+		// failed pings in a row by service item when background probing is disabled
+		private final ConcurrentMap<ServiceID, AtomicInteger> pingFailures = new ConcurrentHashMap<ServiceID, AtomicInteger>();
+
+		private volatile int maxFailures = 1;
+
+		void setHealthProber(HealthProber prober) {
+			this.prober = prober;
+		}
+
+		void setMaxFailures(int maxFailures) {
+			this.maxFailures = maxFailures > 0 ? maxFailures : 1;
+		}
+
+		/**
+		 * Returns the liveness of the given service item from the health
+		 * cache, or pings it if background probing is disabled. Lookups skip
+		 * service items that are not alive, the items are removed from the
+		 * cataloger after failing the given maximum number of checks in a row.
+		 */
+		boolean isAlive(ServiceItem sItem) {
+			HealthProber hp = prober;
+			if (hp != null)
+				return hp.isAlive(sItem);
+			if (sItem == null)
+				return false;
+			if (ServiceCataloger.isAlive(sItem)) {
+				pingFailures.remove(sItem.serviceID);
+				return true;
+			}
+			AtomicInteger failures = pingFailures.get(sItem.serviceID);
+			if (failures == null) {
+				AtomicInteger existing = pingFailures.putIfAbsent(sItem.serviceID, failures = new AtomicInteger());
+				if (existing != null)
+					failures = existing;
+			}
+			if (failures.incrementAndGet() >= maxFailures) {
+				// not alive anymore removing from cataloger
+				removeServiceItem(sItem);
+			}
+			return false;
+		}
+
+		public Map<ServiceID, ServiceHealth> getHealthStats() {
+			HealthProber hp = prober;
+			return hp != null ? hp.getHealthStats() : new HashMap<ServiceID, ServiceHealth>();
+		}
+
         public ConcurrentMap<InterfaceList, List<ServiceItem>> getInterfaceListMap() {
             return interfaceListMap;
         }
@@ -459,59 +584,96 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 		}
 
 		public void remove(CatalogerInfo.InterfaceList key) {
-			interfaceListMap.remove(key);
+			synchronized (this) {
+				List<ServiceItem> sItems = interfaceListMap.remove(key);
+				if (sItems != null) {
+					for (ServiceItem sItem : sItems)
+						unindex(sItem.serviceID);
+				}
+			}
 		}
 
 		public void remove(ServiceItem value) {
-            InterfaceList found = null;
-            ServiceItem itemFound = null;
-            for (Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap
-                    .entrySet()) {
-                for (ServiceItem item : entry.getValue()) {
-                    if (item.serviceID.equals(value.serviceID)) {
-                        found = entry.getKey();
-                        itemFound = item;
-                        break;
-                    }
-                }
-            }
-        }
-
+			if (value == null || value.serviceID == null)
+				return;
+			synchronized (this) {
+				removeById(value.serviceID);
+			}
+		}
 
 		public void removeServiceItem(ServiceItem sItem) {
-			InterfaceList searchInterfaceList = new InterfaceList(sItem.service
-					.getClass().getInterfaces());
-			List<ServiceItem> value;
             logger.info("Removing ServiceItem from Cataloger: " + sItem.toString());
-
-			for (InterfaceList key : interfaceListMap.keySet()) {
-                if (key.containsAllInterfaces(searchInterfaceList)) {
-					value = interfaceListMap.get(key);
-                    if (value != null) {
-						if (value.size() == 1)
-							remove(key);
-						else
-							removeFrom(value, sItem);
-					}
-				}
+			synchronized (this) {
+				removeById(sItem.serviceID);
 			}
 			observable.tellOfAction("UPDATEDPLEASE");
 		}
 
+		private void removeById(ServiceID serviceID) {
+			ServiceItem indexed = unindex(serviceID);
+			if (indexed == null)
+				return;
+			InterfaceList key = new InterfaceList(indexed.service.getClass().getInterfaces());
+			List<ServiceItem> sItems = interfaceListMap.get(key);
+			if (sItems != null) {
+				removeFrom(sItems, serviceID);
+				if (sItems.isEmpty())
+					interfaceListMap.remove(key, sItems);
+			}
+		}
+
 		public void addObserver(Observer observer) {
 			// lookupMgr.setGUIBrowser(model);
 			observable.addObserver(observer);
 		}
 
+		/**
+		 * Returns all service items implementing the given interfaces using
+		 * the interface index, the cost does not depend on the number of
+		 * registered providers.
+		 */
 		public List<ServiceItem> getAll(InterfaceList interfaceList) {
+			return find(interfaceList, null);
+		}
+
+		/**
+		 * Returns the service items implementing all given interfaces, with the
+		 * given provider name if not null. The smallest index set is scanned
+		 * and checked against the other ones.
+		 */
+		List<ServiceItem> find(List<Class> interfaces, String providerName) {
+			List<Set<ServiceID>> sets = new ArrayList<Set<ServiceID>>();
+			for (Class type : interfaces) {
+				Set<ServiceID> ids = idsByInterface.get("" + type);
+				if (ids == null)
+					return new ArrayList<ServiceItem>();
+				sets.add(ids);
+			}
+			if (providerName != null) {
+				Set<ServiceID> ids = idsByName.get(providerName);
+				if (ids == null)
+					return new ArrayList<ServiceItem>();
+				sets.add(ids);
+			}
 			List<ServiceItem> sItems = new ArrayList<ServiceItem>();
-			for (Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap.entrySet()) {
-                if(logger.isDebugEnabled())
-				logger.debug("list = " + entry.getValue());
-				if (entry.getKey().containsAllInterfaces(interfaceList)) {
-					logger.info("Cataloger found matching interface list: "+ entry.getValue());
-					sItems.addAll(interfaceListMap.get(entry.getKey()));
+			if (sets.isEmpty()) {
+				sItems.addAll(itemsById.values());
+				return sItems;
+			}
+			Set<ServiceID> smallest = sets.get(0);
+			for (Set<ServiceID> ids : sets) {
+				if (ids.size() < smallest.size())
+					smallest = ids;
+			}
+			SIDS:
+			for (ServiceID id : smallest) {
+				for (Set<ServiceID> ids : sets) {
+					if (ids != smallest && !ids.contains(id))
+						continue SIDS;
 				}
+				ServiceItem sItem = itemsById.get(id);
+				if (sItem != null)
+					sItems.add(sItem);
 			}
 			return sItems;
 		}
@@ -529,48 +691,151 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 
 		public void addServiceItem(ServiceItem sItem) {
 			InterfaceList keyList = new InterfaceList(sItem.service.getClass().getInterfaces());
-			List<ServiceItem> sItems = interfaceListMap.get(keyList);
-			if(sItems!=null) {
-				List<ServiceItem> workingList = new ArrayList<>();
-				workingList.addAll(sItems);
-				boolean added = false;
-				for (ServiceItem si : sItems) {
-					if(!alreadyHas(si, workingList)) {
-						workingList.add(0, sItem);
-						added = true;
-					}
-				}
-				interfaceListMap.put(keyList, workingList);
-				if(added) {
-					StringBuilder sb = new StringBuilder();
-					for (ServiceItem i : workingList) {
-						if (sb.length() > 0)
-							sb.append("\n");
-						sb.append("\t")
-						  .append(getName(i.attributeSets))
-						  .append(" sid: ").append(i.serviceID)
-						  .append(" rid: ").append(((ReferentUuid) i.service).getReferentUuid());
+			synchronized (this) {
+				// a changed service replaces its previous item
+				removeById(sItem.serviceID);
+				List<ServiceItem> sItems = interfaceListMap.get(keyList);
+				if (sItems != null) {
+					int size = sItems.size();
+					if (!alreadyHas(sItem, sItems))
+						sItems.add(0, sItem);
+					if (sItems.size() > size) {
+						StringBuilder sb = new StringBuilder();
+						for (ServiceItem i : sItems) {
+							if (sb.length() > 0)
+								sb.append("\n");
+							sb.append("\t")
+							  .append(getName(i.attributeSets))
+							  .append(" sid: ").append(i.serviceID)
+							  .append(" rid: ").append(((ReferentUuid) i.service).getReferentUuid());
+						}
+						logger.info("ServiceItem list for {} was {} now {}\n{}",
+									getName(sItem.attributeSets),
+									size,
+									sItems.size(),
+									sb.toString());
+					} else {
+						logger.info("ServiceItem list unchanged for {}",
+									getName(sItem.attributeSets));
 					}
-					logger.info("ServiceItem list for {} was {} now {}\n{}",
-								getName(sItem.attributeSets),
-								sItems.size(),
-								workingList.size(),
-								sb.toString());
 				} else {
-					logger.info("ServiceItem list unchanged for {}",
+					sItems = new CopyOnWriteArrayList<ServiceItem>();
+					sItems.add(0, sItem);
+					interfaceListMap.put(keyList, sItems);
+					logger.info("ServiceItem list created for {}",
 								getName(sItem.attributeSets));
 				}
-			} else {
-				sItems = new ArrayList<>();
-				sItems.add(0, sItem);
-				interfaceListMap.put(keyList, sItems);
-				logger.info("ServiceItem list created for {}",
-							getName(sItem.attributeSets));
+				index(sItem, sItems);
 			}
+			HealthProber hp = prober;
+			if (hp != null)
+				hp.probe(sItem);
 			logger.debug("Added new service, calling notify");
 			observable.tellOfAction("UPDATEDPLEASE");
 		}
 
+		/**
+		 * Adds the service item to the ServiceID, interface and provider name
+		 * indexes. A new item starts with the lowest selection count of the
+		 * items sharing its interfaces so it does not take all the requests.
+		 */
+		private void index(ServiceItem sItem, List<ServiceItem> peers) {
+			itemsById.put(sItem.serviceID, sItem);
+			long count = Long.MAX_VALUE;
+			for (ServiceItem peer : peers) {
+				AtomicLong peerCount = selections.get(peer.serviceID);
+				if (peerCount != null)
+					count = Math.min(count, peerCount.get());
+			}
+			selections.put(sItem.serviceID, new AtomicLong(count == Long.MAX_VALUE ? 0 : count));
+			for (String type : getInterfaceNames(sItem))
+				addTo(idsByInterface, type, sItem.serviceID);
+			for (String name : getNames(sItem.attributeSets))
+				addTo(idsByName, name, sItem.serviceID);
+		}
+
+		private ServiceItem unindex(ServiceID serviceID) {
+			ServiceItem sItem = itemsById.remove(serviceID);
+			if (sItem == null)
+				return null;
+			selections.remove(serviceID);
+			pingFailures.remove(serviceID);
+			for (String type : getInterfaceNames(sItem))
+				removeFrom(idsByInterface, type, serviceID);
+			for (String name : getNames(sItem.attributeSets))
+				removeFrom(idsByName, name, serviceID);
+			return sItem;
+		}
+
+		private static void addTo(ConcurrentMap<String, Set<ServiceID>> index, String key, ServiceID id) {
+			Set<ServiceID> ids = index.get(key);
+			if (ids == null) {
+				ids = Collections.newSetFromMap(new ConcurrentHashMap<ServiceID, Boolean>());
+				Set<ServiceID> existing = index.putIfAbsent(key, ids);
+				if (existing != null)
+					ids = existing;
+			}
+			ids.add(id);
+		}
+
+		private static void removeFrom(ConcurrentMap<String, Set<ServiceID>> index, String key, ServiceID id) {
+			Set<ServiceID> ids = index.get(key);
+			if (ids != null) {
+				ids.remove(id);
+				if (ids.isEmpty())
+					index.remove(key, ids);
+			}
+		}
+
+		/**
+		 * Returns the names of the proxy interfaces and their superinterfaces,
+		 * as matched by {@link InterfaceList#containsAllInterfaces}.
+		 */
+		private static Set<String> getInterfaceNames(ServiceItem sItem) {
+			Set<String> names = new HashSet<String>();
+			for (Class type : sItem.service.getClass().getInterfaces()) {
+				names.add("" + type);
+				for (Class superType : type.getInterfaces())
+					names.add("" + superType);
+			}
+			return names;
+		}
+
+		private static Set<String> getNames(Entry[] entries) {
+			Set<String> names = new HashSet<String>();
+			if (entries != null) {
+				for (Entry e : entries) {
+					if (e instanceof Name && ((Name) e).name != null)
+						names.add(((Name) e).name);
+				}
+			}
+			return names;
+		}
+
+		/**
+		 * Selects the least selected service item, ties are broken round-robin.
+		 */
+		private ServiceItem select(List<ServiceItem> sItems) {
+			int size = sItems.size();
+			int start = (rotation.getAndIncrement() & Integer.MAX_VALUE) % size;
+			ServiceItem selected = null;
+			AtomicLong selectedCount = null;
+			for (int i = 0; i < size; i++) {
+				ServiceItem sItem = sItems.get((start + i) % size);
+				AtomicLong count = selections.get(sItem.serviceID);
+				if (count == null)
+					continue;
+				if (selectedCount == null || count.get() < selectedCount.get()) {
+					selected = sItem;
+					selectedCount = count;
+				}
+			}
+			if (selected == null)
+				return sItems.get(start);
+			selectedCount.incrementAndGet();
+			return selected;
+		}
+
 		private String getName(Entry[] entries) {
 			String name = null;
 			for(Entry e : entries) {
@@ -582,12 +847,10 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 			return name;
 		}
 
-        private void removeFrom(List<ServiceItem> sis, ServiceItem si) {
-			if (si.service == null)
-				return;
-			for (int i = 0; i < sis.size(); i++)
-				if (si.service.equals(sis.get(i).service)) {
-					sis.remove(i);
+        private void removeFrom(List<ServiceItem> sis, ServiceID serviceID) {
+			for (ServiceItem si : sis)
+				if (serviceID.equals(si.serviceID)) {
+					sis.remove(si);
 					return;
 				}
 		}
@@ -624,9 +887,9 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 		 * first parameter = String[] of interfaces<br>
 		 * second parameter = providerName if any
 		 * <p>
-		 * This method provides automatic load balancing by providing the
-		 * serviceItem from the beginning and by removing it and adding to the
-		 * end upon each request.
+		 * This method provides automatic load balancing by selecting the least
+		 * selected matching serviceItem, candidates are found by the interface
+		 * and provider name indexes.
 		 */
 		public ServiceItem getServiceItem(Class[] interfaces,
 				String providerName) {
@@ -634,84 +897,34 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 			logger.info("providerName = " + providerName + "\ninterfaces: "
 					+ GenericUtil.arrayToString(interfaces));
 
-			List<ServiceItem> list = getAll(new InterfaceList(interfaces));
-			logger.info("Cinfo getServiceItem, got: " + list);
-			if (providerName != null && providerName.equals(ANY))
+			if (providerName != null && (providerName.equals(ANY) || providerName.length() == 0))
 				providerName = null;
-			if (list == null)
-				return null;
+			List<ServiceItem> list = find(new InterfaceList(interfaces), providerName);
+			logger.info("Cinfo getServiceItem, got: " + list);
 
-			ServiceItem sItem;
 			// provide load balancing and check if still alive
-			if (providerName == null || providerName.length() == 0) {
-				do {
-					if (list.size() == 0)
-						return null;
-					sItem = list.remove(0);
-					if (sItem != null) {
-						if (isAlive(sItem)) {
-							list.add(sItem);
-							return sItem;
-						} else {
-							// not Alive anymore removing from cataloger
-							removeServiceItem(sItem);
-						}
-					}
-				} while (sItem != null);
-			} else {
-				net.jini.core.entry.Entry[] attrs;
-				for (int i = 0; i < list.size(); i++) {
-					attrs = list.get(i).attributeSets;
-					for (net.jini.core.entry.Entry et : attrs) {
-						if (et instanceof Name
-								&& providerName.equals(((Name) et).name)) {
-							sItem = list.remove(i);
-                            if (sItem != null) {
-                                if (isAlive(sItem)) {
-                                    list.add(sItem);
-                                    return sItem;
-                                } else {
-                                    // not Alive anymore removing from cataloger
-                                    removeServiceItem(sItem);
-                                }
-                            }
-						}
-					}
-				}
+			while (!list.isEmpty()) {
+				ServiceItem sItem = select(list);
+				if (isAlive(sItem))
+					return sItem;
+				// not alive now, removed after the maximum number of failures
+				list.remove(sItem);
 			}
 			return null;
 		}
 
-		// there's no other better way of doing this because of the structure we
-		// maintain.
-		// we need to iterate through each and every one of the list and get the
-		// service
 		public ServiceItem getServiceItem(ServiceID serviceID) {
-			Collection<List<ServiceItem>> c = interfaceListMap.values();
-			if (c == null)
-				return null;
-			List<ServiceItem> sItems;
-			ServiceItem sItem;
-			for (Iterator<List<ServiceItem>> it = c.iterator(); it.hasNext();) {
-				sItems = it.next();
-				for (int i = 0; i < sItems.size(); i++) {
-					if (serviceID.equals((sItems.get(i)).serviceID)) {
-						sItem = sItems.remove(i);
-						sItems.add(sItem);
-						return sItem;
-					}
-				}
+			ServiceItem sItem = itemsById.get(serviceID);
+			if (sItem != null) {
+				AtomicLong count = selections.get(serviceID);
+				if (count != null)
+					count.incrementAndGet();
 			}
-			return null;
+			return sItem;
 		}
 
 		public List<ServiceItem> getAllServiceItems() {
-			List<ServiceItem> items = new ArrayList<ServiceItem>();
-			for (Map.Entry<InterfaceList, List<ServiceItem>> entry : interfaceListMap
-					.entrySet()) {
-				items.addAll(entry.getValue());
-			}
-			return items;
+			return new ArrayList<ServiceItem>(itemsById.values());
 		}
 
 		public ServiceItem[] getServiceItems(Class[] interfaces,
@@ -728,13 +941,15 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
 			if (list == null)
 				return null;
 
-			ServiceItem sItem;
 			// provide load balancing
 			if (providerName == null || "".equals(providerName)) {
-				sItem = list.remove(0);
-				list.add(sItem);
+				if (list.isEmpty())
+					return new ServiceItem[0];
+				// rotate a snapshot, the shared list is not modified
+				List<ServiceItem> rotated = new ArrayList<ServiceItem>(list);
+				Collections.rotate(rotated, -((rotation.getAndIncrement() & Integer.MAX_VALUE) % rotated.size()));
 				ArrayList<ServiceItem> arItems = new ArrayList<ServiceItem>();
-				Iterator<ServiceItem> it = list.iterator();
+				Iterator<ServiceItem> it = rotated.iterator();
 				while (it.hasNext() && arItems.size() < maxItems) {
 					// Check if provider is still alive
 					ServiceItem si = it.next();
@@ -1235,11 +1450,7 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
         if (si == null)
             return false;
         try {
-            if (si.service instanceof ServiceActivityProvider) {
-                boolean result = ((ServiceActivityProvider)si.service).isActive();
-            } else if (si.service instanceof Provider) {
-                String name = ((Provider) si.service).getProviderName();
-            }
+            HealthProber.ping(si);
             return true;
         } catch (Exception e) {
             logger.warn("Service ID: " + si.serviceID
@@ -1272,48 +1483,51 @@ public class ServiceCataloger extends ServiceProvider implements Cataloger {
         List<ServiceItem> result = new LinkedList<ServiceItem>();
         if(cinfo==null){
             logger.warn("Cataloger not initialized");
+        } else if (tmpl.serviceID != null) {
+            //serviceID is unique, use the ServiceID index
+            ServiceItem serviceItem = cinfo.getServiceItem(tmpl.serviceID);
+            if (serviceItem != null && maxMatches > 0
+                    && matches(tmpl, new InterfaceList(serviceItem.service.getClass().getInterfaces()), serviceItem)) {
+                if (cinfo.isAlive(serviceItem))
+                    result.add(serviceItem);
+            }
         } else
         for (Map.Entry<InterfaceList, List<ServiceItem>> entry : cinfo.getInterfaceListMap().entrySet()) {
             List<ServiceItem> serviceItems;
-            List<ServiceItem> down = new LinkedList<ServiceItem>();
             synchronized (entry) {
                 serviceItems = new LinkedList<ServiceItem>(entry.getValue());
             }
-            SRVITEM:
-
             for (ServiceItem serviceItem : serviceItems) {
-                if (tmpl.serviceID != null && tmpl.serviceID.equals(serviceItem.serviceID)) {
-                    result.add(serviceItem);
-                    //serviceID is unique, stop on first matching service
-                    break;
-                }
-
-                CatalogerInfo.InterfaceList interfaceList = entry.getKey();
-                if (interfaceList.containsAll(Arrays.asList(tmpl.serviceTypes))) {
-                    List<Entry> sItemEntryList = Arrays.asList(serviceItem.attributeSets);
-                    for (Entry attr : tmpl.attributeSetTemplates) {
-                        if (!sItemEntryList.contains(attr)) {
-                            continue SRVITEM;
-                        }
-                    }
-                    if (isAlive(serviceItem)) {
+                if (matches(tmpl, entry.getKey(), serviceItem)) {
+                    if (cinfo.isAlive(serviceItem)) {
                         logger.info("Service " + serviceItem.serviceID + " is adding to results for: " + tmpl.toString());
                         result.add(serviceItem);
-                    } else {
-                        // not Alive anymore removing from cataloger
-                        down.add(serviceItem);
                     }
                     if (result.size() >= maxMatches) break;
                 }
             }
-            synchronized (cinfo){
-                for(ServiceItem serviceItem: down)
-                        cinfo.removeServiceItem(serviceItem);
-            }
 
         }
         return new ServiceMatches(result.toArray(new ServiceItem[result.size()]), result.size());
     }
+	/*
+	 * Returns true if the service item with the interface list has the
+	 * service types and attributes of the template.
+	 */
+	private static boolean matches(ServiceTemplate tmpl, InterfaceList interfaceList,
+			ServiceItem serviceItem) {
+		if (tmpl.serviceTypes != null && !interfaceList.containsAll(Arrays.asList(tmpl.serviceTypes)))
+			return false;
+		if (tmpl.attributeSetTemplates != null) {
+			List<Entry> sItemEntryList = Arrays.asList(serviceItem.attributeSets);
+			for (Entry attr : tmpl.attributeSetTemplates) {
+				if (!sItemEntryList.contains(attr))
+					return false;
+			}
+		}
+		return true;
+	}
+
 	public String returnString() throws RemoteException {
 		return getClass().getName() + ":" + getProviderName();
 	}
@@ -42,6 +42,7 @@ import sorcer.util.bdb.objects.SorcerDatabaseViews;
 import sorcer.util.bdb.objects.UuidKey;
 import sorcer.util.bdb.objects.UuidObject;
 import sorcer.util.url.sos.Handler;
+import sorcer.util.url.sos.SdbCache;
 import sorcer.util.url.sos.SdbUtil;
 
 import java.io.File;
@@ -50,6 +51,11 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.rmi.RemoteException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
 
 /**
  * @author Mike Sobolewski
@@ -65,6 +71,22 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 
 	private SorcerDatabaseViews views;
 
+	/** Max number of queued database writes, a full queue blocks the callers */
+	public static final String WRITE_QUEUE_SIZE = "writeQueueSize";
+
+	/** Max number of writes committed in one transaction */
+	public static final String WRITE_BATCH_SIZE = "writeBatchSize";
+
+	private static final long WRITER_CLOSE_TIMEOUT = 4000;
+
+	// the version of objects not changed since this provider started
+	private final long startVersion = System.currentTimeMillis() * 1000;
+
+	private final AtomicLong lastVersion = new AtomicLong(startVersion);
+
+	// versions of the objects updated or deleted since this provider started
+	private final ConcurrentMap<Uuid, Long> versions = new ConcurrentHashMap<Uuid, Long>();
+
 	public DatabaseProvider() throws RemoteException {
 		super();
 	}
@@ -83,17 +105,16 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 		setupDatabase();
 	}
 
-    private Set<Uuid> objectsQueue = Collections.synchronizedSet(new HashSet<Uuid>());
+	private DatabaseWriter writer;
 
 	public Uuid store(Object object) {
 		Object obj = object;
 //		if (!(object instanceof Identifiable)) {
 			obj = new UuidObject(object);
 //		}
-        PersistThread pt = new PersistThread(obj);
-		Uuid id = pt.getUuid();
-        pt.start();
-        return id;
+		PersistWrite pw = new PersistWrite(obj);
+		writer.submit(pw);
+		return pw.getUuid();
 	}
 
 	public Uuid update(Uuid uuid, Object object) throws InvalidObjectException {
@@ -102,10 +123,9 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 		if (!(object instanceof Identifiable)) {
 			uuidObject = new UuidObject(uuid, object);
 		}
-		UpdateThread ut = new UpdateThread(uuid, uuidObject);
-        Uuid id = ut.getUuid();
-        ut.start();
-        return id;
+		UpdateWrite uw = new UpdateWrite(uuid, uuidObject);
+		submitChange(uw);
+		return uw.getUuid();
 	}
 
 	public Uuid updateObject(URL url, Object object) throws InvalidObjectException {
@@ -114,43 +134,63 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 		if (!(object instanceof Identifiable)) {
 			uuidObject = new UuidObject(SdbUtil.getUuid(url), object);
 		}
-		UpdateThread ut = new UpdateThread(url, uuidObject);
-        Uuid id = ut.getUuid();
-        ut.start();
-		return id;
+		UpdateWrite uw = new UpdateWrite(SdbUtil.getUuid(url), uuidObject);
+		submitChange(uw);
+		return uw.getUuid();
 	}
 
-    private void append(Uuid id, Object object) {
-        waitIfBusy(id);
-        objectsQueue.add(id);
-//		logger.info("new waiting: " + object + " id: " + id + " size: " + objectsQueue.size());
+	/**
+	 * Returns the version of the stored object, it changes with each update
+	 * or delete of the object.
+	 */
+	public long getVersion(Uuid uuid) {
+		Long version = versions.get(uuid);
+		return version != null ? version : startVersion;
 	}
 
-    private void waitIfBusy(Uuid uuid) {
-        while (objectsQueue.contains(uuid)) {
-            try {
-                Thread.sleep(50);
-            } catch (InterruptedException ie) {
-                logger.warn("Interrupted while waiting for retrieved object: " + uuid);
-            }
-        }
-    }
+	void changed(Uuid uuid) {
+		versions.put(uuid, lastVersion.incrementAndGet());
+		SdbCache.invalidate(uuid);
+	}
 
-    private synchronized Set<Uuid> getCurrentBusy(){
-        return new HashSet<Uuid>(objectsQueue);
+	/**
+	 * Submits the update or delete of an object, its version changes and
+	 * its cached copies are invalidated once the write is committed, so a
+	 * reader never gets the old object with the new version.
+	 *
+	 * @return the future completed after the version has changed
+	 */
+	CompletableFuture<Uuid> submitChange(final DatabaseWriter.Write write) {
+		return writer.submit(write).whenComplete(new BiConsumer<Uuid, Throwable>() {
+			@Override
+			public void accept(Uuid uuid, Throwable error) {
+				// a rolled back write leaves the object unchanged
+				if (error == null)
+					changed(write.uuid);
+			}
+		});
+	}
+
+	// the writer of a provider without its database setup
+	void setWriter(DatabaseWriter writer) {
+		this.writer = writer;
+	}
+
+    /**
+     * Waits until the pending write of the object with the given id is
+     * committed.
+     */
+    private void waitIfBusy(Uuid uuid) {
+        if (writer != null)
+            writer.await(uuid);
     }
 
+    /**
+     * Waits until all writes submitted so far are committed.
+     */
     public void waitIfBusy() {
-        Set<Uuid> currentlyBusy = getCurrentBusy();
-        while (!currentlyBusy.isEmpty()) {
-            try {
-                currentlyBusy.retainAll(objectsQueue);
-//                logger.info("currentlyBusy size: " + currentlyBusy.size());
-                Thread.sleep(50);
-            } catch (InterruptedException ie) {
-                logger.warn("Interrupted while busy :" + currentlyBusy.size());
-            }
-        }
+        if (writer != null)
+            writer.awaitAll();
     }
 
 	public Object getObject(Uuid uuid) {
@@ -174,71 +214,52 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 	}
 
 	public Context getContext(Uuid uuid) {
-        try {
-            append(uuid, "context");
-            StoredMap<UuidKey, Context> cxtMap = views.getContextMap();
-            return cxtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+        waitIfBusy(uuid);
+        StoredMap<UuidKey, Context> cxtMap = views.getContextMap();
+        return cxtMap.get(new UuidKey(uuid));
 	}
 
 	public Exertion getExertion(Uuid uuid) {
-        try {
-            append(uuid, "exertion");
-            StoredMap<UuidKey, Exertion> xrtMap = views.getExertionMap();
-		    return xrtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+        waitIfBusy(uuid);
+        StoredMap<UuidKey, Exertion> xrtMap = views.getExertionMap();
+        return xrtMap.get(new UuidKey(uuid));
 	}
 
     public ModelTable getTable(Uuid uuid) {
-        try {
-            append(uuid, "dataTable");
-            StoredMap<UuidKey, ModelTable> xrtMap = views.getTableMap();
-            return xrtMap.get(new UuidKey(uuid));
-        } finally {
-            objectsQueue.remove(uuid);
-        }
+        waitIfBusy(uuid);
+        StoredMap<UuidKey, ModelTable> xrtMap = views.getTableMap();
+        return xrtMap.get(new UuidKey(uuid));
     }
 
-	protected class PersistThread extends Thread {
+	protected class PersistWrite extends DatabaseWriter.Write {
 
 		Object object;
-		Uuid uuid;
 
-		public PersistThread(Object object) {
-            super("PersistThread-" + ((Identifiable)object).getId());
+		public PersistWrite(Object object) {
+			super(((UuidObject)object).getId());
 			this.object = object;
-			this.uuid = ((UuidObject)object).getId();
-			append(uuid, object);
 		}
 
 		@SuppressWarnings("unchecked")
-		public void run() {
-			try {
-//				logger.info("persisting: " + object);
-				StoredValueSet storedSet = views.getUuidObjectSet();
-				storedSet.add(object);
-//				TODO
-//				Object inner = ((UuidObject)object).getObject();
-//				if (inner instanceof Context) {
-//					storedSet = views.getContextSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof Exertion) {
-//					storedSet = views.getExertionSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof ModelTable) {
-//					storedSet = views.getTableSet();
-//					storedSet.add(object);
-//				} else if (inner instanceof UuidObject) {
-//					storedSet = views.getUuidObjectSet();
-//					storedSet.add(object);
-//				}
-			} finally {
-				objectsQueue.remove(this.uuid);
-			}
+		void apply() {
+//			logger.info("persisting: " + object);
+			StoredValueSet storedSet = views.getUuidObjectSet();
+			storedSet.add(object);
+//			TODO
+//			Object inner = ((UuidObject)object).getObject();
+//			if (inner instanceof Context) {
+//				storedSet = views.getContextSet();
+//				storedSet.add(object);
+//			} else if (inner instanceof Exertion) {
+//				storedSet = views.getExertionSet();
+//				storedSet.add(object);
+//			} else if (inner instanceof ModelTable) {
+//				storedSet = views.getTableSet();
+//				storedSet.add(object);
+//			} else if (inner instanceof UuidObject) {
+//				storedSet = views.getUuidObjectSet();
+//				storedSet.add(object);
+//			}
 		}
 
 		public Uuid getUuid() {
@@ -246,24 +267,16 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 		}
 	}
 
-	protected class UpdateThread extends Thread {
+	protected class UpdateWrite extends DatabaseWriter.Write {
 
 		Object object;
-		Uuid uuid;
-
-		public UpdateThread(Uuid uuid, Object object) throws InvalidObjectException {
-			this.uuid = uuid;
-			this.object = object;
-		}
 
-		public UpdateThread(URL url, Object object) throws InvalidObjectException {
-            super("UpdateThread-" + url);
+		public UpdateWrite(Uuid uuid, Object object) {
+			super(uuid);
 			this.object = object;
-			this.uuid = SdbUtil.getUuid(url);
-            append(uuid, object);
 		}
 
-		public void run() {
+		void apply() {
             StoredMap storedMap = null;
             UuidKey key = null;
 			try {
@@ -284,10 +297,7 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
             } catch (IllegalArgumentException ie) {
                 logger.warn("Problem updating object with key: " + key.toString()
 						+ "\n" + storedMap.get(key).toString());
-                objectsQueue.remove(this.uuid);
                 throw (ie);
-            } finally {
-                objectsQueue.remove(this.uuid);
             }
 		}
 
@@ -296,26 +306,17 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 		}
 	}
 
-	protected class DeleteThread extends Thread {
+	protected class DeleteWrite extends DatabaseWriter.Write {
 
-		Uuid uuid;
 		Store storeType;
-        StoredMap storedMap;
 
-        public DeleteThread(Uuid uuid, Store storeType) {
-            super("DeleteThread-" + uuid);
-            this.uuid = uuid;
+        public DeleteWrite(Uuid uuid, Store storeType) {
+            super(uuid);
 			this.storeType = storeType;
-            storedMap = getStoredMap(storeType);
-            append(uuid, "deleteThread");
 		}
 
-		public void run() {
-            try {
-                storedMap.remove(new UuidKey(uuid));
-            } finally {
-                objectsQueue.remove(this.uuid);
-            }
+		void apply() {
+            storedMap(storeType).remove(new UuidKey(uuid));
 		}
 
 		public Uuid getUuid() {
@@ -365,9 +366,7 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 	public Uuid deleteObject(URL url) {
 		Store storeType = SdbUtil.getStoreType(url);
 		Uuid id = SdbUtil.getUuid(url);
-		DeleteThread dt = new DeleteThread(id, storeType);
-		dt.start();
-		id = dt.getUuid();
+		submitChange(new DeleteWrite(id, storeType));
 		return id;
 	}
 
@@ -403,26 +402,56 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 	public Context contextRetrieve(Context context) throws RemoteException,
 			ContextException {
 		Store storeType = (Store) context.getValue(object_type);
-		Uuid uuid = null;
-		Object id = context.getValue(object_uuid);
-			if (id instanceof String) {
-				uuid = UuidFactory.create((String)id);
-			} else if (id instanceof Uuid) {
-				uuid = (Uuid)id;
-			} else {
-				throw new ContextException("No valid stored object Uuid: " + id);
-			}
+		List ids = (List) context.getValue(object_uuid_list);
+		if (ids != null)
+			return contextRetrieveAll(context, ids);
+		Uuid uuid = toUuid(context.getValue(object_uuid));
 //		TODO
 //		Object obj = retrieve(uuid, storeType);
+		long version = getVersion(uuid);
 		Object obj = retrieve(uuid, Store.object);
 		if (((ServiceContext)context).getReturnPath() != null)
 			context.putOutValue(((ServiceContext)context).getReturnPath().path, obj);
 		
 		// default returned path
 		context.putOutValue(object_retrieved, obj);
+		context.putOutValue(object_version, version);
+		return context;
+	}
+
+	/*
+	 * Retrieves the objects with the Uuids at object_uuid_list, the objects
+	 * at the same versions as in object_version_list are not returned.
+	 */
+	private Context contextRetrieveAll(Context context, List ids) throws ContextException {
+		List<Long> known = (List<Long>) context.getValue(object_version_list);
+		List<Object> objects = new ArrayList<Object>(ids.size());
+		List<Long> objectVersions = new ArrayList<Long>(ids.size());
+		for (int i = 0; i < ids.size(); i++) {
+			Uuid uuid = toUuid(ids.get(i));
+			long version = getVersion(uuid);
+			Long knownVersion = known != null ? known.get(i) : null;
+			if (knownVersion != null && knownVersion == version)
+				objects.add(null);
+			else
+				objects.add(retrieve(uuid, Store.object));
+			objectVersions.add(version);
+		}
+		context.putOutValue(object_retrieved_list, objects);
+		context.putOutValue(object_version_list, objectVersions);
 		return context;
 	}
 
+	private Uuid toUuid(Object id) throws ContextException {
+		if (id instanceof String) {
+			return UuidFactory.create((String)id);
+		} else if (id instanceof Uuid) {
+			return (Uuid)id;
+		} else {
+			throw new ContextException("No valid stored object Uuid: " + id);
+		}
+	}
+
 	/* (non-Javadoc)
 	 * @see sorcer.core.StorageManagement#update(sorcer.service.Context)
 	 */
@@ -531,6 +560,18 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 		logger.info("Opening provider's BDBJE in: " + dbHomeFile.getAbsolutePath());
 		db = new SorcerDatabase(dbHome);
 		views = new SorcerDatabaseViews(db);
+
+		int queueSize = DatabaseWriter.DEFAULT_QUEUE_SIZE;
+		int batchSize = DatabaseWriter.DEFAULT_BATCH_SIZE;
+		try {
+			queueSize = (Integer) config.getEntry(ServiceProvider.COMPONENT,
+					WRITE_QUEUE_SIZE, int.class, DatabaseWriter.DEFAULT_QUEUE_SIZE);
+			batchSize = (Integer) config.getEntry(ServiceProvider.COMPONENT,
+					WRITE_BATCH_SIZE, int.class, DatabaseWriter.DEFAULT_BATCH_SIZE);
+		} catch (Exception e) {
+			logger.warn("Problem getting {}.{}", ServiceProvider.COMPONENT, WRITE_QUEUE_SIZE, e);
+		}
+		writer = new DatabaseWriter(db.getEnvironment(), getProviderName(), queueSize, batchSize);
 	}
 	
 	/**
@@ -540,15 +581,9 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 	 */
 	public void destroy() {
 		try {
-            int tries=0;
-            try {
-                while (objectsQueue.size()>0 && tries<80) {
-                    Thread.sleep(50);
-                    tries++;
-                }
-                if (tries==80) logger.warn("Interrupted while objects where still being used; size: "
-                + objectsQueue.size());
-            } catch (InterruptedException ie) {}
+			if (writer != null) {
+				writer.close(WRITER_CLOSE_TIMEOUT);
+			}
 			if (db != null) {
 				db.close();
 			}
@@ -580,6 +615,10 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 	
 	public StoredMap getStoredMap(Store storeType) {
         waitIfBusy();
+		return storedMap(storeType);
+	}
+
+	private StoredMap storedMap(Store storeType) {
 		StoredMap storedMap = null;
 		if (storeType == Store.context) {
 			storedMap = views.getContextMap();
@@ -618,23 +657,22 @@ public class DatabaseProvider extends ServiceProvider implements DatabaseStorer
 	
 	public Uuid deleteIdentifiable(Object object) {
 		Uuid id = (Uuid) ((Identifiable) object).getId();
-		DeleteThread dt = null;
+		DeleteWrite dw = null;
 		if (object instanceof Context) {
-			dt = new DeleteThread(id, Store.context);
+			dw = new DeleteWrite(id, Store.context);
 		} else if (object instanceof Exertion) {
-			dt = new DeleteThread(id, Store.exertion);
+			dw = new DeleteWrite(id, Store.exertion);
 		} else if (object instanceof Functionality) {
-			dt = new DeleteThread(id, Store.var);
+			dw = new DeleteWrite(id, Store.var);
 		} else if (object instanceof Variability) {
-			dt = new DeleteThread(id, Store.varmodel);
+			dw = new DeleteWrite(id, Store.varmodel);
 		} else if (object instanceof ModelTable) {
-            dt = new DeleteThread(id, Store.table);
+            dw = new DeleteWrite(id, Store.table);
         } else {
-			dt = new DeleteThread(id, Store.object);			
+			dw = new DeleteWrite(id, Store.object);
 		}
-		dt.start();
-		id = dt.getUuid();
-		return id;
+		submitChange(dw);
+		return dw.getUuid();
 	}
 	
 	private int getStoreSize(Store type) {
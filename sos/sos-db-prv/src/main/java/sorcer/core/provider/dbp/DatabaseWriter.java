@@ -0,0 +1,198 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.dbp;
+
+import com.sleepycat.collections.TransactionRunner;
+import com.sleepycat.collections.TransactionWorker;
+import com.sleepycat.je.Environment;
+import net.jini.id.Uuid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * A write-ahead queue of database operations drained by a single writer
+ * thread. The writer takes all queued operations, up to the batch size, and
+ * commits them in one transaction (group commit). Each submitted operation
+ * gets a future, readers of an object wait on the pending write of its
+ * {@link Uuid} only.
+ */
+class DatabaseWriter implements Runnable {
+    static final Logger logger = LoggerFactory.getLogger(DatabaseWriter.class);
+
+    public static final int DEFAULT_QUEUE_SIZE = 4096;
+
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    /**
+     * A database operation on the object with the given id.
+     */
+    static abstract class Write {
+        final Uuid uuid;
+        final CompletableFuture<Uuid> future = new CompletableFuture<Uuid>();
+
+        Write(Uuid uuid) {
+            this.uuid = uuid;
+        }
+
+        abstract void apply() throws Exception;
+    }
+
+    private final TransactionRunner runner;
+
+    private final BlockingQueue<Write> queue;
+
+    private final int batchSize;
+
+    // the last pending write of each object
+    private final ConcurrentMap<Uuid, CompletableFuture<Uuid>> pending = new ConcurrentHashMap<Uuid, CompletableFuture<Uuid>>();
+
+    // the last submitted write, writes complete in the submission order
+    private volatile CompletableFuture<Uuid> last = CompletableFuture.completedFuture(null);
+
+    private volatile boolean running = true;
+
+    private final Thread thread;
+
+    DatabaseWriter(Environment env, String name, int queueSize, int batchSize) {
+        runner = new TransactionRunner(env);
+        queue = new ArrayBlockingQueue<Write>(queueSize > 0 ? queueSize : DEFAULT_QUEUE_SIZE);
+        this.batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+        thread = new Thread(this, "DatabaseWriter-" + name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues the write, blocks while the queue is full.
+     */
+    synchronized CompletableFuture<Uuid> submit(Write write) {
+        if (!running)
+            throw new IllegalStateException("Database writer is closed");
+        pending.put(write.uuid, write.future);
+        last = write.future;
+        try {
+            queue.put(write);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            done(write, e);
+        }
+        return write.future;
+    }
+
+    /**
+     * Waits until the pending write of the given object, if any, is committed.
+     */
+    void await(Uuid uuid) {
+        CompletableFuture<Uuid> future = pending.get(uuid);
+        if (future != null)
+            join(future, uuid);
+    }
+
+    /**
+     * Waits until all writes submitted so far are committed.
+     */
+    void awaitAll() {
+        join(last, null);
+    }
+
+    int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Commits the queued writes and stops the writer.
+     */
+    void close(long timeout) {
+        synchronized (this) {
+            running = false;
+        }
+        try {
+            thread.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!queue.isEmpty())
+            logger.warn("Database writer closed with {} writes not committed", queue.size());
+    }
+
+    public void run() {
+        List<Write> batch = new ArrayList<Write>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Write first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                commit(batch);
+            } catch (InterruptedException e) {
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(final List<Write> batch) {
+        try {
+            runner.run(new TransactionWorker() {
+                public void doWork() throws Exception {
+                    for (Write write : batch)
+                        write.apply();
+                }
+            });
+            for (Write write : batch)
+                done(write, null);
+            logger.debug("Committed {} writes", batch.size());
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                done(batch.get(0), e);
+                return;
+            }
+            // the group was rolled back, commit one by one to isolate the failing writes
+            logger.warn("Group commit of {} writes failed, committing separately", batch.size(), e);
+            for (Write write : batch)
+                commit(Collections.singletonList(write));
+        }
+    }
+
+    private void done(Write write, Throwable error) {
+        pending.remove(write.uuid, write.future);
+        if (error == null) {
+            write.future.complete(write.uuid);
+        } else {
+            logger.warn("Problem writing object: {}", write.uuid, error);
+            write.future.completeExceptionally(error);
+        }
+    }
+
+    private static void join(CompletableFuture<Uuid> future, Uuid uuid) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for object: {}", uuid);
+        } catch (ExecutionException e) {
+            // reported by the writer, the reader gets the last committed state
+        }
+    }
+}
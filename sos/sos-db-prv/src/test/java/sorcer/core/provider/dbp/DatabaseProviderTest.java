@@ -0,0 +1,170 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.dbp;
+
+import com.sleepycat.je.Environment;
+import com.sleepycat.je.EnvironmentConfig;
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import sorcer.core.context.ServiceContext;
+import sorcer.core.provider.DatabaseStorer.Store;
+import sorcer.core.provider.StorageManagement;
+import sorcer.service.Context;
+
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("unchecked")
+public class DatabaseProviderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Environment env;
+
+    private DatabaseWriter writer;
+
+    /*
+     * A provider retrieving objects from a map instead of its database.
+     */
+    static class MapProvider extends DatabaseProvider {
+        final Map<Uuid, Object> objects = Collections.synchronizedMap(new HashMap<Uuid, Object>());
+        int retrieved;
+
+        MapProvider() throws RemoteException {
+            super();
+        }
+
+        @Override
+        public Object retrieve(Uuid uuid, Store storeType) {
+            retrieved++;
+            return objects.get(uuid);
+        }
+    }
+
+    @Test
+    public void retrievesAllChangedObjects() throws Exception {
+        MapProvider provider = new MapProvider();
+        Uuid a = UuidFactory.generate(), b = UuidFactory.generate();
+        provider.objects.put(a, "a");
+        provider.objects.put(b, "b");
+        List<String> uuids = Arrays.asList(a.toString(), b.toString());
+
+        Context out = provider.contextRetrieve(retrieveContext(uuids, Arrays.<Long>asList(null, null)));
+        assertEquals(Arrays.asList("a", "b"), out.getValue(StorageManagement.object_retrieved_list));
+        List<Long> versions = (List<Long>) out.getValue(StorageManagement.object_version_list);
+        assertEquals(2, provider.retrieved);
+
+        provider.objects.put(b, "c");
+        provider.changed(b);
+        out = provider.contextRetrieve(retrieveContext(uuids, versions));
+        assertEquals(Arrays.asList(null, "c"), out.getValue(StorageManagement.object_retrieved_list));
+        List<Long> changed = (List<Long>) out.getValue(StorageManagement.object_version_list);
+        assertEquals(versions.get(0), changed.get(0));
+        assertTrue(changed.get(1) > versions.get(1));
+        assertEquals(3, provider.retrieved);
+    }
+
+    @Test
+    public void changesVersionAfterWriteIsCommitted() throws Exception {
+        final MapProvider provider = new MapProvider();
+        final Uuid a = UuidFactory.generate(), b = UuidFactory.generate();
+        provider.objects.put(a, "a");
+        provider.objects.put(b, "b");
+        List<String> uuids = Arrays.asList(a.toString(), b.toString());
+        Context out = provider.contextRetrieve(retrieveContext(uuids, Arrays.<Long>asList(null, null)));
+        List<Long> versions = (List<Long>) out.getValue(StorageManagement.object_version_list);
+
+        openWriter(provider);
+        final CountDownLatch release = new CountDownLatch(1);
+        Future<Uuid> update = provider.submitChange(new DatabaseWriter.Write(b) {
+            @Override
+            void apply() throws Exception {
+                release.await();
+                provider.objects.put(b, "c");
+            }
+        });
+        // a retrieve while the update is pending sees the object unchanged
+        out = provider.contextRetrieve(retrieveContext(uuids, versions));
+        assertEquals(Arrays.asList(null, null), out.getValue(StorageManagement.object_retrieved_list));
+        assertEquals(versions, out.getValue(StorageManagement.object_version_list));
+
+        release.countDown();
+        update.get(5, TimeUnit.SECONDS);
+        out = provider.contextRetrieve(retrieveContext(uuids, versions));
+        assertEquals(Arrays.asList(null, "c"), out.getValue(StorageManagement.object_retrieved_list));
+        List<Long> changed = (List<Long>) out.getValue(StorageManagement.object_version_list);
+        assertTrue(changed.get(1) > versions.get(1));
+    }
+
+    @Test
+    public void keepsVersionOfFailedWrite() throws Exception {
+        MapProvider provider = new MapProvider();
+        Uuid a = UuidFactory.generate();
+        long version = provider.getVersion(a);
+
+        openWriter(provider);
+        Future<Uuid> failed = provider.submitChange(new DatabaseWriter.Write(a) {
+            @Override
+            void apply() throws Exception {
+                throw new IllegalStateException("rolled back");
+            }
+        });
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            fail("write did not fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(version, provider.getVersion(a));
+    }
+
+    private void openWriter(DatabaseProvider provider) throws Exception {
+        EnvironmentConfig config = new EnvironmentConfig();
+        config.setAllowCreate(true);
+        config.setTransactional(true);
+        env = new Environment(folder.getRoot(), config);
+        writer = new DatabaseWriter(env, "test", 16, 4);
+        provider.setWriter(writer);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (writer != null)
+            writer.close(5000);
+        if (env != null)
+            env.close();
+    }
+
+    private Context retrieveContext(List<String> uuids, List<Long> versions) throws Exception {
+        Context cxt = new ServiceContext("retrieve context");
+        cxt.putInValue(StorageManagement.object_type, Store.object);
+        cxt.putInValue(StorageManagement.object_uuid_list, uuids);
+        cxt.putInValue(StorageManagement.object_version_list, versions);
+        return cxt;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.dbp;
+
+import com.sleepycat.je.Environment;
+import com.sleepycat.je.EnvironmentConfig;
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class DatabaseWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Environment env;
+
+    private DatabaseWriter writer;
+
+    private final List<String> applied = Collections.synchronizedList(new ArrayList<String>());
+
+    /*
+     * Records its label when applied, optionally waiting for a latch first.
+     */
+    class Recording extends DatabaseWriter.Write {
+        final String label;
+        final CountDownLatch latch;
+
+        Recording(Uuid uuid, String label) {
+            this(uuid, label, null);
+        }
+
+        Recording(Uuid uuid, String label, CountDownLatch latch) {
+            super(uuid);
+            this.label = label;
+            this.latch = latch;
+        }
+
+        @Override
+        void apply() throws Exception {
+            if (latch != null)
+                latch.await();
+            applied.add(label);
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        EnvironmentConfig config = new EnvironmentConfig();
+        config.setAllowCreate(true);
+        config.setTransactional(true);
+        env = new Environment(folder.getRoot(), config);
+        writer = new DatabaseWriter(env, "test", 16, 4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        writer.close(5000);
+        env.close();
+    }
+
+    @Test
+    public void appliesWritesOfAnObjectInSubmissionOrder() throws Exception {
+        Uuid uuid = UuidFactory.generate();
+        CountDownLatch release = new CountDownLatch(1);
+        writer.submit(new Recording(uuid, "0", release));
+        List<String> expected = new ArrayList<String>();
+        expected.add("0");
+        // queued behind the blocked write, committed in several batches
+        for (int i = 1; i < 10; i++) {
+            writer.submit(new Recording(uuid, Integer.toString(i)));
+            expected.add(Integer.toString(i));
+        }
+        release.countDown();
+        writer.awaitAll();
+        assertEquals(expected, applied);
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test
+    public void awaitsOnlyThePendingWriteOfTheObject() throws Exception {
+        Uuid blocked = UuidFactory.generate(), other = UuidFactory.generate();
+        CountDownLatch release = new CountDownLatch(1);
+        writer.submit(new Recording(blocked, "blocked", release));
+
+        // nothing pending for the other object
+        writer.await(other);
+        assertTrue(applied.isEmpty());
+
+        Future<?> waiting = awaitInBackground(blocked);
+        try {
+            waiting.get(200, TimeUnit.MILLISECONDS);
+            fail("await returned before the write was committed");
+        } catch (TimeoutException expected) {
+        }
+        release.countDown();
+        waiting.get(5, TimeUnit.SECONDS);
+        assertEquals(Collections.singletonList("blocked"), applied);
+    }
+
+    @Test
+    public void awaitAllWaitsForTheLastSubmittedWrite() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        writer.submit(new Recording(UuidFactory.generate(), "a"));
+        writer.submit(new Recording(UuidFactory.generate(), "b", release));
+        Future<?> waiting = awaitAllInBackground();
+        try {
+            waiting.get(200, TimeUnit.MILLISECONDS);
+            fail("awaitAll returned before the last write was committed");
+        } catch (TimeoutException expected) {
+        }
+        release.countDown();
+        waiting.get(5, TimeUnit.SECONDS);
+        assertTrue(applied.contains("a") && applied.contains("b"));
+    }
+
+    @Test
+    public void reportsFailedWritesWithoutFailingTheBatch() throws Exception {
+        final Uuid failing = UuidFactory.generate();
+        Uuid good = UuidFactory.generate();
+        final Exception error = new IllegalStateException("no space left");
+        CountDownLatch release = new CountDownLatch(1);
+        writer.submit(new Recording(UuidFactory.generate(), "first", release));
+        // committed together in the next batch
+        CompletableFuture<Uuid> failed = writer.submit(new DatabaseWriter.Write(failing) {
+            @Override
+            void apply() throws Exception {
+                throw error;
+            }
+        });
+        CompletableFuture<Uuid> committed = writer.submit(new Recording(good, "good"));
+        release.countDown();
+
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            fail("the failed write completed normally");
+        } catch (ExecutionException e) {
+            assertSame(error, e.getCause());
+        }
+        assertEquals(good, committed.get(5, TimeUnit.SECONDS));
+        assertTrue(applied.contains("good"));
+
+        // readers are not failed by the writer, they get the last committed state
+        writer.await(failing);
+        writer.awaitAll();
+        assertEquals(0, writer.getPendingCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rejectsWritesAfterClose() throws Exception {
+        writer.close(5000);
+        writer.submit(new Recording(UuidFactory.generate(), "late"));
+    }
+
+    private Future<?> awaitInBackground(final Uuid uuid) {
+        FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+            public void run() {
+                writer.await(uuid);
+            }
+        }, null);
+        new Thread(task).start();
+        return task;
+    }
+
+    private Future<?> awaitAllInBackground() {
+        FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+            public void run() {
+                writer.awaitAll();
+            }
+        }, null);
+        new Thread(task).start();
+        return task;
+    }
+}
@@ -18,14 +18,20 @@
 package sorcer.core.provider.exertmonitor;
 
 import com.sleepycat.collections.StoredMap;
+import com.sleepycat.collections.StoredSortedMap;
+import com.sleepycat.collections.TransactionRunner;
+import com.sleepycat.collections.TransactionWorker;
 import com.sleepycat.je.DatabaseException;
 import com.sun.jini.landlord.LeasedResource;
 import com.sun.jini.start.LifeCycle;
+import net.jini.config.Configuration;
+import net.jini.config.ConfigurationException;
 import net.jini.core.event.EventRegistration;
 import net.jini.core.event.RemoteEventListener;
 import net.jini.core.lease.Lease;
 import net.jini.core.lease.LeaseDeniedException;
 import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sorcer.core.UEID;
@@ -34,6 +40,7 @@ import sorcer.core.monitor.MonitorEvent;
 import sorcer.core.monitor.MonitoringManagement;
 import sorcer.core.provider.MonitorManagementSession;
 import sorcer.core.provider.ServiceProvider;
+import sorcer.core.provider.exertmonitor.db.JournalKey;
 import sorcer.core.provider.exertmonitor.db.SessionDatabase;
 import sorcer.core.provider.exertmonitor.db.SessionDatabaseViews;
 import sorcer.core.provider.exertmonitor.lease.MonitorLandlord;
@@ -47,15 +54,34 @@ import java.rmi.RemoteException;
 import java.security.Principal;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.SortedMap;
 
 @SuppressWarnings("unchecked")
-public class ExertMonitor extends ServiceProvider implements MonitoringManagement {
+public class ExertMonitor extends ServiceProvider implements MonitoringManagement, SessionJournal {
 	static transient final Logger logger = LoggerFactory.getLogger(ExertMonitor.class.getName());
+
+	/**
+	 * The minimum number of journaled changes of a root session before they
+	 * are compacted into its snapshot, the snapshot is written after at least
+	 * as many changes as there are sessions in the tree.
+	 */
+	public static final String SESSION_COMPACTION_THRESHOLD = "sessionCompactionThreshold";
+
+	public static final int DEFAULT_SESSION_COMPACTION_THRESHOLD = 64;
+
 	private MonitorLandlord landlord;
 	private SessionDatabase db;
 	private StoredMap<UuidKey, MonitorManagementSession> resources;
-    private Map<Uuid, UuidKey> cacheSessionKeyMap = new HashMap<>();
+	// changes of the root sessions since their snapshots in resources
+	private StoredSortedMap<JournalKey, SessionEvent> journal;
+	private TransactionRunner runner;
+	// the next journal sequence number by running root session, guarded by resourcesWriteLock
+	private final Map<Uuid, Long> journalSequences = new HashMap<>();
+	private int compactionThreshold = DEFAULT_SESSION_COMPACTION_THRESHOLD;
+    // monitored exertions by principal, state and creation time
+    private final SessionIndex index = new SessionIndex();
     private final Object resourcesWriteLock = new Object();
     private ExertMonitorEventHandler eventHandler;
 
@@ -86,14 +112,45 @@ public class ExertMonitor extends ServiceProvider implements MonitoringManagemen
 		db = new SessionDatabase(dbHome);
 		SessionDatabaseViews views = new SessionDatabaseViews(db);
 		resources = views.getSessionMap();
+		journal = views.getJournalMap();
+		runner = new TransactionRunner(db.getEnvironment());
+		Configuration config = getProviderConfiguration();
+		try {
+			compactionThreshold = (Integer) config.getEntry(ServiceProvider.COMPONENT, SESSION_COMPACTION_THRESHOLD,
+															int.class, compactionThreshold);
+		} catch (ConfigurationException e) {
+			logger.warn("Problem reading {}", SESSION_COMPACTION_THRESHOLD, e);
+		}
 
 		// statically initialize
 		MonitorSession.mLandlord = landlord;
 		MonitorSession.sessionManager = (MonitoringManagement) getServiceProxy();
+		MonitorSession.journal = this;
+
+		indexSessions();
 
         eventHandler = new ExertMonitorEventHandler(getProviderConfiguration());
 	}
 
+	/*
+	 * Rebuilds the index of exertions from the session store.
+	 */
+	private void indexSessions() throws MonitorException {
+		long start = System.currentTimeMillis();
+		int sessions = 0;
+		synchronized (resourcesWriteLock) {
+			for (UuidKey key : resources.keySet()) {
+				MonitorSession session = getSession(key);
+				if (session != null) {
+					index.add(key.getId(), session);
+					sessions++;
+				}
+			}
+		}
+		logger.info("Indexed {} exertions of {} sessions in {} ms",
+					index.size(), sessions, System.currentTimeMillis() - start);
+	}
+
 	public Exertion register(RemoteEventListener lstnr, Exertion ex, long duration) throws MonitorException {
 		MonitorSession resource = new MonitorSession(ex, lstnr, duration);
 		synchronized (resourcesWriteLock) {
@@ -307,16 +364,34 @@ public class ExertMonitor extends ServiceProvider implements MonitoringManagemen
 	 */
 	public Map<Uuid, ExertionInfo> getMonitorableExertionInfo(Exec.State state,
 															  Principal principal) throws MonitorException {
+		return getMonitorableExertionInfo(state, principal, 0, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Returns the page of exertion infos, newest first, looked up in the
+	 * index, only the sessions with matching exertions are read from the
+	 * session store.
+	 */
+	public Map<Uuid, ExertionInfo> getMonitorableExertionInfo(Exec.State state, Principal principal,
+															  int offset, int count) throws MonitorException {
         logger.debug("Trying to get exertionInfos for: {} for: {}", (state==null?"null":state.toString()), principal);
-		Map<Uuid, ExertionInfo> table = new HashMap<>();
+		Map<Uuid, ExertionInfo> table = new LinkedHashMap<>();
+		if (principal == null)
+			return table;
+		Integer status = (state == null || state.equals(Exec.State.NULL)) ? null : state.ordinal();
+		Map<Uuid, MonitorSession> sessions = new HashMap<>();
 		try {
-			if (resources==null) return table;
-			Iterator<UuidKey> ki = resources.keySet().iterator();
-			UuidKey key;
-			while (ki.hasNext()) {
-				key = ki.next();
-                MonitorSession monSession = getSession(key);
-                table.putAll(getMonitorableExertionInfo(monSession, key, state, principal));
+			for (SessionIndex.Entry entry : index.find(((SorcerPrincipal) principal).getId(), status, offset, count)) {
+				MonitorSession session = sessions.get(entry.storeId);
+				if (session == null) {
+					session = getSession(entry.storeId);
+					if (session == null)
+						continue;
+					sessions.put(entry.storeId, session);
+				}
+				Exertion xrt = findExertion(session, entry.exertionId);
+				if (xrt != null)
+					table.put(xrt.getId(), new ExertionInfo(xrt, entry.storeId));
 			}
 		} catch (Exception e) {
 			logger.error("Failed getting ExertionInfo for principal: {}, State: {}",
@@ -326,22 +401,17 @@ public class ExertMonitor extends ServiceProvider implements MonitoringManagemen
 		return table;
 	}
 
-    private Map<Uuid, ExertionInfo> getMonitorableExertionInfo(MonitorSession monitorSession, UuidKey key, Exec.State state, Principal principal) throws RemoteException,MonitorException {
-        Map<Uuid, ExertionInfo> table = new HashMap<>();
-        logger.debug("Trying to get exertionInfos for: {} state: {} for: {}", monitorSession, (state==null?"null":state.toString()), principal);
-        ServiceExertion xrt = (ServiceExertion) (monitorSession).getRuntimeExertion();
-        if (xrt.getPrincipal().getId()
-                .equals(((SorcerPrincipal) principal).getId())) {
-            if (state == null || state.equals(Exec.State.NULL)
-                    || xrt.getStatus() == state.ordinal()) {
-                table.put(xrt.getId(), new ExertionInfo(xrt, key.getId()));
-            }
-        }
-        for (MonitorSession internalSession : monitorSession) {
-            table.putAll(getMonitorableExertionInfo(internalSession, key, state, principal));
-        }
-        return table;
-    }
+	private static Exertion findExertion(MonitorSession session, Uuid exertionId) {
+		Exertion xrt = session.getRuntimeExertion();
+		if (exertionId.equals(xrt.getId()))
+			return xrt;
+		for (MonitorSession child : session) {
+			xrt = findExertion(child, exertionId);
+			if (xrt != null)
+				return xrt;
+		}
+		return null;
+	}
 
     public Exertion getMonitorableExertion(Uuid id, Principal principal) throws MonitorException {
         Exertion xrt = getSession(id).getRuntimeExertion();
@@ -356,25 +426,16 @@ public class ExertMonitor extends ServiceProvider implements MonitoringManagemen
 	 * exertion if the client has enough credentials.
 	 */
 	public Exertion getMonitorableExertion(UEID cookie, Principal principal) throws MonitorException {
-        UuidKey lkey = cacheSessionKeyMap.get(cookie.exertionID);
-        Exertion ex;
-        if (lkey!=null) {
-            ex = (getSession(lkey)).getRuntimeExertion();
-            if (ex!=null && ((ServiceExertion) ex).getPrincipal().getId().equals(((SorcerPrincipal) principal).getId()))
-                return ex;
-            else
-                return null;
-        }
-		Iterator<UuidKey> ki = resources.keySet().iterator();
-		while (ki.hasNext()) {
-			lkey = ki.next();
-			ex = (getSession(lkey)).getRuntimeExertion();
-            if (ex!=null) cacheSessionKeyMap.put(ex.getId(), lkey);
-            if (cookie.exertionID.equals(ex.getId().toString())
-					&& ((ServiceExertion) ex).getPrincipal().getId().equals(((SorcerPrincipal) principal).getId()))
-				return ex;
+		SessionIndex.Entry entry;
+		try {
+			entry = index.get(UuidFactory.create(cookie.exertionID));
+		} catch (IllegalArgumentException e) {
+			return null;
 		}
-		return null;
+		if (entry == null || !entry.principalId.equals(((SorcerPrincipal) principal).getId()))
+			return null;
+		MonitorSession session = getSession(entry.storeId);
+		return session == null ? null : findExertion(session, entry.exertionId);
 	}
 
 
@@ -417,24 +478,98 @@ public class ExertMonitor extends ServiceProvider implements MonitoringManagemen
 	 */
 	@Override
 	public boolean persist(MonitorManagementSession session) throws IOException {
-        logger.warn("Persist {}", session);
-		resources.put(new UuidKey(((MonitorSession)session).getCookie()), session);
+        logger.debug("Persist {}", session);
+		synchronized (resourcesWriteLock) {
+			compact((MonitorSession) session);
+		}
+		index.add(((MonitorSession) session).getCookie(), (MonitorSession) session);
 		return true;
 	}
-	
-	public MonitorSession getSession(UuidKey key) throws MonitorException {
+
+	/**
+	 * Appends the change of a session to the journal of its root session, a
+	 * child state change costs a small append instead of writing the whole
+	 * session tree. The changes are compacted into a snapshot of the root
+	 * session once it is done or failed, or when they outnumber the sessions
+	 * in its tree.
+	 */
+	@Override
+	public void append(MonitorSession root, SessionEvent event) throws IOException {
+		synchronized (resourcesWriteLock) {
+			Uuid id = root.getCookie();
+			long sequence = nextSequence(id);
+			if (root.isDone() || root.isFailed()
+					|| sequence >= Math.max(compactionThreshold, root.getSessionCount())) {
+				compact(root);
+			} else {
+				journal.put(new JournalKey(id, sequence), event);
+				journalSequences.put(id, sequence + 1);
+			}
+		}
+		MonitorSession changed = root.getSessionResource(event.getCookie());
+		if (changed != null)
+			index.put(root.getCookie(), changed.getRuntimeExertion());
+	}
+
+	/*
+	 * Writes the snapshot of the root session and drops its journal in one
+	 * transaction. The sequence of a root session that is done or failed,
+	 * also when its lease was cancelled or it timed out, is forgotten, a late
+	 * change finds its journal empty.
+	 */
+	private void compact(final MonitorSession root) throws IOException {
+		final Uuid id = root.getCookie();
 		try {
-			return (MonitorSession) resources.get(key);
+			runner.run(new TransactionWorker() {
+				public void doWork() throws Exception {
+					resources.put(new UuidKey(id), root);
+					journal.subMap(JournalKey.first(id), JournalKey.last(id)).clear();
+				}
+			});
+		} catch (IOException e) {
+			throw e;
 		} catch (Exception e) {
-			throw new MonitorException(e);
+			throw new IOException("Could not persist the session of: " + root.getRuntimeExertion().getName(), e);
 		}
+		if (root.isDone() || root.isFailed())
+			journalSequences.remove(id);
+		else
+			journalSequences.put(id, 0L);
+		logger.debug("Persisted snapshot of session {}", root);
 	}
 
-	public MonitorSession getSession(Uuid key) throws MonitorException {
+	private long nextSequence(Uuid id) {
+		Long next = journalSequences.get(id);
+		if (next == null) {
+			SortedMap<JournalKey, SessionEvent> changes = journal.subMap(JournalKey.first(id), JournalKey.last(id));
+			next = changes.isEmpty() ? 0 : changes.lastKey().getSequence() + 1;
+		}
+		return next;
+	}
+
+	/*
+	 * Applies the journaled changes to the session read from its snapshot.
+	 */
+	private MonitorSession replay(MonitorSession session) throws Exception {
+		if (session == null)
+			return null;
+		Uuid id = session.getCookie();
+		for (SessionEvent event : journal.subMap(JournalKey.first(id), JournalKey.last(id)).values()) {
+			if (!session.replay(event))
+				logger.warn("No session for journaled change {} in {}", event, session);
+		}
+		return session;
+	}
+	
+	public MonitorSession getSession(UuidKey key) throws MonitorException {
 		try {
-			return (MonitorSession) resources.get(new UuidKey(key));
+			return replay((MonitorSession) resources.get(key));
 		} catch (Exception e) {
 			throw new MonitorException(e);
 		}
 	}
+
+	public MonitorSession getSession(Uuid key) throws MonitorException {
+		return getSession(new UuidKey(key));
+	}
 }
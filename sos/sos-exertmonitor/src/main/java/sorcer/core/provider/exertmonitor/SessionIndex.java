@@ -0,0 +1,169 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exertmonitor;
+
+import net.jini.id.Uuid;
+import sorcer.security.util.SorcerPrincipal;
+import sorcer.service.Exertion;
+import sorcer.service.ServiceExertion;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * The in-memory index of the monitored exertions by principal, state and
+ * creation time. Each exertion of a session tree is indexed with the key of
+ * its root session in the session store, so a query reads only the sessions
+ * with matching exertions. The index is rebuilt from the session store when
+ * the monitor starts.
+ */
+class SessionIndex {
+
+    /**
+     * An indexed exertion.
+     */
+    static class Entry {
+        final Uuid exertionId;
+        final Uuid storeId;
+        final String principalId;
+        final long created;
+        volatile int status;
+
+        Entry(Uuid exertionId, Uuid storeId, String principalId, long created, int status) {
+            this.exertionId = exertionId;
+            this.storeId = storeId;
+            this.principalId = principalId;
+            this.created = created;
+            this.status = status;
+        }
+    }
+
+    // the newest first
+    private static final Comparator<Entry> NEWEST_FIRST = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry e1, Entry e2) {
+            int c = Long.compare(e2.created, e1.created);
+            return c != 0 ? c : e1.exertionId.toString().compareTo(e2.exertionId.toString());
+        }
+    };
+
+    private final ConcurrentMap<Uuid, Entry> byId = new ConcurrentHashMap<Uuid, Entry>();
+
+    private final ConcurrentSkipListSet<Entry> all = new ConcurrentSkipListSet<Entry>(NEWEST_FIRST);
+
+    private final ConcurrentMap<String, ConcurrentSkipListSet<Entry>> byPrincipal =
+            new ConcurrentHashMap<String, ConcurrentSkipListSet<Entry>>();
+
+    private final ConcurrentMap<Integer, ConcurrentSkipListSet<Entry>> byStatus =
+            new ConcurrentHashMap<Integer, ConcurrentSkipListSet<Entry>>();
+
+    /**
+     * Indexes the exertions of the given session tree stored with the given
+     * key.
+     */
+    void add(Uuid storeId, MonitorSession session) {
+        put(storeId, session.getRuntimeExertion());
+        for (MonitorSession child : session)
+            add(storeId, child);
+    }
+
+    /**
+     * Indexes the given exertion or updates its state.
+     */
+    synchronized void put(Uuid storeId, Exertion exertion) {
+        Entry entry = byId.get(exertion.getId());
+        int status = exertion.getStatus();
+        if (entry == null) {
+            entry = new Entry(exertion.getId(), storeId, getPrincipalId(exertion), getCreated(exertion), status);
+            byId.put(entry.exertionId, entry);
+            all.add(entry);
+            get(byPrincipal, entry.principalId).add(entry);
+            get(byStatus, status).add(entry);
+        } else if (entry.status != status) {
+            byStatus.get(entry.status).remove(entry);
+            entry.status = status;
+            get(byStatus, status).add(entry);
+        }
+    }
+
+    Entry get(Uuid exertionId) {
+        return byId.get(exertionId);
+    }
+
+    int size() {
+        return byId.size();
+    }
+
+    /**
+     * Returns the page of exertions, newest first, of the given principal
+     * and in the given state, a null principal or state matches all. The
+     * page is found while no exertion is moved between states.
+     */
+    synchronized List<Entry> find(String principalId, Integer status, int offset, int count) {
+        Set<Entry> candidates = all;
+        Set<Entry> forPrincipal = null, inStatus = null;
+        if (principalId != null) {
+            forPrincipal = byPrincipal.get(principalId);
+            if (forPrincipal == null)
+                return Collections.emptyList();
+            candidates = forPrincipal;
+        }
+        if (status != null) {
+            inStatus = byStatus.get(status);
+            if (inStatus == null)
+                return Collections.emptyList();
+            if (inStatus.size() < candidates.size())
+                candidates = inStatus;
+        }
+        List<Entry> page = new ArrayList<Entry>();
+        int skipped = 0;
+        for (Entry entry : candidates) {
+            if (page.size() >= count)
+                break;
+            if (principalId != null && !principalId.equals(entry.principalId))
+                continue;
+            if (inStatus != null && entry.status != status)
+                continue;
+            if (skipped++ < offset)
+                continue;
+            page.add(entry);
+        }
+        return page;
+    }
+
+    private static <K> ConcurrentSkipListSet<Entry> get(ConcurrentMap<K, ConcurrentSkipListSet<Entry>> index, K key) {
+        ConcurrentSkipListSet<Entry> entries = index.get(key);
+        if (entries == null) {
+            entries = new ConcurrentSkipListSet<Entry>(NEWEST_FIRST);
+            ConcurrentSkipListSet<Entry> existing = index.putIfAbsent(key, entries);
+            if (existing != null)
+                entries = existing;
+        }
+        return entries;
+    }
+
+    static String getPrincipalId(Exertion exertion) {
+        SorcerPrincipal principal = ((ServiceExertion) exertion).getPrincipal();
+        return principal == null || principal.getId() == null ? "" : principal.getId();
+    }
+
+    private static long getCreated(Exertion exertion) {
+        Date created = exertion.getCreationDate();
+        return created == null ? 0 : created.getTime();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.exertmonitor.db;
+
+import com.sleepycat.bind.tuple.TupleBinding;
+import com.sleepycat.bind.tuple.TupleInput;
+import com.sleepycat.bind.tuple.TupleOutput;
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+
+/**
+ * The key of a journaled session change: the cookie of the root session and
+ * the sequence number of the change. Keys are stored as sortable tuples, so
+ * the changes of a session are a contiguous key range in append order.
+ */
+public class JournalKey {
+
+	private final Uuid session;
+
+	private final long sequence;
+
+	public JournalKey(Uuid session, long sequence) {
+		this.session = session;
+		this.sequence = sequence;
+	}
+
+	public Uuid getSession() {
+		return session;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * Returns the first key of the given session.
+	 */
+	public static JournalKey first(Uuid session) {
+		return new JournalKey(session, 0);
+	}
+
+	/**
+	 * Returns the key after the last key of the given session.
+	 */
+	public static JournalKey last(Uuid session) {
+		return new JournalKey(session, Long.MAX_VALUE);
+	}
+
+	@Override
+	public int hashCode() {
+		return session.hashCode() * 31 + (int) (sequence ^ (sequence >>> 32));
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (!(obj instanceof JournalKey))
+			return false;
+		JournalKey other = (JournalKey) obj;
+		return sequence == other.sequence && session.equals(other.session);
+	}
+
+	@Override
+	public String toString() {
+		return "[Journal Key=" + session + ", " + sequence + ']';
+	}
+
+	static class Binding extends TupleBinding<JournalKey> {
+
+		@Override
+		public JournalKey entryToObject(TupleInput input) {
+			long bits0 = input.readLong();
+			long bits1 = input.readLong();
+			return new JournalKey(UuidFactory.create(bits0, bits1), input.readLong());
+		}
+
+		@Override
+		public void objectToEntry(JournalKey key, TupleOutput output) {
+			output.writeLong(key.session.getMostSignificantBits());
+			output.writeLong(key.session.getLeastSignificantBits());
+			output.writeLong(key.sequence);
+		}
+	}
+}
@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import sorcer.core.provider.MonitorManagementSession;
 import sorcer.core.provider.exertmonitor.MonitorSession;
+import sorcer.core.provider.exertmonitor.SessionEvent;
 import sorcer.util.bdb.objects.MarshalledData;
 import sorcer.util.bdb.objects.UuidKey;
 
@@ -12,6 +13,7 @@ import com.sleepycat.bind.serial.ClassCatalog;
 import com.sleepycat.bind.serial.SerialBinding;
 import com.sleepycat.bind.serial.SerialSerialBinding;
 import com.sleepycat.collections.StoredMap;
+import com.sleepycat.collections.StoredSortedMap;
 import com.sleepycat.collections.StoredValueSet;
 
 /**
@@ -25,6 +27,8 @@ public class SessionDatabaseViews {
 	
 	private StoredMap<UuidKey, MonitorManagementSession>  sessionMap;
 
+	private StoredSortedMap<JournalKey, SessionEvent> journalMap;
+
 	/**
 	 * Create the data bindings and collection views.
 	 */
@@ -37,6 +41,10 @@ public class SessionDatabaseViews {
 		
 		sessionMap = new StoredMap(db.getSessionDatabase(),
 				sessionKeyBinding, sessionDataBinding, true);
+
+		// The journal keys are tuples sorted by session and sequence number
+		journalMap = new StoredSortedMap(db.getJournalDatabase(),
+				new JournalKey.Binding(), new SerialBinding(catalog, SessionEvent.class), true);
 	}
 
 	// The views returned below can be accessed using the java.util.Map or
@@ -52,6 +60,13 @@ public class SessionDatabaseViews {
 		return sessionMap;
 	}
 	
+	/**
+	 * Return a sorted map view of the session journal container.
+	 */
+	public StoredSortedMap<JournalKey, SessionEvent> getJournalMap() {
+		return journalMap;
+	}
+
 	/**
 	 * Return an entity setValue view of the session storage container.
 	 */
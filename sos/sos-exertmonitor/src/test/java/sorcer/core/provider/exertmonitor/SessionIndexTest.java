@@ -0,0 +1,148 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.exertmonitor;
+
+import net.jini.id.Uuid;
+import net.jini.id.UuidFactory;
+import org.junit.Test;
+import sorcer.core.exertion.ObjectTask;
+import sorcer.security.util.SorcerPrincipal;
+import sorcer.service.Exec;
+import sorcer.service.Exertion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+public class SessionIndexTest {
+
+    private final SessionIndex index = new SessionIndex();
+
+    private final Uuid storeId = UuidFactory.generate();
+
+    @Test
+    public void findsByPrincipalAndState() throws Exception {
+        Exertion a1 = task("a1", "alice", Exec.RUNNING);
+        Exertion b1 = task("b1", "bob", Exec.RUNNING);
+        Exertion a2 = task("a2", "alice", Exec.DONE);
+        for (Exertion xrt : new Exertion[] { a1, b1, a2 })
+            index.put(storeId, xrt);
+
+        assertEquals(3, index.size());
+        assertEquals(ids(a2, a1), ids(index.find("alice", null, 0, 10)));
+        assertEquals(ids(b1, a1), ids(index.find(null, Exec.RUNNING, 0, 10)));
+        assertEquals(ids(a1), ids(index.find("alice", Exec.RUNNING, 0, 10)));
+        assertEquals(0, index.find("carol", null, 0, 10).size());
+        assertEquals(0, index.find(null, Exec.FAILED, 0, 10).size());
+        assertEquals(storeId, index.get(a1.getId()).storeId);
+    }
+
+    @Test
+    public void pagesNewestFirst() throws Exception {
+        List<Exertion> tasks = new ArrayList<Exertion>();
+        for (int i = 0; i < 5; i++) {
+            Exertion xrt = task("t" + i, "alice", Exec.RUNNING);
+            index.put(storeId, xrt);
+            tasks.add(0, xrt);
+        }
+        assertEquals(ids(tasks.get(0), tasks.get(1)), ids(index.find("alice", null, 0, 2)));
+        assertEquals(ids(tasks.get(2), tasks.get(3)), ids(index.find("alice", Exec.RUNNING, 2, 2)));
+        assertEquals(ids(tasks.get(4)), ids(index.find(null, null, 4, 2)));
+    }
+
+    @Test
+    public void movesEntryToNewState() throws Exception {
+        Exertion xrt = task("moved", "alice", Exec.RUNNING);
+        index.put(storeId, xrt);
+        xrt.setStatus(Exec.DONE);
+        index.put(storeId, xrt);
+
+        assertEquals(1, index.size());
+        assertEquals(0, index.find(null, Exec.RUNNING, 0, 10).size());
+        assertEquals(ids(xrt), ids(index.find("alice", Exec.DONE, 0, 10)));
+        assertEquals(Exec.DONE, index.get(xrt.getId()).status);
+    }
+
+    @Test
+    public void findsConsistentPagesWhileEntriesMove() throws Exception {
+        final int n = 50;
+        final List<Exertion> tasks = new ArrayList<Exertion>();
+        for (int i = 0; i < n; i++) {
+            Exertion xrt = task("t" + i, "alice", Exec.RUNNING);
+            index.put(storeId, xrt);
+            tasks.add(xrt);
+        }
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<String> failure = new AtomicReference<String>();
+        // at most one exertion at a time is done
+        Thread writer = new Thread(new Runnable() {
+            public void run() {
+                while (running.get()) {
+                    for (Exertion xrt : tasks) {
+                        xrt.setStatus(Exec.DONE);
+                        index.put(storeId, xrt);
+                        xrt.setStatus(Exec.RUNNING);
+                        index.put(storeId, xrt);
+                    }
+                }
+            }
+        });
+        writer.start();
+        try {
+            long end = System.currentTimeMillis() + 1000;
+            while (System.currentTimeMillis() < end && failure.get() == null) {
+                int runningCount = index.find("alice", Exec.RUNNING, 0, Integer.MAX_VALUE).size();
+                int doneCount = index.find(null, Exec.DONE, 0, Integer.MAX_VALUE).size();
+                if (runningCount < n - 1 || doneCount > 1)
+                    failure.set("running: " + runningCount + ", done: " + doneCount);
+            }
+        } finally {
+            running.set(false);
+            writer.join();
+        }
+        assertNull(failure.get());
+        assertEquals(n, index.find(null, Exec.RUNNING, 0, Integer.MAX_VALUE).size());
+    }
+
+    private static Exertion task(String name, String principalId, int status) throws Exception {
+        ObjectTask task = new ObjectTask(name);
+        SorcerPrincipal principal = new SorcerPrincipal(principalId);
+        principal.setId(principalId);
+        task.setPrincipal(principal);
+        task.setStatus(status);
+        // distinct creation times
+        Thread.sleep(2);
+        return task;
+    }
+
+    private static List<Uuid> ids(Exertion... exertions) {
+        List<Uuid> ids = new ArrayList<Uuid>();
+        for (Exertion xrt : exertions)
+            ids.add(xrt.getId());
+        return ids;
+    }
+
+    private static List<Uuid> ids(List<SessionIndex.Entry> entries) {
+        List<Uuid> ids = new ArrayList<Uuid>();
+        for (SessionIndex.Entry entry : entries)
+            ids.add(entry.exertionId);
+        return ids;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.util.*;
+
+/**
+ * The listener filters indexed by one of their MDC key/value pairs, an
+ * event is checked only against the filters sharing a pair with its MDC.
+ *
+ * @param <H> the listener handler type
+ */
+class FilterIndex<H> {
+    private final Map<Map.Entry<String, String>, List<Map.Entry<Map<String, String>, H>>> byEntry =
+            new HashMap<Map.Entry<String, String>, List<Map.Entry<Map<String, String>, H>>>();
+
+    // empty filters match all events
+    private final Set<H> matchAll = new HashSet<H>();
+
+    FilterIndex(Map<Map<String, String>, H> listeners) {
+        for (Map.Entry<Map<String, String>, H> listener : listeners.entrySet()) {
+            Map<String, String> filter = listener.getKey();
+            if (filter.isEmpty()) {
+                matchAll.add(listener.getValue());
+                continue;
+            }
+            Map.Entry<String, String> first = filter.entrySet().iterator().next();
+            Map.Entry<String, String> key = new AbstractMap.SimpleImmutableEntry<String, String>(first);
+            List<Map.Entry<Map<String, String>, H>> filters = byEntry.get(key);
+            if (filters == null) {
+                filters = new ArrayList<Map.Entry<Map<String, String>, H>>();
+                byEntry.put(key, filters);
+            }
+            filters.add(new AbstractMap.SimpleImmutableEntry<Map<String, String>, H>(
+                    new HashMap<String, String>(filter), listener.getValue()));
+        }
+    }
+
+    boolean isEmpty() {
+        return byEntry.isEmpty() && matchAll.isEmpty();
+    }
+
+    /**
+     * Adds the handlers of the filters matching the given MDC, a filter
+     * matches if all its pairs are in the MDC.
+     */
+    void match(Map<String, String> mdc, Set<H> handlers) {
+        handlers.addAll(matchAll);
+        if (byEntry.isEmpty())
+            return;
+        for (Map.Entry<String, String> pair : mdc.entrySet()) {
+            List<Map.Entry<Map<String, String>, H>> filters = byEntry.get(pair);
+            if (filters == null)
+                continue;
+            for (Map.Entry<Map<String, String>, H> filter : filters)
+                if (mdc.entrySet().containsAll(filter.getKey().entrySet()))
+                    handlers.add(filter.getValue());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded lock-free ring buffer of many producers and a single consumer.
+ * Producers claim a slot with a CAS on the tail sequence, the consumer
+ * drains the published slots in batches. A full ring parks the producers
+ * until the consumer catches up, so remote loggers are slowed down instead
+ * of losing log events.
+ */
+class LogEventRing<E> {
+
+    private final int mask;
+
+    private final AtomicReferenceArray<E> slots;
+
+    // the sequence expected in a slot: i for a free, i + 1 for a published one
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    // owned by the consumer
+    private long head;
+
+    private volatile Thread consumer;
+
+    /**
+     * @param capacity the ring size, rounded up to a power of two
+     */
+    LogEventRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        slots = new AtomicReferenceArray<E>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++)
+            sequences.set(i, i);
+    }
+
+    /**
+     * Publishes the element, parks while the ring is full.
+     */
+    void put(E element) {
+        for (;;) {
+            long seq = tail.get();
+            int index = (int) seq & mask;
+            long diff = sequences.get(index) - seq;
+            if (diff == 0) {
+                if (tail.compareAndSet(seq, seq + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, seq + 1);
+                    Thread waiting = consumer;
+                    if (waiting != null)
+                        LockSupport.unpark(waiting);
+                    return;
+                }
+            } else if (diff < 0) {
+                // full
+                LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(100));
+            }
+        }
+    }
+
+    /**
+     * Moves up to <code>max</code> published elements to the given
+     * collection, waits for the first one. Called by the consumer thread
+     * only.
+     *
+     * @return the number of drained elements
+     * @throws InterruptedException if the consumer is interrupted while waiting
+     */
+    int drainTo(Collection<? super E> batch, int max) throws InterruptedException {
+        int drained = poll(batch, max);
+        while (drained == 0) {
+            consumer = Thread.currentThread();
+            drained = poll(batch, max);
+            if (drained == 0)
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(10));
+            consumer = null;
+            if (Thread.interrupted())
+                throw new InterruptedException();
+        }
+        return drained;
+    }
+
+    private int poll(Collection<? super E> batch, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1)
+                break;
+            batch.add(slots.get(index));
+            slots.lazySet(index, null);
+            sequences.set(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+}
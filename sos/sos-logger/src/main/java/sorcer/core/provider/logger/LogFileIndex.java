@@ -0,0 +1,363 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.core.provider.logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The line index of a remote log file. It keeps the byte offset of every
+ * {@link #SPARSE}-th line and the line ranges of each mogram and provider
+ * id written by the remote appender, so a page of the log or of one
+ * exertion's log is read by seeking to the nearest indexed line. The index
+ * is extended as the file grows, lines are read from memory-mapped windows
+ * of the file.
+ */
+class LogFileIndex {
+
+    // the offset is kept for every SPARSE-th line
+    static final int SPARSE = 256;
+
+    private static final int WINDOW = 8 * 1024 * 1024;
+
+    // the header is matched within the line prefix
+    private static final int HEADER_LENGTH = 512;
+
+    private static final Charset CHARSET = Charset.defaultCharset();
+
+    // level, time and thread of a logged event followed by its mogram and provider id
+    private static final Pattern HEADER = Pattern.compile(
+            "^[A-Z]+ +\\d{2}:\\d{2}:\\d{2}\\.\\d{3} \\[.*?\\] (?:\\{([^@}]*)@([^}]*)\\} )?");
+
+    private final File file;
+
+    private long[] offsets = new long[16];
+
+    // the number of indexed lines
+    private long lines;
+
+    // the position after the last indexed line
+    private long indexed;
+
+    // the ids of the last event, continuation lines belong to it
+    private String mogramId, providerId;
+
+    private final Map<String, Runs> byMogram = new HashMap<String, Runs>();
+
+    private final Map<String, Runs> byProvider = new HashMap<String, Runs>();
+
+    LogFileIndex(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the page of lines of the log starting at the given line, a
+     * negative offset counts from the end of the log.
+     */
+    synchronized LogPage read(long offset, int limit) throws IOException {
+        refresh();
+        FileChannel channel = open();
+        try {
+            return page(channel, offset, limit);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns the page of lines starting at the first line at or after the
+     * given byte position, a negative position follows from the end of the
+     * log.
+     */
+    synchronized LogPage follow(long position, int limit) throws IOException {
+        refresh();
+        FileChannel channel = open();
+        try {
+            return page(channel, position < 0 ? lines : lineAt(channel, position), limit);
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Returns the page of lines logged for the given mogram and provider,
+     * a null id matches all.
+     */
+    synchronized LogPage find(String mogramId, String providerId, long offset, int limit) throws IOException {
+        refresh();
+        Runs runs;
+        if (mogramId != null && providerId != null)
+            runs = Runs.intersect(byMogram.get(mogramId), byProvider.get(providerId));
+        else if (mogramId != null)
+            runs = byMogram.get(mogramId);
+        else if (providerId != null)
+            runs = byProvider.get(providerId);
+        else
+            return read(offset, limit);
+        if (runs == null)
+            return new LogPage(0, Collections.<String>emptyList(), 0, indexed);
+
+        long total = runs.count;
+        if (offset < 0)
+            offset = Math.max(0, total + offset);
+        offset = Math.min(offset, total);
+        List<String> page = new ArrayList<String>();
+        long position = indexed;
+        long skip = offset;
+        long remaining = Math.max(0, limit);
+        FileChannel channel = open();
+        try {
+            for (int i = 0; i < runs.size && remaining > 0; i += 2) {
+                long start = runs.bounds[i], end = runs.bounds[i + 1];
+                if (skip >= end - start) {
+                    skip -= end - start;
+                    continue;
+                }
+                start += skip;
+                skip = 0;
+                long to = Math.min(end, start + remaining);
+                position = readLines(channel, start, to, page);
+                remaining -= to - start;
+            }
+        } finally {
+            channel.close();
+        }
+        return new LogPage(offset, page, total, position);
+    }
+
+    private LogPage page(FileChannel channel, long offset, int limit) throws IOException {
+        if (offset < 0)
+            offset = Math.max(0, lines + offset);
+        offset = Math.min(offset, lines);
+        long to = Math.min(lines, offset + Math.max(0, limit));
+        List<String> page = new ArrayList<String>((int) (to - offset));
+        long position = readLines(channel, offset, to, page);
+        return new LogPage(offset, page, lines, position);
+    }
+
+    /*
+     * Reads the lines [from, to) and returns the position after the last one.
+     */
+    private long readLines(FileChannel channel, final long from, final long to, final List<String> page)
+            throws IOException {
+        if (from >= lines)
+            return indexed;
+        final long[] line = { from - from % SPARSE };
+        final long[] next = { offsets[(int) (from / SPARSE)] };
+        scan(channel, next[0], indexed, new LineVisitor() {
+            @Override
+            public boolean visit(ByteBuffer buf, int start, int end, long position) {
+                if (line[0] >= to)
+                    return false;
+                if (line[0] >= from)
+                    page.add(decode(buf, start, end));
+                line[0]++;
+                next[0] = position + (end - start) + 1;
+                return true;
+            }
+        });
+        return next[0];
+    }
+
+    /*
+     * Returns the number of the first line starting at or after the position.
+     */
+    private long lineAt(FileChannel channel, final long position) throws IOException {
+        if (position >= indexed)
+            return lines;
+        int blocks = (int) ((lines + SPARSE - 1) / SPARSE);
+        int block = Arrays.binarySearch(offsets, 0, blocks, position);
+        if (block < 0)
+            block = -block - 2;
+        final long[] line = { (long) block * SPARSE };
+        scan(channel, offsets[block], indexed, new LineVisitor() {
+            @Override
+            public boolean visit(ByteBuffer buf, int start, int end, long lineStart) {
+                if (lineStart >= position)
+                    return false;
+                line[0]++;
+                return true;
+            }
+        });
+        return line[0];
+    }
+
+    /*
+     * Indexes the lines appended since the last refresh.
+     */
+    private void refresh() throws IOException {
+        long length = file.length();
+        if (length < indexed)
+            reset();
+        if (length == indexed)
+            return;
+        FileChannel channel = open();
+        try {
+            scan(channel, indexed, length, new LineVisitor() {
+                @Override
+                public boolean visit(ByteBuffer buf, int start, int end, long position) {
+                    index(buf, start, end, position);
+                    return true;
+                }
+            });
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void index(ByteBuffer buf, int start, int end, long position) {
+        if (lines % SPARSE == 0) {
+            int block = (int) (lines / SPARSE);
+            if (block == offsets.length)
+                offsets = Arrays.copyOf(offsets, block * 2);
+            offsets[block] = position;
+        }
+        Matcher header = HEADER.matcher(decode(buf, start, Math.min(end, start + HEADER_LENGTH)));
+        if (header.lookingAt()) {
+            mogramId = emptyToNull(header.group(1));
+            providerId = emptyToNull(header.group(2));
+        }
+        if (mogramId != null)
+            runs(byMogram, mogramId).add(lines);
+        if (providerId != null)
+            runs(byProvider, providerId).add(lines);
+        lines++;
+        indexed = position + (end - start) + 1;
+    }
+
+    private void reset() {
+        offsets = new long[16];
+        lines = 0;
+        indexed = 0;
+        mogramId = null;
+        providerId = null;
+        byMogram.clear();
+        byProvider.clear();
+    }
+
+    private FileChannel open() throws IOException {
+        return new RandomAccessFile(file, "r").getChannel();
+    }
+
+    private interface LineVisitor {
+        /**
+         * Visits the line between start and end, without the line
+         * separator, of the buffer mapped at the given file position.
+         *
+         * @return false to stop the scan
+         */
+        boolean visit(ByteBuffer buf, int start, int end, long position);
+    }
+
+    /*
+     * Visits the complete lines in [from, to) of the file.
+     */
+    private static void scan(FileChannel channel, long from, long to, LineVisitor visitor) throws IOException {
+        long position = from;
+        long window = WINDOW;
+        while (position < to) {
+            int size = (int) Math.min(window, to - position);
+            MappedByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+            int start = 0;
+            for (int i = 0; i < size; i++) {
+                if (buf.get(i) == '\n') {
+                    if (!visitor.visit(buf, start, i, position + start))
+                        return;
+                    start = i + 1;
+                }
+            }
+            if (start == 0) {
+                // the last line is not complete or longer than the window
+                if (size == to - position)
+                    return;
+                window = Math.min(window * 2, Integer.MAX_VALUE);
+                continue;
+            }
+            position += start;
+            window = WINDOW;
+        }
+    }
+
+    private static String decode(ByteBuffer buf, int start, int end) {
+        if (end > start && buf.get(end - 1) == '\r')
+            end--;
+        byte[] bytes = new byte[end - start];
+        ByteBuffer line = buf.duplicate();
+        line.position(start);
+        line.get(bytes);
+        return new String(bytes, CHARSET);
+    }
+
+    private static String emptyToNull(String id) {
+        return id == null || id.isEmpty() ? null : id;
+    }
+
+    private static Runs runs(Map<String, Runs> index, String id) {
+        Runs runs = index.get(id);
+        if (runs == null) {
+            runs = new Runs();
+            index.put(id, runs);
+        }
+        return runs;
+    }
+
+    /**
+     * Ascending line ranges, pairs of the first and after the last line.
+     */
+    static class Runs {
+        long[] bounds = new long[8];
+        int size;
+        long count;
+
+        void add(long line) {
+            count++;
+            if (size > 0 && bounds[size - 1] == line) {
+                bounds[size - 1]++;
+                return;
+            }
+            if (size == bounds.length)
+                bounds = Arrays.copyOf(bounds, size * 2);
+            bounds[size++] = line;
+            bounds[size++] = line + 1;
+        }
+
+        static Runs intersect(Runs a, Runs b) {
+            if (a == null || b == null)
+                return null;
+            Runs runs = new Runs();
+            int i = 0, j = 0;
+            while (i < a.size && j < b.size) {
+                long start = Math.max(a.bounds[i], b.bounds[j]);
+                long end = Math.min(a.bounds[i + 1], b.bounds[j + 1]);
+                for (long line = start; line < end; line++)
+                    runs.add(line);
+                if (a.bounds[i + 1] < b.bounds[j + 1])
+                    i += 2;
+                else
+                    j += 2;
+            }
+            return runs;
+        }
+    }
+}
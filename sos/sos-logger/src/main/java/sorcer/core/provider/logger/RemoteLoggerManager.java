@@ -40,6 +40,7 @@ import sorcer.core.provider.Provider;
 import sorcer.core.provider.logger.ui.LoggerFrameUI;
 import sorcer.serviceui.UIDescriptorFactory;
 import sorcer.serviceui.UIFrameFactory;
+import sorcer.util.ConfigurableThreadFactory;
 import sorcer.util.SOS;
 import sorcer.util.SenderEventHandler;
 import sorcer.util.Sorcer;
@@ -53,6 +54,9 @@ import java.rmi.MarshalledObject;
 import java.rmi.RemoteException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
@@ -60,15 +64,31 @@ import java.util.regex.PatternSyntaxException;
 public class RemoteLoggerManager implements RemoteLogger {
     private static final org.slf4j.Logger log = LoggerFactory.getLogger(RemoteLoggerManager.class);
 
-    // The list of all known loggers.
-    private List<LoggingConfig> knownLoggers = new LinkedList<LoggingConfig>();
+    private static final int RING_SIZE = 8192;
+
+    private static final int BATCH_SIZE = 512;
+
+    // All known loggers by name.
+    private ConcurrentMap<String, LoggingConfig> knownLoggers = new ConcurrentHashMap<String, LoggingConfig>();
 
     private LoggerContext loggerFactory;
 
     private File logDir = new File(Sorcer.getHomeDir(), "logs/remote");
 
+    // published events, written and delivered by the ingest thread
+    private final LogEventRing<ILoggingEvent> ring = new LogEventRing<ILoggingEvent>(RING_SIZE);
+
+    // loggers with their file appender, used by the ingest thread only
+    private final Map<String, Logger> remoteLoggers = new HashMap<String, Logger>();
+
+    private ExecutorService dispatcher;
+
+    private final ConcurrentMap<String, LogFileIndex> logIndexes = new ConcurrentHashMap<String, LogFileIndex>();
+
     private Map<Map<String,String>, EventHandler> remoteLogListeners = new ConcurrentHashMap<Map<String,String>, EventHandler>();
 
+    private volatile FilterIndex<EventHandler> filterIndex = new FilterIndex<EventHandler>(Collections.<Map<String, String>, EventHandler>emptyMap());
+
     private Map<Long, EventHandler> remoteLogHandlers = new ConcurrentHashMap<Long, EventHandler>();
 
     private Provider provider;
@@ -79,6 +99,17 @@ public class RemoteLoggerManager implements RemoteLogger {
         if (!(loggerFactory instanceof LoggerContext))
             throw new IllegalStateException("This service must be running with Logback Classic");
         this.loggerFactory = (LoggerContext) loggerFactory;
+
+        ConfigurableThreadFactory tf = new ConfigurableThreadFactory();
+        tf.setDaemon(true);
+        tf.setNameFormat("RemoteLogger-ingest-%2$d");
+        tf.newThread(new Ingester()).start();
+
+        ConfigurableThreadFactory dtf = new ConfigurableThreadFactory();
+        dtf.setDaemon(true);
+        dtf.setNameFormat("RemoteLogger-dispatch-%2$d");
+        // event handlers are not thread safe, one thread fires all remote events
+        dispatcher = Executors.newSingleThreadExecutor(dtf);
     }
 
     public void init(Provider provider) throws RemoteException {
@@ -106,51 +137,93 @@ public class RemoteLoggerManager implements RemoteLogger {
     }
 
     protected void publish(ILoggingEvent loggingEvent) {
-        String loggerName;
-        Logger logger;
-        synchronized (this) {
-            log.info("Publishing remote log: " + loggingEvent.getMessage().substring(0,Math.min(loggingEvent.getMessage().length(),50)));
-            Map<String, String> mdc = loggingEvent.getMDCPropertyMap();
-            String exertionId = null;
-            if (!remoteLogListeners.isEmpty()) {
-                exertionId = mdc.get(KEY_MOGRAM_ID);
-                Map<String, String> keyMap = new HashMap<String, String>();
-                keyMap.put(KEY_MOGRAM_ID, exertionId);
+        ring.put(loggingEvent);
+    }
 
-                for (Map.Entry<Map<String, String>, EventHandler> entry : remoteLogListeners.entrySet()) {
-                    if (mdc.entrySet().containsAll(entry.getKey().entrySet())) {
-                        try {
-                            LoggerRemoteEvent rse = new LoggerRemoteEvent(provider.getProxy(), loggingEvent);
-                            entry.getValue().fire(rse);
-                            System.out.println("!!!!!!!!!!!!!!!!!!!!!!!!!!! Sending log to remote listener exID: " + exertionId + ": " + loggingEvent.getMessage().substring(0, Math.min(loggingEvent.getMessage().length(), 50)));
-                        } catch (NoEventConsumerException e) {
-                            log.error("Problem sending remote log event, no event consumer available");
-                        } catch (RemoteException e) {
-                            log.error("Problem getting proxy from provider - should never happen as provider is local!!!");
-                        }
-                    }
+    /**
+     * Writes the published events to the remote log files and delivers them
+     * to the listeners in batches.
+     */
+    private class Ingester implements Runnable {
+        @Override
+        public void run() {
+            List<ILoggingEvent> batch = new ArrayList<ILoggingEvent>(BATCH_SIZE);
+            while (true) {
+                try {
+                    ring.drainTo(batch, BATCH_SIZE);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                try {
+                    dispatch(batch);
+                    for (ILoggingEvent loggingEvent : batch)
+                        append(loggingEvent);
+                } catch (RuntimeException e) {
+                    log.error("Problem writing remote logs", e);
                 }
+                batch.clear();
             }
-            loggerName = loggingEvent.getLoggerName();
+        }
+    }
+
+    private void append(ILoggingEvent loggingEvent) {
+        String loggerName = loggingEvent.getLoggerName();
+        Logger logger = remoteLoggers.get(loggerName);
+        if (logger == null) {
             logger = loggerFactory.getLogger(loggerName);
-            Appender<ILoggingEvent> appender = logger.getAppender(loggerName);
-            if (appender == null) {
-                String hostname;
-                if (mdc.containsKey(KEY_HOSTNAME))
-                    hostname = mdc.get(KEY_HOSTNAME);
-                else
+            if (logger.getAppender(loggerName) == null) {
+                String hostname = loggingEvent.getMDCPropertyMap().get(KEY_HOSTNAME);
+                if (hostname == null)
                     hostname = "remote";
                 //logger.setAdditive(false);
                 logger.addAppender(createAppender(loggerName, hostname));
             }
+            remoteLoggers.put(loggerName, logger);
+            LoggingConfig lc = new LoggingConfig(loggerName, null);
+            lc.setLevel(Level.ALL);
+            knownLoggers.putIfAbsent(loggerName, lc);
         }
-
         logger.callAppenders(loggingEvent);
-        LoggingConfig lc = new LoggingConfig(loggerName, null);
-        if (!knownLoggers.contains(lc)) {
-            lc.setLevel(Level.ALL);
-            knownLoggers.add(lc);
+    }
+
+    /*
+     * Groups the events of a batch by the listeners of matching filters and
+     * fires one remote event per listener.
+     */
+    private void dispatch(List<ILoggingEvent> batch) {
+        FilterIndex<EventHandler> index = filterIndex;
+        if (index.isEmpty())
+            return;
+        final Map<EventHandler, List<ILoggingEvent>> delivery = new LinkedHashMap<EventHandler, List<ILoggingEvent>>();
+        Set<EventHandler> matched = new HashSet<EventHandler>();
+        for (ILoggingEvent loggingEvent : batch) {
+            index.match(loggingEvent.getMDCPropertyMap(), matched);
+            for (EventHandler handler : matched) {
+                List<ILoggingEvent> events = delivery.get(handler);
+                if (events == null) {
+                    events = new ArrayList<ILoggingEvent>();
+                    delivery.put(handler, events);
+                }
+                events.add(loggingEvent);
+            }
+            matched.clear();
         }
+        if (delivery.isEmpty())
+            return;
+        dispatcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (Map.Entry<EventHandler, List<ILoggingEvent>> entry : delivery.entrySet()) {
+                    try {
+                        entry.getKey().fire(new LoggerRemoteEvent(provider.getProxy(), entry.getValue()));
+                    } catch (NoEventConsumerException e) {
+                        log.error("Problem sending remote log event, no event consumer available");
+                    } catch (RemoteException e) {
+                        log.error("Problem getting proxy from provider - should never happen as provider is local!!!");
+                    }
+                }
+            }
+        });
     }
 
     private Appender<ILoggingEvent> createAppender(String loggerName, String prefix) {
@@ -162,7 +235,8 @@ public class RemoteLoggerManager implements RemoteLogger {
         fileAppender.setContext(loggerFactory);
         PatternLayoutEncoder encoder = new PatternLayoutEncoder();
         encoder.setContext(loggerFactory);
-        encoder.setPattern("%-5level %d{HH:mm:ss.SSS} [%t] %logger{36} - %msg%n%rEx");
+        // the mogram and provider ids are indexed by LogFileIndex
+        encoder.setPattern("%-5level %d{HH:mm:ss.SSS} [%t] {%X{" + KEY_MOGRAM_ID + "}@%X{" + KEY_PROVIDER_ID + "}} %logger{36} - %msg%n%rEx");
         fileAppender.setEncoder(encoder);
         appender = fileAppender;
         encoder.start();
@@ -180,8 +254,56 @@ public class RemoteLoggerManager implements RemoteLogger {
         }
     }
 
+    public LogPage getLog(String fileName, long offset, int limit) throws RemoteException {
+        LogFileIndex index = getLogIndex(fileName);
+        try {
+            return index.read(offset, limit);
+        } catch (IOException e) {
+            throw logReadError(fileName, e);
+        }
+    }
+
+    public LogPage followLog(String fileName, long position, int limit) throws RemoteException {
+        LogFileIndex index = getLogIndex(fileName);
+        try {
+            return index.follow(position, limit);
+        } catch (IOException e) {
+            throw logReadError(fileName, e);
+        }
+    }
+
+    public LogPage getLog(String fileName, String mogramId, String providerId, long offset, int limit)
+            throws RemoteException {
+        LogFileIndex index = getLogIndex(fileName);
+        try {
+            return index.find(mogramId, providerId, offset, limit);
+        } catch (IOException e) {
+            throw logReadError(fileName, e);
+        }
+    }
+
+    private LogFileIndex getLogIndex(String fileName) throws RemoteException {
+        File file = new File(logDir, fileName);
+        if (!file.isFile() || !logDir.equals(file.getParentFile()))
+            throw new RemoteException("No such log: " + fileName);
+        LogFileIndex index = logIndexes.get(fileName);
+        if (index == null) {
+            index = new LogFileIndex(file);
+            LogFileIndex existing = logIndexes.putIfAbsent(fileName, index);
+            if (existing != null)
+                index = existing;
+        }
+        return index;
+    }
+
+    private RemoteException logReadError(String fileName, IOException e) {
+        String msg = MessageFormatter.format("Error reading file {}", fileName).getMessage();
+        log.warn(msg, e);
+        return new RemoteException(msg, e);
+    }
+
     public List<LoggingConfig> getLoggers() throws IOException {
-        return knownLoggers;
+        return new ArrayList<LoggingConfig>(knownLoggers.values());
     }
 
     public void deleteLog(String loggerName) throws RemoteException {
@@ -189,6 +311,7 @@ public class RemoteLoggerManager implements RemoteLogger {
         if (df.exists()) {
             df.delete();
         }
+        logIndexes.remove(loggerName);
     }
 
     public EventRegistration registerLogListener(RemoteEventListener listener, MarshalledObject handback, long duration, List<Map<String,String>> filterMap) throws LeaseDeniedException, RemoteException {
@@ -201,8 +324,11 @@ public class RemoteLoggerManager implements RemoteLogger {
             EventRegistration evReg = eventHandler.register(provider.getProxy(), listener, handback, duration);
             log.debug("Got evRegID: " + evReg.getID() + " filters: " + filterMap);
             remoteLogHandlers.put(evReg.getID(), eventHandler);
-            for (Map<String, String>  fMap : filterMap)
-                remoteLogListeners.put(fMap, eventHandler);
+            synchronized (remoteLogListeners) {
+                for (Map<String, String>  fMap : filterMap)
+                    remoteLogListeners.put(fMap, eventHandler);
+                filterIndex = new FilterIndex<EventHandler>(remoteLogListeners);
+            }
             return evReg;
         } catch (Exception e1) {
             log.error("Problem registering to Log listener: " + e1.getMessage());
@@ -221,8 +347,11 @@ public class RemoteLoggerManager implements RemoteLogger {
                         toRemove.add(entry.getKey());
                     }
                 }
-                for (Map<String, String> key : toRemove)
-                    remoteLogListeners.remove(key);
+                synchronized (remoteLogListeners) {
+                    for (Map<String, String> key : toRemove)
+                        remoteLogListeners.remove(key);
+                    filterIndex = new FilterIndex<EventHandler>(remoteLogListeners);
+                }
                 remoteLogHandlers.remove(evReg.getID());
             } else {
                 log.error("Problem unregistering, listener for: " + evReg.getID() + " doesn't exist");
@@ -34,6 +34,10 @@ import sorcer.core.provider.logger.LogFilter;
  */
 public class LoggerUI extends JPanel implements Observer {
 	private static final long serialVersionUID = 1L;
+
+	// the number of last lines of a log shown
+	private static final int MAX_LINES = 10000;
+
 	private final static Logger logger = LoggerFactory.getLogger(LoggerUI.class
 			.getName());
 	private boolean activeLoggers = false;
@@ -305,7 +309,7 @@ public class LoggerUI extends JPanel implements Observer {
 			fileName = (String) newValue;
 			logText.setText("");
 			try {
-				lines = remoteLogger.getLog(fileName);
+				lines = remoteLogger.getLog(fileName, -MAX_LINES, MAX_LINES).getLines();
 				StringBuffer sb = new StringBuffer();
 				for (String line : lines) {
 					sb.append(line).append("\n");
@@ -0,0 +1,85 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.logger;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class FilterIndexTest {
+
+    @Test
+    public void matchesFiltersWithAllPairsInMdc() {
+        Map<Map<String, String>, String> listeners = new HashMap<Map<String, String>, String>();
+        listeners.put(filter("mogramId", "m1"), "mogram");
+        listeners.put(filter("mogramId", "m1", "providerId", "p1"), "mogramAtProvider");
+        listeners.put(filter("providerId", "p2"), "provider");
+        FilterIndex<String> index = new FilterIndex<String>(listeners);
+        assertFalse(index.isEmpty());
+
+        assertEquals(set("mogram", "mogramAtProvider"), match(index, filter("mogramId", "m1", "providerId", "p1")));
+        assertEquals(set("mogram"), match(index, filter("mogramId", "m1", "providerId", "p3")));
+        assertEquals(set("provider"), match(index, filter("providerId", "p2", "other", "x")));
+        assertEquals(set(), match(index, filter("providerId", "p1")));
+        assertEquals(set(), match(index, Collections.<String, String>emptyMap()));
+    }
+
+    @Test
+    public void emptyFilterMatchesAllEvents() {
+        Map<Map<String, String>, String> listeners = new HashMap<Map<String, String>, String>();
+        listeners.put(Collections.<String, String>emptyMap(), "all");
+        listeners.put(filter("mogramId", "m1"), "mogram");
+        FilterIndex<String> index = new FilterIndex<String>(listeners);
+
+        assertEquals(set("all"), match(index, Collections.<String, String>emptyMap()));
+        assertEquals(set("all", "mogram"), match(index, filter("mogramId", "m1")));
+    }
+
+    @Test
+    public void isEmptyWithoutListeners() {
+        FilterIndex<String> index = new FilterIndex<String>(Collections.<Map<String, String>, String>emptyMap());
+        assertTrue(index.isEmpty());
+        assertEquals(set(), match(index, filter("mogramId", "m1")));
+    }
+
+    @Test
+    public void filtersAreCopied() {
+        Map<String, String> filter = filter("mogramId", "m1", "providerId", "p1");
+        FilterIndex<String> index = new FilterIndex<String>(Collections.singletonMap(filter, "listener"));
+        filter.remove("providerId");
+        assertEquals(set(), match(index, Collections.singletonMap("mogramId", "m1")));
+    }
+
+    private static Set<String> match(FilterIndex<String> index, Map<String, String> mdc) {
+        Set<String> handlers = new HashSet<String>();
+        index.match(mdc, handlers);
+        return handlers;
+    }
+
+    private static Map<String, String> filter(String... pairs) {
+        Map<String, String> filter = new LinkedHashMap<String, String>();
+        for (int i = 0; i < pairs.length; i += 2)
+            filter.put(pairs[i], pairs[i + 1]);
+        return filter;
+    }
+
+    private static Set<String> set(String... handlers) {
+        return new HashSet<String>(Arrays.asList(handlers));
+    }
+}
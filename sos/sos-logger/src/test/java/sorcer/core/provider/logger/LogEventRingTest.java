@@ -0,0 +1,146 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.logger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LogEventRingTest {
+
+    @Test
+    public void keepsOrderAcrossWraparound() throws Exception {
+        LogEventRing<Integer> ring = new LogEventRing<Integer>(4);
+        List<Integer> drained = new ArrayList<Integer>();
+        List<Integer> expected = new ArrayList<Integer>();
+        int next = 0;
+        // the sequences pass the ring size many times
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 3; i++) {
+                expected.add(next);
+                ring.put(next++);
+            }
+            assertEquals(3, ring.drainTo(drained, 10));
+        }
+        assertEquals(expected, drained);
+    }
+
+    @Test
+    public void drainsAtMostMax() throws Exception {
+        LogEventRing<Integer> ring = new LogEventRing<Integer>(8);
+        for (int i = 0; i < 5; i++)
+            ring.put(i);
+        List<Integer> drained = new ArrayList<Integer>();
+        assertEquals(2, ring.drainTo(drained, 2));
+        assertEquals(Arrays.asList(0, 1), drained);
+        assertEquals(3, ring.drainTo(drained, 10));
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), drained);
+    }
+
+    @Test
+    public void fullRingDoesNotOverwriteOldest() throws Exception {
+        final LogEventRing<Integer> ring = new LogEventRing<Integer>(4);
+        for (int i = 0; i < 4; i++)
+            ring.put(i);
+        final CountDownLatch published = new CountDownLatch(1);
+        Thread producer = new Thread(new Runnable() {
+            public void run() {
+                ring.put(4);
+                published.countDown();
+            }
+        });
+        producer.start();
+        // the producer waits for a free slot
+        assertFalse(published.await(200, TimeUnit.MILLISECONDS));
+
+        List<Integer> drained = new ArrayList<Integer>();
+        assertEquals(1, ring.drainTo(drained, 1));
+        assertEquals(Arrays.asList(0), drained);
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        producer.join();
+
+        ring.drainTo(drained, 10);
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), drained);
+    }
+
+    @Test
+    public void drainsConcurrentProducers() throws Exception {
+        final int producers = 4, count = 20000;
+        final LogEventRing<long[]> ring = new LogEventRing<long[]>(64);
+        List<Thread> threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            Thread thread = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < count; i++)
+                        ring.put(new long[] { producer, i });
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        long[] next = new long[producers];
+        List<long[]> batch = new ArrayList<long[]>();
+        int received = 0;
+        while (received < producers * count) {
+            batch.clear();
+            received += ring.drainTo(batch, 100);
+            for (long[] event : batch) {
+                // each producer's events arrive in order, none is lost
+                assertEquals(next[(int) event[0]], event[1]);
+                next[(int) event[0]]++;
+            }
+        }
+        for (Thread thread : threads)
+            thread.join();
+        for (int p = 0; p < producers; p++)
+            assertEquals(count, next[p]);
+    }
+
+    @Test
+    public void waitsForFirstElement() throws Exception {
+        final LogEventRing<String> ring = new LogEventRing<String>(4);
+        Thread producer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                ring.put("late");
+            }
+        });
+        producer.start();
+        List<String> drained = new ArrayList<String>();
+        assertEquals(1, ring.drainTo(drained, 10));
+        assertEquals(Arrays.asList("late"), drained);
+        producer.join();
+    }
+
+    @Test(expected = InterruptedException.class)
+    public void interruptsWaitingConsumer() throws Exception {
+        LogEventRing<String> ring = new LogEventRing<String>(4);
+        Thread.currentThread().interrupt();
+        ring.drainTo(new ArrayList<String>(), 10);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.core.provider.logger;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import sorcer.core.provider.logger.LogFileIndex.Runs;
+
+import java.io.*;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LogFileIndexTest {
+    private static final int SPARSE = LogFileIndex.SPARSE;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File file;
+
+    private LogFileIndex index;
+
+    @Before
+    public void setUp() throws Exception {
+        file = new File(folder.getRoot(), "test.log");
+        index = new LogFileIndex(file);
+    }
+
+    @Test
+    public void readsPagesAroundIndexedLines() throws Exception {
+        int count = 3 * SPARSE + 5;
+        append(lines(0, count));
+
+        assertEquals(lines(SPARSE - 1, SPARSE + 2), index.read(SPARSE - 1, 3).getLines());
+        assertEquals(lines(SPARSE, SPARSE + 1), index.read(SPARSE, 1).getLines());
+        assertEquals(lines(2 * SPARSE - 1, 2 * SPARSE), index.read(2 * SPARSE - 1, 1).getLines());
+        assertEquals(lines(0, 2), index.read(0, 2).getLines());
+
+        LogPage last = index.read(-2, 10);
+        assertEquals(count - 2, last.getOffset());
+        assertEquals(lines(count - 2, count), last.getLines());
+        assertEquals(count, last.getTotal());
+        assertEquals(file.length(), last.getPosition());
+
+        LogPage past = index.read(count + 10, 10);
+        assertEquals(count, past.getOffset());
+        assertTrue(past.getLines().isEmpty());
+    }
+
+    @Test
+    public void followsFromBytePosition() throws Exception {
+        append(lines(0, SPARSE + 10));
+        LogPage first = index.read(0, SPARSE + 2);
+        // the position after a page is the start of the next line
+        LogPage next = index.follow(first.getPosition(), 3);
+        assertEquals(SPARSE + 2, next.getOffset());
+        assertEquals(lines(SPARSE + 2, SPARSE + 5), next.getLines());
+
+        // a position inside a line starts at the following line
+        LogPage inside = index.follow(first.getPosition() + 2, 1);
+        assertEquals(lines(SPARSE + 3, SPARSE + 4), inside.getLines());
+
+        LogPage end = index.follow(-1, 10);
+        assertTrue(end.getLines().isEmpty());
+        assertEquals(file.length(), end.getPosition());
+    }
+
+    @Test
+    public void indexesAppendedCompleteLines() throws Exception {
+        append(lines(0, 3));
+        assertEquals(3, index.read(0, 10).getTotal());
+
+        write("partial");
+        assertEquals(3, index.read(0, 10).getTotal());
+        write(" line\n");
+        append(lines(3, 4));
+        assertEquals(Arrays.asList("line 2", "partial line", "line 3"), index.read(2, 10).getLines());
+    }
+
+    @Test
+    public void reindexesTruncatedFile() throws Exception {
+        append(lines(0, 10));
+        assertEquals(10, index.read(0, 1).getTotal());
+        new FileOutputStream(file).close();
+        append(lines(100, 102));
+        assertEquals(lines(100, 102), index.read(0, 10).getLines());
+    }
+
+    @Test
+    public void findsLinesOfMogramAndProvider() throws Exception {
+        append(Arrays.asList(
+                event("m1", "p1", "start"),
+                event("m2", "p1", "other"),
+                event("m1", "p2", "failed"),
+                "\tat continuation",
+                event("", "", "no ids"),
+                event("m1", "p1", "done")));
+
+        assertEquals(Arrays.asList(event("m1", "p1", "start"), event("m1", "p2", "failed"),
+                                   "\tat continuation", event("m1", "p1", "done")),
+                     index.find("m1", null, 0, 10).getLines());
+        assertEquals(Arrays.asList(event("m1", "p1", "start"), event("m1", "p1", "done")),
+                     index.find("m1", "p1", 0, 10).getLines());
+        assertEquals(Arrays.asList(event("m2", "p1", "other")), index.find(null, "p1", 1, 1).getLines());
+
+        LogPage last = index.find("m1", null, -1, 10);
+        assertEquals(3, last.getOffset());
+        assertEquals(4, last.getTotal());
+        assertEquals(Arrays.asList(event("m1", "p1", "done")), last.getLines());
+
+        assertTrue(index.find("m3", null, 0, 10).getLines().isEmpty());
+        assertTrue(index.find("m2", "p2", 0, 10).getLines().isEmpty());
+    }
+
+    @Test
+    public void findsLinesAcrossIndexedBlocks() throws Exception {
+        List<String> log = new ArrayList<String>();
+        List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 2 * SPARSE + 3; i++) {
+            String line = event(i % 3 == 0 ? "m1" : "m2", "p1", "line " + i);
+            log.add(line);
+            if (i % 3 == 0)
+                expected.add(line);
+        }
+        append(log);
+        LogPage page = index.find("m1", "p1", 80, 10);
+        assertEquals(expected.subList(80, 90), page.getLines());
+        assertEquals(expected.size(), page.getTotal());
+    }
+
+    @Test
+    public void mergesConsecutiveLinesIntoRuns() {
+        Runs runs = runs(0, 1, 2, 5, 6, 9);
+        assertEquals(6, runs.count);
+        assertEquals(6, runs.size);
+        assertArrayEquals(new long[] { 0, 3, 5, 7, 9, 10 }, Arrays.copyOf(runs.bounds, runs.size));
+    }
+
+    @Test
+    public void intersectsOverlappingRuns() {
+        Runs a = runs(0, 1, 2, 3, 4, 8, 9, 10);
+        Runs b = runs(3, 4, 5, 6, 7, 8);
+        Runs both = Runs.intersect(a, b);
+        assertArrayEquals(new long[] { 3, 5, 8, 9 }, Arrays.copyOf(both.bounds, both.size));
+        assertEquals(3, both.count);
+        // intersection is symmetric
+        Runs reversed = Runs.intersect(b, a);
+        assertArrayEquals(Arrays.copyOf(both.bounds, both.size), Arrays.copyOf(reversed.bounds, reversed.size));
+    }
+
+    @Test
+    public void intersectsRunsAtBoundaries() {
+        // adjacent runs do not share a line
+        assertEquals(0, Runs.intersect(runs(0, 1, 2), runs(3, 4)).count);
+        // a single shared line at the end of one and the start of the other
+        Runs edge = Runs.intersect(runs(0, 1, 2), runs(2, 3));
+        assertArrayEquals(new long[] { 2, 3 }, Arrays.copyOf(edge.bounds, edge.size));
+        // a run contained in another
+        Runs inner = Runs.intersect(runs(0, 1, 2, 3, 4, 5), runs(2, 3));
+        assertArrayEquals(new long[] { 2, 4 }, Arrays.copyOf(inner.bounds, inner.size));
+    }
+
+    @Test
+    public void intersectsEmptyRuns() {
+        assertEquals(0, Runs.intersect(new Runs(), runs(1, 2)).size);
+        assertEquals(0, Runs.intersect(runs(1, 2), new Runs()).size);
+        assertNull(Runs.intersect(null, runs(1)));
+        assertNull(Runs.intersect(runs(1), null));
+    }
+
+    private static Runs runs(long... lines) {
+        Runs runs = new Runs();
+        for (long line : lines)
+            runs.add(line);
+        return runs;
+    }
+
+    private static String event(String mogramId, String providerId, String message) {
+        return "INFO  12:00:00.000 [main] {" + mogramId + "@" + providerId + "} test - " + message;
+    }
+
+    private static List<String> lines(int from, int to) {
+        List<String> lines = new ArrayList<String>();
+        for (int i = from; i < to; i++)
+            lines.add("line " + i);
+        return lines;
+    }
+
+    private void append(List<String> lines) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (String line : lines)
+            sb.append(line).append('\n');
+        write(sb.toString());
+    }
+
+    private void write(String text) throws IOException {
+        OutputStream out = new FileOutputStream(file, true);
+        try {
+            out.write(text.getBytes(Charset.defaultCharset()));
+        } finally {
+            out.close();
+        }
+    }
+}
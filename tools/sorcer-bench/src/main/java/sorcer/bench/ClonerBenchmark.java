@@ -0,0 +1,67 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.bench;
+
+import org.openjdk.jmh.annotations.*;
+import sorcer.core.context.ServiceContext;
+import sorcer.util.GraphCloner;
+import sorcer.util.ObjectCloner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the structural copy of a service context by the {@link GraphCloner}
+ * with the serialization round trip previously used by {@link ObjectCloner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ClonerBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private ServiceContext<Object> context;
+
+    @Setup
+    public void setup() throws Exception {
+        context = new ServiceContext<Object>("bench");
+        for (int i = 0; i < size; i++) {
+            List<Double> values = new ArrayList<Double>();
+            for (int j = 0; j < 8; j++)
+                values.add((double) (i * j));
+            context.putValue("arg/x" + i, (double) i);
+            context.putValue("arg/v" + i, values);
+            context.putValue("result/y" + i, "value-" + i);
+        }
+    }
+
+    @Benchmark
+    public Object graph() throws Exception {
+        return GraphCloner.copy(context);
+    }
+
+    @Benchmark
+    public Object serialized() {
+        return ObjectCloner.cloneSerialized(context);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import sorcer.core.context.ServiceContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures putting and getting values of a service context by path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ContextBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private String[] paths;
+
+    private ServiceContext<Object> context;
+
+    @Setup
+    public void setup() throws Exception {
+        paths = new String[size];
+        context = new ServiceContext<Object>("bench");
+        for (int i = 0; i < size; i++) {
+            paths[i] = "arg/x" + i;
+            context.putValue(paths[i], (double) i);
+        }
+    }
+
+    @Benchmark
+    public Object putValue() throws Exception {
+        ServiceContext<Object> cxt = new ServiceContext<Object>("bench");
+        for (int i = 0; i < size; i++)
+            cxt.putValue(paths[i], (double) i);
+        return cxt;
+    }
+
+    @Benchmark
+    public void getValue(Blackhole bh) throws Exception {
+        for (int i = 0; i < size; i++)
+            bh.consume(context.getValue(paths[i]));
+    }
+}
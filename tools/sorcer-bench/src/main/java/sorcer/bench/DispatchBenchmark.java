@@ -0,0 +1,61 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.bench;
+
+import org.openjdk.jmh.annotations.*;
+import sorcer.core.provider.DispatchTable;
+import sorcer.service.Context;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per call overhead of a service bean operation dispatched by
+ * the {@link DispatchTable} with the reflective lookup and
+ * <code>Method.invoke</code> previously used by the provider delegate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DispatchBenchmark {
+
+    private final DispatchTable table = new DispatchTable();
+
+    private final Summator bean = new Summator();
+
+    private Context<Object> context;
+
+    @Setup
+    public void setup() throws Exception {
+        context = TaskBenchmark.newContext(1);
+        table.register(Summator.class, bean);
+    }
+
+    @Benchmark
+    public Object reflective() throws Exception {
+        Method m = bean.getClass().getMethod("sum", Context.class);
+        return m.invoke(bean, new Object[] { context });
+    }
+
+    @Benchmark
+    public Object dispatched() throws Exception {
+        return table.get(bean.getClass(), "sum", Context.class).invoke(bean, context);
+    }
+}
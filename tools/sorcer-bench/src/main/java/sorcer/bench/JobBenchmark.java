@@ -0,0 +1,62 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.bench;
+
+import org.openjdk.jmh.annotations.*;
+import sorcer.core.provider.rendezvous.ServiceJobber;
+import sorcer.service.Job;
+import sorcer.service.Strategy.Access;
+import sorcer.service.Strategy.Flow;
+
+import java.util.concurrent.TimeUnit;
+
+import static sorcer.eo.operator.*;
+import static sorcer.so.operator.exert;
+
+/**
+ * Measures the dispatch of a job of local tasks by the catalog sequential
+ * and parallel dispatchers of a local {@link ServiceJobber}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JobBenchmark {
+
+    @Param({ "2", "8", "32" })
+    public int width;
+
+    @Param({ "SEQ", "PAR" })
+    public Flow flow;
+
+    @Param({ "10" })
+    public int size;
+
+    @Benchmark
+    public Object exertJob() throws Exception {
+        Object[] items = new Object[width + 3];
+        items[0] = sig("exert", ServiceJobber.class);
+        items[1] = "bench";
+        for (int i = 0; i < width; i++)
+            items[i + 2] = task("t" + i, sig("sum", Summator.class), TaskBenchmark.newContext(size));
+        items[width + 2] = strategy(flow, Access.PUSH);
+        Job job = job(items);
+        return exert(job).getStatus();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.bench;
+
+import org.openjdk.jmh.annotations.*;
+import sorcer.core.context.model.EntModel;
+import sorcer.service.Context;
+
+import java.util.concurrent.TimeUnit;
+
+import static sorcer.co.operator.val;
+import static sorcer.ent.operator.invoker;
+import static sorcer.ent.operator.pro;
+import static sorcer.eo.operator.args;
+import static sorcer.eo.operator.context;
+import static sorcer.mo.operator.*;
+import static sorcer.so.operator.eval;
+
+/**
+ * Measures the evaluation of an entry model response computed by an
+ * expression invoker over the model inputs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ModelBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private EntModel model;
+
+    private Context<Object> inputs;
+
+    @Setup
+    public void setup() throws Exception {
+        Object[] entries = new Object[size];
+        for (int i = 0; i < size; i++)
+            entries[i] = val("arg/x" + i, (double) i);
+        model = entModel(entries);
+        add(model, pro("y", invoker("x0 + x1", args("x0", "x1"))));
+        responseUp(model, "y");
+        inputs = context(val("arg/x0", 2.0), val("arg/x1", 3.0));
+    }
+
+    @Benchmark
+    public Object evaluate() throws Exception {
+        return value(eval(model, inputs), "y");
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sorcer.service.Task;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+import static sorcer.eo.operator.sig;
+import static sorcer.eo.operator.task;
+
+/**
+ * Measures the serialization of a task as sent to a remote provider, the
+ * serialized size is logged for each context size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final Logger logger = LoggerFactory.getLogger(SerializationBenchmark.class);
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private Task task;
+
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws Exception {
+        task = task("sum", sig("sum", Summator.class), TaskBenchmark.newContext(size));
+        serialized = serialize();
+        logger.info("Serialized task size for {} entries: {} bytes", size, serialized.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(task);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object deserialize() throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.bench;
+
+import sorcer.service.Context;
+import sorcer.service.ContextException;
+
+/**
+ * A local service bean of the benchmarks that sums the values of its
+ * context, called through an <code>ObjectSignature</code>.
+ */
+public class Summator {
+
+    public static final String SIZE = "arg/n";
+
+    public static final String RESULT = "result/y";
+
+    public static String arg(int i) {
+        return "arg/x" + i;
+    }
+
+    public Context sum(Context context) throws ContextException {
+        int size = (Integer) context.getValue(SIZE);
+        double sum = 0;
+        for (int i = 0; i < size; i++)
+            sum += (Double) context.getValue(arg(i));
+        context.putValue(RESULT, sum);
+        return context;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.bench;
+
+import org.openjdk.jmh.annotations.*;
+import sorcer.core.context.ServiceContext;
+import sorcer.service.Context;
+import sorcer.service.Signature;
+import sorcer.service.Task;
+
+import java.util.concurrent.TimeUnit;
+
+import static sorcer.eo.operator.sig;
+import static sorcer.eo.operator.task;
+import static sorcer.so.operator.exert;
+
+/**
+ * Measures the local exertion of a task with an <code>ObjectSignature</code>,
+ * no lookup service is used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TaskBenchmark {
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private Signature signature;
+
+    private Context<Object> context;
+
+    @Setup
+    public void setup() throws Exception {
+        signature = sig("sum", Summator.class);
+        context = newContext(size);
+    }
+
+    static Context<Object> newContext(int size) throws Exception {
+        Context<Object> context = new ServiceContext<Object>("sum");
+        context.putValue(Summator.SIZE, size);
+        for (int i = 0; i < size; i++)
+            context.putValue(Summator.arg(i), (double) i);
+        return context;
+    }
+
+    @Benchmark
+    public Object exertTask() throws Exception {
+        Task task = task("sum", signature, context);
+        return exert(task).getContext().getValue(Summator.RESULT);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.emory.mathcs.util.classloader.jar;
+
+import java.io.*;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Properties;
+
+/**
+ * A disk cache of JAR files downloaded over HTTP, shared by all processes of
+ * a user. A cached JAR is revalidated with its entity tag and modification
+ * date (<code>If-None-Match</code>, <code>If-Modified-Since</code>), so
+ * when the code server answers <code>304 Not Modified</code> the JAR is
+ * opened from the disk and not transferred again.
+ * <p>
+ * The cache directory is set by the <code>sorcer.codebase.cache</code>
+ * system property, by default <code>${user.home}/.sorcer/codebase-cache</code>,
+ * the value <code>none</code> disables the cache.
+ */
+public class CodebaseCache {
+
+    public static final String CACHE_DIR = "sorcer.codebase.cache";
+
+    private static final String ETAG = "etag";
+
+    private static final String LAST_MODIFIED = "last-modified";
+
+    private static final String LENGTH = "length";
+
+    private static CodebaseCache instance;
+
+    private final File dir;
+
+    public CodebaseCache(File dir) {
+        this.dir = dir;
+    }
+
+    /**
+     * Returns the configured cache or null if it is disabled.
+     */
+    public static synchronized CodebaseCache getInstance() {
+        if (instance == null) {
+            String dir = System.getProperty(CACHE_DIR,
+                System.getProperty("user.home") + File.separator + ".sorcer"
+                    + File.separator + "codebase-cache");
+            if ("none".equals(dir)) return null;
+            instance = new CodebaseCache(new File(dir));
+        }
+        return instance;
+    }
+
+    public static boolean isCacheable(URL url) {
+        String protocol = url.getProtocol();
+        return "http".equals(protocol) || "https".equals(protocol);
+    }
+
+    /**
+     * Returns the local copy of the JAR file at the URL of the given
+     * connection, downloading it if it is not cached or has changed. The
+     * connection must not be connected yet.
+     *
+     * @param conn the connection to the JAR file
+     * @return the cached JAR file, it must not be deleted by the caller, or
+     *         null if the caller's own copy is not modified
+     * @throws IOException if the JAR cannot be downloaded or stored
+     */
+    public File fetch(URLConnection conn) throws IOException {
+        URL url = conn.getURL();
+        String key = key(url);
+        File jar = new File(dir, key + ".jar");
+        File info = new File(dir, key + ".properties");
+        Properties validators = load(info);
+        // validators stored by another process for a different download do
+        // not apply
+        boolean cached = jar.exists() && validators != null &&
+            String.valueOf(jar.length()).equals(validators.getProperty(LENGTH));
+        if (cached) {
+            String etag = validators.getProperty(ETAG);
+            String lastModified = validators.getProperty(LAST_MODIFIED);
+            if (etag != null) conn.setRequestProperty("If-None-Match", etag);
+            if (lastModified != null) conn.setRequestProperty("If-Modified-Since", lastModified);
+        }
+        if (conn instanceof HttpURLConnection &&
+            ((HttpURLConnection)conn).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            closeQuietly(conn);
+            return cached ? jar : null;
+        }
+
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new IOException("Cannot create codebase cache: " + dir);
+        }
+        // download next to the cached copy, concurrent downloads do not collide
+        File tmp = File.createTempFile(key, ".part", dir);
+        InputStream in = conn.getInputStream();
+        try {
+            OutputStream out = new FileOutputStream(tmp);
+            try {
+                byte[] buf = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buf)) != -1) {
+                    out.write(buf, 0, read);
+                }
+            }
+            finally {
+                out.close();
+            }
+        }
+        catch (IOException e) {
+            tmp.delete();
+            throw e;
+        }
+        finally {
+            in.close();
+        }
+
+        try {
+            Files.move(tmp.toPath(), jar.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            // the cached copy may be open by another process, use this one
+            tmp.deleteOnExit();
+            return tmp;
+        }
+        store(info, url, conn.getHeaderField("ETag"), conn.getHeaderField("Last-Modified"),
+              jar.length());
+        return jar;
+    }
+
+    private static Properties load(File info) {
+        if (!info.exists()) return null;
+        Properties props = new Properties();
+        try {
+            InputStream in = new FileInputStream(info);
+            try {
+                props.load(in);
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (IOException e) {
+            return null;
+        }
+        return props;
+    }
+
+    private static void store(File info, URL url, String etag, String lastModified,
+                              long length) {
+        Properties props = new Properties();
+        props.setProperty(LENGTH, String.valueOf(length));
+        if (etag != null) props.setProperty(ETAG, etag);
+        if (lastModified != null) props.setProperty(LAST_MODIFIED, lastModified);
+        try {
+            File tmp = File.createTempFile(info.getName(), ".part", info.getParentFile());
+            OutputStream out = new FileOutputStream(tmp);
+            try {
+                props.store(out, url.toExternalForm());
+            }
+            finally {
+                out.close();
+            }
+            Files.move(tmp.toPath(), info.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                       StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            // the JAR is downloaded again next time
+            info.delete();
+        }
+    }
+
+    private static String key(URL url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            byte[] hash = digest.digest(url.toExternalForm().getBytes("UTF-8"));
+            StringBuilder sb = new StringBuilder();
+            for (int i=0; i<hash.length; i++) {
+                sb.append(Character.forDigit((hash[i] >> 4) & 0xf, 16));
+                sb.append(Character.forDigit(hash[i] & 0xf, 16));
+            }
+            return sb.toString();
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void closeQuietly(URLConnection conn) {
+        try {
+            conn.getInputStream().close();
+        }
+        catch (IOException e) {
+            // best-effort
+        }
+    }
+}
@@ -89,37 +89,61 @@ public class JarProxy implements JarURLConnection.JarOpener {
 
             jarconn.setUseCaches(conn.getUseCaches());
 
-            final InputStream in = getJarInputStream(jarconn);
-
-            try {
-                result = (CachedJarFile)
-                    AccessController.doPrivileged(new PrivilegedExceptionAction() {
-                        public Object run() throws IOException {
-                            File file = File.createTempFile("jar_cache", "");
-                            FileOutputStream out = new FileOutputStream(file);
-                            try {
-                                RedirectibleInput r =
-                                    new RedirectingInputStream(in, false, false);
-                                int len = r.redirectAll(out);
-                                out.flush();
-                                if (len == 0) {
-                                    // e.g. HttpURLConnection: "NOT_MODIFIED"
+            // JARs fetched over HTTP are kept on disk between runs and only
+            // transferred again when changed
+            final CodebaseCache codebaseCache =
+                CodebaseCache.isCacheable(url) ? CodebaseCache.getInstance() : null;
+            if (codebaseCache != null) {
+                try {
+                    result = (CachedJarFile)
+                        AccessController.doPrivileged(new PrivilegedExceptionAction() {
+                            public Object run() throws IOException {
+                                File file = codebaseCache.fetch(jarconn);
+                                if (file == null) {
+                                    // NOT_MODIFIED for the caller's own copy
                                     return null;
                                 }
+                                return new CachedJarFile(file, jarconn.getPermission(), false);
                             }
-                            finally {
-                                out.close();
-                            }
-                            return new CachedJarFile(file, jarconn.getPermission(), true);
-
-                        }
-                    });
-            }
-            catch (PrivilegedActionException pae) {
-                throw (IOException)pae.getException();
+                        });
+                }
+                catch (PrivilegedActionException pae) {
+                    throw (IOException)pae.getException();
+                }
             }
-            finally {
-                in.close();
+            else {
+                final InputStream in = getJarInputStream(jarconn);
+
+                try {
+                    result = (CachedJarFile)
+                        AccessController.doPrivileged(new PrivilegedExceptionAction() {
+                            public Object run() throws IOException {
+                                File file = File.createTempFile("jar_cache", "");
+                                FileOutputStream out = new FileOutputStream(file);
+                                try {
+                                    RedirectibleInput r =
+                                        new RedirectingInputStream(in, false, false);
+                                    int len = r.redirectAll(out);
+                                    out.flush();
+                                    if (len == 0) {
+                                        // e.g. HttpURLConnection: "NOT_MODIFIED"
+                                        return null;
+                                    }
+                                }
+                                finally {
+                                    out.close();
+                                }
+                                return new CachedJarFile(file, jarconn.getPermission(), true);
+
+                            }
+                        });
+                }
+                catch (PrivilegedActionException pae) {
+                    throw (IOException)pae.getException();
+                }
+                finally {
+                    in.close();
+                }
             }
         }
 
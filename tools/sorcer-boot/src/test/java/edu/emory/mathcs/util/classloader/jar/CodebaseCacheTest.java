@@ -0,0 +1,147 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.emory.mathcs.util.classloader.jar;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.*;
+
+public class CodebaseCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+
+    private CodebaseCache cache;
+
+    private URL url;
+
+    // the served JAR content and its validators
+    private volatile byte[] content = "first".getBytes(UTF_8);
+    private volatile String etag = "\"1\"";
+    private final String lastModified = "Fri, 14 Jul 2017 02:40:00 GMT";
+
+    // the If-None-Match header of each request, the sent status codes
+    private final List<String> conditions = Collections.synchronizedList(new ArrayList<String>());
+    private final List<Integer> statuses = Collections.synchronizedList(new ArrayList<Integer>());
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/lib.jar", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+                conditions.add(ifNoneMatch);
+                exchange.getResponseHeaders().set("ETag", etag);
+                exchange.getResponseHeaders().set("Last-Modified", lastModified);
+                if (etag.equals(ifNoneMatch)) {
+                    statuses.add(304);
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    statuses.add(200);
+                    exchange.sendResponseHeaders(200, content.length);
+                    exchange.getResponseBody().write(content);
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+        url = new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/lib.jar");
+        cache = new CodebaseCache(new File(folder.getRoot(), "cache"));
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void downloadsJarOnce() throws Exception {
+        File first = cache.fetch(url.openConnection());
+        assertEquals("first", read(first));
+        assertNull(conditions.get(0));
+
+        File second = cache.fetch(url.openConnection());
+        assertEquals(first, second);
+        assertEquals("first", read(second));
+        assertEquals(etag, conditions.get(1));
+        assertEquals(Integer.valueOf(304), statuses.get(1));
+    }
+
+    @Test
+    public void downloadsChangedJar() throws Exception {
+        cache.fetch(url.openConnection());
+        content = "second version".getBytes(UTF_8);
+        etag = "\"2\"";
+
+        File changed = cache.fetch(url.openConnection());
+        assertEquals("second version", read(changed));
+        assertEquals(Integer.valueOf(200), statuses.get(1));
+
+        cache.fetch(url.openConnection());
+        assertEquals("\"2\"", conditions.get(2));
+        assertEquals(Integer.valueOf(304), statuses.get(2));
+    }
+
+    @Test
+    public void revalidatesOnlyIntactCopies() throws Exception {
+        File jar = cache.fetch(url.openConnection());
+        // a copy truncated by another process does not match its validators
+        Files.write(jar.toPath(), "fir".getBytes(UTF_8));
+
+        File fetched = cache.fetch(url.openConnection());
+        assertNull(conditions.get(1));
+        assertEquals("first", read(fetched));
+    }
+
+    @Test
+    public void sharesCacheDirectory() throws Exception {
+        File jar = cache.fetch(url.openConnection());
+        CodebaseCache other = new CodebaseCache(new File(folder.getRoot(), "cache"));
+        // another process sharing the cache directory
+        assertEquals(jar, other.fetch(url.openConnection()));
+        assertEquals(Integer.valueOf(304), statuses.get(1));
+    }
+
+    @Test
+    public void cachesOnlyHttpUrls() throws Exception {
+        assertTrue(CodebaseCache.isCacheable(url));
+        assertTrue(CodebaseCache.isCacheable(new URL("https://host/lib.jar")));
+        assertFalse(CodebaseCache.isCacheable(new URL("file:/lib.jar")));
+    }
+
+    private static String read(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), UTF_8);
+    }
+}
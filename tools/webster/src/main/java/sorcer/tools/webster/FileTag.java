@@ -0,0 +1,197 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.tools.webster;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The validators of a served file: an entity tag computed from the file
+ * content and the last modification time. Tags are cached by file path and
+ * recomputed only when the file length or modification time changes, so an
+ * unchanged codebase jar is hashed once. Conditional requests
+ * (<code>If-None-Match</code>, <code>If-Modified-Since</code>) and single
+ * byte ranges (<code>Range</code>, <code>If-Range</code>) are evaluated
+ * against the tag.
+ */
+class FileTag {
+    private static final ConcurrentMap<String, FileTag> tags = new ConcurrentHashMap<String, FileTag>();
+
+    /**
+     * The range of a request that cannot be satisfied.
+     */
+    static final long[] UNSATISFIABLE = new long[0];
+
+    final String etag;
+    final long lastModified;
+    final long length;
+
+    private FileTag(String etag, long lastModified, long length) {
+        this.etag = etag;
+        this.lastModified = lastModified;
+        this.length = length;
+    }
+
+    /**
+     * Returns the tag of the given file, from the cache if the file has not
+     * changed since it was hashed.
+     */
+    static FileTag get(File file) throws IOException {
+        String path = file.getAbsolutePath();
+        long lastModified = file.lastModified();
+        long length = file.length();
+        FileTag tag = tags.get(path);
+        if (tag == null || tag.lastModified != lastModified || tag.length != length) {
+            tag = new FileTag(hash(file), lastModified, length);
+            tags.put(path, tag);
+        }
+        return tag;
+    }
+
+    static void remove(File file) {
+        tags.remove(file.getAbsolutePath());
+    }
+
+    /**
+     * Returns the validator headers of a response, each ending with CRLF.
+     */
+    String getHeaders() {
+        return "ETag: " + etag + "\r\n"
+                + "Last-Modified: " + formatDate(lastModified) + "\r\n"
+                + "Accept-Ranges: bytes\r\n";
+    }
+
+    /**
+     * Returns true if the client copy is current, an entity tag given by the
+     * client takes precedence over its modification date.
+     */
+    boolean isNotModified(String ifNoneMatch, String ifModifiedSince) {
+        if (ifNoneMatch != null)
+            return matches(ifNoneMatch);
+        if (ifModifiedSince != null) {
+            long since = parseDate(ifModifiedSince);
+            return since >= 0 && lastModified / 1000 <= since / 1000;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the first and the last byte position of the requested range,
+     * null if the whole file is to be sent, or {@link #UNSATISFIABLE}. Only a
+     * single range is served, a request for multiple ranges or a range with a
+     * stale <code>If-Range</code> validator gets the whole file.
+     */
+    long[] getRange(String range, String ifRange) {
+        if (range == null || !range.startsWith("bytes=") || range.indexOf(',') >= 0)
+            return null;
+        if (ifRange != null) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                if (!ifRange.equals(etag))
+                    return null;
+            } else if (parseDate(ifRange) / 1000 != lastModified / 1000) {
+                return null;
+            }
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0)
+            return null;
+        try {
+            long first, last;
+            if (dash == 0) {
+                // the final bytes of the file
+                long suffix = Long.parseLong(spec.substring(1).trim());
+                if (suffix <= 0 || length == 0)
+                    return UNSATISFIABLE;
+                first = Math.max(0, length - suffix);
+                last = length - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash).trim());
+                String end = spec.substring(dash + 1).trim();
+                last = end.length() == 0 ? length - 1 : Math.min(Long.parseLong(end), length - 1);
+                if (last < first && end.length() > 0 && first < length)
+                    return null;
+                if (first >= length)
+                    return UNSATISFIABLE;
+            }
+            return new long[] { first, last };
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch.trim().equals("*"))
+            return true;
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/"))
+                candidate = candidate.substring(2);
+            if (candidate.equals(etag))
+                return true;
+        }
+        return false;
+    }
+
+    static String formatDate(long time) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneOffset.UTC));
+    }
+
+    /**
+     * Returns the time of the given HTTP date, or -1 if it is not valid.
+     */
+    static long parseDate(String date) {
+        try {
+            return ZonedDateTime.parse(date.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static String hash(File file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1)
+                digest.update(buffer, 0, read);
+        } finally {
+            in.close();
+        }
+        StringBuilder sb = new StringBuilder("\"");
+        for (byte b : digest.digest())
+            sb.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+        return sb.append('"').toString();
+    }
+}
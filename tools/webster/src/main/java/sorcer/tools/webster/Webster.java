@@ -24,9 +24,12 @@ import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.ServerSocketChannel;
 import java.util.*;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Webster is a HTTP server which can serve code from multiple codebases.
@@ -43,6 +46,12 @@ import java.util.concurrent.ThreadPoolExecutor;
  * directories which are separated by a <code>;</code></td>
  * <td>System.getProperty(user.home)</td>
  * </tr>
+ * <tr>
+ * <td>webster.nio</td>
+ * <td>Serves requests from a selector with keep-alive connections and
+ * zero-copy file transfers, see {@link WebsterChannelServer}</td>
+ * <td>false</td>
+ * </tr>
  * <p/>
  * </table>
  *
@@ -71,6 +80,16 @@ public class Webster implements Runnable {
     private boolean isDaemon = false;
     private static String SERVER_DESCRIPTION = Webster.class.getName();
     private String tempDir;
+    // the NIO serving mode
+    private boolean nio = false;
+    private long keepAliveTimeout = WebsterChannelServer.DEFAULT_KEEP_ALIVE_TIMEOUT;
+    private WebsterChannelServer channelServer;
+    // serving metrics
+    private final AtomicLong connectionCount = new AtomicLong();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong requestCount = new AtomicLong();
+    private final AtomicLong bytesServed = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
     // Shared class server (webster) 
     private static Webster webster;
 
@@ -242,7 +261,8 @@ public class Webster implements Runnable {
      *
      * @param args      String[] of options. Valid options are [-port port],
      *                  [-roots list-of-roots], [-bindAddress address], [-minThreads minThreads],
-     *                  [-maxThreads maxThreads] [-soTimeout soTimeout]
+     *                  [-maxThreads maxThreads] [-soTimeout soTimeout] [-nio true|false]
+     *                  [-keepAliveTimeout millis]
      * @param lifeCycle The LifeCycle object, may be null
      * @throws IOException if Webster cannot create a socket
      */
@@ -316,6 +336,12 @@ public class Webster implements Runnable {
             } else if (option.equals("-debug")) {
                 i++;
                 debug = Boolean.parseBoolean(options[i]);
+            } else if (option.equals("-nio")) {
+                i++;
+                nio = Boolean.parseBoolean(options[i]);
+            } else if (option.equals("-keepAliveTimeout")) {
+                i++;
+                keepAliveTimeout = Long.parseLong(options[i]);
             } else {
                 throw new IllegalArgumentException(option);
             }
@@ -372,6 +398,11 @@ public class Webster implements Runnable {
             if (str != null && str.equals("true"))
                 debug = true;
         }
+        if (!nio) {
+            str = System.getProperty("webster.nio");
+            if (str != null && str.equals("true"))
+                nio = true;
+        }
         str = System.getProperty("webster.tmp.dir");
         if (str != null) {
             tempDir = str;
@@ -425,6 +456,7 @@ public class Webster implements Runnable {
 
     // start with the first available port in the range STARTPORT-ENDPORT
     private void start(int websterPort, InetAddress address) throws IOException {
+        ServerSocketChannel channel = null;
         try {
             port = websterPort;
             // check if the port is not required by the JVM system property
@@ -432,7 +464,13 @@ public class Webster implements Runnable {
             if (s != null && s.length() > 0) {
                 port = new Integer(s);
             }
-            ss = new ServerSocket(port, 0, address);
+            if (nio) {
+                channel = ServerSocketChannel.open();
+                channel.socket().bind(new InetSocketAddress(address, port));
+                ss = channel.socket();
+            } else {
+                ss = new ServerSocket(port, 0, address);
+            }
         } catch (IOException ioe) {
             if (startPort == endPort) {
                 throw new IOException("Port bind server socket failure: " + endPort, ioe);
@@ -466,6 +504,9 @@ public class Webster implements Runnable {
             logger.error("Could not create ThreadPool", e);
             throw new RuntimeException("Could not create Thread Pool");
         }
+        // the pool prepares responses of the NIO server
+        if (nio)
+            channelServer = new WebsterChannelServer(this, channel, pool, keepAliveTimeout);
         if (soTimeout > 0) {
             if (debug)
                 System.out.println("Webster Socket SO_TIMEOUT set to ["
@@ -480,7 +521,10 @@ public class Webster implements Runnable {
         if (logger.isDebugEnabled())
             logger.debug("Webster isDaemon: " + isDaemon);
 
-        Thread runner = new Thread(this, "Webster");
+        if (logger.isDebugEnabled())
+            logger.debug("Webster nio: " + nio);
+
+        Thread runner = new Thread(nio ? channelServer : this, "Webster");
         if (isDaemon) {
             runner.setDaemon(true);
         }
@@ -544,6 +588,8 @@ public class Webster implements Runnable {
      */
     public void terminate() {
         run = false;
+        if (channelServer != null)
+            channelServer.terminate();
         if (ss != null) {
             try {
                 ss.close();
@@ -567,6 +613,85 @@ public class Webster implements Runnable {
         return getAvailablePort();
     }
 
+    /**
+     * Get the number of connections accepted by Webster
+     */
+    public long getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    /**
+     * Get the number of open connections, in the NIO serving mode only
+     */
+    public int getOpenConnectionCount() {
+        return openConnections.get();
+    }
+
+    /**
+     * Get the number of requests received by Webster
+     */
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * Get the number of bytes sent to clients
+     */
+    public long getBytesServed() {
+        return bytesServed.get();
+    }
+
+    /**
+     * Get the number of bytes received from clients, in the NIO serving mode only
+     */
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    void connectionOpened() {
+        connectionCount.incrementAndGet();
+        openConnections.incrementAndGet();
+    }
+
+    void connectionClosed() {
+        openConnections.decrementAndGet();
+    }
+
+    void requestReceived() {
+        requestCount.incrementAndGet();
+    }
+
+    void bytesServed(long n) {
+        bytesServed.addAndGet(n);
+    }
+
+    void bytesReceived(long n) {
+        bytesReceived.addAndGet(n);
+    }
+
+    String getTempDir() {
+        return tempDir;
+    }
+
+    static String getMimeType(String extension) {
+        return MimeTypes.getProperty(extension);
+    }
+
+    static String getServerDescription() {
+        return SERVER_DESCRIPTION;
+    }
+
+    static String ignoreCaseProperty(Properties props, String field) {
+        Enumeration<?> names = props.propertyNames();
+        while (names.hasMoreElements()) {
+            String propName = (String) names.nextElement();
+            if (field.equalsIgnoreCase(propName)) {
+                return (props.getProperty(propName));
+            }
+        }
+        return (null);
+    }
+
     private String readRequest(InputStream inputStream) throws IOException {
         StringBuilder sb = new StringBuilder();
         int read;
@@ -594,6 +719,7 @@ public class Webster implements Runnable {
             String fileName;
             while (run) {
                 s = ss.accept(); // accept incoming requests
+                connectionCount.incrementAndGet();
                 if (soTimeout > 0) {
                     s.setSoTimeout(soTimeout);
                 }
@@ -608,10 +734,10 @@ public class Webster implements Runnable {
                         if (lineBuilder.length() > 0)
                             lineBuilder.append("\n");
                         lineBuilder.append(line);
-                        tokenizer = new StringTokenizer(line, ":");
-                        String aToken = tokenizer.nextToken().trim();
-                        if (tokenizer.hasMoreTokens()) {
-                            header.setProperty(aToken, tokenizer.nextToken().trim());
+                        // split at the first colon only, HTTP dates contain colons
+                        int colon = line.indexOf(':');
+                        if (colon > 0) {
+                            header.setProperty(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
                         }
                     }
                     line = lineBuilder.toString();
@@ -635,6 +761,7 @@ public class Webster implements Runnable {
                             logger.debug(buff.toString());
                     }
                     if (line.length() > 0) {
+                        requestCount.incrementAndGet();
                         tokenizer = new StringTokenizer(line, " ");
                         if (!tokenizer.hasMoreTokens())
                             break;
@@ -659,7 +786,7 @@ public class Webster implements Runnable {
                             }
                         }
                         if (header.getProperty("GET") != null) {
-                            pool.execute(new GetFile(s, fileName));
+                            pool.execute(new GetFile(s, fileName, header));
                         } else if (header.getProperty("PUT") != null) {
                             if(tempDir==null) {
                                 DataOutputStream clientStream = new DataOutputStream(new BufferedOutputStream(s.getOutputStream()));
@@ -672,7 +799,7 @@ public class Webster implements Runnable {
                         } else if (header.getProperty("DELETE") != null) {
                             pool.execute(new DelFile(s, fileName));
                         } else if (header.getProperty("HEAD") != null) {
-                            pool.execute(new Head(s, fileName));
+                            pool.execute(new Head(s, fileName, header));
                         } else {
                             if (debug)
                                 System.out.println("bad request [" + line + "] from " + from);
@@ -843,10 +970,12 @@ public class Webster implements Runnable {
     class Head implements Runnable {
         private Socket client;
         private String fileName;
+        private Properties rheader;
 
-        Head(Socket s, String fileName) {
+        Head(Socket s, String fileName, Properties header) {
             client = s;
             this.fileName = fileName;
+            this.rheader = header;
         }
 
         public void run() {
@@ -883,29 +1012,39 @@ public class Webster implements Runnable {
                     String fileType = MimeTypes.getProperty("txt");
                     if (fileType == null)
                         fileType = "application/java";
-                    header = "HTTP/1.0 200 OK\n" +
-                            "Allow: GET\nMIME-Version: 1.0\n" +
-                            "Server: " + SERVER_DESCRIPTION + "\n" +
-                            "Content-Type: " + fileType + "\n" +
+                    header = "HTTP/1.0 200 OK\r\n" +
+                            "Allow: GET\r\nMIME-Version: 1.0\r\n" +
+                            "Server: " + SERVER_DESCRIPTION + "\r\n" +
+                            "Content-Type: " + fileType + "\r\n" +
                             "Content-Length: " + fileLength + "\r\n\r\n";
                 } else if (getFile.exists()) {
-                    DataInputStream requestedFile = new DataInputStream(
-                            new BufferedInputStream(new FileInputStream(getFile)));
-                    fileLength = requestedFile.available();
+                    FileTag tag = FileTag.get(getFile);
+                    long length = tag.length;
                     String fileType =
                             fileName.substring(fileName.lastIndexOf(".") + 1,
                                                fileName.length());
                     fileType = MimeTypes.getProperty(fileType);
-                    logData.append("file size: [").append(fileLength).append("]");
-                    header = "HTTP/1.0 200 OK\n"
-                            + "Allow: GET\nMIME-Version: 1.0\n"
-                            + "Server: " + SERVER_DESCRIPTION + "\n"
-                            + "Content-Type: "
-                            + fileType
-                            + "\n"
-                            + "Content-Length: "
-                            + fileLength
-                            + "\r\n\r\n";
+                    logData.append("file size: [").append(length).append("]");
+                    if (tag.isNotModified(ignoreCaseProperty(rheader, "If-None-Match"),
+                                          ignoreCaseProperty(rheader, "If-Modified-Since"))) {
+                        logData.append(", not modified");
+                        header = "HTTP/1.0 304 Not Modified\r\n"
+                                + "MIME-Version: 1.0\r\n"
+                                + "Server: " + SERVER_DESCRIPTION + "\r\n"
+                                + tag.getHeaders()
+                                + "\r\n";
+                    } else {
+                        header = "HTTP/1.0 200 OK\r\n"
+                                + "Allow: GET\r\nMIME-Version: 1.0\r\n"
+                                + "Server: " + SERVER_DESCRIPTION + "\r\n"
+                                + tag.getHeaders()
+                                + "Content-Type: "
+                                + fileType
+                                + "\r\n"
+                                + "Content-Length: "
+                                + length
+                                + "\r\n\r\n";
+                    }
                 } else {
                     header = "HTTP/1.1 404 Not Found\r\n\r\n";
                     logData.append("not found");
@@ -939,12 +1078,17 @@ public class Webster implements Runnable {
     class GetFile implements Runnable {
         private Socket client;
         private String fileName;
+        private Properties rheader;
         private DataInputStream requestedFile;
-        private int fileLength;
+        private long fileLength;
+        // the first byte and the number of bytes to send
+        private long rangeStart;
+        private long sendLength;
 
-        GetFile(Socket s, String fileName) {
+        GetFile(Socket s, String fileName, Properties header) {
             client = s;
             this.fileName = fileName;
+            this.rheader = header;
         }
 
         public void run() {
@@ -980,32 +1124,57 @@ public class Webster implements Runnable {
                     String fileType = MimeTypes.getProperty("txt");
                     if (fileType == null)
                         fileType = "application/java";
-                    header = "HTTP/1.0 200 OK\n"
-                            + "Allow: GET\nMIME-Version: 1.0\n"
-                            + "Server: " + SERVER_DESCRIPTION + "\n"
+                    header = "HTTP/1.0 200 OK\r\n"
+                            + "Allow: GET\r\nMIME-Version: 1.0\r\n"
+                            + "Server: " + SERVER_DESCRIPTION + "\r\n"
                             + "Content-Type: "
                             + fileType
-                            + "\n"
+                            + "\r\n"
                             + "Content-Length: "
                             + fileLength
                             + "\r\n\r\n";
                 } else if (getFile.exists()) {
-                    requestedFile =
-                            new DataInputStream(
-                                    new BufferedInputStream(new FileInputStream(getFile)));
-                    fileLength = requestedFile.available();
+                    FileTag tag = FileTag.get(getFile);
+                    fileLength = tag.length;
                     String fileType =
                             fileName.substring(fileName.lastIndexOf(".") + 1,
                                                fileName.length());
                     fileType = MimeTypes.getProperty(fileType);
-                    header = "HTTP/1.0 200 OK\n"
-                            + "Allow: GET\nMIME-Version: 1.0\n"
-                            + "Server: " + SERVER_DESCRIPTION + "\n"
+                    long[] range = tag.getRange(ignoreCaseProperty(rheader, "Range"),
+                                                ignoreCaseProperty(rheader, "If-Range"));
+                    String status = "200 OK";
+                    String contentRange = "";
+                    rangeStart = 0;
+                    sendLength = fileLength;
+                    if (tag.isNotModified(ignoreCaseProperty(rheader, "If-None-Match"),
+                                          ignoreCaseProperty(rheader, "If-Modified-Since"))) {
+                        status = "304 Not Modified";
+                        sendLength = 0;
+                    } else if (range == FileTag.UNSATISFIABLE) {
+                        status = "416 Requested Range Not Satisfiable";
+                        contentRange = "Content-Range: bytes */" + fileLength + "\r\n";
+                        sendLength = 0;
+                    } else if (range != null) {
+                        status = "206 Partial Content";
+                        contentRange = "Content-Range: bytes " + range[0] + "-" + range[1] + "/" + fileLength + "\r\n";
+                        rangeStart = range[0];
+                        sendLength = range[1] - range[0] + 1;
+                    }
+                    if (sendLength > 0) {
+                        FileInputStream in = new FileInputStream(getFile);
+                        in.getChannel().position(rangeStart);
+                        requestedFile = new DataInputStream(new BufferedInputStream(in));
+                    }
+                    header = "HTTP/1.0 " + status + "\r\n"
+                            + "Allow: GET\r\nMIME-Version: 1.0\r\n"
+                            + "Server: " + SERVER_DESCRIPTION + "\r\n"
+                            + tag.getHeaders()
+                            + contentRange
                             + "Content-Type: "
                             + fileType
-                            + "\n"
+                            + "\r\n"
                             + "Content-Length: "
-                            + fileLength
+                            + sendLength
                             + "\r\n\r\n";
                 } else {
                     header = "HTTP/1.0 404 Not Found\r\n\r\n";
@@ -1018,11 +1187,20 @@ public class Webster implements Runnable {
                 if (getFile.isDirectory()) {
                     clientStream.writeBytes(dirData.toString());
                 } else if (getFile.exists()) {
-                    byte[] buffer = new byte[fileLength];
-                    requestedFile.readFully(buffer);
                     logData.append("file size: [").append(fileLength).append("]");
+                    if (sendLength < fileLength)
+                        logData.append(", sent: [").append(sendLength).append("] from: ").append(rangeStart);
                     try {
-                        clientStream.write(buffer);
+                        // stream the file, it is not loaded into memory
+                        byte[] buffer = new byte[(int) Math.min(sendLength > 0 ? sendLength : 1, 64 * 1024)];
+                        long sent = 0;
+                        int read;
+                        while (sent < sendLength
+                                && (read = requestedFile.read(buffer, 0, (int) Math.min(buffer.length, sendLength - sent))) != -1) {
+                            clientStream.write(buffer, 0, read);
+                            sent += read;
+                        }
+                        bytesServed.addAndGet(sent);
                     } catch (Exception e) {
                         String s = "Sending [" +
                                 getFile.getAbsolutePath() + "], " +
@@ -1038,7 +1216,8 @@ public class Webster implements Runnable {
                             e.printStackTrace();
                         }
                     }
-                    requestedFile.close();
+                    if (requestedFile != null)
+                        requestedFile.close();
                 } else {
                     logData.append("not found");
                 }
@@ -1184,17 +1363,6 @@ public class Webster implements Runnable {
             clientStream.flush();
             clientStream.close();
         }
-
-        public String ignoreCaseProperty(Properties props, String field) {
-            Enumeration<?> names = props.propertyNames();
-            while (names.hasMoreElements()) {
-                String propName = (String) names.nextElement();
-                if (field.equalsIgnoreCase(propName)) {
-                    return (props.getProperty(propName));
-                }
-            }
-            return (null);
-        }
     } // end of PutFile
 
     class DelFile implements Runnable {
@@ -1218,6 +1386,7 @@ public class Webster implements Runnable {
                             + "\n\n <H1>404 File not Found</H1>\n"
                             + "<BR>";
                 } else if (putFile.delete()) {
+                    FileTag.remove(putFile);
                     header = "HTTP/1.0 200 OK\n"
                             + "Allow: PUT\n"
                             + "MIME-Version: 1.0\n"
@@ -0,0 +1,640 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package sorcer.tools.webster;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * The NIO serving mode of {@link Webster}. A single selector thread accepts
+ * connections, parses requests, sends files with
+ * {@link FileChannel#transferTo} (zero-copy) and streams uploaded files to
+ * disk, so no thread is held by a slow client. Requested files are looked
+ * up, hashed and listed by worker threads, which hand the prepared responses
+ * back to the selector thread. Connections are kept alive
+ * for HTTP/1.1 clients, and HTTP/1.0 clients sending
+ * <code>Connection: keep-alive</code>, until they are idle for the
+ * keep-alive timeout.
+ */
+class WebsterChannelServer implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(WebsterChannelServer.class);
+
+    static final long DEFAULT_KEEP_ALIVE_TIMEOUT = 30 * 1000;
+
+    // the request header limit and the upload buffer size
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final Charset ASCII = Charset.forName("ISO-8859-1");
+
+    private final Webster webster;
+
+    private final ServerSocketChannel server;
+
+    private final Selector selector;
+
+    private final long keepAliveTimeout;
+
+    // prepares the responses of GET and HEAD requests
+    private final Executor workers;
+
+    // the prepared responses to be sent by the selector thread
+    private final Queue<Runnable> completions = new ConcurrentLinkedQueue<Runnable>();
+
+    private volatile boolean running = true;
+
+    WebsterChannelServer(Webster webster, ServerSocketChannel server, Executor workers, long keepAliveTimeout) throws IOException {
+        this.webster = webster;
+        this.server = server;
+        this.workers = workers;
+        this.keepAliveTimeout = keepAliveTimeout > 0 ? keepAliveTimeout : DEFAULT_KEEP_ALIVE_TIMEOUT;
+        selector = Selector.open();
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+    }
+
+    public void run() {
+        try {
+            webster.loadMimes();
+        } catch (IOException e) {
+            logger.warn("Loading mimetypes", e);
+        }
+        while (running) {
+            try {
+                selector.select(1000);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid())
+                        continue;
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isReadable())
+                            connection.read();
+                        if (key.isValid() && key.isWritable())
+                            connection.write();
+                    } catch (IOException e) {
+                        logger.debug("Closing connection from {}", connection.from, e);
+                        connection.close();
+                    } catch (RuntimeException e) {
+                        logger.warn("Closing connection from {}", connection.from, e);
+                        connection.close();
+                    }
+                }
+                runCompletions();
+                closeIdle();
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                if (running)
+                    logger.warn("Processing HTTP Request", e);
+            }
+        }
+        closeAll();
+    }
+
+    void terminate() {
+        running = false;
+        selector.wakeup();
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = server.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            key.attach(new Connection(channel, key));
+            webster.connectionOpened();
+        }
+    }
+
+    private void runCompletions() {
+        Runnable completion;
+        while ((completion = completions.poll()) != null)
+            completion.run();
+    }
+
+    private void closeIdle() {
+        long now = System.currentTimeMillis();
+        for (SelectionKey key : selector.keys()) {
+            Object attachment = key.attachment();
+            if (attachment instanceof Connection && now - ((Connection) attachment).lastActive > keepAliveTimeout)
+                ((Connection) attachment).close();
+        }
+    }
+
+    private void closeAll() {
+        try {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection)
+                    ((Connection) key.attachment()).close();
+            }
+            // close the files of responses prepared for the closed connections
+            runCompletions();
+            selector.close();
+        } catch (Exception e) {
+            logger.debug("Closing selector", e);
+        }
+    }
+
+    /**
+     * A parsed request line and headers.
+     */
+    static class Request {
+        final String method;
+        final String fileName;
+        final String version;
+        final Map<String, String> headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+
+        Request(String method, String fileName, String version) {
+            this.method = method;
+            this.fileName = fileName;
+            this.version = version;
+        }
+
+        String getHeader(String name) {
+            return headers.get(name);
+        }
+
+        boolean isKeepAlive() {
+            String connection = headers.get("Connection");
+            if ("HTTP/1.1".equals(version))
+                return !"close".equalsIgnoreCase(connection);
+            return "keep-alive".equalsIgnoreCase(connection);
+        }
+    }
+
+    /**
+     * A response prepared by a worker thread, the file body is sent from
+     * position up to end.
+     */
+    static class Response {
+        final String status;
+        final String headers;
+        final byte[] body;
+        FileChannel file;
+        long position;
+        long end;
+
+        Response(String status, String headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        void close() {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    logger.debug("Closing file", e);
+                }
+                file = null;
+            }
+        }
+    }
+
+    private class Connection {
+        final SocketChannel channel;
+        final SelectionKey key;
+        final String from;
+        // received bytes not processed yet, in write mode
+        final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+        long lastActive = System.currentTimeMillis();
+        boolean keepAlive;
+
+        // the response head and small bodies
+        ByteBuffer out;
+        // the response body sent from a file
+        FileChannel file;
+        long position;
+        long end;
+
+        // the file being uploaded
+        FileChannel upload;
+        long uploadRemaining;
+        String uploadName;
+        boolean uploadExisted;
+        // a worker is preparing the response
+        boolean pending;
+        boolean closed;
+
+        Connection(SocketChannel channel, SelectionKey key) {
+            this.channel = channel;
+            this.key = key;
+            from = String.valueOf(channel.socket().getRemoteSocketAddress());
+        }
+
+        void read() throws IOException {
+            int n = channel.read(in);
+            if (n < 0) {
+                close();
+                return;
+            }
+            lastActive = System.currentTimeMillis();
+            webster.bytesReceived(n);
+            process();
+        }
+
+        /*
+         * Processes the buffered input, a pipelined request is processed
+         * after the previous response is written.
+         */
+        void process() throws IOException {
+            if (upload != null) {
+                drainUpload();
+                if (upload != null)
+                    return;
+            }
+            if (pending || out != null || file != null)
+                return;
+            Request request = parse();
+            if (request != null) {
+                webster.requestReceived();
+                handle(request);
+            } else if (!in.hasRemaining()) {
+                keepAlive = false;
+                respond("431 Request Header Fields Too Large", null, null);
+            }
+        }
+
+        /*
+         * Returns the next request if its headers are received.
+         */
+        Request parse() throws IOException {
+            int headEnd = -1;
+            int length = 0;
+            byte[] bytes = in.array();
+            for (int i = 0; i < in.position(); i++) {
+                if (bytes[i] == '\n') {
+                    if (i + 1 < in.position() && bytes[i + 1] == '\n') {
+                        headEnd = i + 2;
+                        length = i;
+                        break;
+                    }
+                    if (i + 2 < in.position() && bytes[i + 1] == '\r' && bytes[i + 2] == '\n') {
+                        headEnd = i + 3;
+                        length = i;
+                        break;
+                    }
+                }
+            }
+            if (headEnd < 0)
+                return null;
+            if (length > 0 && bytes[length - 1] == '\r')
+                length--;
+            String head = new String(bytes, 0, length, ASCII);
+            in.flip();
+            in.position(headEnd);
+            in.compact();
+
+            String[] lines = head.split("\r?\n");
+            StringTokenizer tokenizer = new StringTokenizer(lines[0], " ");
+            if (tokenizer.countTokens() < 2) {
+                keepAlive = false;
+                respond("400 Bad Request", null, null);
+                return null;
+            }
+            String method = tokenizer.nextToken();
+            String fileName = tokenizer.nextToken();
+            String version = tokenizer.hasMoreTokens() ? tokenizer.nextToken() : "HTTP/1.0";
+            if (fileName.startsWith("/"))
+                fileName = fileName.substring(1);
+            Request request = new Request(method, fileName, version);
+            for (int i = 1; i < lines.length; i++) {
+                int colon = lines[i].indexOf(':');
+                if (colon > 0)
+                    request.headers.put(lines[i].substring(0, colon).trim(), lines[i].substring(colon + 1).trim());
+            }
+            if (logger.isDebugEnabled())
+                logger.debug("From: {}, Request: {}", from, head);
+            return request;
+        }
+
+        void handle(Request request) throws IOException {
+            keepAlive = request.isKeepAlive();
+            if (request.method.equals("GET") || request.method.equals("HEAD"))
+                get(request, request.method.equals("HEAD"));
+            else if (request.method.equals("PUT"))
+                put(request);
+            else if (request.method.equals("DELETE"))
+                delete(request);
+            else {
+                keepAlive = false;
+                respond("400 Bad Request", null, null);
+            }
+        }
+
+        /*
+         * Reads from the socket are suspended until a worker prepares the
+         * response.
+         */
+        void get(final Request request, final boolean headOnly) throws IOException {
+            pending = true;
+            key.interestOps(0);
+            try {
+                workers.execute(new Runnable() {
+                    public void run() {
+                        Response response;
+                        try {
+                            response = prepare(request, headOnly);
+                        } catch (Exception e) {
+                            logger.warn("Getting {}", request.fileName, e);
+                            response = new Response("500 Internal Server Error", null, null);
+                        }
+                        complete(response);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                logger.debug("Closing connection from {}, Webster is terminated", from);
+                close();
+            }
+        }
+
+        /*
+         * Hands the prepared response back to the selector thread.
+         */
+        void complete(final Response response) {
+            completions.add(new Runnable() {
+                public void run() {
+                    pending = false;
+                    if (closed) {
+                        response.close();
+                        return;
+                    }
+                    try {
+                        if (response.status.startsWith("500"))
+                            keepAlive = false;
+                        file = response.file;
+                        position = response.position;
+                        end = response.end;
+                        respond(response.status, response.headers, response.body);
+                    } catch (IOException e) {
+                        logger.debug("Closing connection from {}", from, e);
+                        close();
+                    } catch (RuntimeException e) {
+                        logger.warn("Closing connection from {}", from, e);
+                        close();
+                    }
+                }
+            });
+            selector.wakeup();
+        }
+
+        /*
+         * Runs in a worker thread, the connection state is not changed.
+         */
+        Response prepare(Request request, boolean headOnly) throws IOException {
+            File getFile = webster.parseFileName(request.fileName);
+            if (getFile.isDirectory()) {
+                StringBuilder dirData = new StringBuilder();
+                String files[] = getFile.list();
+                for (String f : files != null ? files : new String[0]) {
+                    File file = new File(getFile, f);
+                    dirData.append(file.toString().substring(getFile.getParent().length()))
+                           .append("\t").append(file.isDirectory() ? "d" : "f")
+                           .append("\t").append(file.length())
+                           .append("\t").append(file.lastModified())
+                           .append("\n");
+                }
+                String fileType = Webster.getMimeType("txt");
+                byte[] body = dirData.toString().getBytes(ASCII);
+                String headers = "Allow: GET\r\nContent-Type: " + (fileType == null ? "application/java" : fileType) + "\r\n";
+                if (headOnly)
+                    return new Response("200 OK", headers + "Content-Length: " + body.length + "\r\n", null);
+                return new Response("200 OK", headers, body);
+            } else if (getFile.exists()) {
+                String fileName = request.fileName;
+                String fileType = Webster.getMimeType(fileName.substring(fileName.lastIndexOf(".") + 1));
+                FileTag tag = FileTag.get(getFile);
+                long fileLength = tag.length;
+                String headers = "Allow: GET\r\n" + tag.getHeaders();
+                if (tag.isNotModified(request.getHeader("If-None-Match"), request.getHeader("If-Modified-Since"))) {
+                    logger.debug("Do {}: {}, not modified", request.method, getFile);
+                    return new Response("304 Not Modified", headers, null);
+                }
+                long[] range = headOnly ? null : tag.getRange(request.getHeader("Range"), request.getHeader("If-Range"));
+                if (range == FileTag.UNSATISFIABLE)
+                    return new Response("416 Requested Range Not Satisfiable", headers + "Content-Range: bytes */" + fileLength + "\r\n", null);
+                long first = range == null ? 0 : range[0];
+                long last = range == null ? fileLength - 1 : range[1];
+                headers += "Content-Type: " + fileType + "\r\n"
+                        + "Content-Length: " + (last - first + 1) + "\r\n";
+                String status = "200 OK";
+                if (range != null) {
+                    status = "206 Partial Content";
+                    headers += "Content-Range: bytes " + first + "-" + last + "/" + fileLength + "\r\n";
+                }
+                Response response = new Response(status, headers, null);
+                if (!headOnly) {
+                    response.file = new FileInputStream(getFile).getChannel();
+                    response.position = first;
+                    response.end = last + 1;
+                }
+                logger.debug("Do {}: {}, file size: [{}], sent: {}-{}", request.method, getFile, fileLength, first, last);
+                return response;
+            }
+            return new Response("404 Not Found", null, null);
+        }
+
+        void put(Request request) throws IOException {
+            String tempDir = webster.getTempDir();
+            if (tempDir == null) {
+                keepAlive = false;
+                respond("405 Method Not Allowed", null, "Webster is in read-only mode".getBytes(ASCII));
+                return;
+            }
+            String contentLength = request.getHeader("Content-Length");
+            if (contentLength == null) {
+                keepAlive = false;
+                respond("411 Length Required", null,
+                        ("<H1>411 Webster refuses to accept the out request for " + request.fileName
+                                + " without a defined Content-Length.</H1>\n").getBytes(ASCII));
+                return;
+            }
+            long length;
+            try {
+                length = Long.parseLong(contentLength.trim());
+            } catch (NumberFormatException e) {
+                length = -1;
+            }
+            if (length < 0) {
+                keepAlive = false;
+                respond("400 Bad Request", null,
+                        ("<H1>400 Invalid Content-Length: " + contentLength + "</H1>\n").getBytes(ASCII));
+                return;
+            }
+            File putFile = new File(tempDir + File.separator + request.fileName);
+            uploadExisted = putFile.exists();
+            File parentDir = putFile.getParentFile();
+            if (!parentDir.exists() && !parentDir.mkdirs())
+                logger.warn("Could not create {}", parentDir);
+            uploadName = request.fileName;
+            uploadRemaining = length;
+            upload = new FileOutputStream(putFile).getChannel();
+            logger.debug("Putting {} size: {}", putFile, uploadRemaining);
+            drainUpload();
+        }
+
+        /*
+         * Writes the received part of the uploaded file.
+         */
+        void drainUpload() throws IOException {
+            in.flip();
+            try {
+                int n = (int) Math.min(in.remaining(), uploadRemaining);
+                ByteBuffer part = in.slice();
+                part.limit(n);
+                while (part.hasRemaining())
+                    upload.write(part);
+                in.position(in.position() + n);
+                uploadRemaining -= n;
+            } catch (IOException e) {
+                keepAlive = false;
+                closeUpload();
+                respond("500 Internal Server Error", null, ("<H1>500 Internal Server Error</H1>\n" + e).getBytes(ASCII));
+                return;
+            } finally {
+                in.compact();
+            }
+            if (uploadRemaining == 0) {
+                closeUpload();
+                if (uploadExisted)
+                    respond("200 OK", "Allow: PUT\r\n", ("<H1>200 PUT File " + uploadName + " updated</H1>\n").getBytes(ASCII));
+                else
+                    respond("201 Created", "Allow: PUT\r\n", ("<H1>201 PUT File " + uploadName + " Created</H1>\n").getBytes(ASCII));
+            }
+        }
+
+        void delete(Request request) throws IOException {
+            File putFile = webster.parseFileName(request.fileName);
+            if (!putFile.exists())
+                respond("404 File not found", null, "<H1>404 File not Found</H1>\n".getBytes(ASCII));
+            else if (putFile.delete()) {
+                FileTag.remove(putFile);
+                respond("200 OK", null, "<H1>200 File succesfully deleted</H1>\n".getBytes(ASCII));
+            } else
+                respond("500 Internal Server Error", null, "<H1>500 File could not be deleted</H1>\n".getBytes(ASCII));
+        }
+
+        /*
+         * Starts writing the response, the Content-Length header is added
+         * for the given body.
+         */
+        void respond(String status, String headers, byte[] body) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            sb.append("HTTP/1.1 ").append(status).append("\r\n")
+              .append("MIME-Version: 1.0\r\n")
+              .append("Server: ").append(Webster.getServerDescription()).append("\r\n");
+            if (headers != null)
+                sb.append(headers);
+            if (body != null)
+                sb.append("Content-Length: ").append(body.length).append("\r\n");
+            else if (file == null && (headers == null || !headers.contains("Content-Length:")))
+                sb.append("Content-Length: 0\r\n");
+            sb.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+            byte[] head = sb.toString().getBytes(ASCII);
+            out = ByteBuffer.allocate(head.length + (body != null ? body.length : 0));
+            out.put(head);
+            if (body != null)
+                out.put(body);
+            out.flip();
+            key.interestOps(SelectionKey.OP_WRITE);
+            write();
+        }
+
+        void write() throws IOException {
+            if (out != null) {
+                webster.bytesServed(channel.write(out));
+                if (out.hasRemaining())
+                    return;
+                out = null;
+                lastActive = System.currentTimeMillis();
+            }
+            if (file != null) {
+                long n = file.transferTo(position, end - position, channel);
+                position += n;
+                webster.bytesServed(n);
+                if (n > 0)
+                    lastActive = System.currentTimeMillis();
+                if (position < end)
+                    return;
+                closeFile();
+            }
+            if (!keepAlive) {
+                close();
+                return;
+            }
+            key.interestOps(SelectionKey.OP_READ);
+            if (in.position() > 0)
+                process();
+        }
+
+        void closeFile() {
+            if (file != null) {
+                try {
+                    file.close();
+                } catch (IOException e) {
+                    logger.debug("Closing file", e);
+                }
+                file = null;
+            }
+        }
+
+        void closeUpload() {
+            if (upload != null) {
+                try {
+                    upload.close();
+                } catch (IOException e) {
+                    logger.warn("Closing uploaded file {}", uploadName, e);
+                }
+                upload = null;
+            }
+        }
+
+        void close() {
+            if (closed)
+                return;
+            closed = true;
+            closeFile();
+            closeUpload();
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.debug("Closing incoming socket", e);
+            }
+            webster.connectionClosed();
+        }
+    }
+}
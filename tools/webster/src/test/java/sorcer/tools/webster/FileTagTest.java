@@ -0,0 +1,156 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.tools.webster;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+
+public class FileTagTest {
+    private static final long MODIFIED = 1500000000000L;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private FileTag tag;
+
+    @Before
+    public void setUp() throws Exception {
+        tag = FileTag.get(file("file.bin", 100));
+    }
+
+    @Test
+    public void servesSingleRanges() {
+        assertArrayEquals(new long[] { 0, 9 }, tag.getRange("bytes=0-9", null));
+        assertArrayEquals(new long[] { 99, 99 }, tag.getRange("bytes=99-99", null));
+        // the last position is limited to the file
+        assertArrayEquals(new long[] { 50, 99 }, tag.getRange("bytes=50-500", null));
+    }
+
+    @Test
+    public void servesOpenEndedRanges() {
+        assertArrayEquals(new long[] { 90, 99 }, tag.getRange("bytes=90-", null));
+        assertArrayEquals(new long[] { 0, 99 }, tag.getRange("bytes=0-", null));
+    }
+
+    @Test
+    public void servesSuffixRanges() {
+        assertArrayEquals(new long[] { 90, 99 }, tag.getRange("bytes=-10", null));
+        // a suffix longer than the file is the whole file
+        assertArrayEquals(new long[] { 0, 99 }, tag.getRange("bytes=-200", null));
+        assertSame(FileTag.UNSATISFIABLE, tag.getRange("bytes=-0", null));
+    }
+
+    @Test
+    public void rejectsRangesStartingAfterTheFile() throws Exception {
+        assertSame(FileTag.UNSATISFIABLE, tag.getRange("bytes=100-", null));
+        assertSame(FileTag.UNSATISFIABLE, tag.getRange("bytes=100-200", null));
+        assertSame(FileTag.UNSATISFIABLE, tag.getRange("bytes=500-", null));
+
+        FileTag empty = FileTag.get(file("empty.bin", 0));
+        assertSame(FileTag.UNSATISFIABLE, empty.getRange("bytes=0-", null));
+        assertSame(FileTag.UNSATISFIABLE, empty.getRange("bytes=-10", null));
+    }
+
+    @Test
+    public void sendsWholeFileForOtherRanges() {
+        // multiple ranges are not served
+        assertNull(tag.getRange("bytes=0-1,5-6", null));
+        assertNull(tag.getRange("bytes=9-5", null));
+        assertNull(tag.getRange("bytes=a-b", null));
+        assertNull(tag.getRange("bytes=10", null));
+        assertNull(tag.getRange("items=0-9", null));
+        assertNull(tag.getRange(null, null));
+    }
+
+    @Test
+    public void servesRangeIfEntityTagMatches() {
+        assertArrayEquals(new long[] { 0, 9 }, tag.getRange("bytes=0-9", tag.etag));
+        assertNull(tag.getRange("bytes=0-9", "\"stale\""));
+        // a weak tag never matches for ranges
+        assertNull(tag.getRange("bytes=0-9", "W/" + tag.etag));
+    }
+
+    @Test
+    public void servesRangeIfDateMatches() {
+        assertArrayEquals(new long[] { 0, 9 }, tag.getRange("bytes=0-9", FileTag.formatDate(MODIFIED)));
+        assertNull(tag.getRange("bytes=0-9", FileTag.formatDate(MODIFIED - 60000)));
+        assertNull(tag.getRange("bytes=0-9", FileTag.formatDate(MODIFIED + 60000)));
+        assertNull(tag.getRange("bytes=0-9", "yesterday"));
+    }
+
+    @Test
+    public void matchesEntityTags() {
+        assertTrue(tag.isNotModified(tag.etag, null));
+        assertTrue(tag.isNotModified("\"other\", " + tag.etag, null));
+        // weak comparison for conditional GET
+        assertTrue(tag.isNotModified("W/" + tag.etag, null));
+        assertTrue(tag.isNotModified("*", null));
+        assertFalse(tag.isNotModified("\"other\"", null));
+    }
+
+    @Test
+    public void comparesModificationDates() {
+        assertTrue(tag.isNotModified(null, FileTag.formatDate(MODIFIED)));
+        assertTrue(tag.isNotModified(null, FileTag.formatDate(MODIFIED + 60000)));
+        assertFalse(tag.isNotModified(null, FileTag.formatDate(MODIFIED - 60000)));
+        assertFalse(tag.isNotModified(null, "not a date"));
+        assertFalse(tag.isNotModified(null, null));
+    }
+
+    @Test
+    public void entityTagTakesPrecedenceOverDate() {
+        assertFalse(tag.isNotModified("\"other\"", FileTag.formatDate(MODIFIED)));
+        assertTrue(tag.isNotModified(tag.etag, FileTag.formatDate(MODIFIED - 60000)));
+    }
+
+    @Test
+    public void rehashesChangedFile() throws Exception {
+        File file = file("changing.bin", 10);
+        FileTag first = FileTag.get(file);
+        assertSame(first, FileTag.get(file));
+        write(file, 20);
+        assertTrue(file.setLastModified(MODIFIED + 1000));
+        FileTag changed = FileTag.get(file);
+        assertEquals(20, changed.length);
+        assertFalse(first.etag.equals(changed.etag));
+    }
+
+    private File file(String name, int length) throws IOException {
+        File file = new File(folder.getRoot(), name);
+        write(file, length);
+        assertTrue(file.setLastModified(MODIFIED));
+        return file;
+    }
+
+    private static void write(File file, int length) throws IOException {
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            for (int i = 0; i < length; i++)
+                out.write(i);
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.tools.webster;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.Assert.*;
+
+/**
+ * Requests to a Webster serving in the NIO mode over the loopback interface.
+ */
+public class WebsterChannelServerTest {
+    private static final Charset ASCII = Charset.forName("ISO-8859-1");
+
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Webster webster;
+
+    private Socket socket;
+
+    static class Response {
+        String status;
+        final Map<String, String> headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+        String body;
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        File root = folder.getRoot();
+        write(new File(root, "file.txt"), CONTENT);
+        File dir = new File(root, "dir");
+        assertTrue(dir.mkdir());
+        write(new File(dir, "entry.txt"), "entry");
+
+        String nio = System.getProperty("webster.nio");
+        System.setProperty("webster.nio", "true");
+        try {
+            webster = new Webster(0, root.getAbsolutePath(), "127.0.0.1", true);
+        } finally {
+            if (nio == null)
+                System.clearProperty("webster.nio");
+            else
+                System.setProperty("webster.nio", nio);
+        }
+        socket = new Socket("127.0.0.1", webster.getPort());
+        socket.setSoTimeout(10000);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        socket.close();
+        webster.terminate();
+    }
+
+    @Test
+    public void getsFile() throws Exception {
+        send("GET /file.txt HTTP/1.1\r\nConnection: close\r\n\r\n");
+        Response response = receive(false);
+        assertEquals("HTTP/1.1 200 OK", response.status);
+        assertEquals(CONTENT, response.body);
+        assertNotNull(response.headers.get("ETag"));
+        assertEquals("close", response.headers.get("Connection"));
+        assertEquals(-1, socket.getInputStream().read());
+    }
+
+    @Test
+    public void headReturnsLengthWithoutBody() throws Exception {
+        send("HEAD /file.txt HTTP/1.1\r\nConnection: close\r\n\r\n");
+        Response response = receive(true);
+        assertEquals("HTTP/1.1 200 OK", response.status);
+        assertEquals(Integer.toString(CONTENT.length()), response.headers.get("Content-Length"));
+        assertEquals(-1, socket.getInputStream().read());
+    }
+
+    @Test
+    public void keepsConnectionAlive() throws Exception {
+        send("GET /file.txt HTTP/1.1\r\n\r\n");
+        Response first = receive(false);
+        assertEquals("keep-alive", first.headers.get("Connection"));
+        assertEquals(CONTENT, first.body);
+
+        send("GET /dir HTTP/1.1\r\n\r\n");
+        Response listing = receive(false);
+        assertEquals("HTTP/1.1 200 OK", listing.status);
+        assertTrue(listing.body, listing.body.contains("entry.txt\tf\t5\t"));
+
+        send("GET /missing.txt HTTP/1.1\r\n\r\n");
+        assertEquals("HTTP/1.1 404 Not Found", receive(false).status);
+    }
+
+    @Test
+    public void servesPipelinedRequestsInOrder() throws Exception {
+        send("GET /file.txt HTTP/1.1\r\n\r\nHEAD /file.txt HTTP/1.1\r\n\r\nGET /dir HTTP/1.1\r\nConnection: close\r\n\r\n");
+        assertEquals(CONTENT, receive(false).body);
+        assertEquals("HTTP/1.1 200 OK", receive(true).status);
+        assertTrue(receive(false).body.contains("entry.txt"));
+        assertEquals(-1, socket.getInputStream().read());
+    }
+
+    @Test
+    public void readsRequestSentInParts() throws Exception {
+        send("GET /file.txt HT");
+        Thread.sleep(200);
+        send("TP/1.1\r\nRange: bytes=10-");
+        Thread.sleep(200);
+        send("15\r\nConnection: close\r\n\r\n");
+        Response response = receive(false);
+        assertEquals("HTTP/1.1 206 Partial Content", response.status);
+        assertEquals("bytes 10-15/" + CONTENT.length(), response.headers.get("Content-Range"));
+        assertEquals("abcdef", response.body);
+    }
+
+    @Test
+    public void rejectsUnsatisfiableRange() throws Exception {
+        send("GET /file.txt HTTP/1.1\r\nRange: bytes=100-\r\nConnection: close\r\n\r\n");
+        Response response = receive(false);
+        assertEquals("HTTP/1.1 416 Requested Range Not Satisfiable", response.status);
+        assertEquals("bytes */" + CONTENT.length(), response.headers.get("Content-Range"));
+    }
+
+    @Test
+    public void answersNotModifiedForCurrentTag() throws Exception {
+        send("HEAD /file.txt HTTP/1.1\r\n\r\n");
+        String etag = receive(true).headers.get("ETag");
+        send("GET /file.txt HTTP/1.1\r\nIf-None-Match: " + etag + "\r\nConnection: close\r\n\r\n");
+        Response response = receive(false);
+        assertEquals("HTTP/1.1 304 Not Modified", response.status);
+        assertEquals("", response.body);
+    }
+
+    private void send(String request) throws IOException {
+        OutputStream out = socket.getOutputStream();
+        out.write(request.getBytes(ASCII));
+        out.flush();
+    }
+
+    /*
+     * Reads the response head and the body of Content-Length bytes.
+     */
+    private Response receive(boolean headOnly) throws IOException {
+        InputStream in = socket.getInputStream();
+        Response response = new Response();
+        String line;
+        while ((line = readLine(in)).length() > 0) {
+            if (response.status == null) {
+                response.status = line;
+            } else {
+                int colon = line.indexOf(':');
+                response.headers.put(line.substring(0, colon), line.substring(colon + 1).trim());
+            }
+        }
+        int length = headOnly ? 0 : Integer.parseInt(response.headers.get("Content-Length"));
+        byte[] body = new byte[length];
+        int n = 0;
+        while (n < length) {
+            int read = in.read(body, n, length - n);
+            if (read < 0)
+                throw new EOFException("Received " + n + " of " + length + " bytes");
+            n += read;
+        }
+        response.body = new String(body, ASCII);
+        return response;
+    }
+
+    /*
+     * Reads a line terminated by CRLF, the terminator is not returned.
+     */
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\n') {
+            if (c < 0)
+                throw new EOFException("Received: " + sb);
+            sb.append((char) c);
+        }
+        assertTrue("Line not terminated by CRLF: " + sb, sb.length() > 0 && sb.charAt(sb.length() - 1) == '\r');
+        return sb.substring(0, sb.length() - 1);
+    }
+
+    private static void write(File file, String content) throws IOException {
+        OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content.getBytes(ASCII));
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright to the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package sorcer.tools.webster;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.*;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Requests to a Webster serving with a thread per request.
+ */
+public class WebsterTest {
+    private static final Charset ASCII = Charset.forName("ISO-8859-1");
+
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Webster webster;
+
+    @Before
+    public void setUp() throws Exception {
+        OutputStream out = new FileOutputStream(new File(folder.getRoot(), "file.txt"));
+        try {
+            out.write(CONTENT.getBytes(ASCII));
+        } finally {
+            out.close();
+        }
+        webster = new Webster(0, folder.getRoot().getAbsolutePath(), "127.0.0.1", true);
+    }
+
+    @After
+    public void tearDown() {
+        webster.terminate();
+    }
+
+    @Test
+    public void terminatesGetHeadersWithCrlf() throws Exception {
+        List<String> head = request("GET /file.txt HTTP/1.0\r\n\r\n");
+        assertEquals("HTTP/1.0 200 OK", head.get(0));
+        assertTrue(head.contains("Content-Length: " + CONTENT.length()));
+    }
+
+    @Test
+    public void terminatesRangeHeadersWithCrlf() throws Exception {
+        List<String> head = request("GET /file.txt HTTP/1.0\r\nRange: bytes=10-15\r\n\r\n");
+        assertEquals("HTTP/1.0 206 Partial Content", head.get(0));
+        assertTrue(head.contains("Content-Range: bytes 10-15/" + CONTENT.length()));
+        assertTrue(head.contains("Content-Length: 6"));
+    }
+
+    @Test
+    public void terminatesHeadHeadersWithCrlf() throws Exception {
+        List<String> head = request("HEAD /file.txt HTTP/1.0\r\n\r\n");
+        assertEquals("HTTP/1.0 200 OK", head.get(0));
+        assertTrue(head.contains("Content-Length: " + CONTENT.length()));
+    }
+
+    /*
+     * Returns the lines of the response head, each has to end with CRLF.
+     */
+    private List<String> request(String request) throws IOException {
+        Socket socket = new Socket("127.0.0.1", webster.getPort());
+        try {
+            socket.setSoTimeout(10000);
+            socket.getOutputStream().write(request.getBytes(ASCII));
+            socket.getOutputStream().flush();
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            List<String> lines = new ArrayList<String>();
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) >= 0) {
+                if (c != '\n') {
+                    line.append((char) c);
+                    continue;
+                }
+                assertTrue("Line not terminated by CRLF: " + line,
+                           line.length() > 0 && line.charAt(line.length() - 1) == '\r');
+                line.setLength(line.length() - 1);
+                if (line.length() == 0)
+                    return lines;
+                lines.add(line.toString());
+                line.setLength(0);
+            }
+            throw new EOFException("Response head not terminated: " + lines);
+        } finally {
+            socket.close();
+        }
+    }
+}